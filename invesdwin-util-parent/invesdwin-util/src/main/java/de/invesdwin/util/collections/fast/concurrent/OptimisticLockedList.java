@@ -0,0 +1,254 @@
+package de.invesdwin.util.collections.fast.concurrent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.UnaryOperator;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.concurrent.lock.ILock;
+import de.invesdwin.util.concurrent.lock.Locks;
+import de.invesdwin.util.concurrent.lock.readwrite.IStampedReadWriteLock;
+
+/**
+ * Point reads (get, size, isEmpty) are guarded by the read lock, thus multiple readers can work in parallel. All other
+ * operations are guarded by the write lock.
+ *
+ * When the delegate is an ArrayList or a CopyOnWriteArrayList, point reads are first tried without any locking and
+ * then validated against the stamp of the lock. Only when a writer interfered, the read is repeated while holding the
+ * read lock. Those lists can only fail with an IndexOutOfBoundsException or return garbage during a concurrent
+ * modification, which gets discarded after the validation fails. Other lists always use the read lock.
+ *
+ * The lock is not reentrant. Thus callbacks (replaceAll, sort, equals) are invoked without holding the lock and
+ * collections given as arguments are copied before acquiring the lock, so that they can access this list themselves.
+ * The result of replaceAll and sort is only applied if the list was not changed in between, otherwise the callback is
+ * invoked again on the new elements.
+ */
+@ThreadSafe
+public class OptimisticLockedList<E> extends LockedList<E> {
+
+    private final IStampedReadWriteLock stampedLock;
+    private final ILock readLock;
+    private final boolean optimisticReads;
+
+    public OptimisticLockedList(final List<E> delegate) {
+        this(delegate, Locks.newStampedReadWriteLock(OptimisticLockedList.class.getSimpleName()));
+    }
+
+    public OptimisticLockedList(final List<E> delegate, final IStampedReadWriteLock lock) {
+        super(delegate, lock.writeLock());
+        this.stampedLock = lock;
+        this.readLock = lock.readLock();
+        this.optimisticReads = delegate.getClass() == ArrayList.class || delegate instanceof CopyOnWriteArrayList;
+    }
+
+    public boolean isOptimisticReads() {
+        return optimisticReads;
+    }
+
+    @Override
+    public E get(final int index) {
+        if (optimisticReads) {
+            final long stamp = stampedLock.tryOptimisticRead();
+            if (stamp != 0) {
+                try {
+                    final E element = getDelegate().get(index);
+                    if (stampedLock.validate(stamp)) {
+                        return element;
+                    }
+                } catch (final RuntimeException e) {
+                    if (stampedLock.validate(stamp)) {
+                        throw e;
+                    }
+                }
+            }
+        }
+        readLock.lock();
+        try {
+            return getDelegate().get(index);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        if (optimisticReads) {
+            final long stamp = stampedLock.tryOptimisticRead();
+            if (stamp != 0) {
+                final boolean empty = getDelegate().isEmpty();
+                if (stampedLock.validate(stamp)) {
+                    return empty;
+                }
+            }
+        }
+        readLock.lock();
+        try {
+            return getDelegate().isEmpty();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        if (optimisticReads) {
+            final long stamp = stampedLock.tryOptimisticRead();
+            if (stamp != 0) {
+                final int size = getDelegate().size();
+                if (stampedLock.validate(stamp)) {
+                    return size;
+                }
+            }
+        }
+        readLock.lock();
+        try {
+            return getDelegate().size();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public void replaceAll(final UnaryOperator<E> operator) {
+        Objects.requireNonNull(operator);
+        while (true) {
+            final Object[] oldElements = snapshot();
+            final Object[] newElements = new Object[oldElements.length];
+            for (int i = 0; i < oldElements.length; i++) {
+                @SuppressWarnings("unchecked")
+                final E oldElement = (E) oldElements[i];
+                newElements[i] = operator.apply(oldElement);
+            }
+            if (setIfSame(oldElements, newElements)) {
+                return;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void sort(final Comparator<? super E> c) {
+        while (true) {
+            final Object[] oldElements = snapshot();
+            final Object[] newElements = oldElements.clone();
+            Arrays.sort(newElements, (Comparator<Object>) c);
+            if (setIfSame(oldElements, newElements)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Replaces the elements if the list still contains the same element instances as the given snapshot.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean setIfSame(final Object[] oldElements, final Object[] newElements) {
+        final ILock writeLock = getLock();
+        writeLock.lock();
+        try {
+            final List<E> delegate = getDelegate();
+            if (delegate.size() != oldElements.length) {
+                return false;
+            }
+            for (int i = 0; i < oldElements.length; i++) {
+                if (delegate.get(i) != oldElements[i]) {
+                    return false;
+                }
+            }
+            for (int i = 0; i < newElements.length; i++) {
+                delegate.set(i, (E) newElements[i]);
+            }
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean addAll(final Collection<? extends E> coll) {
+        return super.addAll(copy(coll));
+    }
+
+    @Override
+    public boolean addAll(final int index, final Collection<? extends E> c) {
+        return super.addAll(index, copy(c));
+    }
+
+    @Override
+    public boolean containsAll(final Collection<?> coll) {
+        final Collection<?> copy = copy(coll);
+        readLock.lock();
+        try {
+            return getDelegate().containsAll(copy);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean removeAll(final Collection<?> coll) {
+        return super.removeAll(copy(coll));
+    }
+
+    @Override
+    public boolean retainAll(final Collection<?> coll) {
+        return super.retainAll(copy(coll));
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (o == this) {
+            return true;
+        }
+        return Arrays.asList(snapshot()).equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        readLock.lock();
+        try {
+            return getDelegate().hashCode();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        readLock.lock();
+        try {
+            return getDelegate().toString();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private Object[] snapshot() {
+        readLock.lock();
+        try {
+            return getDelegate().toArray();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * The given collection might be this list or a view of it, thus it has to be copied before acquiring the lock.
+     */
+    private static <T> Collection<T> copy(final Collection<T> coll) {
+        if (coll instanceof Set) {
+            return new HashSet<T>(coll);
+        } else {
+            return new ArrayList<T>(coll);
+        }
+    }
+
+}
@@ -0,0 +1,348 @@
+package de.invesdwin.util.collections.fast.concurrent;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.concurrent.lock.ILock;
+import de.invesdwin.util.concurrent.lock.Locks;
+import de.invesdwin.util.concurrent.lock.readwrite.IStampedReadWriteLock;
+
+/**
+ * Point reads (get, containsKey, size, ...) are guarded by the read lock, thus multiple readers can work in parallel.
+ * All other operations and the views are guarded by the write lock.
+ *
+ * When the delegate is a ConcurrentMap, point reads are first tried without any locking and then validated against
+ * the stamp of the lock. Only when a writer interfered, the read is repeated while holding the read lock. Other maps
+ * (e.g. HashMap or TreeMap) are not safe to be read during a concurrent modification (a reader might loop forever or
+ * fail with an error), thus they always use the read lock.
+ *
+ * The lock is not reentrant. Thus callbacks (compute, merge, forEach, replaceAll, ...) are invoked without holding the
+ * lock, so that they can access this map themselves. The result of a compute is only applied if the value was not
+ * changed in between, otherwise the callback is invoked again with the new value (as ConcurrentMap does it). Bulk
+ * operations on the views still run while holding the write lock, thus collections given to them must not access
+ * this map.
+ */
+@ThreadSafe
+public class OptimisticLockedMap<K, V> extends LockedMap<K, V> {
+
+    private final IStampedReadWriteLock stampedLock;
+    private final ILock readLock;
+    private final ILock writeLock;
+    private final boolean optimisticReads;
+
+    public OptimisticLockedMap(final Map<K, V> delegate) {
+        this(delegate, Locks.newStampedReadWriteLock(OptimisticLockedMap.class.getSimpleName()));
+    }
+
+    public OptimisticLockedMap(final Map<K, V> delegate, final IStampedReadWriteLock lock) {
+        super(delegate, lock.writeLock());
+        this.stampedLock = lock;
+        this.readLock = lock.readLock();
+        this.writeLock = lock.writeLock();
+        this.optimisticReads = delegate instanceof ConcurrentMap;
+    }
+
+    public boolean isOptimisticReads() {
+        return optimisticReads;
+    }
+
+    @Override
+    public V get(final Object key) {
+        if (optimisticReads) {
+            final long stamp = stampedLock.tryOptimisticRead();
+            if (stamp != 0) {
+                try {
+                    final V value = getDelegate().get(key);
+                    if (stampedLock.validate(stamp)) {
+                        return value;
+                    }
+                } catch (final RuntimeException e) {
+                    if (stampedLock.validate(stamp)) {
+                        throw e;
+                    }
+                }
+            }
+        }
+        readLock.lock();
+        try {
+            return getDelegate().get(key);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public V getOrDefault(final Object key, final V defaultValue) {
+        if (optimisticReads) {
+            final long stamp = stampedLock.tryOptimisticRead();
+            if (stamp != 0) {
+                try {
+                    final V value = getDelegate().getOrDefault(key, defaultValue);
+                    if (stampedLock.validate(stamp)) {
+                        return value;
+                    }
+                } catch (final RuntimeException e) {
+                    if (stampedLock.validate(stamp)) {
+                        throw e;
+                    }
+                }
+            }
+        }
+        readLock.lock();
+        try {
+            return getDelegate().getOrDefault(key, defaultValue);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        if (optimisticReads) {
+            final long stamp = stampedLock.tryOptimisticRead();
+            if (stamp != 0) {
+                try {
+                    final boolean contains = getDelegate().containsKey(key);
+                    if (stampedLock.validate(stamp)) {
+                        return contains;
+                    }
+                } catch (final RuntimeException e) {
+                    if (stampedLock.validate(stamp)) {
+                        throw e;
+                    }
+                }
+            }
+        }
+        readLock.lock();
+        try {
+            return getDelegate().containsKey(key);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean containsValue(final Object value) {
+        //full scan, not worth the risk of having to do it twice
+        readLock.lock();
+        try {
+            return getDelegate().containsValue(value);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        if (optimisticReads) {
+            final long stamp = stampedLock.tryOptimisticRead();
+            if (stamp != 0) {
+                final boolean empty = getDelegate().isEmpty();
+                if (stampedLock.validate(stamp)) {
+                    return empty;
+                }
+            }
+        }
+        readLock.lock();
+        try {
+            return getDelegate().isEmpty();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        if (optimisticReads) {
+            final long stamp = stampedLock.tryOptimisticRead();
+            if (stamp != 0) {
+                final int size = getDelegate().size();
+                if (stampedLock.validate(stamp)) {
+                    return size;
+                }
+            }
+        }
+        readLock.lock();
+        try {
+            return getDelegate().size();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public V computeIfAbsent(final K key, final Function<? super K, ? extends V> mappingFunction) {
+        Objects.requireNonNull(mappingFunction);
+        while (true) {
+            final V oldValue = get(key);
+            if (oldValue != null) {
+                return oldValue;
+            }
+            final V newValue = mappingFunction.apply(key);
+            if (newValue == null) {
+                return null;
+            }
+            if (replaceIfSame(key, null, newValue)) {
+                return newValue;
+            }
+        }
+    }
+
+    @Override
+    public V computeIfPresent(final K key, final BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+        while (true) {
+            final V oldValue = get(key);
+            if (oldValue == null) {
+                return null;
+            }
+            final V newValue = remappingFunction.apply(key, oldValue);
+            if (replaceIfSame(key, oldValue, newValue)) {
+                return newValue;
+            }
+        }
+    }
+
+    @Override
+    public V compute(final K key, final BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+        while (true) {
+            final V oldValue = get(key);
+            final V newValue = remappingFunction.apply(key, oldValue);
+            if (replaceIfSame(key, oldValue, newValue)) {
+                return newValue;
+            }
+        }
+    }
+
+    @Override
+    public V merge(final K key, final V value, final BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+        Objects.requireNonNull(value);
+        while (true) {
+            final V oldValue = get(key);
+            final V newValue;
+            if (oldValue == null) {
+                newValue = value;
+            } else {
+                newValue = remappingFunction.apply(oldValue, value);
+            }
+            if (replaceIfSame(key, oldValue, newValue)) {
+                return newValue;
+            }
+        }
+    }
+
+    /**
+     * Applies the result of a compute if the key is still mapped to the same value instance that was given to the
+     * callback. A null value counts as absent and a null result removes the mapping (as in Map.compute).
+     */
+    private boolean replaceIfSame(final K key, final V expectedValue, final V newValue) {
+        writeLock.lock();
+        try {
+            final Map<K, V> delegate = getDelegate();
+            if (delegate.get(key) != expectedValue) {
+                return false;
+            }
+            if (newValue == null) {
+                delegate.remove(key);
+            } else {
+                delegate.put(key, newValue);
+            }
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void replaceAll(final BiFunction<? super K, ? super V, ? extends V> function) {
+        Objects.requireNonNull(function);
+        for (final Entry<K, V> entry : snapshot().entrySet()) {
+            final K key = entry.getKey();
+            V oldValue = entry.getValue();
+            while (true) {
+                final V newValue = function.apply(key, oldValue);
+                writeLock.lock();
+                try {
+                    final Map<K, V> delegate = getDelegate();
+                    final V currentValue = delegate.get(key);
+                    if (currentValue == null && !delegate.containsKey(key)) {
+                        //removed in the meantime
+                        break;
+                    }
+                    if (currentValue == oldValue) {
+                        delegate.put(key, newValue);
+                        break;
+                    }
+                    oldValue = currentValue;
+                } finally {
+                    writeLock.unlock();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void putAll(final Map<? extends K, ? extends V> map) {
+        //the given map might be this map or a view of it, thus copy it before acquiring the lock
+        final Map<K, V> copy = new LinkedHashMap<K, V>(map);
+        writeLock.lock();
+        try {
+            getDelegate().putAll(copy);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void forEach(final BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        snapshot().forEach(action);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (o == this) {
+            return true;
+        }
+        return snapshot().equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        readLock.lock();
+        try {
+            return getDelegate().hashCode();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        readLock.lock();
+        try {
+            return getDelegate().toString();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private Map<K, V> snapshot() {
+        readLock.lock();
+        try {
+            return new LinkedHashMap<K, V>(getDelegate());
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+}
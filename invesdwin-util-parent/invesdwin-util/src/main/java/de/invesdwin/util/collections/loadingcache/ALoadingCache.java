@@ -5,6 +5,8 @@ import java.util.function.Function;
 import javax.annotation.concurrent.ThreadSafe;
 
 import de.invesdwin.util.collections.eviction.EvictionMode;
+import de.invesdwin.util.collections.loadingcache.governor.GovernedLoadingCache;
+import de.invesdwin.util.collections.loadingcache.governor.MemoryPressureCacheGovernor;
 import de.invesdwin.util.collections.loadingcache.map.CaffeineLoadingCache;
 import de.invesdwin.util.collections.loadingcache.map.EvictionMapLoadingCache;
 import de.invesdwin.util.collections.loadingcache.map.NoCachingLoadingCache;
@@ -43,10 +45,30 @@ public abstract class ALoadingCache<K, V> extends ADelegateLoadingCache<K, V> {
         return ALoadingCacheConfig.DEFAULT_EVICTION_MODE;
     }
 
+    /**
+     * default is false, when true the cache registers itself at the MemoryPressureCacheGovernor so that it gets shrunk
+     * on memory pressure. Since the governor shrinks from its own thread, this is ignored when neither
+     * isHighConcurrency() nor isThreadSafe() is enabled.
+     */
+    protected boolean isMemoryPressureGoverned() {
+        return ALoadingCacheConfig.DEFAULT_MEMORY_PRESSURE_GOVERNED;
+    }
+
     protected abstract V loadValue(K key);
 
     @Override
     protected ILoadingCache<K, V> createDelegate() {
+        final ILoadingCache<K, V> delegate = newDelegate();
+        if (isMemoryPressureGoverned() && GovernedLoadingCache.isSupported(delegate)) {
+            final GovernedLoadingCache<K, V> governed = new GovernedLoadingCache<K, V>(delegate);
+            MemoryPressureCacheGovernor.register(governed);
+            return governed;
+        } else {
+            return delegate;
+        }
+    }
+
+    private ILoadingCache<K, V> newDelegate() {
         final Integer maximumSize = getInitialMaximumSize();
         final Function<K, V> loadValue = new Function<K, V>() {
             @Override
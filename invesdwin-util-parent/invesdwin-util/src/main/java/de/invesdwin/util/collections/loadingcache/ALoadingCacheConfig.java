@@ -11,12 +11,14 @@ public abstract class ALoadingCacheConfig<K, V> {
     public static final boolean DEFAULT_HIGH_CONCURRENCY = false;
     public static final boolean DEFAULT_THREAD_SAFE = true;
     public static final EvictionMode DEFAULT_EVICTION_MODE = EvictionMode.LeastRecentlyUsed;
+    public static final boolean DEFAULT_MEMORY_PRESSURE_GOVERNED = false;
 
     private boolean initialMaximumSizeOverrideEnabled = false;
     private Integer initialMaximumSizeOverride;
     private Boolean highConcurrencyOverride;
     private Boolean threadSafeOverride;
     private EvictionMode evictionModeOverride;
+    private Boolean memoryPressureGovernedOverride;
 
     /**
      * default unlimited size
@@ -65,6 +67,17 @@ public abstract class ALoadingCacheConfig<K, V> {
         this.evictionModeOverride = evictionModeOverride;
     }
 
+    /**
+     * default is false, when true the cache gets shrunk by the MemoryPressureCacheGovernor on memory pressure
+     */
+    protected boolean isMemoryPressureGoverned() {
+        return DEFAULT_MEMORY_PRESSURE_GOVERNED;
+    }
+
+    public void setMemoryPressureGovernedOverride(final boolean memoryPressureGovernedOverride) {
+        this.memoryPressureGovernedOverride = memoryPressureGovernedOverride;
+    }
+
     protected abstract V loadValue(K key);
 
     public ALoadingCache<K, V> newInstance() {
@@ -92,6 +105,12 @@ public abstract class ALoadingCacheConfig<K, V> {
         } else {
             evictionMode = getEvictionMode();
         }
+        final boolean memoryPressureGoverned;
+        if (memoryPressureGovernedOverride != null) {
+            memoryPressureGoverned = memoryPressureGovernedOverride;
+        } else {
+            memoryPressureGoverned = isMemoryPressureGoverned();
+        }
         return new ALoadingCache<K, V>() {
 
             @Override
@@ -114,6 +133,11 @@ public abstract class ALoadingCacheConfig<K, V> {
                 return evictionMode;
             }
 
+            @Override
+            protected boolean isMemoryPressureGoverned() {
+                return memoryPressureGoverned;
+            }
+
             @Override
             protected V loadValue(final K key) {
                 return ALoadingCacheConfig.this.loadValue(key);
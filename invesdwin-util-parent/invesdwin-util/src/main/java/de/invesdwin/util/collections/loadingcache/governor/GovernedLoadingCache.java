@@ -0,0 +1,163 @@
+package de.invesdwin.util.collections.loadingcache.governor;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.collections.loadingcache.ILoadingCache;
+import de.invesdwin.util.collections.loadingcache.map.ASynchronizedMapLoadingCache;
+import de.invesdwin.util.collections.loadingcache.map.CaffeineLoadingCache;
+import de.invesdwin.util.collections.loadingcache.map.GuavaLoadingCache;
+import de.invesdwin.util.collections.loadingcache.map.NoCachingLoadingCache;
+
+/**
+ * Counts hits (accesses to values that were already present) as the hit value and allows the
+ * MemoryPressureCacheGovernor to evict entries. Misses are not counted, since a cache that mostly loads new values
+ * benefits less from keeping its entries. Eviction happens in iteration order of the keys, which is the least recently
+ * used or added element first for eviction maps.
+ * 
+ * The governor shrinks the cache from its own thread, thus only thread safe delegates are supported (see
+ * {@link #isSupported(ILoadingCache)}). Synchronized delegates are iterated while holding their monitor.
+ */
+@ThreadSafe
+public class GovernedLoadingCache<K, V> implements ILoadingCache<K, V>, IGovernedCache {
+
+    private final ILoadingCache<K, V> delegate;
+    private final LongAdder hitValue = new LongAdder();
+
+    public GovernedLoadingCache(final ILoadingCache<K, V> delegate) {
+        if (!isSupported(delegate)) {
+            throw new IllegalArgumentException("Delegate is not thread safe: " + delegate.getClass().getName());
+        }
+        this.delegate = delegate;
+    }
+
+    public static boolean isSupported(final ILoadingCache<?, ?> delegate) {
+        return delegate instanceof CaffeineLoadingCache || delegate instanceof GuavaLoadingCache
+                || delegate instanceof ASynchronizedMapLoadingCache || delegate instanceof NoCachingLoadingCache;
+    }
+
+    @Override
+    public V get(final K key) {
+        final V existing = getIfPresent(key);
+        if (existing != null) {
+            return existing;
+        }
+        return delegate.get(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean containsKey(final K key) {
+        return delegate.containsKey(key);
+    }
+
+    @Override
+    public V getIfPresent(final K key) {
+        final V existing = delegate.getIfPresent(key);
+        if (existing != null) {
+            hitValue.increment();
+        }
+        return existing;
+    }
+
+    @Override
+    public void remove(final K key) {
+        delegate.remove(key);
+    }
+
+    @Override
+    public void put(final K key, final V value) {
+        delegate.put(key, value);
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return delegate.entrySet();
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return delegate.isEmpty();
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return delegate.keySet();
+    }
+
+    @Override
+    public Collection<V> values() {
+        return delegate.values();
+    }
+
+    @Override
+    public Map<K, V> asMap() {
+        return delegate.asMap();
+    }
+
+    @Override
+    public void increaseMaximumSize(final int maximumSize) {
+        delegate.increaseMaximumSize(maximumSize);
+    }
+
+    @Override
+    public V computeIfAbsent(final K key, final Function<K, V> mappingFunction) {
+        final V existing = getIfPresent(key);
+        if (existing != null) {
+            return existing;
+        }
+        return delegate.computeIfAbsent(key, mappingFunction);
+    }
+
+    @Override
+    public long getAndResetHitValue() {
+        return hitValue.sumThenReset();
+    }
+
+    @Override
+    public void shrink(final int count) {
+        if (count <= 0) {
+            return;
+        }
+        if (delegate instanceof ASynchronizedMapLoadingCache) {
+            //the views of synchronized caches have to be iterated while holding their monitor
+            synchronized (delegate) {
+                shrinkKeys(count);
+            }
+        } else {
+            //concurrent caches have weakly consistent iterators
+            shrinkKeys(count);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void shrinkKeys(final int count) {
+        //only copy the keys that should be removed, this happens under memory pressure after all
+        final Object[] keys = new Object[Math.min(count, delegate.size())];
+        int collected = 0;
+        final Iterator<K> iterator = delegate.keySet().iterator();
+        while (collected < keys.length && iterator.hasNext()) {
+            keys[collected++] = iterator.next();
+        }
+        for (int i = 0; i < collected; i++) {
+            delegate.remove((K) keys[i]);
+        }
+    }
+
+}
@@ -0,0 +1,17 @@
+package de.invesdwin.util.collections.loadingcache.governor;
+
+public interface IGovernedCache {
+
+    int size();
+
+    /**
+     * Returns the number of accesses since the last invocation of this method.
+     */
+    long getAndResetHitValue();
+
+    /**
+     * Evicts up to the given number of entries, preferably the least valuable ones first.
+     */
+    void shrink(int count);
+
+}
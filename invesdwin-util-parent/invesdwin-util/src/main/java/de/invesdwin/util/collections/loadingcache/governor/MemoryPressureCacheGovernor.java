@@ -0,0 +1,290 @@
+package de.invesdwin.util.collections.loadingcache.governor;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import de.invesdwin.util.concurrent.Executors;
+import de.invesdwin.util.concurrent.WrappedExecutorService;
+import de.invesdwin.util.concurrent.reference.persistent.IPersistentReference;
+import de.invesdwin.util.time.duration.Duration;
+import de.invesdwin.util.time.fdate.FTimeUnit;
+
+/**
+ * Shrinks registered caches before the heap runs full so that we don't run into full garbage collections where soft
+ * references are cleared all at once. It listens to usage threshold notifications of the heap memory pools. When the
+ * threshold is exceeded:
+ * 
+ * <ul>
+ * <li>registered persistent references are cleared, which compresses their values proactively</li>
+ * <li>the registered caches are shrunk by a total ratio of their entries, caches with a lower hit value per entry since
+ * the last shrink lose proportionally more entries</li>
+ * </ul>
+ * 
+ * Registrations are weak, thus caches don't need to unregister themselves.
+ */
+@ThreadSafe
+public final class MemoryPressureCacheGovernor {
+
+    public static final double DEFAULT_USAGE_THRESHOLD_RATIO = 0.8D;
+    public static final double DEFAULT_SHRINK_RATIO = 0.25D;
+    public static final Duration DEFAULT_SHRINK_COOLDOWN = Duration.FIVE_SECONDS;
+
+    private static final org.slf4j.ext.XLogger LOG = org.slf4j.ext.XLoggerFactory
+            .getXLogger(MemoryPressureCacheGovernor.class);
+
+    private static final Set<IGovernedCache> CACHES = newWeakSet();
+    private static final Set<IPersistentReference<?>> PERSISTENT_REFERENCES = newWeakSet();
+    private static final AtomicBoolean SHRINKING = new AtomicBoolean(false);
+    private static final NotificationListener LISTENER = new NotificationListener() {
+        @Override
+        public void handleNotification(final Notification notification, final Object handback) {
+            final String type = notification.getType();
+            if (MemoryNotificationInfo.MEMORY_THRESHOLD_EXCEEDED.equals(type)
+                    || MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(type)) {
+                //don't block the notification thread
+                getExecutor().execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        onMemoryPressure();
+                    }
+                });
+            }
+        }
+    };
+
+    @GuardedBy("MemoryPressureCacheGovernor.class")
+    private static WrappedExecutorService executor;
+    @GuardedBy("MemoryPressureCacheGovernor.class")
+    private static boolean started;
+    private static volatile double shrinkRatio = DEFAULT_SHRINK_RATIO;
+    private static volatile Duration shrinkCooldown = DEFAULT_SHRINK_COOLDOWN;
+    private static volatile long lastShrinkNanos = System.nanoTime()
+            - DEFAULT_SHRINK_COOLDOWN.longValue(FTimeUnit.NANOSECONDS);
+
+    private MemoryPressureCacheGovernor() {}
+
+    private static <T> Set<T> newWeakSet() {
+        final ConcurrentMap<T, Boolean> map = Caffeine.newBuilder().weakKeys().<T, Boolean> build().asMap();
+        return Collections.newSetFromMap(map);
+    }
+
+    private static synchronized WrappedExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(MemoryPressureCacheGovernor.class.getSimpleName(), 1);
+        }
+        return executor;
+    }
+
+    /**
+     * Registers the cache and starts listening for memory pressure with the default threshold if not already started.
+     */
+    public static boolean register(final IGovernedCache cache) {
+        start();
+        return CACHES.add(cache);
+    }
+
+    public static boolean unregister(final IGovernedCache cache) {
+        return CACHES.remove(cache);
+    }
+
+    /**
+     * Persistent references are cleared on memory pressure, which makes compressing references compress their values
+     * before the garbage collector has to clear them.
+     */
+    public static boolean register(final IPersistentReference<?> reference) {
+        start();
+        return PERSISTENT_REFERENCES.add(reference);
+    }
+
+    public static boolean unregister(final IPersistentReference<?> reference) {
+        return PERSISTENT_REFERENCES.remove(reference);
+    }
+
+    public static boolean start() {
+        return start(DEFAULT_USAGE_THRESHOLD_RATIO);
+    }
+
+    /**
+     * @param usageThresholdRatio
+     *            the ratio of the maximum heap pool sizes at which the caches should be shrunk
+     */
+    public static synchronized boolean start(final double usageThresholdRatio) {
+        if (started) {
+            return false;
+        }
+        boolean thresholdSupported = false;
+        for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() != MemoryType.HEAP) {
+                continue;
+            }
+            final long max = pool.getUsage().getMax();
+            if (max <= 0) {
+                continue;
+            }
+            //zero would disable the threshold
+            final long threshold = Math.max(1, (long) (max * usageThresholdRatio));
+            if (pool.isUsageThresholdSupported()) {
+                pool.setUsageThreshold(threshold);
+                thresholdSupported = true;
+            }
+            if (pool.isCollectionUsageThresholdSupported()) {
+                pool.setCollectionUsageThreshold(threshold);
+                thresholdSupported = true;
+            }
+        }
+        if (!thresholdSupported) {
+            //CHECKSTYLE:OFF
+            LOG.warn("No heap memory pool supports usage thresholds, {} will only shrink when triggered manually",
+                    MemoryPressureCacheGovernor.class.getSimpleName());
+            //CHECKSTYLE:ON
+        }
+        final NotificationEmitter emitter = (NotificationEmitter) ManagementFactory.getMemoryMXBean();
+        emitter.addNotificationListener(LISTENER, null, null);
+        started = true;
+        return true;
+    }
+
+    public static synchronized boolean stop() {
+        if (!started) {
+            return false;
+        }
+        try {
+            final NotificationEmitter emitter = (NotificationEmitter) ManagementFactory.getMemoryMXBean();
+            emitter.removeNotificationListener(LISTENER);
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
+        }
+        for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() != MemoryType.HEAP) {
+                continue;
+            }
+            //zero disables the thresholds again
+            if (pool.isUsageThresholdSupported()) {
+                pool.setUsageThreshold(0);
+            }
+            if (pool.isCollectionUsageThresholdSupported()) {
+                pool.setCollectionUsageThreshold(0);
+            }
+        }
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+        started = false;
+        return true;
+    }
+
+    public static synchronized boolean isStarted() {
+        return started;
+    }
+
+    public static double getShrinkRatio() {
+        return shrinkRatio;
+    }
+
+    /**
+     * The ratio of all cached entries that should be evicted on memory pressure.
+     */
+    public static void setShrinkRatio(final double shrinkRatio) {
+        MemoryPressureCacheGovernor.shrinkRatio = shrinkRatio;
+    }
+
+    public static Duration getShrinkCooldown() {
+        return shrinkCooldown;
+    }
+
+    /**
+     * Notifications might arrive in bursts after each garbage collection, thus shrinking is skipped if the last shrink
+     * was less than this duration ago.
+     */
+    public static void setShrinkCooldown(final Duration shrinkCooldown) {
+        MemoryPressureCacheGovernor.shrinkCooldown = shrinkCooldown;
+    }
+
+    /**
+     * Can also be called manually, e.g. before starting a memory intensive task.
+     */
+    public static boolean onMemoryPressure() {
+        if (System.nanoTime() - lastShrinkNanos < shrinkCooldown.longValue(FTimeUnit.NANOSECONDS)) {
+            return false;
+        }
+        if (!SHRINKING.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            final int compressedReferences = compressPersistentReferences();
+            final long evictedEntries = shrinkCaches();
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Memory pressure: compressed {} persistent references and evicted {} cache entries",
+                        compressedReferences, evictedEntries);
+            }
+            return true;
+        } finally {
+            lastShrinkNanos = System.nanoTime();
+            SHRINKING.set(false);
+        }
+    }
+
+    private static int compressPersistentReferences() {
+        int count = 0;
+        for (final IPersistentReference<?> reference : PERSISTENT_REFERENCES) {
+            reference.clear();
+            count++;
+        }
+        return count;
+    }
+
+    private static long shrinkCaches() {
+        final List<IGovernedCache> caches = new ArrayList<>(CACHES);
+        final int[] sizes = new int[caches.size()];
+        final double[] weights = new double[caches.size()];
+        long totalSize = 0;
+        double totalWeight = 0;
+        for (int i = 0; i < caches.size(); i++) {
+            final IGovernedCache cache = caches.get(i);
+            final int size = cache.size();
+            final long hitValue = cache.getAndResetHitValue();
+            sizes[i] = size;
+            if (size > 0) {
+                //entries that were not hit recently are the cheapest to lose
+                final double hitValuePerEntry = (double) hitValue / size;
+                weights[i] = size / (1D + hitValuePerEntry);
+                totalSize += size;
+                totalWeight += weights[i];
+            }
+        }
+        if (totalSize == 0 || totalWeight <= 0) {
+            return 0;
+        }
+        final double entriesToEvict = totalSize * shrinkRatio;
+        long evicted = 0;
+        for (int i = 0; i < caches.size(); i++) {
+            if (weights[i] <= 0) {
+                continue;
+            }
+            final int count = (int) Math.min(sizes[i], Math.ceil(entriesToEvict * weights[i] / totalWeight));
+            if (count > 0) {
+                caches.get(i).shrink(count);
+                evicted += count;
+            }
+        }
+        return evicted;
+    }
+
+}
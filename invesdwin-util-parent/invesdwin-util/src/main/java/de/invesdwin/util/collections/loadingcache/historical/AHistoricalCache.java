@@ -19,6 +19,7 @@ import de.invesdwin.util.collections.eviction.EvictionMode;
 import de.invesdwin.util.collections.fast.concurrent.ASynchronizedFastIterableDelegateList;
 import de.invesdwin.util.collections.loadingcache.ADelegateLoadingCache;
 import de.invesdwin.util.collections.loadingcache.ALoadingCache;
+import de.invesdwin.util.collections.loadingcache.ALoadingCacheConfig;
 import de.invesdwin.util.collections.loadingcache.ILoadingCache;
 import de.invesdwin.util.collections.loadingcache.historical.interceptor.HistoricalCachePreviousKeysQueryInterceptorSupport;
 import de.invesdwin.util.collections.loadingcache.historical.interceptor.HistoricalCacheRangeQueryInterceptorSupport;
@@ -245,6 +246,14 @@ public abstract class AHistoricalCache<V>
 
     protected abstract V loadValue(FDate key);
 
+    /**
+     * default is false, when true the values map gets shrunk by the MemoryPressureCacheGovernor on memory pressure
+     * depending on how often it was accessed recently
+     */
+    protected boolean isMemoryPressureGoverned() {
+        return ALoadingCacheConfig.DEFAULT_MEMORY_PRESSURE_GOVERNED;
+    }
+
     protected <T> ILoadingCache<FDate, T> newLoadingCacheProvider(final Function<FDate, T> loadValue,
             final Integer maximumSize) {
         final ALoadingCache<FDate, T> loadingCache = new ALoadingCache<FDate, T>() {
@@ -264,6 +273,11 @@ public abstract class AHistoricalCache<V>
                 return EVICTION_MODE;
             }
 
+            @Override
+            protected boolean isMemoryPressureGoverned() {
+                return AHistoricalCache.this.isMemoryPressureGoverned();
+            }
+
         };
         increaseMaximumSizeListeners.add(new IHistoricalCacheIncreaseMaximumSizeListener() {
             @Override
@@ -5,14 +5,30 @@ import javax.annotation.concurrent.NotThreadSafe;
 import de.invesdwin.util.time.duration.Duration;
 import de.invesdwin.util.time.fdate.FTimeUnit;
 
+/**
+ * The hot path of check() is a single countdown decrement. Only when the countdown reaches zero System.nanoTime() is
+ * consulted and the countdown gets recalibrated from the observed check rate so that the next clock lookup happens
+ * close to the end of the interval.
+ * 
+ * The countdown is allowed to at most double per clock lookup. Otherwise a rate that was observed over a few
+ * microseconds (e.g. right after construction) could be extrapolated to millions of checks, which would skip the
+ * interval for hours when the loop iterations are actually slow.
+ */
 @NotThreadSafe
 public class LoopInterruptedCheck {
 
+    private static final double NANOSECONDS_IN_SECOND = FTimeUnit.SECONDS.toNanos(1);
+
     private final Thread currentThread;
     private final long checkIntervalNanos;
+    private long intervalStartNanos;
     private long nextIntervalNanos;
-    private int checksPerInterval;
-    private int checksInInterval;
+    private long countdown;
+    private long countdownStart;
+    private long checksInInterval;
+    private long checksPerInterval;
+    private long lastIntervalNanos;
+    private long checksBeforeInterval;
 
     public LoopInterruptedCheck() {
         this(Duration.ONE_SECOND);
@@ -21,26 +37,98 @@ public class LoopInterruptedCheck {
     public LoopInterruptedCheck(final Duration checkInterval) {
         this.currentThread = Thread.currentThread();
         this.checkIntervalNanos = checkInterval.longValue(FTimeUnit.NANOSECONDS);
-        this.nextIntervalNanos = System.nanoTime() + checkIntervalNanos;
+        this.intervalStartNanos = System.nanoTime();
+        this.nextIntervalNanos = intervalStartNanos + checkIntervalNanos;
+        this.countdown = 1;
+        this.countdownStart = 1;
     }
 
     public boolean check() throws InterruptedException {
-        checksInInterval++;
-        if (checksInInterval > checksPerInterval) {
-            final long newIntervalNanos = System.nanoTime();
-            if (newIntervalNanos > nextIntervalNanos) {
-                onInterval();
-                checksPerInterval = checksInInterval;
-                checksInInterval = 0;
-                nextIntervalNanos = newIntervalNanos + checkIntervalNanos;
-                return true;
-            }
+        if (--countdown > 0) {
+            return false;
+        }
+        return checkClock();
+    }
+
+    private boolean checkClock() throws InterruptedException {
+        checksInInterval += countdownStart;
+        final long newIntervalNanos = System.nanoTime();
+        if (newIntervalNanos >= nextIntervalNanos) {
+            lastIntervalNanos = newIntervalNanos - intervalStartNanos;
+            checksPerInterval = checksInInterval;
+            checksBeforeInterval += checksInInterval;
+            checksInInterval = 0;
+            intervalStartNanos = newIntervalNanos;
+            nextIntervalNanos = newIntervalNanos + checkIntervalNanos;
+            resetCountdown(estimateChecks(checksPerInterval, lastIntervalNanos, checkIntervalNanos));
+            onInterval();
+            return true;
+        } else {
+            //aim for the remaining time, the next clock lookup will correct any misestimation
+            final long elapsedNanos = newIntervalNanos - intervalStartNanos;
+            final long remainingNanos = nextIntervalNanos - newIntervalNanos;
+            resetCountdown(estimateChecks(checksInInterval, elapsedNanos, remainingNanos));
+            return false;
+        }
+    }
+
+    private void resetCountdown(final long estimatedChecks) {
+        final long maxChecks;
+        if (countdownStart > Long.MAX_VALUE / 2) {
+            maxChecks = Long.MAX_VALUE;
+        } else {
+            maxChecks = countdownStart * 2;
+        }
+        final long checks = Math.min(estimatedChecks, maxChecks);
+        countdown = checks;
+        countdownStart = checks;
+    }
+
+    private static long estimateChecks(final long checks, final long elapsedNanos, final long targetNanos) {
+        if (elapsedNanos <= 0) {
+            return Math.max(1, checks);
+        }
+        final double estimate = (double) checks * targetNanos / elapsedNanos;
+        if (estimate < 1D) {
+            return 1;
+        } else if (estimate >= Long.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        } else {
+            return (long) estimate;
         }
-        return false;
     }
 
     protected void onInterval() throws InterruptedException {
         Threads.throwIfInterrupted(currentThread);
     }
 
+    public Duration getCheckInterval() {
+        return new Duration(checkIntervalNanos, FTimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * The number of calls to check() up until the last completed interval.
+     */
+    public long getChecksBeforeInterval() {
+        return checksBeforeInterval;
+    }
+
+    /**
+     * The exact number of calls to check() so far.
+     */
+    public long getChecks() {
+        return checksBeforeInterval + checksInInterval + countdownStart - countdown;
+    }
+
+    public long getChecksPerInterval() {
+        return checksPerInterval;
+    }
+
+    public double getChecksPerSecond() {
+        if (lastIntervalNanos <= 0) {
+            return 0D;
+        }
+        return checksPerInterval * NANOSECONDS_IN_SECOND / lastIntervalNanos;
+    }
+
 }
@@ -6,6 +6,7 @@ import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
 
 import javax.annotation.concurrent.Immutable;
 
@@ -24,12 +25,16 @@ import de.invesdwin.util.concurrent.lock.internal.WrappedLock;
 import de.invesdwin.util.concurrent.lock.internal.WrappedReentrantLock;
 import de.invesdwin.util.concurrent.lock.internal.readwrite.TimeoutReadWriteLock;
 import de.invesdwin.util.concurrent.lock.internal.readwrite.TimeoutReentrantReadWriteLock;
+import de.invesdwin.util.concurrent.lock.internal.readwrite.TimeoutStampedReadWriteLock;
 import de.invesdwin.util.concurrent.lock.internal.readwrite.TracedReadWriteLock;
 import de.invesdwin.util.concurrent.lock.internal.readwrite.TracedReentrantReadWriteLock;
+import de.invesdwin.util.concurrent.lock.internal.readwrite.TracedStampedReadWriteLock;
 import de.invesdwin.util.concurrent.lock.internal.readwrite.WrappedReadWriteLock;
 import de.invesdwin.util.concurrent.lock.internal.readwrite.WrappedReentrantReadWriteLock;
+import de.invesdwin.util.concurrent.lock.internal.readwrite.WrappedStampedReadWriteLock;
 import de.invesdwin.util.concurrent.lock.readwrite.IReadWriteLock;
 import de.invesdwin.util.concurrent.lock.readwrite.IReentrantReadWriteLock;
+import de.invesdwin.util.concurrent.lock.readwrite.IStampedReadWriteLock;
 import de.invesdwin.util.concurrent.lock.trace.ILockTrace;
 import de.invesdwin.util.concurrent.lock.trace.internal.DisabledLockTrace;
 import de.invesdwin.util.concurrent.lock.trace.internal.EnabledLockTrace;
@@ -90,6 +95,17 @@ public final class Locks extends ALocksStaticFacade {
         return maybeWrap(name, lock);
     }
 
+    /**
+     * Read mostly structures can use the optimistic read of this lock to skip the reader count CAS on each read. Be
+     * aware that this lock is not reentrant and does not support conditions. It is also not covered by cycle
+     * detection.
+     */
+    public static IStampedReadWriteLock newStampedReadWriteLock(final String lockName) {
+        final String name = UNIQUE_NAME_GENERATOR.get(lockName);
+        final StampedLock lock = new StampedLock();
+        return maybeWrap(name, lock);
+    }
+
     public static void setCycleDetectingLockFactory(final CycleDetectingLockFactory cycleDetectingLockFactory) {
         Locks.cycleDetectingLockFactory = cycleDetectingLockFactory;
     }
@@ -202,6 +218,27 @@ public final class Locks extends ALocksStaticFacade {
         }
     }
 
+    public static IStampedReadWriteLock maybeWrap(final String lockName, final StampedLock lock) {
+        return maybeWrapTimeout(maybeWrapTrace(lockName, lock));
+    }
+
+    private static IStampedReadWriteLock maybeWrapTimeout(final IStampedReadWriteLock lock) {
+        final Duration lockWaitTimeoutCopy = getLockWaitTimeout();
+        if (lockWaitTimeoutCopy == null) {
+            return lock;
+        } else {
+            return new TimeoutStampedReadWriteLock(lock, lockWaitTimeoutCopy, isLockWaitTimeoutOnlyWriteLocks());
+        }
+    }
+
+    private static IStampedReadWriteLock maybeWrapTrace(final String lockName, final StampedLock lock) {
+        if (isLockTraceEnabled()) {
+            return new TracedStampedReadWriteLock(lockName, lock);
+        } else {
+            return new WrappedStampedReadWriteLock(lockName, lock);
+        }
+    }
+
     public static ILockTrace getLockTrace() {
         return lockTrace;
     }
@@ -0,0 +1,75 @@
+package de.invesdwin.util.concurrent.lock.internal.readwrite;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.concurrent.lock.ILock;
+import de.invesdwin.util.concurrent.lock.internal.readwrite.read.TimeoutReadLock;
+import de.invesdwin.util.concurrent.lock.internal.readwrite.write.TimeoutWriteLock;
+import de.invesdwin.util.concurrent.lock.readwrite.IStampedReadWriteLock;
+import de.invesdwin.util.lang.Objects;
+import de.invesdwin.util.time.duration.Duration;
+
+@ThreadSafe
+public class TimeoutStampedReadWriteLock implements IStampedReadWriteLock {
+
+    private final IStampedReadWriteLock delegate;
+    private final ILock readLock;
+    private final TimeoutWriteLock writeLock;
+
+    public TimeoutStampedReadWriteLock(final IStampedReadWriteLock delegate, final Duration lockWaitTimeout,
+            final boolean onlyWriteLock) {
+        this.delegate = delegate;
+        if (onlyWriteLock) {
+            this.readLock = delegate.readLock();
+        } else {
+            this.readLock = new TimeoutReadLock(delegate.readLock(), lockWaitTimeout);
+        }
+        this.writeLock = new TimeoutWriteLock(delegate.writeLock(), lockWaitTimeout);
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public ILock readLock() {
+        return readLock;
+    }
+
+    @Override
+    public TimeoutWriteLock writeLock() {
+        return writeLock;
+    }
+
+    @Override
+    public long tryOptimisticRead() {
+        return delegate.tryOptimisticRead();
+    }
+
+    @Override
+    public boolean validate(final long stamp) {
+        return delegate.validate(stamp);
+    }
+
+    @Override
+    public boolean isWriteLocked() {
+        return delegate.isWriteLocked();
+    }
+
+    @Override
+    public boolean isReadLocked() {
+        return delegate.isReadLocked();
+    }
+
+    @Override
+    public int getReadLockCount() {
+        return delegate.getReadLockCount();
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toStringHelper(this).addValue(delegate).toString();
+    }
+
+}
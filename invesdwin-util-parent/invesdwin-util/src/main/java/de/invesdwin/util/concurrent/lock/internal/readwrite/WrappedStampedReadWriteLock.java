@@ -0,0 +1,72 @@
+package de.invesdwin.util.concurrent.lock.internal.readwrite;
+
+import java.util.concurrent.locks.StampedLock;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.concurrent.lock.internal.readwrite.read.WrappedReadLock;
+import de.invesdwin.util.concurrent.lock.internal.readwrite.write.WrappedWriteLock;
+import de.invesdwin.util.concurrent.lock.readwrite.IStampedReadWriteLock;
+import de.invesdwin.util.lang.Objects;
+
+@ThreadSafe
+public class WrappedStampedReadWriteLock implements IStampedReadWriteLock {
+
+    private final String name;
+    private final StampedLock delegate;
+    private final WrappedReadLock readLock;
+    private final WrappedWriteLock writeLock;
+
+    public WrappedStampedReadWriteLock(final String name, final StampedLock delegate) {
+        this.name = name;
+        this.delegate = delegate;
+        this.readLock = new WrappedReadLock(name + "_readLock", delegate.asReadLock());
+        this.writeLock = new WrappedWriteLock(name + "_writeLock", delegate.asWriteLock());
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public WrappedReadLock readLock() {
+        return readLock;
+    }
+
+    @Override
+    public WrappedWriteLock writeLock() {
+        return writeLock;
+    }
+
+    @Override
+    public long tryOptimisticRead() {
+        return delegate.tryOptimisticRead();
+    }
+
+    @Override
+    public boolean validate(final long stamp) {
+        return delegate.validate(stamp);
+    }
+
+    @Override
+    public boolean isWriteLocked() {
+        return delegate.isWriteLocked();
+    }
+
+    @Override
+    public boolean isReadLocked() {
+        return delegate.isReadLocked();
+    }
+
+    @Override
+    public int getReadLockCount() {
+        return delegate.getReadLockCount();
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toStringHelper(this).addValue(name).addValue(delegate).toString();
+    }
+
+}
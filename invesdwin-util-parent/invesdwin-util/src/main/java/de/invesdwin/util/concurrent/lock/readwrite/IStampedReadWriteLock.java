@@ -0,0 +1,29 @@
+package de.invesdwin.util.concurrent.lock.readwrite;
+
+/**
+ * A read write lock that additionally supports optimistic reads. Readers first get a stamp via
+ * {@link #tryOptimisticRead()}, read the guarded state without locking and then check with {@link #validate(long)}
+ * whether a writer interfered in between. Only when validation fails, the reader has to fall back to the read lock.
+ * 
+ * Be aware that this lock is not reentrant.
+ */
+public interface IStampedReadWriteLock extends IReadWriteLock {
+
+    /**
+     * Returns a stamp that can later be validated, or zero if exclusively locked.
+     */
+    long tryOptimisticRead();
+
+    /**
+     * Returns true if the lock has not been exclusively acquired since issuance of the given stamp. Always returns
+     * false if the stamp is zero.
+     */
+    boolean validate(long stamp);
+
+    boolean isWriteLocked();
+
+    boolean isReadLocked();
+
+    int getReadLockCount();
+
+}
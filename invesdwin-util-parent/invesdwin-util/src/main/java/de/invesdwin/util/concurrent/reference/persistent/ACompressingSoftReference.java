@@ -20,6 +20,14 @@ import de.invesdwin.util.concurrent.WrappedExecutorService;
 public abstract class ACompressingSoftReference<T, C> extends SoftReference<T> implements IPersistentReference<T> {
 
     private static final ReferenceQueue<Object> REAPED_QUEUE = new ReferenceQueue<Object>();
+    /**
+     * Compression is cpu intensive, thus the reaped references are compressed in parallel. If all workers are busy the
+     * reaper thread compresses itself which slows down the reaping so that we don't queue up uncompressed values.
+     */
+    private static final WrappedExecutorService COMPRESSION_EXECUTOR = Executors
+            .newFixedCallerRunsThreadPool(ACompressingSoftReference.class.getSimpleName() + "_compression",
+                    Executors.getCpuThreadPoolCount())
+            .withDynamicThreadName(false);
     private DelegateSoftReference<T> delegate;
     private C compressed;
 
@@ -35,7 +43,7 @@ public abstract class ACompressingSoftReference<T, C> extends SoftReference<T> i
                     while (true) {
                         final DelegateSoftReference<? extends Object> removed = (DelegateSoftReference<? extends Object>) REAPED_QUEUE
                                 .remove();
-                        removed.clear();
+                        COMPRESSION_EXECUTOR.execute(removed);
                     }
                 } catch (final InterruptedException e) {
                     Thread.currentThread().interrupt();
@@ -118,7 +126,7 @@ public abstract class ACompressingSoftReference<T, C> extends SoftReference<T> i
         compressed = null;
     }
 
-    private static class DelegateSoftReference<T> extends SoftReference<WrappedReferent<T>> {
+    private static class DelegateSoftReference<T> extends SoftReference<WrappedReferent<T>> implements Runnable {
 
         private final ACompressingSoftReference<T, ?> parent;
         private final T hardReferent;
@@ -135,6 +143,14 @@ public abstract class ACompressingSoftReference<T, C> extends SoftReference<T> i
             super.clear();
         }
 
+        /**
+         * Invoked by the compression executor after being reaped.
+         */
+        @Override
+        public void run() {
+            clear();
+        }
+
     }
 
     private static class WrappedReferent<T> {
@@ -0,0 +1,37 @@
+package de.invesdwin.util.concurrent.reference.persistent;
+
+import java.nio.ByteBuffer;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.concurrent.reference.persistent.codec.ICompressionCodec;
+
+/**
+ * Uses a codec to store the compressed value off-heap when the soft reference gets cleared. E.g. use
+ * DoubleSeriesXorCodec for double columns or FDateSeriesDeltaCodec for sorted time keys.
+ */
+@ThreadSafe
+public class CodecCompressingSoftReference<T> extends ACompressingSoftReference<T, ByteBuffer> {
+
+    private final ICompressionCodec<T> codec;
+
+    public CodecCompressingSoftReference(final T referent, final ICompressionCodec<T> codec) {
+        super(referent);
+        this.codec = codec;
+    }
+
+    public ICompressionCodec<T> getCodec() {
+        return codec;
+    }
+
+    @Override
+    protected ByteBuffer toCompressed(final T referent) throws Exception {
+        return codec.compress(referent);
+    }
+
+    @Override
+    protected T fromCompressed(final ByteBuffer compressed) throws Exception {
+        return codec.decompress(compressed);
+    }
+
+}
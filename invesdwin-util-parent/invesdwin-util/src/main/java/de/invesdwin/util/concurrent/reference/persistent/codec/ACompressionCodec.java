@@ -0,0 +1,62 @@
+package de.invesdwin.util.concurrent.reference.persistent.codec;
+
+import java.nio.ByteBuffer;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Compresses into a heap scratch array and then copies the exact length into a direct buffer, so that the compressed
+ * data is stored off-heap and does not add to garbage collection pressure while the referent is cleared.
+ */
+@ThreadSafe
+public abstract class ACompressionCodec<T> implements ICompressionCodec<T> {
+
+    private final CompressionStatistics statistics = new CompressionStatistics();
+
+    @Override
+    public final ByteBuffer compress(final T value) {
+        final int uncompressedLength = getUncompressedLength(value);
+        final byte[] scratch = new byte[getMaxCompressedLength(value)];
+        final int compressedLength = compress(value, scratch);
+        final ByteBuffer compressed = ByteBuffer.allocateDirect(compressedLength);
+        compressed.put(scratch, 0, compressedLength);
+        compressed.flip();
+        statistics.recordCompression(uncompressedLength, compressedLength);
+        return compressed.asReadOnlyBuffer();
+    }
+
+    @Override
+    public final T decompress(final ByteBuffer compressed) {
+        final long startNanos = System.nanoTime();
+        //use a duplicate so that concurrent decompressions don't interfere with the position
+        final T value = decompress(compressed.duplicate(), compressed.position());
+        statistics.recordDecompression(System.nanoTime() - startNanos);
+        return value;
+    }
+
+    @Override
+    public CompressionStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Size in bytes the value would occupy in its raw binary form, used for the compression ratio.
+     */
+    protected abstract int getUncompressedLength(T value);
+
+    /**
+     * An upper bound for the compressed length, used to size the scratch array.
+     */
+    protected abstract int getMaxCompressedLength(T value);
+
+    /**
+     * Writes the compressed value into the target array starting at index zero and returns the number of bytes written.
+     */
+    protected abstract int compress(T value, byte[] target);
+
+    /**
+     * Reads the value from the buffer using absolute gets starting at the given offset.
+     */
+    protected abstract T decompress(ByteBuffer compressed, int offset);
+
+}
@@ -0,0 +1,88 @@
+package de.invesdwin.util.concurrent.reference.persistent.codec;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.lang.Objects;
+import de.invesdwin.util.time.duration.Duration;
+import de.invesdwin.util.time.fdate.FTimeUnit;
+
+@ThreadSafe
+public class CompressionStatistics {
+
+    private final AtomicLong compressions = new AtomicLong();
+    private final AtomicLong uncompressedBytes = new AtomicLong();
+    private final AtomicLong compressedBytes = new AtomicLong();
+    private final AtomicLong decompressions = new AtomicLong();
+    private final AtomicLong decompressionNanos = new AtomicLong();
+
+    public void recordCompression(final long uncompressedLength, final long compressedLength) {
+        compressions.incrementAndGet();
+        uncompressedBytes.addAndGet(uncompressedLength);
+        compressedBytes.addAndGet(compressedLength);
+    }
+
+    public void recordDecompression(final long nanos) {
+        decompressions.incrementAndGet();
+        decompressionNanos.addAndGet(nanos);
+    }
+
+    public long getCompressions() {
+        return compressions.get();
+    }
+
+    public long getUncompressedBytes() {
+        return uncompressedBytes.get();
+    }
+
+    public long getCompressedBytes() {
+        return compressedBytes.get();
+    }
+
+    /**
+     * Uncompressed divided by compressed bytes, thus higher is better. Returns 1 when nothing was compressed yet.
+     */
+    public double getCompressionRatio() {
+        final long compressedBytesCopy = compressedBytes.get();
+        if (compressedBytesCopy == 0) {
+            return 1D;
+        }
+        return (double) uncompressedBytes.get() / compressedBytesCopy;
+    }
+
+    public long getDecompressions() {
+        return decompressions.get();
+    }
+
+    public Duration getDecompressionDuration() {
+        return new Duration(decompressionNanos.get(), FTimeUnit.NANOSECONDS);
+    }
+
+    public Duration getAverageDecompressionDuration() {
+        final long decompressionsCopy = decompressions.get();
+        if (decompressionsCopy == 0) {
+            return Duration.ZERO;
+        }
+        return new Duration(decompressionNanos.get() / decompressionsCopy, FTimeUnit.NANOSECONDS);
+    }
+
+    public void reset() {
+        compressions.set(0);
+        uncompressedBytes.set(0);
+        compressedBytes.set(0);
+        decompressions.set(0);
+        decompressionNanos.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toStringHelper(this)
+                .add("compressions", getCompressions())
+                .add("compressionRatio", getCompressionRatio())
+                .add("decompressions", getDecompressions())
+                .add("averageDecompressionDuration", getAverageDecompressionDuration())
+                .toString();
+    }
+
+}
@@ -0,0 +1,112 @@
+package de.invesdwin.util.concurrent.reference.persistent.codec;
+
+import java.nio.ByteBuffer;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.concurrent.reference.persistent.codec.internal.BitsReader;
+import de.invesdwin.util.concurrent.reference.persistent.codec.internal.BitsWriter;
+
+/**
+ * XOR encoding of consecutive double values as described in the Facebook Gorilla paper. Works best on series where
+ * consecutive values are close to each other (e.g. prices or equity curves), since then sign, exponent and most
+ * mantissa bits stay the same. The layout is: [int count][long firstValueBits][xor bits...].
+ */
+@ThreadSafe
+public final class DoubleSeriesXorCodec extends ACompressionCodec<double[]> {
+
+    public static final DoubleSeriesXorCodec INSTANCE = new DoubleSeriesXorCodec();
+
+    private static final int LEADING_ZEROS_BITS = 5;
+    private static final int MAX_LEADING_ZEROS = (1 << LEADING_ZEROS_BITS) - 1;
+    private static final int SIGNIFICANT_BITS_BITS = 6;
+
+    private DoubleSeriesXorCodec() {}
+
+    @Override
+    protected int getUncompressedLength(final double[] value) {
+        return value.length * Double.BYTES;
+    }
+
+    @Override
+    protected int getMaxCompressedLength(final double[] value) {
+        //worst case: 2 control bits + 5 + 6 + 64 bits per value
+        return Integer.BYTES + Long.BYTES + value.length * 10 + 1;
+    }
+
+    @Override
+    protected int compress(final double[] value, final byte[] target) {
+        final ByteBuffer header = ByteBuffer.wrap(target);
+        header.putInt(0, value.length);
+        if (value.length == 0) {
+            return Integer.BYTES;
+        }
+        long prevBits = Double.doubleToRawLongBits(value[0]);
+        header.putLong(Integer.BYTES, prevBits);
+        final BitsWriter writer = new BitsWriter(target, Integer.BYTES + Long.BYTES);
+        int prevLeadingZeros = -1;
+        int prevTrailingZeros = 0;
+        for (int i = 1; i < value.length; i++) {
+            final long bits = Double.doubleToRawLongBits(value[i]);
+            final long xor = bits ^ prevBits;
+            if (xor == 0) {
+                writer.writeBit(false);
+            } else {
+                writer.writeBit(true);
+                final int leadingZeros = Math.min(Long.numberOfLeadingZeros(xor), MAX_LEADING_ZEROS);
+                final int trailingZeros = Long.numberOfTrailingZeros(xor);
+                if (prevLeadingZeros >= 0 && leadingZeros >= prevLeadingZeros
+                        && trailingZeros >= prevTrailingZeros) {
+                    //meaningful bits fit into the previous window
+                    writer.writeBit(false);
+                    writer.writeBits(xor >>> prevTrailingZeros, Long.SIZE - prevLeadingZeros - prevTrailingZeros);
+                } else {
+                    writer.writeBit(true);
+                    final int significantBits = Long.SIZE - leadingZeros - trailingZeros;
+                    writer.writeBits(leadingZeros, LEADING_ZEROS_BITS);
+                    //64 significant bits are stored as 0 since 0 can not occur
+                    writer.writeBits(significantBits, SIGNIFICANT_BITS_BITS);
+                    writer.writeBits(xor >>> trailingZeros, significantBits);
+                    prevLeadingZeros = leadingZeros;
+                    prevTrailingZeros = trailingZeros;
+                }
+            }
+            prevBits = bits;
+        }
+        return writer.finish();
+    }
+
+    @Override
+    protected double[] decompress(final ByteBuffer compressed, final int offset) {
+        final int count = compressed.getInt(offset);
+        final double[] values = new double[count];
+        if (count == 0) {
+            return values;
+        }
+        long prevBits = compressed.getLong(offset + Integer.BYTES);
+        values[0] = Double.longBitsToDouble(prevBits);
+        final BitsReader reader = new BitsReader(compressed, offset + Integer.BYTES + Long.BYTES);
+        int prevLeadingZeros = 0;
+        int prevTrailingZeros = 0;
+        for (int i = 1; i < count; i++) {
+            if (reader.readBit()) {
+                final long xor;
+                if (reader.readBit()) {
+                    prevLeadingZeros = (int) reader.readBits(LEADING_ZEROS_BITS);
+                    int significantBits = (int) reader.readBits(SIGNIFICANT_BITS_BITS);
+                    if (significantBits == 0) {
+                        significantBits = Long.SIZE;
+                    }
+                    prevTrailingZeros = Long.SIZE - prevLeadingZeros - significantBits;
+                    xor = reader.readBits(significantBits) << prevTrailingZeros;
+                } else {
+                    xor = reader.readBits(Long.SIZE - prevLeadingZeros - prevTrailingZeros) << prevTrailingZeros;
+                }
+                prevBits ^= xor;
+            }
+            values[i] = Double.longBitsToDouble(prevBits);
+        }
+        return values;
+    }
+
+}
@@ -0,0 +1,101 @@
+package de.invesdwin.util.concurrent.reference.persistent.codec;
+
+import java.nio.ByteBuffer;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.time.fdate.FDate;
+
+/**
+ * Delta-of-delta encoding for sorted time series without null elements. Regular bar intervals result in one byte per
+ * date since the delta of the deltas is zero. Values are stored as zigzag encoded varints. The layout is: [int
+ * count][long firstMillis][varint firstDelta][varint deltaOfDelta...].
+ */
+@ThreadSafe
+public final class FDateSeriesDeltaCodec extends ACompressionCodec<FDate[]> {
+
+    public static final FDateSeriesDeltaCodec INSTANCE = new FDateSeriesDeltaCodec();
+
+    private static final int MAX_VARINT_BYTES = 10;
+
+    private FDateSeriesDeltaCodec() {}
+
+    @Override
+    protected int getUncompressedLength(final FDate[] value) {
+        return value.length * Long.BYTES;
+    }
+
+    @Override
+    protected int getMaxCompressedLength(final FDate[] value) {
+        return Integer.BYTES + Long.BYTES + value.length * MAX_VARINT_BYTES;
+    }
+
+    @Override
+    protected int compress(final FDate[] value, final byte[] target) {
+        final ByteBuffer header = ByteBuffer.wrap(target);
+        header.putInt(0, value.length);
+        if (value.length == 0) {
+            return Integer.BYTES;
+        }
+        long prevMillis = value[0].millisValue();
+        header.putLong(Integer.BYTES, prevMillis);
+        int position = Integer.BYTES + Long.BYTES;
+        long prevDelta = 0;
+        for (int i = 1; i < value.length; i++) {
+            final long millis = value[i].millisValue();
+            final long delta = millis - prevMillis;
+            position = writeVarint(target, position, zigzagEncode(delta - prevDelta));
+            prevDelta = delta;
+            prevMillis = millis;
+        }
+        return position;
+    }
+
+    @Override
+    protected FDate[] decompress(final ByteBuffer compressed, final int offset) {
+        final int count = compressed.getInt(offset);
+        final FDate[] values = new FDate[count];
+        if (count == 0) {
+            return values;
+        }
+        long prevMillis = compressed.getLong(offset + Integer.BYTES);
+        values[0] = new FDate(prevMillis);
+        int position = offset + Integer.BYTES + Long.BYTES;
+        long prevDelta = 0;
+        for (int i = 1; i < count; i++) {
+            long encoded = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = compressed.get(position++);
+                encoded |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            final long delta = prevDelta + zigzagDecode(encoded);
+            prevMillis += delta;
+            values[i] = new FDate(prevMillis);
+            prevDelta = delta;
+        }
+        return values;
+    }
+
+    private static int writeVarint(final byte[] target, final int offset, final long value) {
+        int position = offset;
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            target[position++] = (byte) ((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        target[position++] = (byte) remaining;
+        return position;
+    }
+
+    private static long zigzagEncode(final long value) {
+        return (value << 1) ^ (value >> (Long.SIZE - 1));
+    }
+
+    private static long zigzagDecode(final long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+}
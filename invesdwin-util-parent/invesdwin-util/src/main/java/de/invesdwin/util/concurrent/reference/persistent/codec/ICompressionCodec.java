@@ -0,0 +1,16 @@
+package de.invesdwin.util.concurrent.reference.persistent.codec;
+
+import java.nio.ByteBuffer;
+
+public interface ICompressionCodec<T> {
+
+    /**
+     * Returns a read only off-heap buffer that contains the compressed value from position to limit.
+     */
+    ByteBuffer compress(T value);
+
+    T decompress(ByteBuffer compressed);
+
+    CompressionStatistics getStatistics();
+
+}
@@ -0,0 +1,179 @@
+package de.invesdwin.util.concurrent.reference.persistent.codec;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A dependency free implementation of the LZ4 block format (greedy matching with a single hash table). The compressed
+ * layout is: [int uncompressedLength][lz4 block].
+ */
+@ThreadSafe
+public final class LZ4ByteArrayCodec extends ACompressionCodec<byte[]> {
+
+    public static final LZ4ByteArrayCodec INSTANCE = new LZ4ByteArrayCodec();
+
+    private static final int MIN_MATCH = 4;
+    private static final int LAST_LITERALS = 5;
+    private static final int MF_LIMIT = 12;
+    private static final int MAX_DISTANCE = 65535;
+    private static final int HASH_LOG = 12;
+    private static final int RUN_MASK = 15;
+    private static final int ML_MASK = 15;
+    private static final int NO_MATCH = -1;
+
+    private LZ4ByteArrayCodec() {}
+
+    @Override
+    protected int getUncompressedLength(final byte[] value) {
+        return value.length;
+    }
+
+    @Override
+    protected int getMaxCompressedLength(final byte[] value) {
+        return Integer.BYTES + value.length + value.length / 255 + 16;
+    }
+
+    @Override
+    protected int compress(final byte[] src, final byte[] dst) {
+        writeInt(dst, 0, src.length);
+        int op = Integer.BYTES;
+        final int srcLength = src.length;
+        int anchor = 0;
+        if (srcLength >= MF_LIMIT + 1) {
+            final int[] hashTable = new int[1 << HASH_LOG];
+            Arrays.fill(hashTable, -1);
+            final int mfLimit = srcLength - MF_LIMIT;
+            final int matchLimit = srcLength - LAST_LITERALS;
+            int ip = 0;
+            while (ip < mfLimit) {
+                final int sequence = readInt(src, ip);
+                final int hash = hash(sequence);
+                int ref = hashTable[hash];
+                hashTable[hash] = ip;
+                if (ref < 0 || ip - ref > MAX_DISTANCE || readInt(src, ref) != sequence) {
+                    ip++;
+                    continue;
+                }
+                //extend backwards into pending literals
+                while (ip > anchor && ref > 0 && src[ip - 1] == src[ref - 1]) {
+                    ip--;
+                    ref--;
+                }
+                int matchLength = MIN_MATCH;
+                while (ip + matchLength < matchLimit && src[ip + matchLength] == src[ref + matchLength]) {
+                    matchLength++;
+                }
+                op = writeSequence(src, anchor, ip - anchor, dst, op, ip - ref, matchLength);
+                ip += matchLength;
+                anchor = ip;
+            }
+        }
+        //last literals
+        final int literalLength = srcLength - anchor;
+        op = writeSequence(src, anchor, literalLength, dst, op, 0, NO_MATCH);
+        return op;
+    }
+
+    /**
+     * Writes token, literal length extension, literals, offset and match length extension. The last sequence only
+     * consists of literals.
+     */
+    private static int writeSequence(final byte[] src, final int literalStart, final int literalLength,
+            final byte[] dst, final int opStart, final int offset, final int matchLength) {
+        int op = opStart;
+        final int tokenIndex = op++;
+        int token;
+        if (literalLength >= RUN_MASK) {
+            token = RUN_MASK << 4;
+            op = writeLengthExtension(dst, op, literalLength - RUN_MASK);
+        } else {
+            token = literalLength << 4;
+        }
+        System.arraycopy(src, literalStart, dst, op, literalLength);
+        op += literalLength;
+        if (matchLength != NO_MATCH) {
+            dst[op++] = (byte) offset;
+            dst[op++] = (byte) (offset >>> 8);
+            final int encodedMatchLength = matchLength - MIN_MATCH;
+            if (encodedMatchLength >= ML_MASK) {
+                token |= ML_MASK;
+                op = writeLengthExtension(dst, op, encodedMatchLength - ML_MASK);
+            } else {
+                token |= encodedMatchLength;
+            }
+        }
+        dst[tokenIndex] = (byte) token;
+        return op;
+    }
+
+    private static int writeLengthExtension(final byte[] dst, final int opStart, final int length) {
+        int op = opStart;
+        int remaining = length;
+        while (remaining >= 255) {
+            dst[op++] = (byte) 255;
+            remaining -= 255;
+        }
+        dst[op++] = (byte) remaining;
+        return op;
+    }
+
+    @Override
+    protected byte[] decompress(final ByteBuffer src, final int offset) {
+        final int length = src.getInt(offset);
+        final byte[] dst = new byte[length];
+        final int srcEnd = src.limit();
+        int ip = offset + Integer.BYTES;
+        int op = 0;
+        while (ip < srcEnd) {
+            final int token = src.get(ip++) & 0xFF;
+            int literalLength = token >>> 4;
+            if (literalLength == RUN_MASK) {
+                int b;
+                do {
+                    b = src.get(ip++) & 0xFF;
+                    literalLength += b;
+                } while (b == 255);
+            }
+            for (int i = 0; i < literalLength; i++) {
+                dst[op++] = src.get(ip++);
+            }
+            if (ip >= srcEnd) {
+                //last sequence has no match
+                break;
+            }
+            final int matchOffset = (src.get(ip) & 0xFF) | ((src.get(ip + 1) & 0xFF) << 8);
+            ip += 2;
+            int matchLength = token & ML_MASK;
+            if (matchLength == ML_MASK) {
+                int b;
+                do {
+                    b = src.get(ip++) & 0xFF;
+                    matchLength += b;
+                } while (b == 255);
+            }
+            matchLength += MIN_MATCH;
+            int ref = op - matchOffset;
+            //byte wise copy since the match might overlap with the output
+            for (int i = 0; i < matchLength; i++) {
+                dst[op++] = dst[ref++];
+            }
+        }
+        return dst;
+    }
+
+    private static int hash(final int sequence) {
+        return (sequence * -1640531535) >>> (32 - HASH_LOG);
+    }
+
+    private static int readInt(final byte[] src, final int index) {
+        return (src[index] & 0xFF) | ((src[index + 1] & 0xFF) << 8) | ((src[index + 2] & 0xFF) << 16)
+                | ((src[index + 3] & 0xFF) << 24);
+    }
+
+    private static void writeInt(final byte[] dst, final int index, final int value) {
+        ByteBuffer.wrap(dst).putInt(index, value);
+    }
+
+}
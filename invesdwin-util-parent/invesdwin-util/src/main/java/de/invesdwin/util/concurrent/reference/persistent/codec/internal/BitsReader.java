@@ -0,0 +1,37 @@
+package de.invesdwin.util.concurrent.reference.persistent.codec.internal;
+
+import java.nio.ByteBuffer;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+@NotThreadSafe
+public class BitsReader {
+
+    private final ByteBuffer source;
+    private int bytePosition;
+    private int bitsLeftInCurrentByte;
+    private int currentByte;
+
+    public BitsReader(final ByteBuffer source, final int offset) {
+        this.source = source;
+        this.bytePosition = offset;
+    }
+
+    public boolean readBit() {
+        if (bitsLeftInCurrentByte == 0) {
+            currentByte = source.get(bytePosition++) & 0xFF;
+            bitsLeftInCurrentByte = Byte.SIZE;
+        }
+        bitsLeftInCurrentByte--;
+        return ((currentByte >>> bitsLeftInCurrentByte) & 1) == 1;
+    }
+
+    public long readBits(final int bits) {
+        long value = 0;
+        for (int i = 0; i < bits; i++) {
+            value = (value << 1) | (readBit() ? 1L : 0L);
+        }
+        return value;
+    }
+
+}
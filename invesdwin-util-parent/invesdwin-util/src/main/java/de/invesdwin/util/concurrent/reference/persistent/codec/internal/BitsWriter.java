@@ -0,0 +1,52 @@
+package de.invesdwin.util.concurrent.reference.persistent.codec.internal;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+@NotThreadSafe
+public class BitsWriter {
+
+    private final byte[] target;
+    private int bytePosition;
+    private int bitsInCurrentByte;
+    private int currentByte;
+
+    public BitsWriter(final byte[] target, final int offset) {
+        this.target = target;
+        this.bytePosition = offset;
+    }
+
+    public void writeBit(final boolean bit) {
+        currentByte = (currentByte << 1) | (bit ? 1 : 0);
+        bitsInCurrentByte++;
+        if (bitsInCurrentByte == Byte.SIZE) {
+            flushByte();
+        }
+    }
+
+    /**
+     * Writes the lowest bits of value, most significant bit first.
+     */
+    public void writeBits(final long value, final int bits) {
+        for (int i = bits - 1; i >= 0; i--) {
+            writeBit(((value >>> i) & 1L) == 1L);
+        }
+    }
+
+    private void flushByte() {
+        target[bytePosition++] = (byte) currentByte;
+        currentByte = 0;
+        bitsInCurrentByte = 0;
+    }
+
+    /**
+     * Pads the last byte with zeros and returns the position after the last written byte.
+     */
+    public int finish() {
+        if (bitsInCurrentByte > 0) {
+            currentByte <<= Byte.SIZE - bitsInCurrentByte;
+            flushByte();
+        }
+        return bytePosition;
+    }
+
+}
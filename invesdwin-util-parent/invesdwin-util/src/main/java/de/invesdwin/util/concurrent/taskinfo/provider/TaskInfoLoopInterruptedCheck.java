@@ -0,0 +1,166 @@
+package de.invesdwin.util.concurrent.taskinfo.provider;
+
+import java.io.Closeable;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.concurrent.LoopInterruptedCheck;
+import de.invesdwin.util.concurrent.taskinfo.TaskInfoManager;
+import de.invesdwin.util.lang.Objects;
+import de.invesdwin.util.lang.Strings;
+import de.invesdwin.util.math.Doubles;
+import de.invesdwin.util.math.decimal.scaled.Percent;
+import de.invesdwin.util.time.Instant;
+import de.invesdwin.util.time.duration.AEstimatedRemainingDuration;
+import de.invesdwin.util.time.duration.Duration;
+
+/**
+ * Makes a long running loop observable via the TaskInfoManager. The loop thread only pays for the countdown in check(),
+ * progress and the estimated remaining duration are computed once per interval and published to the polling UI thread
+ * via volatile fields.
+ */
+@NotThreadSafe
+public class TaskInfoLoopInterruptedCheck extends LoopInterruptedCheck implements ITaskInfoProvider, Closeable {
+
+    private final String name;
+    private final long totalChecks;
+    private final Instant start;
+    private final EstimatedRemainingDuration estimatedRemainingDuration;
+    private volatile String description;
+    private volatile TaskInfoStatus status;
+    private volatile long publishedChecks;
+    private volatile double publishedChecksPerSecond;
+    private volatile Duration publishedRemainingDuration = AEstimatedRemainingDuration.UNKNOWN_DURATION;
+
+    public TaskInfoLoopInterruptedCheck(final String name) {
+        this(name, Duration.ONE_SECOND, -1);
+    }
+
+    public TaskInfoLoopInterruptedCheck(final String name, final long totalChecks) {
+        this(name, Duration.ONE_SECOND, totalChecks);
+    }
+
+    /**
+     * @param totalChecks
+     *            the expected number of calls to check() or a negative value if unknown, in that case no progress or
+     *            remaining duration is reported
+     */
+    public TaskInfoLoopInterruptedCheck(final String name, final Duration checkInterval, final long totalChecks) {
+        super(checkInterval);
+        if (name == null) {
+            throw new NullPointerException("name should not be null");
+        }
+        this.name = name;
+        this.totalChecks = totalChecks;
+        this.start = new Instant();
+        if (totalChecks > 0) {
+            this.estimatedRemainingDuration = new EstimatedRemainingDuration();
+        } else {
+            this.estimatedRemainingDuration = null;
+        }
+        this.status = TaskInfoStatus.CREATED;
+        TaskInfoManager.onCreated(this);
+        this.status = TaskInfoStatus.STARTED;
+        TaskInfoManager.onStarted(this);
+    }
+
+    public TaskInfoLoopInterruptedCheck withDescription(final String description) {
+        this.description = description;
+        return this;
+    }
+
+    @Override
+    protected void onInterval() throws InterruptedException {
+        super.onInterval();
+        publishedChecks = getChecksBeforeInterval();
+        publishedChecksPerSecond = getChecksPerSecond();
+        if (estimatedRemainingDuration != null) {
+            publishedRemainingDuration = estimatedRemainingDuration.getEstimatedRemainingDuration();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getDescription() {
+        final StringBuilder sb = new StringBuilder();
+        final String descriptionCopy = description;
+        if (Strings.isNotBlank(descriptionCopy)) {
+            sb.append(descriptionCopy);
+            sb.append(": ");
+        }
+        sb.append(publishedChecks);
+        if (totalChecks > 0) {
+            sb.append("/");
+            sb.append(totalChecks);
+        }
+        sb.append(" (");
+        sb.append(Doubles.round(publishedChecksPerSecond, 2));
+        sb.append("/s");
+        final Duration remainingDuration = publishedRemainingDuration;
+        if (!remainingDuration.isZero()) {
+            sb.append(", ");
+            sb.append(remainingDuration);
+            sb.append(" remaining");
+        }
+        sb.append(")");
+        return sb.toString();
+    }
+
+    @Override
+    public TaskInfoStatus getStatus() {
+        return status;
+    }
+
+    @Override
+    public Percent getProgress() {
+        if (totalChecks <= 0) {
+            return null;
+        }
+        return new Percent(Math.min(publishedChecks, totalChecks), totalChecks);
+    }
+
+    public double getPublishedChecksPerSecond() {
+        return publishedChecksPerSecond;
+    }
+
+    public Duration getEstimatedRemainingDuration() {
+        return publishedRemainingDuration;
+    }
+
+    @Override
+    public boolean isIneritable() {
+        return false;
+    }
+
+    @Override
+    public void close() {
+        if (status != TaskInfoStatus.COMPLETED) {
+            status = TaskInfoStatus.COMPLETED;
+            TaskInfoManager.onCompleted(this);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toStringHelper(this).add("name", name).add("identity", hashCode()).toString();
+    }
+
+    private final class EstimatedRemainingDuration extends AEstimatedRemainingDuration {
+
+        @Override
+        protected Duration getElapsedDuration() {
+            return start.toDuration();
+        }
+
+        @Override
+        protected Percent getProgressPercent() {
+            return getProgress();
+        }
+
+    }
+
+}
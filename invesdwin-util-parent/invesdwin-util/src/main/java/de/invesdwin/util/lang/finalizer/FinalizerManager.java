@@ -1,10 +1,5 @@
 package de.invesdwin.util.lang.finalizer;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
-
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 
@@ -13,6 +8,7 @@ import de.invesdwin.util.error.Throwables;
 import de.invesdwin.util.lang.finalizer.internal.FallbackFinalizerManagerProvider;
 import de.invesdwin.util.lang.finalizer.internal.IFinalizerManagerProvider;
 import de.invesdwin.util.lang.finalizer.internal.JavaFinalizerManagerProvider;
+import de.invesdwin.util.lang.finalizer.internal.PooledFinalizerManagerProvider;
 import de.invesdwin.util.lang.reflection.Reflections;
 import io.netty.util.concurrent.FastThreadLocal;
 
@@ -21,44 +17,67 @@ public final class FinalizerManager {
 
     private static final org.slf4j.ext.XLogger LOG = org.slf4j.ext.XLoggerFactory.getXLogger(FinalizerManager.class);
 
-    private static final IFinalizerManagerProvider PROVIDER;
+    private static final IFinalizerManagerProvider DEFAULT_PROVIDER;
 
-    private static final FastThreadLocal<List<WeakThreadLocalFinalizerReference>> THREAD_LOCAL_FINALIZERS = new FastThreadLocal<List<WeakThreadLocalFinalizerReference>>() {
+    private static final FastThreadLocal<ThreadLocalFinalizers> THREAD_LOCAL_FINALIZERS = new FastThreadLocal<ThreadLocalFinalizers>() {
         @Override
-        protected List<WeakThreadLocalFinalizerReference> initialValue() throws Exception {
-            //garbage collector thread accesses this too 
-            return Collections.synchronizedList(new ArrayList<WeakThreadLocalFinalizerReference>());
+        protected ThreadLocalFinalizers initialValue() throws Exception {
+            return new ThreadLocalFinalizers();
         }
 
         @Override
-        protected void onRemoval(final List<WeakThreadLocalFinalizerReference> value) throws Exception {
+        protected void onRemoval(final ThreadLocalFinalizers value) throws Exception {
             //thread context changed, call finalizers
-            try {
-                for (int i = 0; i < value.size(); i++) {
-                    final WeakThreadLocalFinalizerReference v = value.get(i);
-                    if (v != null) {
-                        final ThreadLocalFinalizerReference reference = v.get();
-                        if (reference != null) {
-                            reference.run();
-                        }
-                    }
-                }
-            } catch (final ArrayIndexOutOfBoundsException e) {
-                //end reached, might happen due to compressing reference removing last element
-            }
+            value.runAll();
         }
     };
 
     static {
         if (Reflections.classExists(IFinalizerManagerProvider.JAVA_CLEANER_CLASS)) {
-            PROVIDER = new JavaFinalizerManagerProvider();
+            DEFAULT_PROVIDER = new JavaFinalizerManagerProvider();
         } else {
-            PROVIDER = new FallbackFinalizerManagerProvider();
+            DEFAULT_PROVIDER = new FallbackFinalizerManagerProvider();
         }
     }
 
+    private static volatile IFinalizerManagerProvider provider = DEFAULT_PROVIDER;
+
     private FinalizerManager() {}
 
+    /**
+     * Enables a low overhead registration mode for iterator heavy code paths: registrations are stored in a pooled slab
+     * registry with O(1) unregistration on close() and leaked references are drained in batches. References that were
+     * registered before switching the mode stay with the provider they were registered with.
+     */
+    public static void setPooledRegistrationEnabled(final boolean enabled) {
+        if (enabled) {
+            if (!(provider instanceof PooledFinalizerManagerProvider)) {
+                provider = new PooledFinalizerManagerProvider();
+            }
+        } else {
+            provider = DEFAULT_PROVIDER;
+        }
+    }
+
+    public static boolean isPooledRegistrationEnabled() {
+        return provider instanceof PooledFinalizerManagerProvider;
+    }
+
+    /**
+     * Number of finalizers of the current registration mode that are neither closed nor finalized yet.
+     */
+    public static long getLiveCount() {
+        return provider.getLiveCount();
+    }
+
+    /**
+     * Number of finalizers of the current registration mode that were not closed explicitly and thus had to be run by
+     * the garbage collector. A growing number indicates that close() is missing somewhere.
+     */
+    public static long getLeakedCount() {
+        return provider.getLeakedCount();
+    }
+
     public static IFinalizerReference register(final Object obj, final AFinalizer finalizer) {
         if (Throwables.isDebugStackTraceEnabled()) {
             try {
@@ -70,29 +89,93 @@ public final class FinalizerManager {
         }
         if (finalizer.isThreadLocal()) {
             final ThreadLocalFinalizerReference threadLocal = new ThreadLocalFinalizerReference(finalizer);
-            final IFinalizerReference reference = PROVIDER.register(obj, threadLocal);
+            final IFinalizerReference reference = provider.register(obj, threadLocal);
             threadLocal.setReference(reference);
             return threadLocal;
         } else {
-            final IFinalizerReference reference = PROVIDER.register(obj, finalizer);
+            final IFinalizerReference reference = provider.register(obj, finalizer);
             return reference;
         }
     }
 
+    /**
+     * Intrusive doubly linked list so that unregistering a closed finalizer does not need to scan all entries.
+     */
+    private static final class ThreadLocalFinalizers {
+
+        @GuardedBy("this")
+        private WeakThreadLocalFinalizerReference head;
+
+        private synchronized void add(final WeakThreadLocalFinalizerReference reference) {
+            reference.next = head;
+            if (head != null) {
+                head.prev = reference;
+            }
+            head = reference;
+            reference.linked = true;
+        }
+
+        private synchronized void remove(final WeakThreadLocalFinalizerReference reference) {
+            if (!reference.linked) {
+                return;
+            }
+            if (reference.prev != null) {
+                reference.prev.next = reference.next;
+            } else {
+                head = reference.next;
+            }
+            if (reference.next != null) {
+                reference.next.prev = reference.prev;
+            }
+            reference.prev = null;
+            reference.next = null;
+            reference.linked = false;
+        }
+
+        private void runAll() {
+            while (true) {
+                final WeakThreadLocalFinalizerReference first;
+                synchronized (this) {
+                    first = head;
+                    if (first == null) {
+                        return;
+                    }
+                    remove(first);
+                }
+                //run outside of the lock since the finalizer might need to unlink itself
+                final ThreadLocalFinalizerReference reference = first.get();
+                if (reference != null) {
+                    reference.run();
+                }
+            }
+        }
+
+    }
+
     private static final class WeakThreadLocalFinalizerReference
             extends ACompressingWeakReference<ThreadLocalFinalizerReference, Void> {
 
-        private final Collection<WeakThreadLocalFinalizerReference> collection;
+        private final ThreadLocalFinalizers finalizers;
+        @GuardedBy("finalizers")
+        private WeakThreadLocalFinalizerReference prev;
+        @GuardedBy("finalizers")
+        private WeakThreadLocalFinalizerReference next;
+        @GuardedBy("finalizers")
+        private boolean linked;
 
-        private WeakThreadLocalFinalizerReference(final Collection<WeakThreadLocalFinalizerReference> collection,
+        private WeakThreadLocalFinalizerReference(final ThreadLocalFinalizers finalizers,
                 final ThreadLocalFinalizerReference referent) {
             super(referent);
-            this.collection = collection;
+            this.finalizers = finalizers;
+        }
+
+        private void unlink() {
+            finalizers.remove(this);
         }
 
         @Override
         protected Void toCompressed(final ThreadLocalFinalizerReference referent) throws Exception {
-            collection.remove(this);
+            unlink();
             return null;
         }
 
@@ -112,9 +195,9 @@ public final class FinalizerManager {
 
         private ThreadLocalFinalizerReference(final AFinalizer finalizer) {
             this.finalizer = finalizer;
-            final Collection<WeakThreadLocalFinalizerReference> collection = THREAD_LOCAL_FINALIZERS.get();
-            this.weakReference = new WeakThreadLocalFinalizerReference(collection, this);
-            collection.add(weakReference);
+            final ThreadLocalFinalizers finalizers = THREAD_LOCAL_FINALIZERS.get();
+            this.weakReference = new WeakThreadLocalFinalizerReference(finalizers, this);
+            finalizers.add(weakReference);
         }
 
         //no need to synchronize here
@@ -136,8 +219,7 @@ public final class FinalizerManager {
 
         private void cleanReferenceLocked() {
             finalizer = null;
-            final Collection<WeakThreadLocalFinalizerReference> collection = THREAD_LOCAL_FINALIZERS.get();
-            collection.remove(weakReference);
+            weakReference.unlink();
             reference.cleanReference();
             reference = null;
         }
@@ -6,6 +6,7 @@ import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
@@ -30,6 +31,7 @@ public class FallbackFinalizerManagerProvider implements IFinalizerManagerProvid
             .newConcurrentSet();
     private static final ReferenceQueue<Object> REFERENCE_QUEUE = new ReferenceQueue<Object>();
     private static final AtomicBoolean CLEANER_RUNNING = new AtomicBoolean(false);
+    private static final AtomicLong LEAKED_COUNT = new AtomicLong();
     private static final Runnable CLEANER_TASK = new Runnable() {
         @Override
         public void run() {
@@ -47,6 +49,7 @@ public class FallbackFinalizerManagerProvider implements IFinalizerManagerProvid
                         continue;
                     }
                     if (reference != null) {
+                        LEAKED_COUNT.incrementAndGet();
                         try {
                             reference.cleanup();
                         } catch (final Throwable ignored) {
@@ -116,6 +119,16 @@ public class FallbackFinalizerManagerProvider implements IFinalizerManagerProvid
         return new FinalizerReference(reference);
     }
 
+    @Override
+    public long getLiveCount() {
+        return CLEANERS.size();
+    }
+
+    @Override
+    public long getLeakedCount() {
+        return LEAKED_COUNT.get();
+    }
+
     private static final class AutomaticCleanerReference extends PhantomReference<Object> {
         private final Runnable cleanupTask;
 
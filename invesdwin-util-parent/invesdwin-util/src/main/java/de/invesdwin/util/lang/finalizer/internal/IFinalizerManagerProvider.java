@@ -8,4 +8,14 @@ public interface IFinalizerManagerProvider {
 
     IFinalizerReference register(Object obj, Runnable finalizer);
 
+    /**
+     * Number of references that are registered and were neither closed nor finalized yet.
+     */
+    long getLiveCount();
+
+    /**
+     * Number of references that had to be finalized by the garbage collector because they were not closed explicitly.
+     */
+    long getLeakedCount();
+
 }
@@ -5,6 +5,7 @@ import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodHandles.Lookup;
 import java.lang.reflect.Method;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.annotation.concurrent.ThreadSafe;
 
@@ -20,6 +21,8 @@ public class JavaFinalizerManagerProvider implements IFinalizerManagerProvider {
     private static final Object CLEANER;
     private static final MethodHandle CLEANER_REGISTER_METHOD;
     private static final MethodHandle CLEANABLE_CLEAN_METHOD;
+    private static final AtomicLong LIVE_COUNT = new AtomicLong();
+    private static final AtomicLong LEAKED_COUNT = new AtomicLong();
 
     static {
         try {
@@ -42,11 +45,22 @@ public class JavaFinalizerManagerProvider implements IFinalizerManagerProvider {
         }
     }
 
-    private static final class FinalizerReference implements IFinalizerReference {
+    /**
+     * The reference itself is registered as the cleaning action, this allows to distinguish leaked from closed
+     * references without an additional allocation.
+     */
+    private static final class FinalizerReference implements IFinalizerReference, Runnable {
 
+        private final Runnable cleanableAction;
+        private volatile boolean closed;
         private Object cleanable;
 
-        private FinalizerReference(final Object cleanable) {
+        private FinalizerReference(final Runnable cleanableAction) {
+            Assertions.checkNotNull(cleanableAction);
+            this.cleanableAction = cleanableAction;
+        }
+
+        private void setCleanable(final Object cleanable) {
             Assertions.checkNotNull(cleanable);
             this.cleanable = cleanable;
         }
@@ -57,6 +71,7 @@ public class JavaFinalizerManagerProvider implements IFinalizerManagerProvider {
                 synchronized (this) {
                     if (cleanable != null) {
                         try {
+                            closed = true;
                             CLEANABLE_CLEAN_METHOD.invoke(cleanable);
                             cleanable = null;
                         } catch (final Throwable e) {
@@ -67,16 +82,44 @@ public class JavaFinalizerManagerProvider implements IFinalizerManagerProvider {
             }
         }
 
+        /**
+         * The cleaner guarantees that this is called at most once.
+         */
+        @Override
+        public void run() {
+            LIVE_COUNT.decrementAndGet();
+            if (!closed) {
+                LEAKED_COUNT.incrementAndGet();
+            }
+            cleanableAction.run();
+        }
+
     }
 
     @Override
     public IFinalizerReference register(final Object obj, final Runnable cleanableAction) {
+        final FinalizerReference reference = new FinalizerReference(cleanableAction);
+        //the cleaner might already run the reference before register returns, thus count it beforehand
+        LIVE_COUNT.incrementAndGet();
+        final Object cleanable;
         try {
-            final Object cleanable = CLEANER_REGISTER_METHOD.invoke(CLEANER, obj, cleanableAction);
-            return new FinalizerReference(cleanable);
+            cleanable = CLEANER_REGISTER_METHOD.invoke(CLEANER, obj, reference);
         } catch (final Throwable e) {
+            LIVE_COUNT.decrementAndGet();
             throw new RuntimeException(e);
         }
+        reference.setCleanable(cleanable);
+        return reference;
+    }
+
+    @Override
+    public long getLiveCount() {
+        return LIVE_COUNT.get();
+    }
+
+    @Override
+    public long getLeakedCount() {
+        return LEAKED_COUNT.get();
     }
 
 }
@@ -0,0 +1,222 @@
+package de.invesdwin.util.lang.finalizer.internal;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.lang.finalizer.FinalizerManager;
+import de.invesdwin.util.lang.finalizer.IFinalizerReference;
+import de.invesdwin.util.time.duration.Duration;
+import de.invesdwin.util.time.fdate.FTimeUnit;
+import io.netty.util.concurrent.FastThreadLocalThread;
+
+/**
+ * Low overhead alternative to the other providers for iterator heavy code paths:
+ * 
+ * <ul>
+ * <li>the phantom reference itself is the returned IFinalizerReference, so only one object gets allocated per
+ * registration</li>
+ * <li>live references are stored in slabs of fixed size slots that never get copied when growing, freed slots are
+ * reused via a free list</li>
+ * <li>unregistering on an explicit close() is O(1) since each reference knows its slot</li>
+ * <li>the reference queue is drained in batches by a background thread so that freeing slots of leaked references
+ * only needs one lock acquisition per batch</li>
+ * </ul>
+ */
+@ThreadSafe
+public class PooledFinalizerManagerProvider implements IFinalizerManagerProvider {
+
+    private static final int SLAB_SIZE = 1024;
+    private static final int DRAIN_BATCH_SIZE = 256;
+    private static final int REFERENCE_QUEUE_POLL_TIMEOUT_MS = Duration.ONE_SECOND.intValue(FTimeUnit.MILLISECONDS);
+    private static final int NOT_REGISTERED = -1;
+
+    private final ReferenceQueue<Object> referenceQueue = new ReferenceQueue<Object>();
+    private final AtomicBoolean drainerRunning = new AtomicBoolean(false);
+    private final AtomicLong leakedCount = new AtomicLong();
+    private final Object slotsLock = new Object();
+    @GuardedBy("slotsLock")
+    private PooledFinalizerReference[][] slabs = new PooledFinalizerReference[0][];
+    @GuardedBy("slotsLock")
+    private int[] freeSlots = new int[SLAB_SIZE];
+    @GuardedBy("slotsLock")
+    private int freeSlotsCount;
+    @GuardedBy("slotsLock")
+    private int usedSlotsCount;
+    @GuardedBy("slotsLock")
+    private int liveCount;
+
+    @Override
+    public IFinalizerReference register(final Object obj, final Runnable finalizer) {
+        Assertions.checkNotNull(obj);
+        Assertions.checkNotNull(finalizer);
+        final PooledFinalizerReference reference = new PooledFinalizerReference(obj, finalizer);
+        synchronized (slotsLock) {
+            final int slot = nextFreeSlot();
+            slabs[slot / SLAB_SIZE][slot % SLAB_SIZE] = reference;
+            reference.slot = slot;
+            liveCount++;
+        }
+        maybeStartDrainer();
+        return reference;
+    }
+
+    @Override
+    public long getLiveCount() {
+        synchronized (slotsLock) {
+            return liveCount;
+        }
+    }
+
+    @Override
+    public long getLeakedCount() {
+        return leakedCount.get();
+    }
+
+    @GuardedBy("slotsLock")
+    private int nextFreeSlot() {
+        if (freeSlotsCount > 0) {
+            freeSlotsCount--;
+            return freeSlots[freeSlotsCount];
+        }
+        final int slot = usedSlotsCount;
+        if (slot / SLAB_SIZE >= slabs.length) {
+            //only the outer array gets copied, existing slabs stay as they are
+            slabs = Arrays.copyOf(slabs, slabs.length + 1);
+            slabs[slabs.length - 1] = new PooledFinalizerReference[SLAB_SIZE];
+            freeSlots = Arrays.copyOf(freeSlots, slabs.length * SLAB_SIZE);
+        }
+        usedSlotsCount++;
+        return slot;
+    }
+
+    @GuardedBy("slotsLock")
+    private boolean freeSlot(final PooledFinalizerReference reference) {
+        final int slot = reference.slot;
+        if (slot == NOT_REGISTERED) {
+            return false;
+        }
+        slabs[slot / SLAB_SIZE][slot % SLAB_SIZE] = null;
+        reference.slot = NOT_REGISTERED;
+        freeSlots[freeSlotsCount] = slot;
+        freeSlotsCount++;
+        liveCount--;
+        return true;
+    }
+
+    private void unregister(final PooledFinalizerReference reference) {
+        synchronized (slotsLock) {
+            freeSlot(reference);
+        }
+    }
+
+    private void maybeStartDrainer() {
+        if (drainerRunning.get() || !drainerRunning.compareAndSet(false, true)) {
+            return;
+        }
+        final Thread drainerThread = new FastThreadLocalThread(new Runnable() {
+            @Override
+            public void run() {
+                drain();
+            }
+        });
+        drainerThread.setPriority(Thread.MIN_PRIORITY);
+        //prevent classloader leaks, see FallbackFinalizerManagerProvider
+        AccessController.doPrivileged(new PrivilegedAction<Void>() {
+            @Override
+            public Void run() {
+                drainerThread.setContextClassLoader(null);
+                return null;
+            }
+        });
+        drainerThread.setName(FinalizerManager.class.getSimpleName() + "_" + getClass().getSimpleName());
+        drainerThread.setDaemon(true);
+        drainerThread.start();
+    }
+
+    private void drain() {
+        final PooledFinalizerReference[] batch = new PooledFinalizerReference[DRAIN_BATCH_SIZE];
+        boolean interrupted = false;
+        while (true) {
+            while (getLiveCount() > 0) {
+                final PooledFinalizerReference first;
+                try {
+                    first = (PooledFinalizerReference) referenceQueue.remove(REFERENCE_QUEUE_POLL_TIMEOUT_MS);
+                } catch (final InterruptedException e) {
+                    interrupted = true;
+                    continue;
+                }
+                if (first == null) {
+                    continue;
+                }
+                int batchSize = 0;
+                batch[batchSize++] = first;
+                while (batchSize < DRAIN_BATCH_SIZE) {
+                    final PooledFinalizerReference next = (PooledFinalizerReference) referenceQueue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch[batchSize++] = next;
+                }
+                //free all slots with one lock acquisition, references that were closed explicitly are skipped
+                synchronized (slotsLock) {
+                    for (int i = 0; i < batchSize; i++) {
+                        if (!freeSlot(batch[i])) {
+                            batch[i] = null;
+                        }
+                    }
+                }
+                for (int i = 0; i < batchSize; i++) {
+                    final PooledFinalizerReference reference = batch[i];
+                    if (reference != null) {
+                        leakedCount.incrementAndGet();
+                        try {
+                            reference.cleanupTask.run();
+                        } catch (final Throwable ignored) {
+                            // ignore exceptions, and don't log in case the logger throws an exception, blocks, or has
+                            // other unexpected side effects.
+                        }
+                        batch[i] = null;
+                    }
+                }
+            }
+            drainerRunning.set(false);
+
+            // first check the live count and then the running flag, see FallbackFinalizerManagerProvider
+            if (getLiveCount() == 0 || !drainerRunning.compareAndSet(false, true)) {
+                break;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private final class PooledFinalizerReference extends PhantomReference<Object> implements IFinalizerReference {
+
+        private final Runnable cleanupTask;
+        @GuardedBy("slotsLock")
+        private int slot = NOT_REGISTERED;
+
+        private PooledFinalizerReference(final Object referent, final Runnable cleanupTask) {
+            super(referent, referenceQueue);
+            this.cleanupTask = cleanupTask;
+        }
+
+        @Override
+        public void cleanReference() {
+            unregister(this);
+            clear();
+        }
+
+    }
+
+}
@@ -0,0 +1,28 @@
+package de.invesdwin.util.marshallers.jackson;
+
+import java.io.IOException;
+
+import javax.annotation.concurrent.Immutable;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.std.NumberDeserializers.BigDecimalDeserializer;
+
+import de.invesdwin.util.math.decimal.fixed.FixedDecimal;
+
+@Immutable
+public final class FixedDecimalDeserializer extends JsonDeserializer<FixedDecimal> {
+
+    public static final FixedDecimalDeserializer INSTANCE = new FixedDecimalDeserializer();
+
+    private FixedDecimalDeserializer() {}
+
+    @Override
+    public FixedDecimal deserialize(final JsonParser p, final DeserializationContext ctxt)
+            throws IOException, JsonProcessingException {
+        return FixedDecimal.valueOf(BigDecimalDeserializer.instance.deserialize(p, ctxt));
+    }
+
+}
\ No newline at end of file
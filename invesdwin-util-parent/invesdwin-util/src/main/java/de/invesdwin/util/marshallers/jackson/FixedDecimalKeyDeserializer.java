@@ -0,0 +1,28 @@
+package de.invesdwin.util.marshallers.jackson;
+
+import java.io.IOException;
+
+import javax.annotation.concurrent.Immutable;
+
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.KeyDeserializer;
+
+import de.invesdwin.util.lang.Strings;
+import de.invesdwin.util.math.decimal.fixed.FixedDecimal;
+
+@Immutable
+public final class FixedDecimalKeyDeserializer extends KeyDeserializer {
+
+    public static final FixedDecimalKeyDeserializer INSTANCE = new FixedDecimalKeyDeserializer();
+
+    private FixedDecimalKeyDeserializer() {}
+
+    @Override
+    public Object deserializeKey(final String key, final DeserializationContext ctxt) throws IOException {
+        if (Strings.isEmpty(key)) {
+            return null;
+        }
+        return FixedDecimal.valueOf(key);
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+package de.invesdwin.util.marshallers.jackson;
+
+import java.io.IOException;
+
+import javax.annotation.concurrent.Immutable;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdKeySerializers;
+
+import de.invesdwin.util.math.decimal.fixed.FixedDecimal;
+
+@Immutable
+public final class FixedDecimalKeySerializer extends JsonSerializer<FixedDecimal> {
+
+    public static final FixedDecimalKeySerializer INSTANCE = new FixedDecimalKeySerializer();
+
+    private final JsonSerializer<Object> delegate = StdKeySerializers.getStdKeySerializer(null, Number.class, false);
+
+    private FixedDecimalKeySerializer() {}
+
+    @Override
+    public void serialize(final FixedDecimal value, final JsonGenerator gen, final SerializerProvider serializers)
+            throws IOException {
+        delegate.serialize(value, gen, serializers);
+    }
+
+}
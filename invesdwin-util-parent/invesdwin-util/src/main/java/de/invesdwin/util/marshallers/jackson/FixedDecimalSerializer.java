@@ -0,0 +1,27 @@
+package de.invesdwin.util.marshallers.jackson;
+
+import java.io.IOException;
+
+import javax.annotation.concurrent.Immutable;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.NumberSerializer;
+
+import de.invesdwin.util.math.decimal.fixed.FixedDecimal;
+
+@Immutable
+public final class FixedDecimalSerializer extends JsonSerializer<FixedDecimal> {
+
+    public static final FixedDecimalSerializer INSTANCE = new FixedDecimalSerializer();
+
+    private FixedDecimalSerializer() {}
+
+    @Override
+    public void serialize(final FixedDecimal value, final JsonGenerator gen, final SerializerProvider serializers)
+            throws IOException {
+        NumberSerializer.instance.serialize(value, gen, serializers);
+    }
+
+}
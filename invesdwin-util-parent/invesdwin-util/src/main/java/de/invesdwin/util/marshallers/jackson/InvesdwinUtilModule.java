@@ -5,6 +5,7 @@ import javax.annotation.concurrent.NotThreadSafe;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 
 import de.invesdwin.util.math.decimal.Decimal;
+import de.invesdwin.util.math.decimal.fixed.FixedDecimal;
 import de.invesdwin.util.time.duration.Duration;
 import de.invesdwin.util.time.fdate.FDate;
 
@@ -23,6 +24,11 @@ public class InvesdwinUtilModule extends SimpleModule {
         addKeySerializer(Decimal.class, DecimalKeySerializer.INSTANCE);
         addKeyDeserializer(Decimal.class, DecimalKeyDeserializer.INSTANCE);
 
+        addDeserializer(FixedDecimal.class, FixedDecimalDeserializer.INSTANCE);
+        addSerializer(FixedDecimal.class, FixedDecimalSerializer.INSTANCE);
+        addKeySerializer(FixedDecimal.class, FixedDecimalKeySerializer.INSTANCE);
+        addKeyDeserializer(FixedDecimal.class, FixedDecimalKeyDeserializer.INSTANCE);
+
         addDeserializer(Duration.class, DurationDeserializer.INSTANCE);
         addSerializer(Duration.class, DurationSerializer.INSTANCE);
         addKeySerializer(Duration.class, DurationKeySerializer.INSTANCE);
@@ -67,6 +67,21 @@ public abstract class ADecimal<E extends ADecimal<E>> extends Number implements
 
     public abstract E fromDefaultValue(double value);
 
+    /**
+     * Like newValueCopy but may return a shared instance for values that are recreated frequently (e.g. rounding
+     * results).
+     */
+    protected E newValueCopyInterned(final double value) {
+        return newValueCopy(value);
+    }
+
+    /**
+     * Like fromDefaultValue but may return a shared instance for values that are recreated frequently.
+     */
+    protected E fromDefaultValueInterned(final double value) {
+        return fromDefaultValue(value);
+    }
+
     public List<E> fromDefaultValueVector(final List<Double> vector) {
         if (vector == null) {
             return null;
@@ -438,7 +453,7 @@ public abstract class ADecimal<E extends ADecimal<E>> extends Number implements
     }
 
     public E round(final int scale, final RoundingMode roundingMode) {
-        return newValueCopy(Doubles.round(getValue(), scale, roundingMode));
+        return newValueCopyInterned(Doubles.round(getValue(), scale, roundingMode));
     }
 
     /**
@@ -712,7 +727,7 @@ public abstract class ADecimal<E extends ADecimal<E>> extends Number implements
     }
 
     public E roundToStep(final ADecimal<E> step, final RoundingMode roundingMode) {
-        return fromDefaultValue((Doubles.roundToStep(getDefaultValue(), step.getDefaultValue())));
+        return fromDefaultValueInterned((Doubles.roundToStep(getDefaultValue(), step.getDefaultValue())));
     }
 
     public E reciprocal() {
@@ -13,6 +13,7 @@ import de.invesdwin.util.collections.list.Lists;
 import de.invesdwin.util.lang.Objects;
 import de.invesdwin.util.math.Doubles;
 import de.invesdwin.util.math.decimal.internal.DecimalAggregate;
+import de.invesdwin.util.math.decimal.internal.DoubleArrayDecimalAggregate;
 import de.invesdwin.util.math.decimal.internal.DummyDecimalAggregate;
 import de.invesdwin.util.math.decimal.scaled.IDecimalScale;
 
@@ -282,4 +283,17 @@ public abstract class AScaledDecimal<T extends AScaledDecimal<T, S>, S extends I
         }
     }
 
+    /**
+     * Keeps the default values in the primitive array (which should not be modified afterwards) instead of allocating
+     * one object per element.
+     */
+    public static <D extends ADecimal<D>> IDecimalAggregate<D> valueOf(final D converter,
+            final double[] defaultValues) {
+        if (defaultValues == null || defaultValues.length == 0) {
+            return DummyDecimalAggregate.getInstance();
+        } else {
+            return new DoubleArrayDecimalAggregate<D>(defaultValues, converter);
+        }
+    }
+
 }
@@ -15,7 +15,9 @@ import de.invesdwin.util.bean.tuple.Pair;
 import de.invesdwin.util.collections.loadingcache.ALoadingCache;
 import de.invesdwin.util.lang.Strings;
 import de.invesdwin.util.math.Doubles;
+import de.invesdwin.util.math.decimal.flyweight.DecimalFlyweights;
 import de.invesdwin.util.math.decimal.internal.DecimalAggregate;
+import de.invesdwin.util.math.decimal.internal.DoubleArrayDecimalAggregate;
 import de.invesdwin.util.math.decimal.internal.DummyDecimalAggregate;
 import io.netty.util.concurrent.FastThreadLocal;
 
@@ -132,6 +134,16 @@ public class Decimal extends ADecimal<Decimal> {
         return new Decimal(value);
     }
 
+    @Override
+    protected Decimal newValueCopyInterned(final double value) {
+        return DecimalFlyweights.getDecimal(value);
+    }
+
+    @Override
+    protected Decimal fromDefaultValueInterned(final double value) {
+        return DecimalFlyweights.getDecimal(value);
+    }
+
     @Override
     public double getDefaultValue() {
         return getValue();
@@ -167,14 +179,14 @@ public class Decimal extends ADecimal<Decimal> {
     }
 
     public static Decimal valueOf(final double value) {
-        return new Decimal(value);
+        return DecimalFlyweights.getDecimal(value);
     }
 
     public static Decimal valueOf(final Double value) {
         if (value == null) {
             return null;
         } else {
-            return new Decimal(value);
+            return DecimalFlyweights.getDecimal(value);
         }
     }
 
@@ -254,6 +266,18 @@ public class Decimal extends ADecimal<Decimal> {
         }
     }
 
+    /**
+     * Keeps the values in the primitive array (which should not be modified afterwards) instead of allocating one
+     * object per element.
+     */
+    public static IDecimalAggregate<Decimal> valueOf(final double[] values) {
+        if (values == null || values.length == 0) {
+            return DummyDecimalAggregate.getInstance();
+        } else {
+            return new DoubleArrayDecimalAggregate<Decimal>(values, Decimal.ZERO);
+        }
+    }
+
     public static String newDefaultDecimalFormat(final int decimalDigits) {
         String format = "#,##0";
         if (decimalDigits > 0) {
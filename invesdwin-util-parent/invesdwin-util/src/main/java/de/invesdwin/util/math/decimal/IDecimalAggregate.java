@@ -202,4 +202,10 @@ public interface IDecimalAggregate<E extends ADecimal<E>> {
 
     IDecimalAggregateRandomizers<E> randomize();
 
+    /**
+     * Returns an aggregate that records element-wise operations and fuses them into a single loop as soon as a reducer
+     * or values() is called. Operations that need random access materialize the pipeline.
+     */
+    IDecimalAggregate<E> lazy();
+
 }
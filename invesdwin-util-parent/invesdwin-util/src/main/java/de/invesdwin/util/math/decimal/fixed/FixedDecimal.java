@@ -0,0 +1,367 @@
+package de.invesdwin.util.math.decimal.fixed;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.invesdwin.util.math.decimal.ADecimal;
+import de.invesdwin.util.math.decimal.Decimal;
+
+/**
+ * Fixed point decimal that stores an unscaled long together with the number of fraction digits (scale), thus
+ * value = unscaledValue / 10^scale. In contrast to Decimal (which is backed by a double) additions and subtractions are
+ * exact and multiplications/divisions are rounded HALF_UP to the scale of the result, which makes this suitable for
+ * money calculations. Arithmetic works on primitive longs and only falls back to BigInteger when an intermediate
+ * result would overflow. Use MutableFixedDecimal to accumulate without allocating a new instance per operation.
+ * 
+ * Like BigDecimal, equals and hashCode also consider the scale, use compareTo for numerical equality.
+ */
+@Immutable
+public final class FixedDecimal extends Number implements Comparable<FixedDecimal> {
+
+    public static final int MAX_SCALE = 18;
+    public static final int DEFAULT_SCALE = 8;
+    /**
+     * unscaled value (long) + scale (byte)
+     */
+    public static final int BYTES = Long.BYTES + Byte.BYTES;
+    public static final FixedDecimal ZERO = new FixedDecimal(0L, 0);
+    public static final FixedDecimal ONE = new FixedDecimal(1L, 0);
+
+    private static final long serialVersionUID = 1L;
+    private static final byte NULL_SCALE = -1;
+    private static final long[] POWERS_OF_TEN = newPowersOfTen();
+    private static final long MAX_SAFE_FACTOR = Integer.MAX_VALUE;
+
+    private final long unscaledValue;
+    private final int scale;
+
+    public FixedDecimal(final long unscaledValue, final int scale) {
+        checkScale(scale);
+        this.unscaledValue = unscaledValue;
+        this.scale = scale;
+    }
+
+    private static long[] newPowersOfTen() {
+        final long[] powers = new long[MAX_SCALE + 1];
+        powers[0] = 1L;
+        for (int i = 1; i < powers.length; i++) {
+            powers[i] = powers[i - 1] * 10L;
+        }
+        return powers;
+    }
+
+    static void checkScale(final int scale) {
+        if (scale < 0 || scale > MAX_SCALE) {
+            throw new IllegalArgumentException("scale needs to be between 0 and " + MAX_SCALE + ": " + scale);
+        }
+    }
+
+    public long getUnscaledValue() {
+        return unscaledValue;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    public FixedDecimal add(final FixedDecimal other) {
+        final int resultScale = Math.max(scale, other.scale);
+        return new FixedDecimal(add(unscaledValue, scale, other.unscaledValue, other.scale, resultScale),
+                resultScale);
+    }
+
+    public FixedDecimal subtract(final FixedDecimal other) {
+        return add(other.negate());
+    }
+
+    /**
+     * The result has the larger scale of both operands.
+     */
+    public FixedDecimal multiply(final FixedDecimal other) {
+        final int resultScale = Math.max(scale, other.scale);
+        return new FixedDecimal(multiply(unscaledValue, scale, other.unscaledValue, other.scale, resultScale),
+                resultScale);
+    }
+
+    public FixedDecimal multiply(final long factor) {
+        return new FixedDecimal(Math.multiplyExact(unscaledValue, factor), scale);
+    }
+
+    /**
+     * The result has the larger scale of both operands.
+     */
+    public FixedDecimal divide(final FixedDecimal divisor) {
+        return divide(divisor, Math.max(scale, divisor.scale));
+    }
+
+    public FixedDecimal divide(final FixedDecimal divisor, final int resultScale) {
+        checkScale(resultScale);
+        return new FixedDecimal(divide(unscaledValue, scale, divisor.unscaledValue, divisor.scale, resultScale),
+                resultScale);
+    }
+
+    public FixedDecimal negate() {
+        return new FixedDecimal(Math.negateExact(unscaledValue), scale);
+    }
+
+    public FixedDecimal abs() {
+        if (unscaledValue < 0) {
+            return negate();
+        } else {
+            return this;
+        }
+    }
+
+    public int signum() {
+        return Long.signum(unscaledValue);
+    }
+
+    public boolean isZero() {
+        return unscaledValue == 0L;
+    }
+
+    public FixedDecimal rescale(final int newScale) {
+        if (newScale == scale) {
+            return this;
+        }
+        checkScale(newScale);
+        return new FixedDecimal(rescale(unscaledValue, scale, newScale), newScale);
+    }
+
+    @Override
+    public int compareTo(final FixedDecimal o) {
+        if (scale == o.scale) {
+            return Long.compare(unscaledValue, o.unscaledValue);
+        }
+        final int commonScale = Math.max(scale, o.scale);
+        final long thisValue = rescaleOrSaturate(unscaledValue, scale, commonScale);
+        final long otherValue = rescaleOrSaturate(o.unscaledValue, o.scale, commonScale);
+        if (thisValue == Long.MAX_VALUE || thisValue == Long.MIN_VALUE || otherValue == Long.MAX_VALUE
+                || otherValue == Long.MIN_VALUE) {
+            return toBigDecimal().compareTo(o.toBigDecimal());
+        }
+        return Long.compare(thisValue, otherValue);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (obj instanceof FixedDecimal) {
+            final FixedDecimal cObj = (FixedDecimal) obj;
+            return unscaledValue == cObj.unscaledValue && scale == cObj.scale;
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(unscaledValue) + scale;
+    }
+
+    @Override
+    public int intValue() {
+        return (int) longValue();
+    }
+
+    /**
+     * Truncates the fraction digits.
+     */
+    @Override
+    public long longValue() {
+        return unscaledValue / POWERS_OF_TEN[scale];
+    }
+
+    @Override
+    public float floatValue() {
+        return (float) doubleValue();
+    }
+
+    @Override
+    public double doubleValue() {
+        if (isWithin(unscaledValue, (1L << 53) - 1)) {
+            //both values are exact doubles, thus this is correctly rounded
+            return unscaledValue / (double) POWERS_OF_TEN[scale];
+        } else {
+            return toBigDecimal().doubleValue();
+        }
+    }
+
+    public Decimal toDecimal() {
+        return new Decimal(doubleValue());
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(unscaledValue, scale);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+
+    public static FixedDecimal valueOf(final long unscaledValue, final int scale) {
+        return new FixedDecimal(unscaledValue, scale);
+    }
+
+    public static FixedDecimal valueOf(final BigDecimal value, final int scale) {
+        checkScale(scale);
+        final BigDecimal scaled = value.setScale(scale, ADecimal.DEFAULT_ROUNDING_MODE);
+        return new FixedDecimal(scaled.unscaledValue().longValueExact(), scale);
+    }
+
+    /**
+     * Uses the scale of the given value (at least 0), values with more than MAX_SCALE fraction digits are rounded to
+     * MAX_SCALE.
+     */
+    public static FixedDecimal valueOf(final BigDecimal value) {
+        return valueOf(value, Math.min(MAX_SCALE, Math.max(0, value.scale())));
+    }
+
+    public static FixedDecimal valueOf(final String value) {
+        return valueOf(new BigDecimal(value));
+    }
+
+    /**
+     * Uses the shortest decimal representation of the double (like Double.toString) before rounding, thus e.g. 1.005
+     * becomes 1.01 with scale 2 instead of 1.00.
+     */
+    public static FixedDecimal valueOf(final double value, final int scale) {
+        return valueOf(BigDecimal.valueOf(value), scale);
+    }
+
+    public static FixedDecimal valueOf(final ADecimal<?> value, final int scale) {
+        if (value == null) {
+            return null;
+        }
+        return valueOf(value.getDefaultValue(), scale);
+    }
+
+    public static void putFixedDecimal(final ByteBuffer buffer, final FixedDecimal value) {
+        if (value == null) {
+            buffer.putLong(0L);
+            buffer.put(NULL_SCALE);
+        } else {
+            buffer.putLong(value.unscaledValue);
+            buffer.put((byte) value.scale);
+        }
+    }
+
+    public static FixedDecimal extractFixedDecimal(final ByteBuffer buffer, final int index) {
+        final long unscaledValue = buffer.getLong(index);
+        final byte scale = buffer.get(index + Long.BYTES);
+        return extractFixedDecimal(unscaledValue, scale);
+    }
+
+    public static FixedDecimal extractFixedDecimal(final ByteBuffer buffer) {
+        final long unscaledValue = buffer.getLong();
+        final byte scale = buffer.get();
+        return extractFixedDecimal(unscaledValue, scale);
+    }
+
+    private static FixedDecimal extractFixedDecimal(final long unscaledValue, final byte scale) {
+        if (scale == NULL_SCALE) {
+            return null;
+        } else {
+            return new FixedDecimal(unscaledValue, scale);
+        }
+    }
+
+    /*
+     * primitive operations that are shared with MutableFixedDecimal
+     */
+
+    static long add(final long unscaledValue1, final int scale1, final long unscaledValue2, final int scale2,
+            final int resultScale) {
+        return Math.addExact(rescale(unscaledValue1, scale1, resultScale),
+                rescale(unscaledValue2, scale2, resultScale));
+    }
+
+    static long multiply(final long unscaledValue1, final int scale1, final long unscaledValue2, final int scale2,
+            final int resultScale) {
+        //product has scale1 + scale2 fraction digits
+        final int productScale = scale1 + scale2;
+        if (isWithin(unscaledValue1, MAX_SAFE_FACTOR) && isWithin(unscaledValue2, MAX_SAFE_FACTOR)
+                && productScale <= MAX_SCALE) {
+            return rescale(unscaledValue1 * unscaledValue2, productScale, resultScale);
+        }
+        final BigInteger product = BigInteger.valueOf(unscaledValue1).multiply(BigInteger.valueOf(unscaledValue2));
+        return new BigDecimal(product, productScale).setScale(resultScale, ADecimal.DEFAULT_ROUNDING_MODE)
+                .unscaledValue()
+                .longValueExact();
+    }
+
+    static long divide(final long unscaledDividend, final int dividendScale, final long unscaledDivisor,
+            final int divisorScale, final int resultScale) {
+        if (unscaledDivisor == 0L) {
+            throw new ArithmeticException("Division by zero");
+        }
+        //dividend * 10^(resultScale - dividendScale + divisorScale) / divisor
+        final int shift = resultScale - dividendScale + divisorScale;
+        //divideRoundHalfUp can not negate Long.MIN_VALUE
+        if (shift >= 0 && shift <= MAX_SCALE && unscaledDivisor != Long.MIN_VALUE) {
+            final long power = POWERS_OF_TEN[shift];
+            if (isWithin(unscaledDividend, Long.MAX_VALUE / power)) {
+                return divideRoundHalfUp(unscaledDividend * power, unscaledDivisor);
+            }
+        }
+        final BigDecimal dividend = BigDecimal.valueOf(unscaledDividend, dividendScale);
+        final BigDecimal divisor = BigDecimal.valueOf(unscaledDivisor, divisorScale);
+        return dividend.divide(divisor, resultScale, ADecimal.DEFAULT_ROUNDING_MODE).unscaledValue().longValueExact();
+    }
+
+    static long rescale(final long unscaledValue, final int fromScale, final int toScale) {
+        if (fromScale == toScale) {
+            return unscaledValue;
+        } else if (fromScale < toScale) {
+            return Math.multiplyExact(unscaledValue, POWERS_OF_TEN[toScale - fromScale]);
+        } else {
+            return divideRoundHalfUp(unscaledValue, POWERS_OF_TEN[fromScale - toScale]);
+        }
+    }
+
+    private static long rescaleOrSaturate(final long unscaledValue, final int fromScale, final int toScale) {
+        if (fromScale >= toScale) {
+            return rescale(unscaledValue, fromScale, toScale);
+        }
+        final long power = POWERS_OF_TEN[toScale - fromScale];
+        if (!isWithin(unscaledValue, Long.MAX_VALUE / power)) {
+            if (unscaledValue > 0) {
+                return Long.MAX_VALUE;
+            } else {
+                return Long.MIN_VALUE;
+            }
+        }
+        return unscaledValue * power;
+    }
+
+    /**
+     * Math.abs can not be used for range checks since it returns Long.MIN_VALUE for Long.MIN_VALUE.
+     */
+    private static boolean isWithin(final long value, final long maxAbs) {
+        return value >= -maxAbs && value <= maxAbs;
+    }
+
+    private static long divideRoundHalfUp(final long dividend, final long divisor) {
+        final long quotient = dividend / divisor;
+        final long remainder = dividend % divisor;
+        if (remainder == 0L) {
+            return quotient;
+        }
+        final long absRemainder = Math.abs(remainder);
+        final long absDivisor = Math.abs(divisor);
+        //compare without overflow: 2 * |remainder| >= |divisor|
+        if (absRemainder >= absDivisor - absRemainder) {
+            if ((dividend < 0) == (divisor < 0)) {
+                return quotient + 1;
+            } else {
+                return quotient - 1;
+            }
+        } else {
+            return quotient;
+        }
+    }
+
+}
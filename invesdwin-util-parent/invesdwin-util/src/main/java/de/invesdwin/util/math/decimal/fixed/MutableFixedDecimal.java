@@ -0,0 +1,106 @@
+package de.invesdwin.util.math.decimal.fixed;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.math.decimal.Decimal;
+
+/**
+ * Accumulator with a fixed scale that does not allocate per operation. Operands with a larger scale are rounded HALF_UP
+ * to the scale of this accumulator.
+ */
+@NotThreadSafe
+public class MutableFixedDecimal {
+
+    private final int scale;
+    private long unscaledValue;
+
+    public MutableFixedDecimal(final int scale) {
+        this(0L, scale);
+    }
+
+    public MutableFixedDecimal(final long unscaledValue, final int scale) {
+        FixedDecimal.checkScale(scale);
+        this.unscaledValue = unscaledValue;
+        this.scale = scale;
+    }
+
+    public MutableFixedDecimal(final FixedDecimal value) {
+        this(value.getUnscaledValue(), value.getScale());
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    public long getUnscaledValue() {
+        return unscaledValue;
+    }
+
+    public MutableFixedDecimal set(final FixedDecimal value) {
+        unscaledValue = FixedDecimal.rescale(value.getUnscaledValue(), value.getScale(), scale);
+        return this;
+    }
+
+    public MutableFixedDecimal reset() {
+        unscaledValue = 0L;
+        return this;
+    }
+
+    public MutableFixedDecimal add(final FixedDecimal value) {
+        return add(value.getUnscaledValue(), value.getScale());
+    }
+
+    public MutableFixedDecimal add(final long otherUnscaledValue, final int otherScale) {
+        unscaledValue = Math.addExact(unscaledValue, FixedDecimal.rescale(otherUnscaledValue, otherScale, scale));
+        return this;
+    }
+
+    public MutableFixedDecimal subtract(final FixedDecimal value) {
+        return subtract(value.getUnscaledValue(), value.getScale());
+    }
+
+    public MutableFixedDecimal subtract(final long otherUnscaledValue, final int otherScale) {
+        unscaledValue = Math.subtractExact(unscaledValue,
+                FixedDecimal.rescale(otherUnscaledValue, otherScale, scale));
+        return this;
+    }
+
+    public MutableFixedDecimal multiply(final FixedDecimal value) {
+        unscaledValue = FixedDecimal.multiply(unscaledValue, scale, value.getUnscaledValue(), value.getScale(), scale);
+        return this;
+    }
+
+    public MutableFixedDecimal multiply(final long factor) {
+        unscaledValue = Math.multiplyExact(unscaledValue, factor);
+        return this;
+    }
+
+    public MutableFixedDecimal divide(final FixedDecimal divisor) {
+        unscaledValue = FixedDecimal.divide(unscaledValue, scale, divisor.getUnscaledValue(), divisor.getScale(),
+                scale);
+        return this;
+    }
+
+    public MutableFixedDecimal negate() {
+        unscaledValue = Math.negateExact(unscaledValue);
+        return this;
+    }
+
+    public FixedDecimal toFixedDecimal() {
+        return new FixedDecimal(unscaledValue, scale);
+    }
+
+    public Decimal toDecimal() {
+        return toFixedDecimal().toDecimal();
+    }
+
+    public double doubleValue() {
+        return toFixedDecimal().doubleValue();
+    }
+
+    @Override
+    public String toString() {
+        return toFixedDecimal().toString();
+    }
+
+}
@@ -0,0 +1,135 @@
+package de.invesdwin.util.math.decimal.flyweight;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.math.decimal.ADecimal;
+
+/**
+ * A bounded, lock-free and direct mapped interning table for immutable decimals. The slot is determined by the bits of
+ * the double value and the scale, a colliding value simply replaces the previous one. Thus there is no eviction
+ * bookkeeping and no locking, a lookup costs one hash, one array read and one compare.
+ *
+ * Slots are read and written with acquire/release semantics so that the lazily initialized fields of scaled decimals
+ * are safely published to other threads.
+ *
+ * Interning is disabled by default. The table is shared by all threads, thus each miss writes to a cache line that
+ * other threads might read or write concurrently. Enable it only where the values come from a small set so that the hit
+ * rate pays for that.
+ */
+@ThreadSafe
+public abstract class ADecimalFlyweightCache<E extends ADecimal<E>> {
+
+    /**
+     * golden ratio constant for fibonacci hashing
+     */
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private final AtomicReferenceArray<E> table;
+    private final int shift;
+    private volatile boolean enabled = false;
+    private volatile boolean statisticsEnabled = false;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ADecimalFlyweightCache(final int maximumSize) {
+        if (maximumSize < 2) {
+            throw new IllegalArgumentException("maximumSize should be at least 2: " + maximumSize);
+        }
+        final int size = Integer.highestOneBit(maximumSize - 1) << 1;
+        this.table = new AtomicReferenceArray<E>(size);
+        this.shift = Long.SIZE - Integer.numberOfTrailingZeros(size);
+    }
+
+    public E get(final double value, final int scaleIndex) {
+        if (!enabled) {
+            return newValue(value, scaleIndex);
+        }
+        final long bits = Double.doubleToRawLongBits(value);
+        final int index = (int) (((bits ^ scaleIndex) * HASH_MULTIPLIER) >>> shift);
+        final E existing = table.get(index);
+        if (existing != null && matches(existing, bits, scaleIndex)) {
+            if (statisticsEnabled) {
+                hits.increment();
+            }
+            return existing;
+        }
+        if (statisticsEnabled) {
+            misses.increment();
+        }
+        final E created = newValue(value, scaleIndex);
+        table.lazySet(index, created);
+        return created;
+    }
+
+    protected abstract E newValue(double value, int scaleIndex);
+
+    /**
+     * Should compare the raw bits so that -0.0 and 0.0 (which differ in toString) are not mixed up.
+     */
+    protected abstract boolean matches(E existing, long valueBits, int scaleIndex);
+
+    public int getMaximumSize() {
+        return table.length();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * When disabled (default), every lookup creates a new instance without touching the table. On disabling the table
+     * is cleared so that no stale instances are kept reachable.
+     */
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            clear();
+        }
+    }
+
+    public boolean isStatisticsEnabled() {
+        return statisticsEnabled;
+    }
+
+    /**
+     * Statistics are disabled by default since they add counter updates to every lookup.
+     */
+    public void setStatisticsEnabled(final boolean statisticsEnabled) {
+        this.statisticsEnabled = statisticsEnabled;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns NaN when no lookups were recorded yet.
+     */
+    public double getHitRate() {
+        final long hitCount = hits.sum();
+        final long requestCount = hitCount + misses.sum();
+        if (requestCount == 0) {
+            return Double.NaN;
+        }
+        return (double) hitCount / requestCount;
+    }
+
+    public void resetStatistics() {
+        hits.reset();
+        misses.reset();
+    }
+
+    public void clear() {
+        for (int i = 0; i < table.length(); i++) {
+            table.lazySet(i, null);
+        }
+    }
+
+}
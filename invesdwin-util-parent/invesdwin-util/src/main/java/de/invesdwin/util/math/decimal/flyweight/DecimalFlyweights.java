@@ -0,0 +1,86 @@
+package de.invesdwin.util.math.decimal.flyweight;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.invesdwin.util.math.Doubles;
+import de.invesdwin.util.math.decimal.Decimal;
+import de.invesdwin.util.math.decimal.scaled.Percent;
+import de.invesdwin.util.math.decimal.scaled.PercentScale;
+
+/**
+ * Interning tables for values that are recreated over and over again in hot loops (e.g. Decimal.valueOf(double) with
+ * prices from a limited tick grid, rounded values or percentages from a few distinct rates). Returning a shared
+ * instance instead of allocating a new one reduces garbage collection pressure.
+ *
+ * Interning is disabled by default since it adds a write to a table that is shared by all threads to every miss. Use
+ * setEnabled(true) when the values come from a small set (use setStatisticsEnabled(true) to check the hit rate).
+ */
+@Immutable
+public final class DecimalFlyweights {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 4096;
+
+    private static final PercentScale[] PERCENT_SCALES = PercentScale.values();
+
+    public static final ADecimalFlyweightCache<Decimal> DECIMAL = newDecimalCache(DEFAULT_MAXIMUM_SIZE);
+
+    public static final ADecimalFlyweightCache<Percent> PERCENT = newPercentCache(DEFAULT_MAXIMUM_SIZE);
+
+    private DecimalFlyweights() {}
+
+    /**
+     * Creates a separate table, e.g. for a component that should not share its values with the rest of the process.
+     * The table is disabled initially like the global ones.
+     */
+    public static ADecimalFlyweightCache<Decimal> newDecimalCache(final int maximumSize) {
+        return new ADecimalFlyweightCache<Decimal>(maximumSize) {
+            @Override
+            protected Decimal newValue(final double value, final int scaleIndex) {
+                return new Decimal(value);
+            }
+
+            @Override
+            protected boolean matches(final Decimal existing, final long valueBits, final int scaleIndex) {
+                return Double.doubleToRawLongBits(existing.doubleValue()) == valueBits;
+            }
+        };
+    }
+
+    /**
+     * Creates a separate table, the scale index is the ordinal of the PercentScale.
+     */
+    public static ADecimalFlyweightCache<Percent> newPercentCache(final int maximumSize) {
+        return new ADecimalFlyweightCache<Percent>(maximumSize) {
+            @Override
+            protected Percent newValue(final double value, final int scaleIndex) {
+                return new Percent(value, PERCENT_SCALES[scaleIndex]);
+            }
+
+            @Override
+            protected boolean matches(final Percent existing, final long valueBits, final int scaleIndex) {
+                return existing.getScale().ordinal() == scaleIndex
+                        && Double.doubleToRawLongBits(existing.getScaledValue()) == valueBits;
+            }
+        };
+    }
+
+    public static Decimal getDecimal(final double value) {
+        //Decimal converts NaN to zero anyway, this way NaN also gets a hit
+        return DECIMAL.get(Doubles.nanToZero(value), 0);
+    }
+
+    public static Percent getPercent(final double value, final PercentScale scale) {
+        return PERCENT.get(Doubles.nanToZero(value), scale.ordinal());
+    }
+
+    public static void setEnabled(final boolean enabled) {
+        DECIMAL.setEnabled(enabled);
+        PERCENT.setEnabled(enabled);
+    }
+
+    public static void setStatisticsEnabled(final boolean statisticsEnabled) {
+        DECIMAL.setStatisticsEnabled(statisticsEnabled);
+        PERCENT.setStatisticsEnabled(statisticsEnabled);
+    }
+
+}
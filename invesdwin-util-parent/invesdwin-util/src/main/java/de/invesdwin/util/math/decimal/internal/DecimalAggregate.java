@@ -448,7 +448,7 @@ public class DecimalAggregate<E extends ADecimal<E>> implements IDecimalAggregat
     public IDecimalAggregate<E> multiplyEach(final E multiplicant) {
         final List<E> multiplied = new ArrayList<E>(size());
         for (final E value : values) {
-            multiplied.add(value.add(multiplicant));
+            multiplied.add(value.multiply(multiplicant));
         }
         return new DecimalAggregate<E>(multiplied, getConverter());
     }
@@ -457,7 +457,7 @@ public class DecimalAggregate<E extends ADecimal<E>> implements IDecimalAggregat
     public IDecimalAggregate<E> divideEach(final E divisor) {
         final List<E> divided = new ArrayList<E>(size());
         for (final E value : values) {
-            divided.add(value.add(divisor));
+            divided.add(value.divide(divisor));
         }
         return new DecimalAggregate<E>(divided, getConverter());
     }
@@ -643,4 +643,9 @@ public class DecimalAggregate<E extends ADecimal<E>> implements IDecimalAggregat
         return randomizers;
     }
 
+    @Override
+    public IDecimalAggregate<E> lazy() {
+        return DoubleArrayDecimalAggregate.valueOf(values, getConverter()).lazy();
+    }
+
 }
@@ -0,0 +1,718 @@
+package de.invesdwin.util.math.decimal.internal;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.math.Doubles;
+import de.invesdwin.util.math.decimal.ADecimal;
+import de.invesdwin.util.math.decimal.Decimal;
+import de.invesdwin.util.math.decimal.IDecimalAggregate;
+import de.invesdwin.util.math.decimal.internal.randomizers.DecimalAggregateRandomizers;
+import de.invesdwin.util.math.decimal.interpolations.IDecimalAggregateInterpolations;
+import de.invesdwin.util.math.decimal.randomizers.IDecimalAggregateRandomizers;
+import de.invesdwin.util.math.decimal.scaled.Percent;
+import de.invesdwin.util.math.stream.doubl.DoubleStreamAvg;
+import de.invesdwin.util.math.stream.doubl.DoubleStreamStandardDeviation;
+import de.invesdwin.util.math.stream.doubl.DoubleStreamVariance;
+
+/**
+ * An aggregate that keeps the default values in a primitive array and only keeps the converter as a single object.
+ * Each chained operation allocates exactly one double array for its result, reducers do not allocate at all. Objects
+ * are only materialized when values() is called (and then cached).
+ *
+ * Null values are represented as NaN. Arithmetic happens on the default values of the converter, which is the same
+ * for Decimal and defines rate semantics for e.g. Percent.
+ */
+@ThreadSafe
+public class DoubleArrayDecimalAggregate<E extends ADecimal<E>> implements IDecimalAggregate<E> {
+
+    private final double[] values;
+    private final E converter;
+    private volatile List<E> valuesList;
+
+    private final IDecimalAggregateRandomizers<E> randomizers = new DecimalAggregateRandomizers<E>(this);
+
+    /**
+     * The array is not copied, thus it should not be modified afterwards.
+     */
+    public DoubleArrayDecimalAggregate(final double[] values, final E converter) {
+        Assertions.checkNotNull(converter, "converter should not be null");
+        this.values = values;
+        this.converter = converter;
+    }
+
+    public E getConverter() {
+        return converter;
+    }
+
+    /**
+     * The backing array, it should not be modified.
+     */
+    public double[] getDefaultValues() {
+        return values;
+    }
+
+    private <T extends ADecimal<T>> IDecimalAggregate<T> newAggregate(final double[] newValues,
+            final T newConverter) {
+        return new DoubleArrayDecimalAggregate<T>(newValues, newConverter);
+    }
+
+    private IDecimalAggregate<E> newAggregate(final double[] newValues) {
+        return newAggregate(newValues, converter);
+    }
+
+    private E fromDefaultValue(final double value) {
+        if (Doubles.isNaN(value)) {
+            return null;
+        } else {
+            return converter.fromDefaultValue(value);
+        }
+    }
+
+    @Override
+    public IDecimalAggregate<Percent> growthRates() {
+        if (values.length < 2) {
+            return newAggregate(new double[0], Percent.ZERO_PERCENT);
+        }
+        final double[] growthRates = new double[values.length - 1];
+        for (int i = 1; i < values.length; i++) {
+            growthRates[i - 1] = Doubles.growthRate(values[i - 1], values[i]);
+        }
+        return newAggregate(growthRates, Percent.ZERO_PERCENT);
+    }
+
+    @Override
+    public Percent growthRate() {
+        return growthRates().avg();
+    }
+
+    @Override
+    public Percent growthRatesTrend() {
+        return growthRates().growthRate();
+    }
+
+    @Override
+    public IDecimalAggregate<E> reverse() {
+        final double[] reversed = new double[values.length];
+        for (int i = 0, j = values.length - 1; i < values.length; i++, j--) {
+            reversed[i] = values[j];
+        }
+        return newAggregate(reversed);
+    }
+
+    @Override
+    public E avgWeightedAsc() {
+        if (values.length == 0) {
+            return converter.zero();
+        }
+        long sumOfWeights = 0;
+        double sumOfWeightedValues = 0D;
+        for (int i = 0; i < values.length; i++) {
+            final int weight = i + 1;
+            sumOfWeights += weight;
+            sumOfWeightedValues += values[i] * weight;
+        }
+        return converter.fromDefaultValue(sumOfWeightedValues / sumOfWeights);
+    }
+
+    @Override
+    public E avgWeightedDesc() {
+        long sumOfWeights = 0;
+        double sumOfWeightedValues = 0D;
+        for (int i = 0, weight = values.length; i < values.length; i++, weight--) {
+            sumOfWeights += weight;
+            sumOfWeightedValues += values[i] * weight;
+        }
+        return converter.fromDefaultValue(sumOfWeightedValues / sumOfWeights);
+    }
+
+    @Override
+    public E sum() {
+        double sum = 0D;
+        for (int i = 0; i < values.length; i++) {
+            final double value = values[i];
+            if (!Doubles.isNaN(value)) {
+                sum += value;
+            }
+        }
+        return converter.fromDefaultValue(sum);
+    }
+
+    @Override
+    public E avg() {
+        final DoubleStreamAvg avg = new DoubleStreamAvg();
+        for (int i = 0; i < values.length; i++) {
+            avg.process(values[i]);
+        }
+        return converter.fromDefaultValue(avg.getAvg());
+    }
+
+    @Override
+    public E product() {
+        if (values.length == 0) {
+            return converter.fromDefaultValue(0D);
+        }
+        final double product = Math.exp(logSum());
+        return converter.fromDefaultValue(product);
+    }
+
+    @Override
+    public E geomAvg() {
+        if (values.length == 0) {
+            return converter.zero();
+        }
+        final double geomAvg = Math.exp(logSum() / values.length);
+        return converter.fromDefaultValue(geomAvg);
+    }
+
+    /**
+     * Values that are negative or zero are skipped like in DecimalStreamProduct and DecimalStreamGeomAvg.
+     */
+    private double logSum() {
+        double logSum = 0D;
+        for (int i = 0; i < values.length; i++) {
+            final double value = values[i];
+            if (value > 0D) {
+                logSum += Math.log(value);
+            }
+        }
+        return logSum;
+    }
+
+    @Override
+    public E max() {
+        return fromDefaultValue(maxDouble());
+    }
+
+    private double maxDouble() {
+        double highest = Double.NaN;
+        for (int i = 0; i < values.length; i++) {
+            final double value = values[i];
+            if (Doubles.isNaN(highest) || value > highest) {
+                highest = value;
+            }
+        }
+        return highest;
+    }
+
+    @Override
+    public E min() {
+        return fromDefaultValue(minDouble());
+    }
+
+    private double minDouble() {
+        double lowest = Double.NaN;
+        for (int i = 0; i < values.length; i++) {
+            final double value = values[i];
+            if (Doubles.isNaN(lowest) || value < lowest) {
+                lowest = value;
+            }
+        }
+        return lowest;
+    }
+
+    @Override
+    public E minMaxDistance() {
+        final double min = minDouble();
+        if (Doubles.isNaN(min)) {
+            return null;
+        }
+        final double max = maxDouble();
+        if (Doubles.isNaN(max)) {
+            return null;
+        }
+        return converter.fromDefaultValue(Math.abs(max - min));
+    }
+
+    private DoubleStreamStandardDeviation newStandardDeviation() {
+        final DoubleStreamStandardDeviation standardDeviation = new DoubleStreamStandardDeviation();
+        for (int i = 0; i < values.length; i++) {
+            standardDeviation.process(values[i]);
+        }
+        return standardDeviation;
+    }
+
+    private DoubleStreamVariance newVariance() {
+        final DoubleStreamVariance variance = new DoubleStreamVariance();
+        for (int i = 0; i < values.length; i++) {
+            variance.process(values[i]);
+        }
+        return variance;
+    }
+
+    @Override
+    public E sampleStandardDeviation() {
+        return converter.fromDefaultValue(newStandardDeviation().getSampleStandardDeviation());
+    }
+
+    @Deprecated
+    @Override
+    public E standardDeviation() {
+        return converter.fromDefaultValue(newStandardDeviation().getStandardDeviation());
+    }
+
+    @Deprecated
+    @Override
+    public E variance() {
+        return converter.fromDefaultValue(newVariance().getVariance());
+    }
+
+    @Override
+    public E sampleVariance() {
+        return converter.fromDefaultValue(newVariance().getSampleVariance());
+    }
+
+    @Deprecated
+    @Override
+    public E coefficientOfVariation() {
+        final DoubleStreamStandardDeviation standardDeviation = newStandardDeviation();
+        return converter.fromDefaultValue(
+                Doubles.divide(standardDeviation.getStandardDeviation(), standardDeviation.getAvg()));
+    }
+
+    @Override
+    public E sampleCoefficientOfVariation() {
+        final DoubleStreamStandardDeviation standardDeviation = newStandardDeviation();
+        return converter.fromDefaultValue(
+                Doubles.divide(standardDeviation.getSampleStandardDeviation(), standardDeviation.getAvg()));
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public List<E> values() {
+        if (valuesList == null) {
+            final List<E> list = new ArrayList<E>(values.length);
+            for (int i = 0; i < values.length; i++) {
+                list.add(fromDefaultValue(values[i]));
+            }
+            valuesList = Collections.unmodifiableList(list);
+        }
+        return valuesList;
+    }
+
+    @Override
+    public IDecimalAggregate<E> round() {
+        return round(Decimal.DEFAULT_ROUNDING_SCALE);
+    }
+
+    @Override
+    public IDecimalAggregate<E> round(final RoundingMode roundingMode) {
+        return round(Decimal.DEFAULT_ROUNDING_SCALE, roundingMode);
+    }
+
+    @Override
+    public IDecimalAggregate<E> round(final int scale) {
+        return round(scale, Decimal.DEFAULT_ROUNDING_MODE);
+    }
+
+    /**
+     * Rounding happens on the scaled value, thus it needs to go through the converter for each element.
+     */
+    @Override
+    public IDecimalAggregate<E> round(final int scale, final RoundingMode roundingMode) {
+        final double[] rounded = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            final double value = values[i];
+            if (Doubles.isNaN(value)) {
+                rounded[i] = value;
+            } else {
+                rounded[i] = converter.fromDefaultValue(value).round(scale, roundingMode).getDefaultValue();
+            }
+        }
+        return newAggregate(rounded);
+    }
+
+    @Override
+    public IDecimalAggregate<E> roundToStep(final E step) {
+        return roundToStep(step, Decimal.DEFAULT_ROUNDING_MODE);
+    }
+
+    @Override
+    public IDecimalAggregate<E> roundToStep(final E step, final RoundingMode roundingMode) {
+        final double stepDouble = step.getDefaultValue();
+        final double[] rounded = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            rounded[i] = Doubles.roundToStep(values[i], stepDouble, roundingMode);
+        }
+        return newAggregate(rounded);
+    }
+
+    @Override
+    public String toString() {
+        return values().toString();
+    }
+
+    private IDecimalAggregate<E> filter(final double[] filtered, final int size) {
+        if (size == values.length) {
+            return this;
+        } else {
+            return newAggregate(Arrays.copyOf(filtered, size));
+        }
+    }
+
+    @Override
+    public IDecimalAggregate<E> positiveValues() {
+        final double[] filtered = new double[values.length];
+        int size = 0;
+        for (int i = 0; i < values.length; i++) {
+            final double value = values[i];
+            if (value >= 0D) {
+                filtered[size++] = value;
+            }
+        }
+        return filter(filtered, size);
+    }
+
+    @Override
+    public IDecimalAggregate<E> positiveNonZeroValues() {
+        final double[] filtered = new double[values.length];
+        int size = 0;
+        for (int i = 0; i < values.length; i++) {
+            final double value = values[i];
+            if (value > 0D) {
+                filtered[size++] = value;
+            }
+        }
+        return filter(filtered, size);
+    }
+
+    @Override
+    public IDecimalAggregate<E> negativeValues() {
+        final double[] filtered = new double[values.length];
+        int size = 0;
+        for (int i = 0; i < values.length; i++) {
+            final double value = values[i];
+            if (value < 0D) {
+                filtered[size++] = value;
+            }
+        }
+        return filter(filtered, size);
+    }
+
+    @Override
+    public IDecimalAggregate<E> negativeOrZeroValues() {
+        final double[] filtered = new double[values.length];
+        int size = 0;
+        for (int i = 0; i < values.length; i++) {
+            final double value = values[i];
+            if (value <= 0D) {
+                filtered[size++] = value;
+            }
+        }
+        return filter(filtered, size);
+    }
+
+    @Override
+    public IDecimalAggregate<E> nonZeroValues() {
+        final double[] filtered = new double[values.length];
+        int size = 0;
+        for (int i = 0; i < values.length; i++) {
+            final double value = values[i];
+            if (value != 0D && !Doubles.isNaN(value)) {
+                filtered[size++] = value;
+            }
+        }
+        return filter(filtered, size);
+    }
+
+    @Override
+    public IDecimalAggregate<E> addEach(final E augend) {
+        final double augendDouble = augend.getDefaultValue();
+        final double[] added = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            added[i] = values[i] + augendDouble;
+        }
+        return newAggregate(added);
+    }
+
+    @Override
+    public IDecimalAggregate<E> subtractEach(final E subtrahend) {
+        final double subtrahendDouble = subtrahend.getDefaultValue();
+        final double[] subtracted = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            subtracted[i] = values[i] - subtrahendDouble;
+        }
+        return newAggregate(subtracted);
+    }
+
+    @Override
+    public IDecimalAggregate<E> multiplyEach(final E multiplicant) {
+        final double multiplicantDouble = multiplicant.getDefaultValue();
+        final double[] multiplied = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            multiplied[i] = values[i] * multiplicantDouble;
+        }
+        return newAggregate(multiplied);
+    }
+
+    @Override
+    public IDecimalAggregate<E> divideEach(final E divisor) {
+        final double divisorDouble = divisor.getDefaultValue();
+        final double[] divided = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            divided[i] = Doubles.divide(values[i], divisorDouble);
+        }
+        return newAggregate(divided);
+    }
+
+    @Override
+    public IDecimalAggregate<E> nullToZeroEach() {
+        double[] replaced = null;
+        for (int i = 0; i < values.length; i++) {
+            if (Doubles.isNaN(values[i])) {
+                if (replaced == null) {
+                    replaced = values.clone();
+                }
+                replaced[i] = 0D;
+            }
+        }
+        if (replaced == null) {
+            return this;
+        } else {
+            return newAggregate(replaced);
+        }
+    }
+
+    @Override
+    public IDecimalAggregate<E> removeNullValues() {
+        final double[] filtered = new double[values.length];
+        int size = 0;
+        for (int i = 0; i < values.length; i++) {
+            final double value = values[i];
+            if (!Doubles.isNaN(value)) {
+                filtered[size++] = value;
+            }
+        }
+        return filter(filtered, size);
+    }
+
+    @Override
+    public IDecimalAggregate<E> normalize() {
+        if (values.length < 2) {
+            return this;
+        }
+        final double min = minDouble();
+        final double max = maxDouble();
+        Assertions.assertThat(min).isLessThanOrEqualTo(max);
+        final double maxMinusMin = max - min;
+        final double[] normalized = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            normalized[i] = Doubles.divide(values[i] - min, maxMinusMin);
+        }
+        return newAggregate(normalized);
+    }
+
+    @Override
+    public IDecimalAggregate<E> detrendAbsolute() {
+        if (values.length < 3) {
+            return this;
+        }
+        final double avgChange = (values[values.length - 1] - values[0]) / (values.length - 1);
+        final double[] detrended = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            detrended[i] = values[i] - avgChange * i;
+        }
+        return newAggregate(detrended);
+    }
+
+    /**
+     * Same as DecimalStreamRelativeDetrending with x being the index.
+     */
+    @Override
+    public IDecimalAggregate<E> detrendRelative() {
+        if (values.length < 3) {
+            return this;
+        }
+        final double fromY = checkPositiveNonZero(values[0]);
+        final double toY = checkPositiveNonZero(values[values.length - 1]);
+        final double logAvgChangeYperX = Math.log(toY / fromY) / values.length;
+        final double[] detrended = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            final double curY = checkPositiveNonZero(values[i]);
+            final double logDetrendedProfit = Math.log(curY / fromY) - logAvgChangeYperX * i;
+            detrended[i] = fromY * Math.exp(logDetrendedProfit);
+        }
+        return newAggregate(detrended);
+    }
+
+    private double checkPositiveNonZero(final double value) {
+        if (!(value > 0D)) {
+            throw new IllegalArgumentException("Current value [" + value
+                    + "] is negative or zero. Please preprocess the data so this does not happen because we cannot create a logarithm of a negative value.");
+        }
+        return value;
+    }
+
+    @Override
+    public IDecimalAggregate<E> removeFlatSequences() {
+        final double[] filtered = new double[values.length];
+        int size = 0;
+        for (int i = 0; i < values.length; i++) {
+            final double value = values[i];
+            if (size == 0 || !isEqualRounded(filtered[size - 1], value)) {
+                filtered[size++] = value;
+            }
+        }
+        return filter(filtered, size);
+    }
+
+    /**
+     * Equality is determined like ADecimal.equals() on the rounded scaled value. Only when the raw values differ we
+     * need to go through the converter.
+     */
+    private boolean isEqualRounded(final double prevValue, final double value) {
+        if (prevValue == value) {
+            return true;
+        }
+        if (Doubles.isNaN(prevValue) || Doubles.isNaN(value)) {
+            return false;
+        }
+        return converter.fromDefaultValue(prevValue).equals(converter.fromDefaultValue(value));
+    }
+
+    @Override
+    public boolean isStableOrRisingEach() {
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] < values[i - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isStableOrFallingEach() {
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] > values[i - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Integer bestValueIndex(final boolean isHigherBetter) {
+        if (values.length == 0) {
+            return null;
+        }
+        double bestValue = values[0];
+        int bestValueIndex = 0;
+        for (int i = 1; i < values.length; i++) {
+            final double value = values[i];
+            if (isHigherBetter) {
+                if (value > bestValue) {
+                    bestValue = value;
+                    bestValueIndex = i;
+                }
+            } else {
+                if (value < bestValue) {
+                    bestValue = value;
+                    bestValueIndex = i;
+                }
+            }
+        }
+        return bestValueIndex;
+    }
+
+    @Override
+    public E median() {
+        if (values.length == 0) {
+            return null;
+        }
+        final double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        final int middle = sorted.length / 2;
+        final double median;
+        if (sorted.length % 2 == 0) {
+            median = (sorted[middle] + sorted[middle - 1]) / 2D;
+        } else {
+            median = sorted[middle];
+        }
+        return converter.fromDefaultValue(median);
+    }
+
+    @Override
+    public IDecimalAggregate<E> sortAscending() {
+        final double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return newAggregate(sorted);
+    }
+
+    @Override
+    public IDecimalAggregate<E> sortDescending() {
+        final double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (int i = 0, j = sorted.length - 1; i < j; i++, j--) {
+            final double tmp = sorted[i];
+            sorted[i] = sorted[j];
+            sorted[j] = tmp;
+        }
+        return newAggregate(sorted);
+    }
+
+    @Override
+    public IDecimalAggregate<E> stopSequenceBeforeNegativeOrZero() {
+        for (int i = 0; i < values.length; i++) {
+            if (!(values[i] > 0D)) {
+                if (i == 0) {
+                    return DummyDecimalAggregate.getInstance();
+                }
+                //same as DecimalAggregate which also drops the value before the negative one
+                return newAggregate(Arrays.copyOf(values, i - 1));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * The default values are already stored, thus only the converter changes and the array can be shared.
+     */
+    @Override
+    public IDecimalAggregate<Decimal> defaultValues() {
+        return newAggregate(values, Decimal.ZERO);
+    }
+
+    @Override
+    public IDecimalAggregateInterpolations<E> interpolate() {
+        return new DecimalAggregate<E>(values(), converter).interpolate();
+    }
+
+    @Override
+    public IDecimalAggregateRandomizers<E> randomize() {
+        return randomizers;
+    }
+
+    @Override
+    public IDecimalAggregate<E> lazy() {
+        return new LazyDecimalAggregate<E>(values, converter);
+    }
+
+    public static <E extends ADecimal<E>> DoubleArrayDecimalAggregate<E> valueOf(final List<? extends E> values,
+            final E converter) {
+        final double[] array = new double[values.size()];
+        E useConverter = converter;
+        for (int i = 0; i < array.length; i++) {
+            final E value = values.get(i);
+            if (value == null) {
+                array[i] = Double.NaN;
+            } else {
+                array[i] = value.getDefaultValue();
+                if (useConverter == null) {
+                    useConverter = value;
+                }
+            }
+        }
+        return new DoubleArrayDecimalAggregate<E>(array, useConverter);
+    }
+
+}
@@ -289,6 +289,11 @@ public final class DummyDecimalAggregate<E extends ADecimal<E>> implements IDeci
         return DummyDecimalAggregateRandomizers.INSTANCE;
     }
 
+    @Override
+    public IDecimalAggregate<E> lazy() {
+        return this;
+    }
+
     @Override
     public IDecimalAggregateInterpolations<E> interpolate() {
         return DummyDecimalAggregateInterpolations.INSTANCE;
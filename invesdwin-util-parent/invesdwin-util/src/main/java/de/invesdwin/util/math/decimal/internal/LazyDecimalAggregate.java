@@ -0,0 +1,746 @@
+package de.invesdwin.util.math.decimal.internal;
+
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.math.Doubles;
+import de.invesdwin.util.math.decimal.ADecimal;
+import de.invesdwin.util.math.decimal.Decimal;
+import de.invesdwin.util.math.decimal.IDecimalAggregate;
+import de.invesdwin.util.math.decimal.interpolations.IDecimalAggregateInterpolations;
+import de.invesdwin.util.math.decimal.randomizers.IDecimalAggregateRandomizers;
+import de.invesdwin.util.math.decimal.scaled.Percent;
+import de.invesdwin.util.math.stream.doubl.DoubleStreamAvg;
+import de.invesdwin.util.math.stream.doubl.DoubleStreamStandardDeviation;
+import de.invesdwin.util.math.stream.doubl.DoubleStreamVariance;
+import de.invesdwin.util.math.stream.doubl.IDoubleStreamAlgorithm;
+
+/**
+ * Records element-wise steps (arithmetic, filters, rounding) instead of executing them. The steps are fused into a
+ * single loop over the source array when a reducer (sum, avg, standardDeviation, max, ...) is called. Steps that need
+ * aggregate information about their input (normalize, detrend) run one reduction pass and then get appended as a
+ * fused step. Only steps that need random access (sort, reverse, median, growthRates, ...) materialize the pipeline
+ * into a DoubleArrayDecimalAggregate.
+ */
+@ThreadSafe
+public class LazyDecimalAggregate<E extends ADecimal<E>> implements IDecimalAggregate<E> {
+
+    private static final AStep[] NO_STEPS = new AStep[0];
+
+    private final double[] source;
+    private final E converter;
+    private final AStep[] steps;
+    private volatile DoubleArrayDecimalAggregate<E> materialized;
+
+    public LazyDecimalAggregate(final double[] source, final E converter) {
+        this(source, converter, NO_STEPS);
+    }
+
+    private LazyDecimalAggregate(final double[] source, final E converter, final AStep[] steps) {
+        this.source = source;
+        this.converter = converter;
+        this.steps = steps;
+    }
+
+    public E getConverter() {
+        return converter;
+    }
+
+    public int getStepsCount() {
+        return steps.length;
+    }
+
+    private LazyDecimalAggregate<E> append(final AStep step) {
+        final AStep[] newSteps = Arrays.copyOf(steps, steps.length + 1);
+        newSteps[steps.length] = step;
+        return new LazyDecimalAggregate<E>(source, converter, newSteps);
+    }
+
+    /**
+     * The fused loop. Each step gets the index of the element in its own input sequence so that filters before an
+     * indexed step are respected.
+     */
+    private void process(final IDoubleStreamAlgorithm sink) {
+        if (materialized != null) {
+            final double[] values = materialized.getDefaultValues();
+            for (int i = 0; i < values.length; i++) {
+                sink.process(values[i]);
+            }
+            return;
+        }
+        final AStep[] stepsCopy = steps;
+        final int[] indexes = new int[stepsCopy.length];
+        elements: for (int i = 0; i < source.length; i++) {
+            double value = source[i];
+            for (int s = 0; s < stepsCopy.length; s++) {
+                final AStep step = stepsCopy[s];
+                if (!step.isIncluded(value)) {
+                    continue elements;
+                }
+                value = step.apply(value, indexes[s]++);
+            }
+            sink.process(value);
+        }
+    }
+
+    private DoubleArrayDecimalAggregate<E> materialize() {
+        if (materialized == null) {
+            if (steps.length == 0) {
+                materialized = new DoubleArrayDecimalAggregate<E>(source, converter);
+            } else {
+                final double[] buffer = new double[source.length];
+                final int[] size = new int[1];
+                process(new IDoubleStreamAlgorithm() {
+                    @Override
+                    public double process(final double value) {
+                        buffer[size[0]++] = value;
+                        return Double.NaN;
+                    }
+                });
+                final double[] values;
+                if (size[0] == buffer.length) {
+                    values = buffer;
+                } else {
+                    values = Arrays.copyOf(buffer, size[0]);
+                }
+                materialized = new DoubleArrayDecimalAggregate<E>(values, converter);
+            }
+        }
+        return materialized;
+    }
+
+    private IDecimalAggregate<E> restart(final IDecimalAggregate<E> materializedResult) {
+        if (materializedResult instanceof DoubleArrayDecimalAggregate) {
+            final DoubleArrayDecimalAggregate<E> cResult = (DoubleArrayDecimalAggregate<E>) materializedResult;
+            return new LazyDecimalAggregate<E>(cResult.getDefaultValues(), converter);
+        } else {
+            return materializedResult;
+        }
+    }
+
+    @Override
+    public IDecimalAggregate<E> lazy() {
+        return this;
+    }
+
+    @Override
+    public IDecimalAggregate<Percent> growthRates() {
+        return materialize().growthRates().lazy();
+    }
+
+    @Override
+    public Percent growthRate() {
+        return growthRates().avg();
+    }
+
+    @Override
+    public Percent growthRatesTrend() {
+        return growthRates().growthRate();
+    }
+
+    @Override
+    public IDecimalAggregate<E> reverse() {
+        return restart(materialize().reverse());
+    }
+
+    @Override
+    public E avgWeightedAsc() {
+        final double[] sums = new double[2];
+        process(new IDoubleStreamAlgorithm() {
+            private long weight = 1;
+
+            @Override
+            public double process(final double value) {
+                sums[0] += value * weight;
+                sums[1] += weight;
+                weight++;
+                return Double.NaN;
+            }
+        });
+        if (sums[1] == 0D) {
+            return converter.zero();
+        }
+        return converter.fromDefaultValue(sums[0] / sums[1]);
+    }
+
+    @Override
+    public E avgWeightedDesc() {
+        return materialize().avgWeightedDesc();
+    }
+
+    @Override
+    public E sum() {
+        final double[] sum = new double[1];
+        process(new IDoubleStreamAlgorithm() {
+            @Override
+            public double process(final double value) {
+                if (!Doubles.isNaN(value)) {
+                    sum[0] += value;
+                }
+                return Double.NaN;
+            }
+        });
+        return converter.fromDefaultValue(sum[0]);
+    }
+
+    @Override
+    public E avg() {
+        final DoubleStreamAvg avg = new DoubleStreamAvg();
+        process(avg);
+        return converter.fromDefaultValue(avg.getAvg());
+    }
+
+    @Override
+    public E product() {
+        final LogSum logSum = newLogSum();
+        if (logSum.count == 0) {
+            return converter.fromDefaultValue(0D);
+        }
+        return converter.fromDefaultValue(Math.exp(logSum.logSum));
+    }
+
+    @Override
+    public E geomAvg() {
+        final LogSum logSum = newLogSum();
+        if (logSum.count == 0) {
+            return converter.zero();
+        }
+        return converter.fromDefaultValue(Math.exp(logSum.logSum / logSum.count));
+    }
+
+    private LogSum newLogSum() {
+        final LogSum logSum = new LogSum();
+        process(logSum);
+        return logSum;
+    }
+
+    @Override
+    public E max() {
+        return fromDefaultValue(newMinMax().max);
+    }
+
+    @Override
+    public E min() {
+        return fromDefaultValue(newMinMax().min);
+    }
+
+    @Override
+    public E minMaxDistance() {
+        final MinMax minMax = newMinMax();
+        if (Doubles.isNaN(minMax.min) || Doubles.isNaN(minMax.max)) {
+            return null;
+        }
+        return converter.fromDefaultValue(Math.abs(minMax.max - minMax.min));
+    }
+
+    private MinMax newMinMax() {
+        final MinMax minMax = new MinMax();
+        process(minMax);
+        return minMax;
+    }
+
+    private E fromDefaultValue(final double value) {
+        if (Doubles.isNaN(value)) {
+            return null;
+        } else {
+            return converter.fromDefaultValue(value);
+        }
+    }
+
+    private DoubleStreamStandardDeviation newStandardDeviation() {
+        final DoubleStreamStandardDeviation standardDeviation = new DoubleStreamStandardDeviation();
+        process(standardDeviation);
+        return standardDeviation;
+    }
+
+    private DoubleStreamVariance newVariance() {
+        final DoubleStreamVariance variance = new DoubleStreamVariance();
+        process(variance);
+        return variance;
+    }
+
+    @Override
+    public E sampleStandardDeviation() {
+        return converter.fromDefaultValue(newStandardDeviation().getSampleStandardDeviation());
+    }
+
+    @Deprecated
+    @Override
+    public E standardDeviation() {
+        return converter.fromDefaultValue(newStandardDeviation().getStandardDeviation());
+    }
+
+    @Deprecated
+    @Override
+    public E variance() {
+        return converter.fromDefaultValue(newVariance().getVariance());
+    }
+
+    @Override
+    public E sampleVariance() {
+        return converter.fromDefaultValue(newVariance().getSampleVariance());
+    }
+
+    @Deprecated
+    @Override
+    public E coefficientOfVariation() {
+        final DoubleStreamStandardDeviation standardDeviation = newStandardDeviation();
+        return converter.fromDefaultValue(
+                Doubles.divide(standardDeviation.getStandardDeviation(), standardDeviation.getAvg()));
+    }
+
+    @Override
+    public E sampleCoefficientOfVariation() {
+        final DoubleStreamStandardDeviation standardDeviation = newStandardDeviation();
+        return converter.fromDefaultValue(
+                Doubles.divide(standardDeviation.getSampleStandardDeviation(), standardDeviation.getAvg()));
+    }
+
+    @Override
+    public int size() {
+        if (materialized != null) {
+            return materialized.size();
+        }
+        boolean filtered = false;
+        for (int i = 0; i < steps.length; i++) {
+            if (steps[i].isFilter()) {
+                filtered = true;
+                break;
+            }
+        }
+        if (!filtered) {
+            return source.length;
+        }
+        final int[] count = new int[1];
+        process(new IDoubleStreamAlgorithm() {
+            @Override
+            public double process(final double value) {
+                count[0]++;
+                return Double.NaN;
+            }
+        });
+        return count[0];
+    }
+
+    @Override
+    public List<E> values() {
+        return materialize().values();
+    }
+
+    @Override
+    public IDecimalAggregate<E> round() {
+        return round(Decimal.DEFAULT_ROUNDING_SCALE);
+    }
+
+    @Override
+    public IDecimalAggregate<E> round(final RoundingMode roundingMode) {
+        return round(Decimal.DEFAULT_ROUNDING_SCALE, roundingMode);
+    }
+
+    @Override
+    public IDecimalAggregate<E> round(final int scale) {
+        return round(scale, Decimal.DEFAULT_ROUNDING_MODE);
+    }
+
+    @Override
+    public IDecimalAggregate<E> round(final int scale, final RoundingMode roundingMode) {
+        return append(new AMapStep() {
+            @Override
+            public double apply(final double value, final int index) {
+                if (Doubles.isNaN(value)) {
+                    return value;
+                }
+                return converter.fromDefaultValue(value).round(scale, roundingMode).getDefaultValue();
+            }
+        });
+    }
+
+    @Override
+    public IDecimalAggregate<E> roundToStep(final E step) {
+        return roundToStep(step, Decimal.DEFAULT_ROUNDING_MODE);
+    }
+
+    @Override
+    public IDecimalAggregate<E> roundToStep(final E step, final RoundingMode roundingMode) {
+        final double stepDouble = step.getDefaultValue();
+        return append(new AMapStep() {
+            @Override
+            public double apply(final double value, final int index) {
+                return Doubles.roundToStep(value, stepDouble, roundingMode);
+            }
+        });
+    }
+
+    @Override
+    public String toString() {
+        return values().toString();
+    }
+
+    @Override
+    public IDecimalAggregate<E> positiveValues() {
+        return append(new AFilterStep() {
+            @Override
+            public boolean isIncluded(final double value) {
+                return value >= 0D;
+            }
+        });
+    }
+
+    @Override
+    public IDecimalAggregate<E> positiveNonZeroValues() {
+        return append(new AFilterStep() {
+            @Override
+            public boolean isIncluded(final double value) {
+                return value > 0D;
+            }
+        });
+    }
+
+    @Override
+    public IDecimalAggregate<E> negativeValues() {
+        return append(new AFilterStep() {
+            @Override
+            public boolean isIncluded(final double value) {
+                return value < 0D;
+            }
+        });
+    }
+
+    @Override
+    public IDecimalAggregate<E> negativeOrZeroValues() {
+        return append(new AFilterStep() {
+            @Override
+            public boolean isIncluded(final double value) {
+                return value <= 0D;
+            }
+        });
+    }
+
+    @Override
+    public IDecimalAggregate<E> nonZeroValues() {
+        return append(new AFilterStep() {
+            @Override
+            public boolean isIncluded(final double value) {
+                return value != 0D && !Doubles.isNaN(value);
+            }
+        });
+    }
+
+    @Override
+    public IDecimalAggregate<E> addEach(final E augend) {
+        final double augendDouble = augend.getDefaultValue();
+        return append(new AMapStep() {
+            @Override
+            public double apply(final double value, final int index) {
+                return value + augendDouble;
+            }
+        });
+    }
+
+    @Override
+    public IDecimalAggregate<E> subtractEach(final E subtrahend) {
+        final double subtrahendDouble = subtrahend.getDefaultValue();
+        return append(new AMapStep() {
+            @Override
+            public double apply(final double value, final int index) {
+                return value - subtrahendDouble;
+            }
+        });
+    }
+
+    @Override
+    public IDecimalAggregate<E> multiplyEach(final E multiplicant) {
+        final double multiplicantDouble = multiplicant.getDefaultValue();
+        return append(new AMapStep() {
+            @Override
+            public double apply(final double value, final int index) {
+                return value * multiplicantDouble;
+            }
+        });
+    }
+
+    @Override
+    public IDecimalAggregate<E> divideEach(final E divisor) {
+        final double divisorDouble = divisor.getDefaultValue();
+        return append(new AMapStep() {
+            @Override
+            public double apply(final double value, final int index) {
+                return Doubles.divide(value, divisorDouble);
+            }
+        });
+    }
+
+    @Override
+    public IDecimalAggregate<E> nullToZeroEach() {
+        return append(new AMapStep() {
+            @Override
+            public double apply(final double value, final int index) {
+                if (Doubles.isNaN(value)) {
+                    return 0D;
+                } else {
+                    return value;
+                }
+            }
+        });
+    }
+
+    @Override
+    public IDecimalAggregate<E> removeNullValues() {
+        return append(new AFilterStep() {
+            @Override
+            public boolean isIncluded(final double value) {
+                return !Doubles.isNaN(value);
+            }
+        });
+    }
+
+    /**
+     * One pass for min/max, the normalization itself is fused into the following pass.
+     */
+    @Override
+    public IDecimalAggregate<E> normalize() {
+        final MinMax minMax = newMinMax();
+        if (minMax.count < 2) {
+            return this;
+        }
+        final double min = minMax.min;
+        final double max = minMax.max;
+        Assertions.assertThat(min).isLessThanOrEqualTo(max);
+        final double maxMinusMin = max - min;
+        return append(new AMapStep() {
+            @Override
+            public double apply(final double value, final int index) {
+                return Doubles.divide(value - min, maxMinusMin);
+            }
+        });
+    }
+
+    /**
+     * One pass for first/last/count, the detrending itself is fused into the following pass.
+     */
+    @Override
+    public IDecimalAggregate<E> detrendAbsolute() {
+        final FirstLast firstLast = newFirstLast();
+        if (firstLast.count < 3) {
+            return this;
+        }
+        final double avgChange = (firstLast.last - firstLast.first) / (firstLast.count - 1);
+        return append(new AMapStep() {
+            @Override
+            public double apply(final double value, final int index) {
+                return value - avgChange * index;
+            }
+        });
+    }
+
+    /**
+     * One pass for first/last/count, the detrending itself is fused into the following pass.
+     */
+    @Override
+    public IDecimalAggregate<E> detrendRelative() {
+        final FirstLast firstLast = newFirstLast();
+        if (firstLast.count < 3) {
+            return this;
+        }
+        final double fromY = checkPositiveNonZero(firstLast.first);
+        final double toY = checkPositiveNonZero(firstLast.last);
+        final double logAvgChangeYperX = Math.log(toY / fromY) / firstLast.count;
+        return append(new AMapStep() {
+            @Override
+            public double apply(final double value, final int index) {
+                final double curY = checkPositiveNonZero(value);
+                final double logDetrendedProfit = Math.log(curY / fromY) - logAvgChangeYperX * index;
+                return fromY * Math.exp(logDetrendedProfit);
+            }
+        });
+    }
+
+    private static double checkPositiveNonZero(final double value) {
+        if (!(value > 0D)) {
+            throw new IllegalArgumentException("Current value [" + value
+                    + "] is negative or zero. Please preprocess the data so this does not happen because we cannot create a logarithm of a negative value.");
+        }
+        return value;
+    }
+
+    private FirstLast newFirstLast() {
+        final FirstLast firstLast = new FirstLast();
+        process(firstLast);
+        return firstLast;
+    }
+
+    @Override
+    public IDecimalAggregate<E> removeFlatSequences() {
+        return restart(materialize().removeFlatSequences());
+    }
+
+    @Override
+    public boolean isStableOrRisingEach() {
+        final boolean[] result = { true };
+        process(new IDoubleStreamAlgorithm() {
+            private double prevValue = Double.NaN;
+
+            @Override
+            public double process(final double value) {
+                if (value < prevValue) {
+                    result[0] = false;
+                }
+                prevValue = value;
+                return Double.NaN;
+            }
+        });
+        return result[0];
+    }
+
+    @Override
+    public boolean isStableOrFallingEach() {
+        final boolean[] result = { true };
+        process(new IDoubleStreamAlgorithm() {
+            private double prevValue = Double.NaN;
+
+            @Override
+            public double process(final double value) {
+                if (value > prevValue) {
+                    result[0] = false;
+                }
+                prevValue = value;
+                return Double.NaN;
+            }
+        });
+        return result[0];
+    }
+
+    @Override
+    public Integer bestValueIndex(final boolean isHigherBetter) {
+        return materialize().bestValueIndex(isHigherBetter);
+    }
+
+    @Override
+    public E median() {
+        return materialize().median();
+    }
+
+    @Override
+    public IDecimalAggregate<E> sortAscending() {
+        return restart(materialize().sortAscending());
+    }
+
+    @Override
+    public IDecimalAggregate<E> sortDescending() {
+        return restart(materialize().sortDescending());
+    }
+
+    @Override
+    public IDecimalAggregate<E> stopSequenceBeforeNegativeOrZero() {
+        return restart(materialize().stopSequenceBeforeNegativeOrZero());
+    }
+
+    @Override
+    public IDecimalAggregate<Decimal> defaultValues() {
+        return materialize().defaultValues().lazy();
+    }
+
+    @Override
+    public IDecimalAggregateInterpolations<E> interpolate() {
+        return materialize().interpolate();
+    }
+
+    @Override
+    public IDecimalAggregateRandomizers<E> randomize() {
+        return materialize().randomize();
+    }
+
+    private abstract static class AStep {
+
+        public abstract boolean isFilter();
+
+        public boolean isIncluded(final double value) {
+            return true;
+        }
+
+        public double apply(final double value, final int index) {
+            return value;
+        }
+
+    }
+
+    private abstract static class AMapStep extends AStep {
+
+        @Override
+        public final boolean isFilter() {
+            return false;
+        }
+
+        @Override
+        public abstract double apply(double value, int index);
+
+    }
+
+    private abstract static class AFilterStep extends AStep {
+
+        @Override
+        public final boolean isFilter() {
+            return true;
+        }
+
+        @Override
+        public abstract boolean isIncluded(double value);
+
+    }
+
+    private static final class LogSum implements IDoubleStreamAlgorithm {
+        private double logSum;
+        private int count;
+
+        /**
+         * Values that are negative or zero are skipped like in DecimalStreamProduct and DecimalStreamGeomAvg.
+         */
+        @Override
+        public double process(final double value) {
+            if (value > 0D) {
+                logSum += Math.log(value);
+            }
+            count++;
+            return Double.NaN;
+        }
+    }
+
+    private static final class MinMax implements IDoubleStreamAlgorithm {
+        private double min = Double.NaN;
+        private double max = Double.NaN;
+        private int count;
+
+        @Override
+        public double process(final double value) {
+            if (Doubles.isNaN(min) || value < min) {
+                min = value;
+            }
+            if (Doubles.isNaN(max) || value > max) {
+                max = value;
+            }
+            count++;
+            return Double.NaN;
+        }
+    }
+
+    private static final class FirstLast implements IDoubleStreamAlgorithm {
+        private double first = Double.NaN;
+        private double last = Double.NaN;
+        private int count;
+
+        @Override
+        public double process(final double value) {
+            if (count == 0) {
+                first = value;
+            }
+            last = value;
+            count++;
+            return Double.NaN;
+        }
+    }
+
+}
@@ -15,12 +15,22 @@ import de.invesdwin.util.math.decimal.internal.randomizers.impl.ShuffleRandomize
 import de.invesdwin.util.math.decimal.internal.randomizers.impl.StationaryBootstrapRandomizer;
 import de.invesdwin.util.math.decimal.internal.randomizers.impl.WeightedChunksAscendingRandomizer;
 import de.invesdwin.util.math.decimal.randomizers.IDecimalAggregateRandomizers;
+import de.invesdwin.util.math.decimal.randomizers.IDecimalResampleStatistic;
 
 @ThreadSafe
 public class DecimalAggregateRandomizers<E extends ADecimal<E>> implements IDecimalAggregateRandomizers<E> {
 
     private final IDecimalAggregate<E> parent;
 
+    @GuardedBy("this")
+    private DecimalAggregateResampler<E> shuffleResampler;
+    @GuardedBy("this")
+    private DecimalAggregateResampler<E> bootstrapResampler;
+    @GuardedBy("this")
+    private DecimalAggregateResampler<E> circularBootstrapResampler;
+    @GuardedBy("this")
+    private DecimalAggregateResampler<E> stationaryBootstrapResampler;
+
     @GuardedBy("this")
     private CircularBootstrapRandomizer<E> circularBootstrapRandomizer;
     @GuardedBy("this")
@@ -74,4 +84,58 @@ public class DecimalAggregateRandomizers<E extends ADecimal<E>> implements IDeci
         return stationaryBootstrapRandomizer;
     }
 
+    @Override
+    public double[] shuffleStatistics(final long seed, final int resampleCount,
+            final IDecimalResampleStatistic<E> statistic) {
+        return getShuffleResampler().resample(seed, resampleCount, statistic);
+    }
+
+    private synchronized DecimalAggregateResampler<E> getShuffleResampler() {
+        if (shuffleResampler == null) {
+            shuffleResampler = new DecimalAggregateResampler<E>(parent, new ShuffleRandomizer<E>(parent));
+        }
+        return shuffleResampler;
+    }
+
+    @Override
+    public double[] bootstrapStatistics(final long seed, final int resampleCount,
+            final IDecimalResampleStatistic<E> statistic) {
+        return getBootstrapResampler().resample(seed, resampleCount, statistic);
+    }
+
+    private synchronized DecimalAggregateResampler<E> getBootstrapResampler() {
+        if (bootstrapResampler == null) {
+            bootstrapResampler = new DecimalAggregateResampler<E>(parent, new BootstrapRandomizer<E>(parent));
+        }
+        return bootstrapResampler;
+    }
+
+    @Override
+    public double[] circularBlockBootstrapStatistics(final long seed, final int resampleCount,
+            final IDecimalResampleStatistic<E> statistic) {
+        return getCircularBootstrapResampler().resample(seed, resampleCount, statistic);
+    }
+
+    private synchronized DecimalAggregateResampler<E> getCircularBootstrapResampler() {
+        if (circularBootstrapResampler == null) {
+            circularBootstrapResampler = new DecimalAggregateResampler<E>(parent,
+                    getCircularBootstrapRandomizer());
+        }
+        return circularBootstrapResampler;
+    }
+
+    @Override
+    public double[] stationaryBootstrapStatistics(final long seed, final int resampleCount,
+            final IDecimalResampleStatistic<E> statistic) {
+        return getStationaryBootstrapResampler().resample(seed, resampleCount, statistic);
+    }
+
+    private synchronized DecimalAggregateResampler<E> getStationaryBootstrapResampler() {
+        if (stationaryBootstrapResampler == null) {
+            stationaryBootstrapResampler = new DecimalAggregateResampler<E>(parent,
+                    getStationaryBootstrapRandomizer());
+        }
+        return stationaryBootstrapResampler;
+    }
+
 }
@@ -0,0 +1,116 @@
+package de.invesdwin.util.math.decimal.internal.randomizers;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.concurrent.ConfiguredForkJoinPool;
+import de.invesdwin.util.concurrent.Executors;
+import de.invesdwin.util.math.decimal.ADecimal;
+import de.invesdwin.util.math.decimal.IDecimalAggregate;
+import de.invesdwin.util.math.decimal.internal.DoubleArrayDecimalAggregate;
+import de.invesdwin.util.math.decimal.internal.randomizers.impl.IDecimalRandomizer;
+import de.invesdwin.util.math.decimal.randomizers.DecimalResample;
+import de.invesdwin.util.math.decimal.randomizers.IDecimalResampleStatistic;
+import de.invesdwin.util.math.random.SplittableRandomGenerator;
+
+/**
+ * Generates many resamples in parallel and only keeps the calculated statistic per resample. Each resample gets its
+ * own random stream that is split from the seed along a fixed divide and conquer structure, thus the results only
+ * depend on the seed and not on the number of threads or the scheduling.
+ */
+@ThreadSafe
+public class DecimalAggregateResampler<E extends ADecimal<E>> {
+
+    /**
+     * Resamples per leaf task, this is part of the split structure and thus needs to stay constant for reproducibility.
+     */
+    private static final int LEAF_RESAMPLE_COUNT = 16;
+    private static final ConfiguredForkJoinPool POOL = Executors
+            .newForkJoinPool(DecimalAggregateResampler.class.getSimpleName(), Executors.getCpuThreadPoolCount());
+
+    private final IDecimalRandomizer<E> randomizer;
+    private final List<? extends E> sample;
+    private final double[] sampleDefaultValues;
+
+    public DecimalAggregateResampler(final IDecimalAggregate<E> parent, final IDecimalRandomizer<E> randomizer) {
+        this.randomizer = randomizer;
+        this.sample = parent.values();
+        this.sampleDefaultValues = newSampleDefaultValues(parent, sample);
+    }
+
+    private static <E extends ADecimal<E>> double[] newSampleDefaultValues(final IDecimalAggregate<E> parent,
+            final List<? extends E> sample) {
+        if (parent instanceof DoubleArrayDecimalAggregate) {
+            final DoubleArrayDecimalAggregate<E> cParent = (DoubleArrayDecimalAggregate<E>) parent;
+            return cParent.getDefaultValues();
+        }
+        final double[] defaultValues = new double[sample.size()];
+        for (int i = 0; i < defaultValues.length; i++) {
+            final E value = sample.get(i);
+            if (value == null) {
+                defaultValues[i] = Double.NaN;
+            } else {
+                defaultValues[i] = value.getDefaultValue();
+            }
+        }
+        return defaultValues;
+    }
+
+    public double[] resample(final long seed, final int resampleCount, final IDecimalResampleStatistic<E> statistic) {
+        return resample(POOL, seed, resampleCount, statistic);
+    }
+
+    public double[] resample(final ForkJoinPool pool, final long seed, final int resampleCount,
+            final IDecimalResampleStatistic<E> statistic) {
+        final double[] results = new double[resampleCount];
+        final ResampleTask task = new ResampleTask(new SplittableRandomGenerator(seed), 0, resampleCount, results,
+                statistic);
+        pool.invoke(task);
+        return results;
+    }
+
+    private final class ResampleTask extends RecursiveAction {
+
+        private final SplittableRandomGenerator random;
+        private final int from;
+        private final int to;
+        private final double[] results;
+        private final IDecimalResampleStatistic<E> statistic;
+
+        private ResampleTask(final SplittableRandomGenerator random, final int from, final int to,
+                final double[] results, final IDecimalResampleStatistic<E> statistic) {
+            this.random = random;
+            this.from = from;
+            this.to = to;
+            this.results = results;
+            this.statistic = statistic;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_RESAMPLE_COUNT) {
+                computeLeaf();
+            } else {
+                final int middle = (from + to) >>> 1;
+                final ResampleTask left = new ResampleTask(random.split(), from, middle, results, statistic);
+                final ResampleTask right = new ResampleTask(random.split(), middle, to, results, statistic);
+                invokeAll(left, right);
+            }
+        }
+
+        private void computeLeaf() {
+            final int[] indexes = new int[sampleDefaultValues.length];
+            final DecimalResample<E> resample = new DecimalResample<E>(sample, sampleDefaultValues, indexes);
+            for (int i = from; i < to; i++) {
+                randomizer.randomizeIndexes(random.split(), indexes);
+                resample.setResampleIndex(i);
+                results[i] = statistic.calculate(resample);
+            }
+        }
+
+    }
+
+}
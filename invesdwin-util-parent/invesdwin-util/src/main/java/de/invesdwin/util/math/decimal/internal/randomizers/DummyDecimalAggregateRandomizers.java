@@ -1,5 +1,6 @@
 package de.invesdwin.util.math.decimal.internal.randomizers;
 
+import java.util.Collections;
 import java.util.Iterator;
 
 import javax.annotation.concurrent.Immutable;
@@ -8,7 +9,9 @@ import org.apache.commons.math3.random.RandomGenerator;
 
 import de.invesdwin.util.collections.iterable.EmptyCloseableIterator;
 import de.invesdwin.util.math.decimal.ADecimal;
+import de.invesdwin.util.math.decimal.randomizers.DecimalResample;
 import de.invesdwin.util.math.decimal.randomizers.IDecimalAggregateRandomizers;
+import de.invesdwin.util.math.decimal.randomizers.IDecimalResampleStatistic;
 
 @Immutable
 public final class DummyDecimalAggregateRandomizers<E extends ADecimal<E>> implements IDecimalAggregateRandomizers<E> {
@@ -48,4 +51,39 @@ public final class DummyDecimalAggregateRandomizers<E extends ADecimal<E>> imple
         return EmptyCloseableIterator.getInstance();
     }
 
+    @Override
+    public double[] shuffleStatistics(final long seed, final int resampleCount,
+            final IDecimalResampleStatistic<E> statistic) {
+        return emptyStatistics(resampleCount, statistic);
+    }
+
+    @Override
+    public double[] bootstrapStatistics(final long seed, final int resampleCount,
+            final IDecimalResampleStatistic<E> statistic) {
+        return emptyStatistics(resampleCount, statistic);
+    }
+
+    @Override
+    public double[] circularBlockBootstrapStatistics(final long seed, final int resampleCount,
+            final IDecimalResampleStatistic<E> statistic) {
+        return emptyStatistics(resampleCount, statistic);
+    }
+
+    @Override
+    public double[] stationaryBootstrapStatistics(final long seed, final int resampleCount,
+            final IDecimalResampleStatistic<E> statistic) {
+        return emptyStatistics(resampleCount, statistic);
+    }
+
+    private double[] emptyStatistics(final int resampleCount, final IDecimalResampleStatistic<E> statistic) {
+        final double[] results = new double[resampleCount];
+        final DecimalResample<E> resample = new DecimalResample<E>(Collections.<E> emptyList(), new double[0],
+                new int[0]);
+        for (int i = 0; i < resampleCount; i++) {
+            resample.setResampleIndex(i);
+            results[i] = statistic.calculate(resample);
+        }
+        return results;
+    }
+
 }
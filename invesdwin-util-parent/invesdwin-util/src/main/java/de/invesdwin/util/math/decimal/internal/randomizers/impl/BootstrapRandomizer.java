@@ -41,4 +41,12 @@ public class BootstrapRandomizer<E extends ADecimal<E>> implements IDecimalRando
         };
     }
 
+    @Override
+    public void randomizeIndexes(final RandomGenerator random, final int[] indexes) {
+        final int size = sample.size();
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = random.nextInt(size);
+        }
+    }
+
 }
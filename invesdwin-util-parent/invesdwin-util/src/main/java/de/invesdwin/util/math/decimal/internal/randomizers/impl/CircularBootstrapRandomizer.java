@@ -39,6 +39,11 @@ public class CircularBootstrapRandomizer<E extends ADecimal<E>> implements IDeci
                 public Iterator<E> randomize(final RandomGenerator random) {
                     return internalResample(random);
                 }
+
+                @Override
+                public void randomizeIndexes(final RandomGenerator random, final int[] indexes) {
+                    internalResampleIndexes(random, indexes);
+                }
             };
         }
     }
@@ -52,6 +57,11 @@ public class CircularBootstrapRandomizer<E extends ADecimal<E>> implements IDeci
         return delegate.randomize(random);
     }
 
+    @Override
+    public final void randomizeIndexes(final RandomGenerator random, final int[] indexes) {
+        delegate.randomizeIndexes(random, indexes);
+    }
+
     protected int nextBlockLength(final RandomGenerator random) {
         return blockLength;
     }
@@ -95,4 +105,21 @@ public class CircularBootstrapRandomizer<E extends ADecimal<E>> implements IDeci
         };
     }
 
+    /**
+     * Same block logic as internalResample() without the iterator.
+     */
+    private void internalResampleIndexes(final RandomGenerator random, final int[] indexes) {
+        final int sampleSize = sample.size();
+        int curResampleIdx = 0;
+        while (curResampleIdx < indexes.length) {
+            final int curStartIdx = random.nextInt(sampleSize);
+            final int curBlockLength = nextBlockLength(random);
+            final int maxBlockIdx = Math.min(curBlockLength, indexes.length - curResampleIdx);
+            for (int curBlockIdx = 0; curBlockIdx < maxBlockIdx; curBlockIdx++) {
+                indexes[curResampleIdx] = (curStartIdx + curBlockIdx) % sampleSize;
+                curResampleIdx++;
+            }
+        }
+    }
+
 }
\ No newline at end of file
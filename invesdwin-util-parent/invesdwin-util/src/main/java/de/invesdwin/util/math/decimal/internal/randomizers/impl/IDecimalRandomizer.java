@@ -10,4 +10,10 @@ public interface IDecimalRandomizer<E extends ADecimal<E>> {
 
     Iterator<E> randomize(RandomGenerator random);
 
+    /**
+     * Fills the array with indexes into the sample instead of returning the values, this allows to resample without
+     * materializing any objects. The array length defines the resample size.
+     */
+    void randomizeIndexes(RandomGenerator random, int[] indexes);
+
 }
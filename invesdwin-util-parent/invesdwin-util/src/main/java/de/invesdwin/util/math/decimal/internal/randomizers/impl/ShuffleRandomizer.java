@@ -29,4 +29,20 @@ public class ShuffleRandomizer<E extends ADecimal<E>> implements IDecimalRandomi
         return sampleCopy.iterator();
     }
 
+    /**
+     * Same algorithm as Collections.shuffle().
+     */
+    @Override
+    public void randomizeIndexes(final RandomGenerator random, final int[] indexes) {
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = i;
+        }
+        for (int i = indexes.length; i > 1; i--) {
+            final int j = random.nextInt(i);
+            final int tmp = indexes[i - 1];
+            indexes[i - 1] = indexes[j];
+            indexes[j] = tmp;
+        }
+    }
+
 }
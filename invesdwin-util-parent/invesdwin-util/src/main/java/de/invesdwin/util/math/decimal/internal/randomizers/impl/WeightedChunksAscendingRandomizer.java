@@ -17,11 +17,14 @@ public class WeightedChunksAscendingRandomizer<E extends ADecimal<E>> implements
 
     private final int sampleSize;
     private final Pair<Double, ? extends List<E>>[] threshold_chunk;
+    private final int chunkIndexStep;
 
     @SuppressWarnings("unchecked")
     public WeightedChunksAscendingRandomizer(final IDecimalAggregate<E> parent, final int chunkCount) {
         this.sampleSize = parent.values().size();
         final List<? extends List<E>> sampleChunks = Lists.splitIntoPackageCount(parent.values(), chunkCount);
+        //elements are distributed round robin into the chunks
+        this.chunkIndexStep = sampleChunks.size();
         double chunkWeightsSum = 0D;
         for (double i = 1; i <= chunkCount; i++) {
             chunkWeightsSum += i;
@@ -59,13 +62,27 @@ public class WeightedChunksAscendingRandomizer<E extends ADecimal<E>> implements
         };
     }
 
+    @Override
+    public void randomizeIndexes(final RandomGenerator random, final int[] indexes) {
+        for (int i = 0; i < indexes.length; i++) {
+            final int chunkIndex = getSampleChunkIndex(random);
+            final List<E> sampleChunk = threshold_chunk[chunkIndex].getSecond();
+            final int sourceIdx = random.nextInt(sampleChunk.size());
+            indexes[i] = chunkIndex + sourceIdx * chunkIndexStep;
+        }
+    }
+
     private List<E> getSampleChunk(final RandomGenerator random) {
+        return threshold_chunk[getSampleChunkIndex(random)].getSecond();
+    }
+
+    private int getSampleChunkIndex(final RandomGenerator random) {
         final double chunkThreshold = random.nextDouble();
         for (int i = 0; i < threshold_chunk.length; i++) {
             final Pair<Double, ? extends List<E>> pair = threshold_chunk[i];
             final double threshold = pair.getFirst();
             if (chunkThreshold <= threshold) {
-                return pair.getSecond();
+                return i;
             }
         }
         throw new IllegalStateException("No chunk found for threshold: " + chunkThreshold);
@@ -1,12 +1,17 @@
 package de.invesdwin.util.math.decimal.internal.randomizers.impl.blocklength;
 
+import java.util.Arrays;
 import java.util.List;
 
 import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
 
+import de.invesdwin.util.collections.loadingcache.ALoadingCache;
 import de.invesdwin.util.math.Doubles;
 import de.invesdwin.util.math.decimal.ADecimal;
 import de.invesdwin.util.math.decimal.IDecimalAggregate;
+import de.invesdwin.util.math.decimal.internal.DoubleArrayDecimalAggregate;
+import de.invesdwin.util.math.statistics.AutoCovariances;
 
 /**
  * Politis, N. Dimitris, White Halbert, "Automatic Block-Length Selection for the Dependent Bootstrap", Econometric
@@ -17,6 +22,9 @@ import de.invesdwin.util.math.decimal.IDecimalAggregate;
  * 
  * http://www.math.ucsd.edu/~politis/SOFT/PPW/ppw.R
  * 
+ * All needed auto covariances are calculated in one go (via FFT for larger samples). The resulting block length is
+ * cached by sample content, so that repeated bootstraps of the same series do not need to calculate it again. The
+ * cache compares the samples in full, thus it holds on to the samples of the cached block lengths.
  */
 @NotThreadSafe
 public class CircularOptimalBlockLength<E extends ADecimal<E>> {
@@ -25,18 +33,46 @@ public class CircularOptimalBlockLength<E extends ADecimal<E>> {
     private static final double ONE_THIRD = 1D / 3D;
     private static final double MULTIPLICATOR_ONE_AND_A_THIRD = 1D + ONE_THIRD;
 
-    private final List<E> sample;
-    private final double sampleAvg;
-    private final double sampleAutoCovariance0;
+    private static final ALoadingCache<BlockLengthKey, Integer> BLOCK_LENGTH_CACHE = new ALoadingCache<BlockLengthKey, Integer>() {
+        @Override
+        protected Integer getInitialMaximumSize() {
+            return 1000;
+        }
+
+        @Override
+        protected boolean isHighConcurrency() {
+            return true;
+        }
+
+        @Override
+        protected Integer loadValue(final BlockLengthKey key) {
+            return key.owner.calculateBlockLength();
+        }
+    };
+
+    private final double[] sample;
+    private double[] sampleAutoCovariances;
 
     public CircularOptimalBlockLength(final IDecimalAggregate<E> parent) {
-        this.sample = parent.values();
-        this.sampleAvg = parent.avg().doubleValue();
-        this.sampleAutoCovariance0 = sampleAutoCovariance(0);
+        this.sample = newSample(parent);
+    }
+
+    private static <E extends ADecimal<E>> double[] newSample(final IDecimalAggregate<E> parent) {
+        if (parent instanceof DoubleArrayDecimalAggregate) {
+            //auto correlations are invariant to the linear scale of the default values
+            final DoubleArrayDecimalAggregate<E> cParent = (DoubleArrayDecimalAggregate<E>) parent;
+            return cParent.getDefaultValues();
+        }
+        final List<? extends E> values = parent.values();
+        final double[] sample = new double[values.size()];
+        for (int i = 0; i < sample.length; i++) {
+            sample[i] = values.get(i).doubleValue();
+        }
+        return sample;
     }
 
     private long determineOptimalLag() {
-        final int length = sample.size();
+        final int length = sample.length;
         final int checkLag = determineOptimalLag_checkLagInterval(length);
         final long maxLag = determineOptimalLag_maxlag(length);
         final double correlationThreshold = determineOptimalLag_correlationThreshold(length);
@@ -109,14 +145,18 @@ public class CircularOptimalBlockLength<E extends ADecimal<E>> {
     }
 
     public int getBlockLength() {
+        return BLOCK_LENGTH_CACHE.get(new BlockLengthKey(this));
+    }
+
+    private int calculateBlockLength() {
         final int optimalBlockLength = (int) determineOptimalBlockLength();
         return Math.max(1, optimalBlockLength);
     }
 
     private long determineOptimalBlockLength() {
-        final int length = sample.size();
+        final int length = sample.length;
         final long optimalLag = determineOptimalLag();
-        double sumTwoLagMultiCovar = sampleAutoCovariance0;
+        double sumTwoLagMultiCovar = sampleAutoCovariance(0);
         double sumTwoLagMultiLagCovar = 0D;
         for (int curLag = 1; curLag <= optimalLag; curLag++) {
             final double lagMultiplicator = determineOptimalBlockLength_lagMultiplicator(1D * curLag / optimalLag);
@@ -139,23 +179,52 @@ public class CircularOptimalBlockLength<E extends ADecimal<E>> {
     }
 
     private double sampleAutoCorrelation(final int lag) {
-        return sampleAutoCovariance(lag) / sampleAutoCovariance0;
+        return sampleAutoCovariance(lag) / sampleAutoCovariance(0);
     }
 
     private double sampleAutoCovariance(final int lag) {
-        if (lag >= sample.size()) {
-            throw new IllegalArgumentException(
-                    "Index needs to be smaller than sample size [" + sample.size() + "]: " + lag);
+        if (sampleAutoCovariances == null) {
+            //optimalLag is limited by maxLag, thus all lags are available
+            final int maxLag = (int) determineOptimalLag_maxlag(sample.length);
+            sampleAutoCovariances = AutoCovariances.autoCovariances(sample, AutoCovariances.avg(sample), maxLag);
+        }
+        return sampleAutoCovariances[lag];
+    }
+
+    /**
+     * Equality only depends on the type and the sample, which are not modified. The owner is only used to calculate the
+     * block length when the key is not cached yet.
+     */
+    @ThreadSafe
+    private static final class BlockLengthKey {
+        private final CircularOptimalBlockLength<?> owner;
+        private final Class<?> type;
+        private final double[] sample;
+        private final int hashCode;
+
+        private BlockLengthKey(final CircularOptimalBlockLength<?> owner) {
+            this.owner = owner;
+            this.type = owner.getClass();
+            this.sample = owner.sample;
+            this.hashCode = 31 * type.hashCode() + Arrays.hashCode(sample);
         }
-        final int length = sample.size();
-        double sum = 0D;
-        final int maxIdx = length - lag - 1;
-        for (int i = 0; i <= maxIdx; ++i) {
-            final double curAdj = sample.get(i).doubleValue() - sampleAvg;
-            final double nextAdj = sample.get(i + lag).doubleValue() - sampleAvg;
-            sum += curAdj * nextAdj;
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (obj == this) {
+                return true;
+            } else if (obj instanceof BlockLengthKey) {
+                final BlockLengthKey cObj = (BlockLengthKey) obj;
+                return type == cObj.type && hashCode == cObj.hashCode && Arrays.equals(sample, cObj.sample);
+            } else {
+                return false;
+            }
         }
-        return sum / length;
     }
 
 }
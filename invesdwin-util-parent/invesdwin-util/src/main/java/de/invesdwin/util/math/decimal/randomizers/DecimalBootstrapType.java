@@ -18,6 +18,12 @@ public enum DecimalBootstrapType {
                 final RandomGenerator random) {
             return values.randomize().bootstrap(random);
         }
+
+        @Override
+        public <T extends ADecimal<T>> double[] resampleStatistics(final IDecimalAggregate<T> values, final long seed,
+                final int resampleCount, final IDecimalResampleStatistic<T> statistic) {
+            return values.randomize().bootstrapStatistics(seed, resampleCount, statistic);
+        }
     },
     CircularBlockBootstrap {
         @Override
@@ -25,6 +31,12 @@ public enum DecimalBootstrapType {
                 final RandomGenerator random) {
             return values.randomize().circularBlockBootstrap(random);
         }
+
+        @Override
+        public <T extends ADecimal<T>> double[] resampleStatistics(final IDecimalAggregate<T> values, final long seed,
+                final int resampleCount, final IDecimalResampleStatistic<T> statistic) {
+            return values.randomize().circularBlockBootstrapStatistics(seed, resampleCount, statistic);
+        }
     },
     StationaryBootstrap {
         @Override
@@ -32,8 +44,17 @@ public enum DecimalBootstrapType {
                 final RandomGenerator random) {
             return values.randomize().stationaryBootstrap(random);
         }
+
+        @Override
+        public <T extends ADecimal<T>> double[] resampleStatistics(final IDecimalAggregate<T> values, final long seed,
+                final int resampleCount, final IDecimalResampleStatistic<T> statistic) {
+            return values.randomize().stationaryBootstrapStatistics(seed, resampleCount, statistic);
+        }
     };
 
     public abstract <T extends ADecimal<T>> Iterator<T> randomize(IDecimalAggregate<T> values, RandomGenerator random);
 
+    public abstract <T extends ADecimal<T>> double[] resampleStatistics(IDecimalAggregate<T> values, long seed,
+            int resampleCount, IDecimalResampleStatistic<T> statistic);
+
 }
@@ -0,0 +1,72 @@
+package de.invesdwin.util.math.decimal.randomizers;
+
+import java.util.List;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.math.decimal.ADecimal;
+
+/**
+ * A view on the original sample via an array of resampled indexes. The index array is reused between resamples of
+ * the same worker so that no values need to be materialized.
+ */
+@NotThreadSafe
+public class DecimalResample<E extends ADecimal<E>> {
+
+    private final List<? extends E> sample;
+    private final double[] sampleDefaultValues;
+    private final int[] indexes;
+    private int resampleIndex;
+
+    public DecimalResample(final List<? extends E> sample, final double[] sampleDefaultValues, final int[] indexes) {
+        this.sample = sample;
+        this.sampleDefaultValues = sampleDefaultValues;
+        this.indexes = indexes;
+    }
+
+    /**
+     * The number of the resample in the batch, can be used to store results in a shared array.
+     */
+    public int getResampleIndex() {
+        return resampleIndex;
+    }
+
+    public void setResampleIndex(final int resampleIndex) {
+        this.resampleIndex = resampleIndex;
+    }
+
+    public int size() {
+        return indexes.length;
+    }
+
+    /**
+     * The indexes into the original sample, they should not be modified.
+     */
+    public int[] getIndexes() {
+        return indexes;
+    }
+
+    public int getIndex(final int i) {
+        return indexes[i];
+    }
+
+    /**
+     * The original (not resampled) default values, they should not be modified.
+     */
+    public double[] getSampleDefaultValues() {
+        return sampleDefaultValues;
+    }
+
+    public double getDefaultValue(final int i) {
+        return sampleDefaultValues[indexes[i]];
+    }
+
+    /**
+     * Returns the original object from the sample, this does not create any new objects and can be used to feed the
+     * DecimalStream* algorithms.
+     */
+    public E get(final int i) {
+        return sample.get(indexes[i]);
+    }
+
+}
@@ -49,4 +49,28 @@ public interface IDecimalAggregateRandomizers<E extends ADecimal<E>> {
      */
     Iterator<E> weightedChunksAscending(RandomGenerator random, int chunkCount);
 
+    /**
+     * Calculates the statistic for resampleCount shuffled resamples in parallel. The results are reproducible for the
+     * given seed.
+     */
+    double[] shuffleStatistics(long seed, int resampleCount, IDecimalResampleStatistic<E> statistic);
+
+    /**
+     * Calculates the statistic for resampleCount bootstrap resamples in parallel. The results are reproducible for the
+     * given seed.
+     */
+    double[] bootstrapStatistics(long seed, int resampleCount, IDecimalResampleStatistic<E> statistic);
+
+    /**
+     * Calculates the statistic for resampleCount circular block bootstrap resamples in parallel. The results are
+     * reproducible for the given seed.
+     */
+    double[] circularBlockBootstrapStatistics(long seed, int resampleCount, IDecimalResampleStatistic<E> statistic);
+
+    /**
+     * Calculates the statistic for resampleCount stationary bootstrap resamples in parallel. The results are
+     * reproducible for the given seed.
+     */
+    double[] stationaryBootstrapStatistics(long seed, int resampleCount, IDecimalResampleStatistic<E> statistic);
+
 }
@@ -0,0 +1,14 @@
+package de.invesdwin.util.math.decimal.randomizers;
+
+import de.invesdwin.util.math.decimal.ADecimal;
+
+public interface IDecimalResampleStatistic<E extends ADecimal<E>> {
+
+    /**
+     * Calculates the statistic for one resample. Implementations are called concurrently from multiple threads for
+     * different resamples, thus they should not keep any state in fields. The resample instance is reused afterwards
+     * and should not be kept.
+     */
+    double calculate(DecimalResample<E> resample);
+
+}
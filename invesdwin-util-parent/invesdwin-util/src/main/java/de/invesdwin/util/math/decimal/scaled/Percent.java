@@ -10,6 +10,7 @@ import de.invesdwin.util.math.decimal.AScaledDecimal;
 import de.invesdwin.util.math.decimal.Decimal;
 import de.invesdwin.util.math.decimal.IScaledNumber;
 import de.invesdwin.util.math.decimal.ScaledDecimalToStringBuilder;
+import de.invesdwin.util.math.decimal.flyweight.DecimalFlyweights;
 import de.invesdwin.util.time.duration.Duration;
 import de.invesdwin.util.time.fdate.FTimeUnit;
 
@@ -140,11 +141,40 @@ public class Percent extends AScaledDecimal<Percent, PercentScale> {
         return new Percent(value, scale);
     }
 
+    @Override
+    protected Percent newValueCopyInterned(final double value) {
+        return DecimalFlyweights.getPercent(value, scale);
+    }
+
+    @Override
+    protected Percent fromDefaultValueInterned(final double value) {
+        if (scale == DEFAULT_SCALE) {
+            return DecimalFlyweights.getPercent(value, DEFAULT_SCALE);
+        } else {
+            //keep the scale of this instance for toString
+            return fromDefaultValue(value);
+        }
+    }
+
     @Override
     public Percent zero() {
         return ZERO_PERCENT;
     }
 
+    /**
+     * Might return a shared instance instead of creating a new one.
+     */
+    public static Percent valueOf(final double value, final PercentScale scale) {
+        return DecimalFlyweights.getPercent(value, scale);
+    }
+
+    /**
+     * Might return a shared instance instead of creating a new one.
+     */
+    public static Percent valueOfRate(final double dividend, final double divisor) {
+        return DecimalFlyweights.getPercent(newRate(dividend, divisor), PercentScale.RATE);
+    }
+
     public static Percent nullToZero(final Percent value) {
         if (value == null) {
             return ZERO_PERCENT;
@@ -194,7 +224,7 @@ public class Percent extends AScaledDecimal<Percent, PercentScale> {
         if (value == Double.MIN_VALUE) {
             return null;
         } else {
-            return new Percent(value, PercentScale.RATE);
+            return DecimalFlyweights.getPercent(value, PercentScale.RATE);
         }
     }
 
@@ -1,5 +1,7 @@
 package de.invesdwin.util.math.expression;
 
+import java.util.BitSet;
+
 import javax.annotation.concurrent.NotThreadSafe;
 
 import de.invesdwin.util.time.fdate.FDate;
@@ -54,6 +56,16 @@ public abstract class ADelegateExpression implements IExpression {
         return getDelegate().evaluateBooleanNullable(key);
     }
 
+    @Override
+    public void evaluateDoubleRange(final int fromKey, final int toKey, final double[] result) {
+        getDelegate().evaluateDoubleRange(fromKey, toKey, result);
+    }
+
+    @Override
+    public void evaluateBooleanRange(final int fromKey, final int toKey, final BitSet result) {
+        getDelegate().evaluateBooleanRange(fromKey, toKey, result);
+    }
+
     @Override
     public boolean isConstant() {
         return getDelegate().isConstant();
@@ -5,6 +5,7 @@ import javax.annotation.concurrent.Immutable;
 import de.invesdwin.util.error.UnknownArgumentException;
 import de.invesdwin.util.math.expression.eval.operation.BinaryOperation;
 import de.invesdwin.util.math.expression.eval.operation.BinaryOperation.Op;
+import de.invesdwin.util.math.expression.optimizer.ExpressionOptimizer;
 
 @Immutable
 public abstract class AExpressionVisitor {
@@ -12,9 +13,9 @@ public abstract class AExpressionVisitor {
     public void process(final IExpression expression) {
         final IExpression e;
         if (isDrawableOnly() && expression.getChildren().length == 1) {
-            e = getDrawable(expression);
+            e = ExpressionOptimizer.unwrap(getDrawable(expression));
         } else {
-            e = expression;
+            e = ExpressionOptimizer.unwrap(expression);
         }
         if (e == null) {
             return;
@@ -0,0 +1,165 @@
+package de.invesdwin.util.math.expression;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.collections.loadingcache.ALoadingCache;
+import de.invesdwin.util.lang.Objects;
+import de.invesdwin.util.math.expression.compiler.ExpressionCompiler;
+
+/**
+ * A bounded cache of parsed expressions that can be shared between threads, since the parsed expressions only hold
+ * per thread state in thread locals.
+ *
+ * Entries are keyed by the expression string and a registry key. The registry key identifies the functions and
+ * variables that newParser(...) makes available (e.g. an instrument or strategy id), thus it needs to implement
+ * equals/hashCode and can be null when only the default registry is used. Whenever a default function or variable
+ * is put or removed in ExpressionParser, the cache gets invalidated. Changes to custom registries need to be announced
+ * via invalidate().
+ *
+ * Parse errors are not cached and are thrown on each call.
+ */
+@ThreadSafe
+public class ExpressionParseCache<R> {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 10000;
+
+    private final ALoadingCache<ParseKey<R>, IExpression> cache = new ALoadingCache<ParseKey<R>, IExpression>() {
+        @Override
+        protected Integer getInitialMaximumSize() {
+            return getMaximumSize();
+        }
+
+        @Override
+        protected boolean isHighConcurrency() {
+            return true;
+        }
+
+        @Override
+        protected IExpression loadValue(final ParseKey<R> key) {
+            misses.incrementAndGet();
+            final IExpression parsed = newParser(key.registry, key.expression).parse();
+            if (isCompile()) {
+                return ExpressionCompiler.compile(parsed);
+            } else {
+                return parsed;
+            }
+        }
+    };
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private volatile int defaultsVersion = ExpressionParser.getDefaultsVersion();
+
+    /**
+     * Override this to create a parser that resolves the functions and variables of the given registry.
+     */
+    protected ExpressionParser newParser(final R registry, final String expression) {
+        return new ExpressionParser(expression);
+    }
+
+    /**
+     * default is false, when true the parsed expressions get passed through the ExpressionCompiler
+     */
+    protected boolean isCompile() {
+        return false;
+    }
+
+    protected int getMaximumSize() {
+        return DEFAULT_MAXIMUM_SIZE;
+    }
+
+    public IExpression parse(final String expression) {
+        return parse(null, expression);
+    }
+
+    public IExpression parse(final R registry, final String expression) {
+        final int currentDefaultsVersion = ExpressionParser.getDefaultsVersion();
+        if (defaultsVersion != currentDefaultsVersion) {
+            //entries from an old version are also skipped via the key until they are cleared here
+            defaultsVersion = currentDefaultsVersion;
+            cache.clear();
+        }
+        requests.incrementAndGet();
+        return cache.get(new ParseKey<R>(registry, expression, currentDefaultsVersion));
+    }
+
+    /**
+     * Removes all expressions that were parsed for the given registry.
+     */
+    public void invalidate(final R registry) {
+        for (final ParseKey<R> key : cache.keySet()) {
+            if (Objects.equals(key.registry, registry)) {
+                cache.remove(key);
+            }
+        }
+    }
+
+    public void clear() {
+        cache.clear();
+        requests.set(0);
+        misses.set(0);
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public long getHitCount() {
+        return Math.max(0, requests.get() - misses.get());
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public double getHitRate() {
+        final long requestCount = requests.get();
+        if (requestCount == 0) {
+            return Double.NaN;
+        }
+        return (double) getHitCount() / requestCount;
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toStringHelper(this)
+                .add("size", size())
+                .add("hits", getHitCount())
+                .add("misses", getMissCount())
+                .toString();
+    }
+
+    @Immutable
+    private static final class ParseKey<R> {
+        private final R registry;
+        private final String expression;
+        private final int defaultsVersion;
+        private final int hashCode;
+
+        private ParseKey(final R registry, final String expression, final int defaultsVersion) {
+            this.registry = registry;
+            this.expression = expression;
+            this.defaultsVersion = defaultsVersion;
+            this.hashCode = Objects.hashCode(registry, expression, defaultsVersion);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (obj instanceof ParseKey) {
+                final ParseKey<?> cObj = (ParseKey<?>) obj;
+                return defaultsVersion == cObj.defaultsVersion && expression.equals(cObj.expression)
+                        && Objects.equals(registry, cObj.registry);
+            } else {
+                return false;
+            }
+        }
+    }
+
+}
@@ -6,6 +6,7 @@ import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
@@ -31,6 +32,7 @@ import de.invesdwin.util.math.expression.function.IPreviousKeyFunction;
 import de.invesdwin.util.math.expression.function.LogicalFunctions;
 import de.invesdwin.util.math.expression.function.MathFunctions;
 import de.invesdwin.util.math.expression.function.StatisticalFunctions;
+import de.invesdwin.util.math.expression.optimizer.ExpressionOptimizer;
 import de.invesdwin.util.math.expression.tokenizer.IPosition;
 import de.invesdwin.util.math.expression.tokenizer.ParseException;
 import de.invesdwin.util.math.expression.tokenizer.Token;
@@ -51,6 +53,7 @@ public class ExpressionParser {
 
     private static final Map<String, IFunctionFactory> DEFAULT_FUNCTIONS;
     private static final Map<String, IVariable> DEFAULT_VARIABLES;
+    private static final AtomicInteger DEFAULTS_VERSION = new AtomicInteger();
 
     private final Tokenizer tokenizer;
     private final String originalExpression;
@@ -191,11 +194,21 @@ public class ExpressionParser {
         return expression;
     }
 
+    /**
+     * Changes whenever a default function or variable is put or removed, this allows caches of parsed expressions to detect that
+     * a new parse might resolve names differently.
+     */
+    public static int getDefaultsVersion() {
+        return DEFAULTS_VERSION.get();
+    }
+
     public static IFunctionFactory putDefaultFunction(final IFunctionFactory function) {
+        DEFAULTS_VERSION.incrementAndGet();
         return DEFAULT_FUNCTIONS.put(function.getExpressionName().toLowerCase(), function);
     }
 
     public static IFunctionFactory putDefaultFunction(final AFunction function) {
+        DEFAULTS_VERSION.incrementAndGet();
         return DEFAULT_FUNCTIONS.put(function.getExpressionName().toLowerCase(), new IFunctionFactory() {
 
             @Override
@@ -210,14 +223,25 @@ public class ExpressionParser {
         });
     }
 
+    public static IFunctionFactory removeDefaultFunction(final String expressionName) {
+        DEFAULTS_VERSION.incrementAndGet();
+        return DEFAULT_FUNCTIONS.remove(expressionName.toLowerCase());
+    }
+
     public static Collection<IFunctionFactory> getDefaultFunctions() {
         return DEFAULT_FUNCTIONS.values();
     }
 
     public static IVariable putDefaultVariable(final IVariable variable) {
+        DEFAULTS_VERSION.incrementAndGet();
         return DEFAULT_VARIABLES.put(variable.getExpressionName().toLowerCase(), variable);
     }
 
+    public static IVariable removeDefaultVariable(final String expressionName) {
+        DEFAULTS_VERSION.incrementAndGet();
+        return DEFAULT_VARIABLES.remove(expressionName.toLowerCase());
+    }
+
     public static Collection<IVariable> getDefaultVariables() {
         return DEFAULT_VARIABLES.values();
     }
@@ -233,7 +257,7 @@ public class ExpressionParser {
     }
 
     protected IParsedExpression simplify(final IParsedExpression expression) {
-        return expression.simplify();
+        return ExpressionOptimizer.optimize(expression.simplify());
     }
 
     protected IParsedExpression expression(final boolean commaAllowed) {
@@ -1,5 +1,7 @@
 package de.invesdwin.util.math.expression;
 
+import java.util.BitSet;
+
 import de.invesdwin.util.math.Booleans;
 import de.invesdwin.util.math.Integers;
 import de.invesdwin.util.time.fdate.FDate;
@@ -80,6 +82,32 @@ public interface IExpression {
      */
     Boolean evaluateBooleanNullable(int key);
 
+    /**
+     * Evaluates the int keys from fromKey (inclusive) to toKey (exclusive) and stores the values starting at index 0 of
+     * the result array. Nodes that can process the whole range column-at-a-time override this, the default evaluates
+     * key by key.
+     *
+     * Operands are evaluated for every key of the range even if a scalar evaluation would have short circuited them,
+     * thus this should only be used with expressions that are free of side effects.
+     */
+    default void evaluateDoubleRange(final int fromKey, final int toKey, final double[] result) {
+        for (int key = fromKey, i = 0; key < toKey; key++, i++) {
+            result[i] = evaluateDouble(key);
+        }
+    }
+
+    /**
+     * Sets the bit at index (key - fromKey) for every key that evaluates to true, other bits of the range are cleared.
+     * Double.NaN is interpreted as false.
+     */
+    default void evaluateBooleanRange(final int fromKey, final int toKey, final BitSet result) {
+        final double[] values = new double[toKey - fromKey];
+        evaluateDoubleRange(fromKey, toKey, values);
+        for (int i = 0; i < values.length; i++) {
+            result.set(i, values[i] > 0D);
+        }
+    }
+
     boolean isConstant();
 
     String getContext();
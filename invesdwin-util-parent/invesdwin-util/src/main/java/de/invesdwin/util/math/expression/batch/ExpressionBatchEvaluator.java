@@ -0,0 +1,157 @@
+package de.invesdwin.util.math.expression.batch;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.concurrent.Executors;
+import de.invesdwin.util.concurrent.future.Futures;
+import de.invesdwin.util.concurrent.taskinfo.provider.TaskInfoRunnable;
+import de.invesdwin.util.math.decimal.scaled.Percent;
+import de.invesdwin.util.math.expression.IExpression;
+import de.invesdwin.util.math.expression.optimizer.ExpressionBatch;
+import de.invesdwin.util.math.expression.optimizer.ExpressionOptimizer;
+
+/**
+ * Evaluates many expressions for the same int key range in parallel. The expressions are merged into one
+ * ExpressionBatch so that their common subexpressions are evaluated only once per key. The work is split into chunks of
+ * consecutive keys (so that incremental historical functions can continue from the previous key) and, when there are
+ * not enough key chunks to keep all threads busy, also into chunks of expressions. The progress is reported to the
+ * TaskInfoManager under the given task name.
+ */
+@ThreadSafe
+public class ExpressionBatchEvaluator {
+
+    /**
+     * Key chunks are multiples of this so that the bits of different chunks never share a word.
+     */
+    private static final int KEY_CHUNK_ALIGNMENT = Long.SIZE;
+    private static final int TASKS_PER_THREAD = 4;
+
+    private final String taskName;
+    private final ExecutorService executor;
+    private final int parallelism;
+
+    public ExpressionBatchEvaluator(final String taskName, final ExecutorService executor) {
+        this(taskName, executor, Executors.getCpuThreadPoolCount());
+    }
+
+    public ExpressionBatchEvaluator(final String taskName, final ExecutorService executor, final int parallelism) {
+        Assertions.checkTrue(parallelism > 0, "parallelism should be positive: %s", parallelism);
+        this.taskName = taskName;
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Returns one array per expression with the value for key fromKey+i at index i, toKey is exclusive.
+     */
+    public double[][] evaluateDoubleRange(final IExpression[] expressions, final int fromKey, final int toKey)
+            throws InterruptedException {
+        final int size = toKey - fromKey;
+        final double[][] results = new double[expressions.length][size];
+        evaluate(expressions, fromKey, toKey, new IChunkConsumer() {
+            @Override
+            public void accept(final int expression, final int index, final double value) {
+                results[expression][index] = value;
+            }
+        });
+        return results;
+    }
+
+    /**
+     * Returns one bitset per expression with the bit (key - fromKey) set for every key that evaluated to true, toKey is
+     * exclusive.
+     */
+    public BitSet[] evaluateBooleanRange(final IExpression[] expressions, final int fromKey, final int toKey)
+            throws InterruptedException {
+        final int size = toKey - fromKey;
+        //plain words are filled instead of bitsets, since different chunks write to different words only
+        final long[][] words = new long[expressions.length][(size + Long.SIZE - 1) / Long.SIZE];
+        evaluate(expressions, fromKey, toKey, new IChunkConsumer() {
+            @Override
+            public void accept(final int expression, final int index, final double value) {
+                if (value > 0D) {
+                    words[expression][index >>> 6] |= 1L << index;
+                }
+            }
+        });
+        final BitSet[] results = new BitSet[expressions.length];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = BitSet.valueOf(words[i]);
+        }
+        return results;
+    }
+
+    private void evaluate(final IExpression[] expressions, final int fromKey, final int toKey,
+            final IChunkConsumer consumer) throws InterruptedException {
+        Assertions.checkTrue(fromKey <= toKey, "fromKey [%s] should not be greater than toKey [%s]", fromKey, toKey);
+        final int size = toKey - fromKey;
+        if (size == 0 || expressions.length == 0) {
+            return;
+        }
+        final ExpressionBatch batch = ExpressionOptimizer.optimize(expressions);
+        final int targetTasks = parallelism * TASKS_PER_THREAD;
+        final int keyChunkSize = alignKeyChunkSize((size + targetTasks - 1) / targetTasks);
+        final int keyChunks = (size + keyChunkSize - 1) / keyChunkSize;
+        final int expressionChunks = Math.min(expressions.length, Math.max(1, targetTasks / keyChunks));
+        final int expressionChunkSize = (expressions.length + expressionChunks - 1) / expressionChunks;
+
+        final long totalEvaluations = (long) size * expressions.length;
+        final AtomicLong completedEvaluations = new AtomicLong();
+        final Callable<Percent> progress = new Callable<Percent>() {
+            @Override
+            public Percent call() throws Exception {
+                return new Percent(completedEvaluations.get(), totalEvaluations);
+            }
+        };
+        final List<Runnable> tasks = new ArrayList<>();
+        for (int fromExpression = 0; fromExpression < expressions.length; fromExpression += expressionChunkSize) {
+            final int toExpression = Math.min(expressions.length, fromExpression + expressionChunkSize);
+            for (int fromIndex = 0; fromIndex < size; fromIndex += keyChunkSize) {
+                final int toIndex = Math.min(size, fromIndex + keyChunkSize);
+                final Runnable task = newTask(batch, fromKey, fromIndex, toIndex, fromExpression, toExpression,
+                        consumer, completedEvaluations);
+                tasks.add(TaskInfoRunnable.of(taskName, task, progress));
+            }
+        }
+        Futures.submitAndWait(executor, tasks);
+    }
+
+    private static int alignKeyChunkSize(final int keyChunkSize) {
+        final int remainder = keyChunkSize % KEY_CHUNK_ALIGNMENT;
+        if (remainder == 0) {
+            return keyChunkSize;
+        }
+        return keyChunkSize + KEY_CHUNK_ALIGNMENT - remainder;
+    }
+
+    private static Runnable newTask(final ExpressionBatch batch, final int fromKey, final int fromIndex,
+            final int toIndex, final int fromExpression, final int toExpression, final IChunkConsumer consumer,
+            final AtomicLong completedEvaluations) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                final double[] values = new double[toExpression - fromExpression];
+                for (int index = fromIndex; index < toIndex; index++) {
+                    batch.evaluateDouble(fromKey + index, fromExpression, toExpression, values);
+                    for (int i = 0; i < values.length; i++) {
+                        consumer.accept(fromExpression + i, index, values[i]);
+                    }
+                }
+                completedEvaluations.addAndGet((long) (toIndex - fromIndex) * values.length);
+            }
+        };
+    }
+
+    private interface IChunkConsumer {
+        void accept(int expression, int index, double value);
+    }
+
+}
@@ -0,0 +1,49 @@
+package de.invesdwin.util.math.expression.compiler;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.invesdwin.util.math.expression.IExpression;
+import de.invesdwin.util.time.fdate.FDate;
+
+/**
+ * Base class for compiled nodes that never return null (e.g. comparisons), the other results are derived from the
+ * boolean value.
+ */
+@Immutable
+abstract class ACompiledBooleanExpression extends ACompiledExpression {
+
+    ACompiledBooleanExpression(final IExpression source) {
+        super(source);
+    }
+
+    @Override
+    public final Boolean evaluateBooleanNullable(final FDate key) {
+        return evaluateBoolean(key) ? Boolean.TRUE : Boolean.FALSE;
+    }
+
+    @Override
+    public final Boolean evaluateBooleanNullable(final int key) {
+        return evaluateBoolean(key) ? Boolean.TRUE : Boolean.FALSE;
+    }
+
+    @Override
+    public final Boolean evaluateBooleanNullable() {
+        return evaluateBoolean() ? Boolean.TRUE : Boolean.FALSE;
+    }
+
+    @Override
+    public final double evaluateDouble(final FDate key) {
+        return evaluateBoolean(key) ? 1D : 0D;
+    }
+
+    @Override
+    public final double evaluateDouble(final int key) {
+        return evaluateBoolean(key) ? 1D : 0D;
+    }
+
+    @Override
+    public final double evaluateDouble() {
+        return evaluateBoolean() ? 1D : 0D;
+    }
+
+}
@@ -0,0 +1,50 @@
+package de.invesdwin.util.math.expression.compiler;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.invesdwin.util.math.Doubles;
+import de.invesdwin.util.math.expression.IExpression;
+import de.invesdwin.util.time.fdate.FDate;
+
+/**
+ * Base class for compiled nodes that produce a double value, the boolean results are derived from it the same way as
+ * in BinaryOperation (NaN=null, greater than 0=true).
+ */
+@Immutable
+abstract class ACompiledDoubleExpression extends ACompiledExpression {
+
+    ACompiledDoubleExpression(final IExpression source) {
+        super(source);
+    }
+
+    @Override
+    public final Boolean evaluateBooleanNullable(final FDate key) {
+        return Doubles.doubleToBoolean(evaluateDouble(key));
+    }
+
+    @Override
+    public final Boolean evaluateBooleanNullable(final int key) {
+        return Doubles.doubleToBoolean(evaluateDouble(key));
+    }
+
+    @Override
+    public final Boolean evaluateBooleanNullable() {
+        return Doubles.doubleToBoolean(evaluateDouble());
+    }
+
+    @Override
+    public final boolean evaluateBoolean(final FDate key) {
+        return evaluateDouble(key) > 0D;
+    }
+
+    @Override
+    public final boolean evaluateBoolean(final int key) {
+        return evaluateDouble(key) > 0D;
+    }
+
+    @Override
+    public final boolean evaluateBoolean() {
+        return evaluateDouble() > 0D;
+    }
+
+}
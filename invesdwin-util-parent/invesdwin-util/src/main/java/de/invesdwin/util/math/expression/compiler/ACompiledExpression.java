@@ -0,0 +1,64 @@
+package de.invesdwin.util.math.expression.compiler;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.invesdwin.util.math.expression.IExpression;
+import de.invesdwin.util.math.expression.eval.IParsedExpression;
+
+/**
+ * Base class for nodes generated by the ExpressionCompiler. The metadata (context, children, toString) is taken from
+ * the source expression, thus visitors and charts still see the original tree while evaluation runs on the compiled
+ * nodes.
+ *
+ * Compiled nodes are parsed expressions so that the nodes of the ExpressionOptimizer can wrap them, they are already
+ * simplified.
+ */
+@Immutable
+public abstract class ACompiledExpression implements IParsedExpression {
+
+    protected final IExpression source;
+
+    public ACompiledExpression(final IExpression source) {
+        this.source = source;
+    }
+
+    public IExpression getSource() {
+        return source;
+    }
+
+    @Override
+    public IParsedExpression simplify() {
+        return this;
+    }
+
+    @Override
+    public boolean isConstant() {
+        return false;
+    }
+
+    @Override
+    public String getContext() {
+        return source.getContext();
+    }
+
+    @Override
+    public boolean shouldPersist() {
+        return source.shouldPersist();
+    }
+
+    @Override
+    public boolean shouldDraw() {
+        return source.shouldDraw();
+    }
+
+    @Override
+    public IExpression[] getChildren() {
+        return source.getChildren();
+    }
+
+    @Override
+    public String toString() {
+        return source.toString();
+    }
+
+}
@@ -0,0 +1,81 @@
+package de.invesdwin.util.math.expression.compiler;
+
+import java.util.Arrays;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.invesdwin.util.math.Booleans;
+import de.invesdwin.util.math.Doubles;
+import de.invesdwin.util.math.expression.IExpression;
+import de.invesdwin.util.time.fdate.FDate;
+
+@Immutable
+final class CompiledConstantExpression extends ACompiledExpression {
+
+    private final double doubleValue;
+    private final Boolean booleanNullableValue;
+    private final boolean booleanValue;
+
+    CompiledConstantExpression(final IExpression source) {
+        super(source);
+        this.doubleValue = source.evaluateDouble();
+        this.booleanNullableValue = Doubles.doubleToBoolean(doubleValue);
+        this.booleanValue = Booleans.isTrue(booleanNullableValue);
+    }
+
+    @Override
+    public double evaluateDouble(final FDate key) {
+        return doubleValue;
+    }
+
+    @Override
+    public double evaluateDouble(final int key) {
+        return doubleValue;
+    }
+
+    @Override
+    public double evaluateDouble() {
+        return doubleValue;
+    }
+
+    @Override
+    public Boolean evaluateBooleanNullable(final FDate key) {
+        return booleanNullableValue;
+    }
+
+    @Override
+    public Boolean evaluateBooleanNullable(final int key) {
+        return booleanNullableValue;
+    }
+
+    @Override
+    public Boolean evaluateBooleanNullable() {
+        return booleanNullableValue;
+    }
+
+    @Override
+    public boolean evaluateBoolean(final FDate key) {
+        return booleanValue;
+    }
+
+    @Override
+    public boolean evaluateBoolean(final int key) {
+        return booleanValue;
+    }
+
+    @Override
+    public boolean evaluateBoolean() {
+        return booleanValue;
+    }
+
+    @Override
+    public void evaluateDoubleRange(final int fromKey, final int toKey, final double[] result) {
+        Arrays.fill(result, 0, toKey - fromKey, doubleValue);
+    }
+
+    @Override
+    public boolean isConstant() {
+        return true;
+    }
+
+}
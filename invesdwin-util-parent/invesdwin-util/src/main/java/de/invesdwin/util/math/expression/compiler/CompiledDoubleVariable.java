@@ -0,0 +1,47 @@
+package de.invesdwin.util.math.expression.compiler;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.invesdwin.util.math.expression.IExpression;
+import de.invesdwin.util.math.expression.variable.IDoubleVariable;
+import de.invesdwin.util.time.fdate.FDate;
+
+/**
+ * Calls the variable directly instead of going through the DoubleVariableReference.
+ */
+@Immutable
+final class CompiledDoubleVariable extends ACompiledDoubleExpression {
+
+    private final IDoubleVariable variable;
+
+    CompiledDoubleVariable(final IExpression source, final IDoubleVariable variable) {
+        super(source);
+        this.variable = variable;
+    }
+
+    @Override
+    public double evaluateDouble(final FDate key) {
+        return variable.getValue(key);
+    }
+
+    @Override
+    public double evaluateDouble(final int key) {
+        return variable.getValue(key);
+    }
+
+    @Override
+    public double evaluateDouble() {
+        return variable.getValue();
+    }
+
+    @Override
+    public void evaluateDoubleRange(final int fromKey, final int toKey, final double[] result) {
+        variable.getValues(fromKey, toKey, result);
+    }
+
+    @Override
+    public boolean isConstant() {
+        return variable.isConstant();
+    }
+
+}
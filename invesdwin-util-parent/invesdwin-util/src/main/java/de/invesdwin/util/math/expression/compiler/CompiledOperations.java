@@ -0,0 +1,697 @@
+package de.invesdwin.util.math.expression.compiler;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.invesdwin.util.math.Doubles;
+import de.invesdwin.util.math.expression.IExpression;
+import de.invesdwin.util.math.expression.eval.operation.BinaryOperation.Op;
+import de.invesdwin.util.time.fdate.FDate;
+
+/**
+ * One final class per operator (and per constant right operand for comparisons) so that the operator is inlined into
+ * the evaluate methods instead of being dispatched through Op.applyDouble. The semantics are exactly the same as those
+ * of BinaryOperation, AndOperation and NotOperation. Like in the interpreter, each operator only implements its
+ * primary result (double for arithmetic, boolean for comparisons), the other results are derived by the base classes.
+ */
+@Immutable
+final class CompiledOperations {
+
+    private CompiledOperations() {}
+
+    /**
+     * Returns null if the operator is not supported.
+     */
+    static ACompiledExpression newBinaryOperation(final IExpression source, final Op op, final IExpression left,
+            final IExpression right) {
+        if (right instanceof CompiledConstantExpression) {
+            final double rightValue = right.evaluateDouble();
+            switch (op) {
+            case LT:
+                return new LtConstant(source, left, rightValue);
+            case LT_EQ:
+                return new LtEqConstant(source, left, rightValue);
+            case EQ:
+                return new EqConstant(source, left, rightValue);
+            case GT_EQ:
+                return new GtEqConstant(source, left, rightValue);
+            case GT:
+                return new GtConstant(source, left, rightValue);
+            case NEQ:
+                return new NeqConstant(source, left, rightValue);
+            default:
+                break;
+            }
+        }
+        switch (op) {
+        case ADD:
+            return new Add(source, left, right);
+        case SUBTRACT:
+            return new Subtract(source, left, right);
+        case MULTIPLY:
+            return new Multiply(source, left, right);
+        case DIVIDE:
+            return new Divide(source, left, right);
+        case MODULO:
+            return new Modulo(source, left, right);
+        case POWER:
+            return new Power(source, left, right);
+        case LT:
+            return new Lt(source, left, right);
+        case LT_EQ:
+            return new LtEq(source, left, right);
+        case EQ:
+            return new Eq(source, left, right);
+        case GT_EQ:
+            return new GtEq(source, left, right);
+        case GT:
+            return new Gt(source, left, right);
+        case NEQ:
+            return new Neq(source, left, right);
+        case AND:
+            return new And(source, left, right);
+        case NOT:
+            return new Not(source, right);
+        default:
+            return null;
+        }
+    }
+
+    abstract static class ACompiledArithmetic extends ACompiledDoubleExpression {
+
+        protected final IExpression left;
+        protected final IExpression right;
+
+        ACompiledArithmetic(final IExpression source, final IExpression left, final IExpression right) {
+            super(source);
+            this.left = left;
+            this.right = right;
+        }
+
+    }
+
+    abstract static class ACompiledComparison extends ACompiledBooleanExpression {
+
+        protected final IExpression left;
+        protected final IExpression right;
+
+        ACompiledComparison(final IExpression source, final IExpression left, final IExpression right) {
+            super(source);
+            this.left = left;
+            this.right = right;
+        }
+
+    }
+
+    abstract static class ACompiledConstantComparison extends ACompiledBooleanExpression {
+
+        protected final IExpression left;
+        protected final double rightValue;
+
+        ACompiledConstantComparison(final IExpression source, final IExpression left, final double rightValue) {
+            super(source);
+            this.left = left;
+            this.rightValue = rightValue;
+        }
+
+    }
+
+    /**
+     * Base class for the logical operations that can return null, the double result is derived from the nullable
+     * boolean.
+     */
+    abstract static class ACompiledLogical extends ACompiledExpression {
+
+        ACompiledLogical(final IExpression source) {
+            super(source);
+        }
+
+        @Override
+        public final double evaluateDouble(final FDate key) {
+            return Doubles.booleanToDouble(evaluateBooleanNullable(key));
+        }
+
+        @Override
+        public final double evaluateDouble(final int key) {
+            return Doubles.booleanToDouble(evaluateBooleanNullable(key));
+        }
+
+        @Override
+        public final double evaluateDouble() {
+            return Doubles.booleanToDouble(evaluateBooleanNullable());
+        }
+
+    }
+
+    static final class Add extends ACompiledArithmetic {
+
+        Add(final IExpression source, final IExpression left, final IExpression right) {
+            super(source, left, right);
+        }
+
+        @Override
+        public double evaluateDouble(final FDate key) {
+            return left.evaluateDouble(key) + right.evaluateDouble(key);
+        }
+
+        @Override
+        public double evaluateDouble(final int key) {
+            return left.evaluateDouble(key) + right.evaluateDouble(key);
+        }
+
+        @Override
+        public double evaluateDouble() {
+            return left.evaluateDouble() + right.evaluateDouble();
+        }
+
+    }
+
+    static final class Subtract extends ACompiledArithmetic {
+
+        Subtract(final IExpression source, final IExpression left, final IExpression right) {
+            super(source, left, right);
+        }
+
+        @Override
+        public double evaluateDouble(final FDate key) {
+            return left.evaluateDouble(key) - right.evaluateDouble(key);
+        }
+
+        @Override
+        public double evaluateDouble(final int key) {
+            return left.evaluateDouble(key) - right.evaluateDouble(key);
+        }
+
+        @Override
+        public double evaluateDouble() {
+            return left.evaluateDouble() - right.evaluateDouble();
+        }
+
+    }
+
+    static final class Multiply extends ACompiledArithmetic {
+
+        Multiply(final IExpression source, final IExpression left, final IExpression right) {
+            super(source, left, right);
+        }
+
+        @Override
+        public double evaluateDouble(final FDate key) {
+            return left.evaluateDouble(key) * right.evaluateDouble(key);
+        }
+
+        @Override
+        public double evaluateDouble(final int key) {
+            return left.evaluateDouble(key) * right.evaluateDouble(key);
+        }
+
+        @Override
+        public double evaluateDouble() {
+            return left.evaluateDouble() * right.evaluateDouble();
+        }
+
+    }
+
+    static final class Divide extends ACompiledArithmetic {
+
+        Divide(final IExpression source, final IExpression left, final IExpression right) {
+            super(source, left, right);
+        }
+
+        @Override
+        public double evaluateDouble(final FDate key) {
+            return Doubles.divide(left.evaluateDouble(key), right.evaluateDouble(key));
+        }
+
+        @Override
+        public double evaluateDouble(final int key) {
+            return Doubles.divide(left.evaluateDouble(key), right.evaluateDouble(key));
+        }
+
+        @Override
+        public double evaluateDouble() {
+            return Doubles.divide(left.evaluateDouble(), right.evaluateDouble());
+        }
+
+    }
+
+    static final class Modulo extends ACompiledArithmetic {
+
+        Modulo(final IExpression source, final IExpression left, final IExpression right) {
+            super(source, left, right);
+        }
+
+        @Override
+        public double evaluateDouble(final FDate key) {
+            return left.evaluateDouble(key) % right.evaluateDouble(key);
+        }
+
+        @Override
+        public double evaluateDouble(final int key) {
+            return left.evaluateDouble(key) % right.evaluateDouble(key);
+        }
+
+        @Override
+        public double evaluateDouble() {
+            return left.evaluateDouble() % right.evaluateDouble();
+        }
+
+    }
+
+    static final class Power extends ACompiledArithmetic {
+
+        Power(final IExpression source, final IExpression left, final IExpression right) {
+            super(source, left, right);
+        }
+
+        @Override
+        public double evaluateDouble(final FDate key) {
+            return Math.pow(left.evaluateDouble(key), right.evaluateDouble(key));
+        }
+
+        @Override
+        public double evaluateDouble(final int key) {
+            return Math.pow(left.evaluateDouble(key), right.evaluateDouble(key));
+        }
+
+        @Override
+        public double evaluateDouble() {
+            return Math.pow(left.evaluateDouble(), right.evaluateDouble());
+        }
+
+    }
+
+    static final class Lt extends ACompiledComparison {
+
+        Lt(final IExpression source, final IExpression left, final IExpression right) {
+            super(source, left, right);
+        }
+
+        @Override
+        public boolean evaluateBoolean(final FDate key) {
+            return Doubles.compare(left.evaluateDouble(key), right.evaluateDouble(key)) < 0;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final int key) {
+            return Doubles.compare(left.evaluateDouble(key), right.evaluateDouble(key)) < 0;
+        }
+
+        @Override
+        public boolean evaluateBoolean() {
+            return Doubles.compare(left.evaluateDouble(), right.evaluateDouble()) < 0;
+        }
+
+    }
+
+    static final class LtEq extends ACompiledComparison {
+
+        LtEq(final IExpression source, final IExpression left, final IExpression right) {
+            super(source, left, right);
+        }
+
+        @Override
+        public boolean evaluateBoolean(final FDate key) {
+            return Doubles.compare(left.evaluateDouble(key), right.evaluateDouble(key)) <= 0;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final int key) {
+            return Doubles.compare(left.evaluateDouble(key), right.evaluateDouble(key)) <= 0;
+        }
+
+        @Override
+        public boolean evaluateBoolean() {
+            return Doubles.compare(left.evaluateDouble(), right.evaluateDouble()) <= 0;
+        }
+
+    }
+
+    static final class Eq extends ACompiledComparison {
+
+        Eq(final IExpression source, final IExpression left, final IExpression right) {
+            super(source, left, right);
+        }
+
+        @Override
+        public boolean evaluateBoolean(final FDate key) {
+            return Doubles.compare(left.evaluateDouble(key), right.evaluateDouble(key)) == 0;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final int key) {
+            return Doubles.compare(left.evaluateDouble(key), right.evaluateDouble(key)) == 0;
+        }
+
+        @Override
+        public boolean evaluateBoolean() {
+            return Doubles.compare(left.evaluateDouble(), right.evaluateDouble()) == 0;
+        }
+
+    }
+
+    static final class GtEq extends ACompiledComparison {
+
+        GtEq(final IExpression source, final IExpression left, final IExpression right) {
+            super(source, left, right);
+        }
+
+        @Override
+        public boolean evaluateBoolean(final FDate key) {
+            return Doubles.compare(left.evaluateDouble(key), right.evaluateDouble(key)) >= 0;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final int key) {
+            return Doubles.compare(left.evaluateDouble(key), right.evaluateDouble(key)) >= 0;
+        }
+
+        @Override
+        public boolean evaluateBoolean() {
+            return Doubles.compare(left.evaluateDouble(), right.evaluateDouble()) >= 0;
+        }
+
+    }
+
+    static final class Gt extends ACompiledComparison {
+
+        Gt(final IExpression source, final IExpression left, final IExpression right) {
+            super(source, left, right);
+        }
+
+        @Override
+        public boolean evaluateBoolean(final FDate key) {
+            return Doubles.compare(left.evaluateDouble(key), right.evaluateDouble(key)) > 0;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final int key) {
+            return Doubles.compare(left.evaluateDouble(key), right.evaluateDouble(key)) > 0;
+        }
+
+        @Override
+        public boolean evaluateBoolean() {
+            return Doubles.compare(left.evaluateDouble(), right.evaluateDouble()) > 0;
+        }
+
+    }
+
+    static final class Neq extends ACompiledComparison {
+
+        Neq(final IExpression source, final IExpression left, final IExpression right) {
+            super(source, left, right);
+        }
+
+        @Override
+        public boolean evaluateBoolean(final FDate key) {
+            return Doubles.compare(left.evaluateDouble(key), right.evaluateDouble(key)) != 0;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final int key) {
+            return Doubles.compare(left.evaluateDouble(key), right.evaluateDouble(key)) != 0;
+        }
+
+        @Override
+        public boolean evaluateBoolean() {
+            return Doubles.compare(left.evaluateDouble(), right.evaluateDouble()) != 0;
+        }
+
+    }
+
+    static final class LtConstant extends ACompiledConstantComparison {
+
+        LtConstant(final IExpression source, final IExpression left, final double rightValue) {
+            super(source, left, rightValue);
+        }
+
+        @Override
+        public boolean evaluateBoolean(final FDate key) {
+            return Doubles.compare(left.evaluateDouble(key), rightValue) < 0;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final int key) {
+            return Doubles.compare(left.evaluateDouble(key), rightValue) < 0;
+        }
+
+        @Override
+        public boolean evaluateBoolean() {
+            return Doubles.compare(left.evaluateDouble(), rightValue) < 0;
+        }
+
+    }
+
+    static final class LtEqConstant extends ACompiledConstantComparison {
+
+        LtEqConstant(final IExpression source, final IExpression left, final double rightValue) {
+            super(source, left, rightValue);
+        }
+
+        @Override
+        public boolean evaluateBoolean(final FDate key) {
+            return Doubles.compare(left.evaluateDouble(key), rightValue) <= 0;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final int key) {
+            return Doubles.compare(left.evaluateDouble(key), rightValue) <= 0;
+        }
+
+        @Override
+        public boolean evaluateBoolean() {
+            return Doubles.compare(left.evaluateDouble(), rightValue) <= 0;
+        }
+
+    }
+
+    static final class EqConstant extends ACompiledConstantComparison {
+
+        EqConstant(final IExpression source, final IExpression left, final double rightValue) {
+            super(source, left, rightValue);
+        }
+
+        @Override
+        public boolean evaluateBoolean(final FDate key) {
+            return Doubles.compare(left.evaluateDouble(key), rightValue) == 0;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final int key) {
+            return Doubles.compare(left.evaluateDouble(key), rightValue) == 0;
+        }
+
+        @Override
+        public boolean evaluateBoolean() {
+            return Doubles.compare(left.evaluateDouble(), rightValue) == 0;
+        }
+
+    }
+
+    static final class GtEqConstant extends ACompiledConstantComparison {
+
+        GtEqConstant(final IExpression source, final IExpression left, final double rightValue) {
+            super(source, left, rightValue);
+        }
+
+        @Override
+        public boolean evaluateBoolean(final FDate key) {
+            return Doubles.compare(left.evaluateDouble(key), rightValue) >= 0;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final int key) {
+            return Doubles.compare(left.evaluateDouble(key), rightValue) >= 0;
+        }
+
+        @Override
+        public boolean evaluateBoolean() {
+            return Doubles.compare(left.evaluateDouble(), rightValue) >= 0;
+        }
+
+    }
+
+    static final class GtConstant extends ACompiledConstantComparison {
+
+        GtConstant(final IExpression source, final IExpression left, final double rightValue) {
+            super(source, left, rightValue);
+        }
+
+        @Override
+        public boolean evaluateBoolean(final FDate key) {
+            return Doubles.compare(left.evaluateDouble(key), rightValue) > 0;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final int key) {
+            return Doubles.compare(left.evaluateDouble(key), rightValue) > 0;
+        }
+
+        @Override
+        public boolean evaluateBoolean() {
+            return Doubles.compare(left.evaluateDouble(), rightValue) > 0;
+        }
+
+    }
+
+    static final class NeqConstant extends ACompiledConstantComparison {
+
+        NeqConstant(final IExpression source, final IExpression left, final double rightValue) {
+            super(source, left, rightValue);
+        }
+
+        @Override
+        public boolean evaluateBoolean(final FDate key) {
+            return Doubles.compare(left.evaluateDouble(key), rightValue) != 0;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final int key) {
+            return Doubles.compare(left.evaluateDouble(key), rightValue) != 0;
+        }
+
+        @Override
+        public boolean evaluateBoolean() {
+            return Doubles.compare(left.evaluateDouble(), rightValue) != 0;
+        }
+
+    }
+
+    static final class And extends ACompiledLogical {
+
+        private final IExpression left;
+        private final IExpression right;
+
+        And(final IExpression source, final IExpression left, final IExpression right) {
+            super(source);
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public Boolean evaluateBooleanNullable(final FDate key) {
+            final Boolean leftResult = left.evaluateBooleanNullable(key);
+            if (leftResult == null || leftResult == Boolean.TRUE) {
+                return right.evaluateBooleanNullable(key);
+            } else {
+                return Boolean.FALSE;
+            }
+        }
+
+        @Override
+        public Boolean evaluateBooleanNullable(final int key) {
+            final Boolean leftResult = left.evaluateBooleanNullable(key);
+            if (leftResult == null || leftResult == Boolean.TRUE) {
+                return right.evaluateBooleanNullable(key);
+            } else {
+                return Boolean.FALSE;
+            }
+        }
+
+        @Override
+        public Boolean evaluateBooleanNullable() {
+            final Boolean leftResult = left.evaluateBooleanNullable();
+            if (leftResult == null || leftResult == Boolean.TRUE) {
+                return right.evaluateBooleanNullable();
+            } else {
+                return Boolean.FALSE;
+            }
+        }
+
+        @Override
+        public boolean evaluateBoolean(final FDate key) {
+            final Boolean leftResult = left.evaluateBooleanNullable(key);
+            if (leftResult == null || leftResult == Boolean.TRUE) {
+                return right.evaluateBoolean(key);
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public boolean evaluateBoolean(final int key) {
+            final Boolean leftResult = left.evaluateBooleanNullable(key);
+            if (leftResult == null || leftResult == Boolean.TRUE) {
+                return right.evaluateBoolean(key);
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public boolean evaluateBoolean() {
+            final Boolean leftResult = left.evaluateBooleanNullable();
+            if (leftResult == null || leftResult == Boolean.TRUE) {
+                return right.evaluateBoolean();
+            } else {
+                return false;
+            }
+        }
+
+    }
+
+    static final class Not extends ACompiledLogical {
+
+        private final IExpression right;
+
+        Not(final IExpression source, final IExpression right) {
+            super(source);
+            this.right = right;
+        }
+
+        @Override
+        public Boolean evaluateBooleanNullable(final FDate key) {
+            final Boolean check = right.evaluateBooleanNullable(key);
+            if (check == null) {
+                return null;
+            } else if (check == Boolean.TRUE) {
+                return Boolean.FALSE;
+            } else {
+                return Boolean.TRUE;
+            }
+        }
+
+        @Override
+        public Boolean evaluateBooleanNullable(final int key) {
+            final Boolean check = right.evaluateBooleanNullable(key);
+            if (check == null) {
+                return null;
+            } else if (check == Boolean.TRUE) {
+                return Boolean.FALSE;
+            } else {
+                return Boolean.TRUE;
+            }
+        }
+
+        @Override
+        public Boolean evaluateBooleanNullable() {
+            final Boolean check = right.evaluateBooleanNullable();
+            if (check == null) {
+                return null;
+            } else if (check == Boolean.TRUE) {
+                return Boolean.FALSE;
+            } else {
+                return Boolean.TRUE;
+            }
+        }
+
+        @Override
+        public boolean evaluateBoolean(final FDate key) {
+            final Boolean check = right.evaluateBooleanNullable(key);
+            return check != null && check != Boolean.TRUE;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final int key) {
+            final Boolean check = right.evaluateBooleanNullable(key);
+            return check != null && check != Boolean.TRUE;
+        }
+
+        @Override
+        public boolean evaluateBoolean() {
+            final Boolean check = right.evaluateBooleanNullable();
+            return check != null && check != Boolean.TRUE;
+        }
+
+    }
+
+}
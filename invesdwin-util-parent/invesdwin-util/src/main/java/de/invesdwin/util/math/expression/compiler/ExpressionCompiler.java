@@ -0,0 +1,94 @@
+package de.invesdwin.util.math.expression.compiler;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.math.expression.IExpression;
+import de.invesdwin.util.math.expression.eval.ConstantExpression;
+import de.invesdwin.util.math.expression.eval.IParsedExpression;
+import de.invesdwin.util.math.expression.eval.operation.AndOperation;
+import de.invesdwin.util.math.expression.eval.operation.BinaryOperation;
+import de.invesdwin.util.math.expression.eval.operation.NotOperation;
+import de.invesdwin.util.math.expression.eval.variable.DoubleVariableReference;
+import de.invesdwin.util.math.expression.optimizer.AOptimizedExpression;
+import de.invesdwin.util.math.expression.optimizer.ExpressionOptimizer;
+
+/**
+ * Translates a parsed expression tree into a tree of specialized final node classes. Each operator gets its own class
+ * with the arithmetic inlined into the evaluate methods, comparisons against constants store the constant as a
+ * primitive field and variables are called directly. Thus the JIT sees small monomorphic methods that it can inline
+ * instead of the generic BinaryOperation that dispatches again through Op.
+ *
+ * Only the exact node classes ConstantExpression, DoubleVariableReference, BinaryOperation, AndOperation and
+ * NotOperation are compiled, subclasses might override the evaluation and are thus left to the interpreter just like
+ * function calls and all other node types. The nodes of the ExpressionOptimizer are kept and the compiler descends into
+ * their delegates, shared subexpressions stay shared. The compiled expression is immutable and can be shared between
+ * threads as long as the interpreted subtrees allow this.
+ */
+@Immutable
+public final class ExpressionCompiler {
+
+    private ExpressionCompiler() {}
+
+    public static IExpression compile(final IExpression expression) {
+        if (ExpressionOptimizer.unwrap(expression) instanceof ACompiledExpression) {
+            return expression;
+        }
+        return new Compilation().compile(expression);
+    }
+
+    public static boolean isCompiled(final IExpression expression) {
+        final IExpression unwrapped = ExpressionOptimizer.unwrap(expression);
+        return unwrapped instanceof ACompiledExpression && !(unwrapped instanceof InterpretedExpression);
+    }
+
+    @NotThreadSafe
+    private static final class Compilation {
+
+        private final Map<IExpression, IExpression> compiled = new IdentityHashMap<IExpression, IExpression>();
+
+        public IExpression compile(final IExpression expression) {
+            IExpression result = compiled.get(expression);
+            if (result == null) {
+                result = compileNode(expression);
+                compiled.put(expression, result);
+            }
+            return result;
+        }
+
+        private IExpression compileNode(final IExpression expression) {
+            if (expression instanceof AOptimizedExpression) {
+                final AOptimizedExpression cExpression = (AOptimizedExpression) expression;
+                final IExpression delegate = compile(cExpression.getDelegate());
+                if (delegate instanceof InterpretedExpression || delegate == cExpression.getDelegate()) {
+                    //nothing compiled below this node, no need for the indirection
+                    return expression;
+                }
+                //compiled nodes and optimizer nodes are both parsed expressions
+                return cExpression.withDelegate((IParsedExpression) delegate);
+            }
+            final Class<? extends IExpression> type = expression.getClass();
+            if (type == ConstantExpression.class) {
+                return new CompiledConstantExpression(expression);
+            } else if (type == DoubleVariableReference.class) {
+                final DoubleVariableReference cExpression = (DoubleVariableReference) expression;
+                return new CompiledDoubleVariable(expression, cExpression.getVariable());
+            } else if (type == BinaryOperation.class || type == AndOperation.class || type == NotOperation.class) {
+                final BinaryOperation cExpression = (BinaryOperation) expression;
+                final IExpression left = compile(cExpression.getLeft());
+                final IExpression right = compile(cExpression.getRight());
+                final ACompiledExpression compiledOperation = CompiledOperations.newBinaryOperation(expression,
+                        cExpression.getOp(), left, right);
+                if (compiledOperation != null) {
+                    return compiledOperation;
+                }
+            }
+            return new InterpretedExpression(expression);
+        }
+
+    }
+
+}
@@ -0,0 +1,80 @@
+package de.invesdwin.util.math.expression.compiler;
+
+import java.util.BitSet;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.invesdwin.util.math.expression.IExpression;
+import de.invesdwin.util.time.fdate.FDate;
+
+/**
+ * Fallback for nodes that the compiler does not support, the subtree is evaluated by the interpreter.
+ */
+@Immutable
+final class InterpretedExpression extends ACompiledExpression {
+
+    InterpretedExpression(final IExpression source) {
+        super(source);
+    }
+
+    @Override
+    public double evaluateDouble(final FDate key) {
+        return source.evaluateDouble(key);
+    }
+
+    @Override
+    public double evaluateDouble(final int key) {
+        return source.evaluateDouble(key);
+    }
+
+    @Override
+    public double evaluateDouble() {
+        return source.evaluateDouble();
+    }
+
+    @Override
+    public Boolean evaluateBooleanNullable(final FDate key) {
+        return source.evaluateBooleanNullable(key);
+    }
+
+    @Override
+    public Boolean evaluateBooleanNullable(final int key) {
+        return source.evaluateBooleanNullable(key);
+    }
+
+    @Override
+    public Boolean evaluateBooleanNullable() {
+        return source.evaluateBooleanNullable();
+    }
+
+    @Override
+    public boolean evaluateBoolean(final FDate key) {
+        return source.evaluateBoolean(key);
+    }
+
+    @Override
+    public boolean evaluateBoolean(final int key) {
+        return source.evaluateBoolean(key);
+    }
+
+    @Override
+    public boolean evaluateBoolean() {
+        return source.evaluateBoolean();
+    }
+
+    @Override
+    public void evaluateDoubleRange(final int fromKey, final int toKey, final double[] result) {
+        source.evaluateDoubleRange(fromKey, toKey, result);
+    }
+
+    @Override
+    public void evaluateBooleanRange(final int fromKey, final int toKey, final BitSet result) {
+        source.evaluateBooleanRange(fromKey, toKey, result);
+    }
+
+    @Override
+    public boolean isConstant() {
+        return source.isConstant();
+    }
+
+}
@@ -1,5 +1,7 @@
 package de.invesdwin.util.math.expression.eval;
 
+import java.util.Arrays;
+
 import javax.annotation.concurrent.Immutable;
 
 import de.invesdwin.util.math.Booleans;
@@ -66,6 +68,11 @@ public class ConstantExpression implements IParsedExpression {
         return booleanValue;
     }
 
+    @Override
+    public void evaluateDoubleRange(final int fromKey, final int toKey, final double[] result) {
+        Arrays.fill(result, 0, toKey - fromKey, doubleValue);
+    }
+
     @Override
     public boolean isConstant() {
         return true;
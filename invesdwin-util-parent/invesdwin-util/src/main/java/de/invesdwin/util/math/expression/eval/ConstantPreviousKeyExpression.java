@@ -24,6 +24,21 @@ public class ConstantPreviousKeyExpression implements IParsedExpression {
         this.previousKeyFunction = previousKeyFunction;
     }
 
+    public IParsedExpression getExpression() {
+        return expression;
+    }
+
+    /**
+     * Returns null for negative indexes.
+     */
+    public Integer getIndex() {
+        return index;
+    }
+
+    public IPreviousKeyFunction getPreviousKeyFunction() {
+        return previousKeyFunction;
+    }
+
     @Override
     public double evaluateDouble(final FDate key) {
         final FDate previousKey = previousKeyFunction.getPreviousKey(key, index);
@@ -20,6 +20,18 @@ public class DynamicPreviousKeyExpression implements IParsedExpression {
         this.previousKeyFunction = previousKeyFunction;
     }
 
+    public IParsedExpression getExpression() {
+        return expression;
+    }
+
+    public IParsedExpression getIndexExpression() {
+        return indexExpression;
+    }
+
+    public IPreviousKeyFunction getPreviousKeyFunction() {
+        return previousKeyFunction;
+    }
+
     @Override
     public double evaluateDouble(final FDate key) {
         final Integer index = indexExpression.evaluateInteger(key);
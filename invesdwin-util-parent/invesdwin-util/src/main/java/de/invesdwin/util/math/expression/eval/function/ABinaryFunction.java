@@ -35,6 +35,17 @@ public abstract class ABinaryFunction extends ADoubleFunction {
         return eval(a, b);
     }
 
+    @Override
+    public void evalRange(final int fromKey, final int toKey, final IExpression[] args, final double[] result) {
+        final int length = toKey - fromKey;
+        args[0].evaluateDoubleRange(fromKey, toKey, result);
+        final double[] b = new double[length];
+        args[1].evaluateDoubleRange(fromKey, toKey, b);
+        for (int i = 0; i < length; i++) {
+            result[i] = eval(result[i], b[i]);
+        }
+    }
+
     protected abstract double eval(double a, double b);
 
     @Override
@@ -38,6 +38,19 @@ public abstract class ATernaryFunction extends ADoubleFunction {
         return eval(a, b, c);
     }
 
+    @Override
+    public void evalRange(final int fromKey, final int toKey, final IExpression[] args, final double[] result) {
+        final int length = toKey - fromKey;
+        args[0].evaluateDoubleRange(fromKey, toKey, result);
+        final double[] b = new double[length];
+        args[1].evaluateDoubleRange(fromKey, toKey, b);
+        final double[] c = new double[length];
+        args[2].evaluateDoubleRange(fromKey, toKey, c);
+        for (int i = 0; i < length; i++) {
+            result[i] = eval(result[i], b[i], c[i]);
+        }
+    }
+
     protected abstract double eval(double a, double b, double c);
 
     @Override
@@ -32,6 +32,15 @@ public abstract class AUnaryFunction extends ADoubleFunction {
         return eval(a);
     }
 
+    @Override
+    public void evalRange(final int fromKey, final int toKey, final IExpression[] args, final double[] result) {
+        final int length = toKey - fromKey;
+        args[0].evaluateDoubleRange(fromKey, toKey, result);
+        for (int i = 0; i < length; i++) {
+            result[i] = eval(result[i]);
+        }
+    }
+
     protected abstract double eval(double a);
 
     @Override
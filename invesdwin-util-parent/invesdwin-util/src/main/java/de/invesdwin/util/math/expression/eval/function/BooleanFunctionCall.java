@@ -39,6 +39,11 @@ public class BooleanFunctionCall extends AFunctionCall<ABooleanFunction> {
         return Doubles.booleanToDouble(evaluateBoolean());
     }
 
+    @Override
+    public void evaluateDoubleRange(final int fromKey, final int toKey, final double[] result) {
+        function.evalRange(fromKey, toKey, parameters, result);
+    }
+
     @Override
     public Boolean evaluateBooleanNullable(final FDate key) {
         return evaluateBoolean(key);
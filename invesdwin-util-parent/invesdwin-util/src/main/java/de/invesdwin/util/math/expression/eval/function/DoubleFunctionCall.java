@@ -38,6 +38,11 @@ public class DoubleFunctionCall extends AFunctionCall<ADoubleFunction> {
         return function.eval(parameters);
     }
 
+    @Override
+    public void evaluateDoubleRange(final int fromKey, final int toKey, final double[] result) {
+        function.evalRange(fromKey, toKey, parameters, result);
+    }
+
     @Override
     public Boolean evaluateBooleanNullable(final FDate key) {
         final double eval = function.eval(key, parameters);
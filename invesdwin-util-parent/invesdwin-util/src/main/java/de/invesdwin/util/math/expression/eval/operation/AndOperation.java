@@ -62,6 +62,30 @@ public class AndOperation extends BinaryOperation {
         }
     }
 
+    @Override
+    public void evaluateDoubleRange(final int fromKey, final int toKey, final double[] result) {
+        final int length = toKey - fromKey;
+        left.evaluateDoubleRange(fromKey, toKey, result);
+        final double[] rightValues = new double[length];
+        right.evaluateDoubleRange(fromKey, toKey, rightValues);
+        for (int i = 0; i < length; i++) {
+            final double leftValue = result[i];
+            //null or true continues with right
+            if (leftValue > 0D || Doubles.isNaN(leftValue)) {
+                final double rightValue = rightValues[i];
+                if (Doubles.isNaN(rightValue)) {
+                    result[i] = Double.NaN;
+                } else if (rightValue > 0D) {
+                    result[i] = 1D;
+                } else {
+                    result[i] = 0D;
+                }
+            } else {
+                result[i] = 0D;
+            }
+        }
+    }
+
     @Override
     public boolean isConstant() {
         return false;
@@ -38,6 +38,10 @@ public class BinaryOperation implements IParsedExpression {
         return right;
     }
 
+    public BinaryOperation setRight(final IParsedExpression right) {
+        return newBinaryOperation(op, left, right);
+    }
+
     public void seal() {
         sealed = true;
     }
@@ -94,6 +98,24 @@ public class BinaryOperation implements IParsedExpression {
         return op.applyBooleanNullable(a, b);
     }
 
+    @Override
+    public void evaluateDoubleRange(final int fromKey, final int toKey, final double[] result) {
+        final int length = toKey - fromKey;
+        left.evaluateDoubleRange(fromKey, toKey, result);
+        final double[] rightValues = new double[length];
+        right.evaluateDoubleRange(fromKey, toKey, rightValues);
+        op.applyDoubleRange(result, rightValues, length);
+    }
+
+    /**
+     * For subclasses that can not process the range column-at-a-time.
+     */
+    protected final void evaluateDoubleRangeByKey(final int fromKey, final int toKey, final double[] result) {
+        for (int key = fromKey, i = 0; key < toKey; key++, i++) {
+            result[i] = evaluateDouble(key);
+        }
+    }
+
     @Override
     public IParsedExpression simplify() {
         final IParsedExpression newLeft = left.simplify();
@@ -194,6 +216,13 @@ public class BinaryOperation implements IParsedExpression {
             public Boolean applyBooleanNullable(final double a, final double b) {
                 return Doubles.doubleToBoolean(applyDouble(a, b));
             }
+
+            @Override
+            public void applyDoubleRange(final double[] left, final double[] right, final int length) {
+                for (int i = 0; i < length; i++) {
+                    left[i] = left[i] + right[i];
+                }
+            }
         },
         SUBTRACT(3, "-") {
             @Override
@@ -205,6 +234,13 @@ public class BinaryOperation implements IParsedExpression {
             public Boolean applyBooleanNullable(final double a, final double b) {
                 return Doubles.doubleToBoolean(applyDouble(a, b));
             }
+
+            @Override
+            public void applyDoubleRange(final double[] left, final double[] right, final int length) {
+                for (int i = 0; i < length; i++) {
+                    left[i] = left[i] - right[i];
+                }
+            }
         },
         MULTIPLY(4, "*") {
             @Override
@@ -216,6 +252,13 @@ public class BinaryOperation implements IParsedExpression {
             public Boolean applyBooleanNullable(final double a, final double b) {
                 return Doubles.doubleToBoolean(applyDouble(a, b));
             }
+
+            @Override
+            public void applyDoubleRange(final double[] left, final double[] right, final int length) {
+                for (int i = 0; i < length; i++) {
+                    left[i] = left[i] * right[i];
+                }
+            }
         },
         DIVIDE(4, "/") {
             @Override
@@ -227,6 +270,13 @@ public class BinaryOperation implements IParsedExpression {
             public Boolean applyBooleanNullable(final double a, final double b) {
                 return Doubles.doubleToBoolean(applyDouble(a, b));
             }
+
+            @Override
+            public void applyDoubleRange(final double[] left, final double[] right, final int length) {
+                for (int i = 0; i < length; i++) {
+                    left[i] = Doubles.divide(left[i], right[i]);
+                }
+            }
         },
         MODULO(4, "%") {
             @Override
@@ -238,6 +288,13 @@ public class BinaryOperation implements IParsedExpression {
             public Boolean applyBooleanNullable(final double a, final double b) {
                 return Doubles.doubleToBoolean(applyDouble(a, b));
             }
+
+            @Override
+            public void applyDoubleRange(final double[] left, final double[] right, final int length) {
+                for (int i = 0; i < length; i++) {
+                    left[i] = left[i] % right[i];
+                }
+            }
         },
         POWER(5, "^") {
             @Override
@@ -260,6 +317,13 @@ public class BinaryOperation implements IParsedExpression {
             public Boolean applyBooleanNullable(final double a, final double b) {
                 return Doubles.compare(a, b) < 0;
             }
+
+            @Override
+            public void applyDoubleRange(final double[] left, final double[] right, final int length) {
+                for (int i = 0; i < length; i++) {
+                    left[i] = Doubles.compare(left[i], right[i]) < 0 ? 1D : 0D;
+                }
+            }
         },
         LT_EQ(2, "<=") {
             @Override
@@ -271,6 +335,13 @@ public class BinaryOperation implements IParsedExpression {
             public Boolean applyBooleanNullable(final double a, final double b) {
                 return Doubles.compare(a, b) <= 0;
             }
+
+            @Override
+            public void applyDoubleRange(final double[] left, final double[] right, final int length) {
+                for (int i = 0; i < length; i++) {
+                    left[i] = Doubles.compare(left[i], right[i]) <= 0 ? 1D : 0D;
+                }
+            }
         },
         EQ(2, "==") {
             @Override
@@ -282,6 +353,13 @@ public class BinaryOperation implements IParsedExpression {
             public Boolean applyBooleanNullable(final double a, final double b) {
                 return Doubles.compare(a, b) == 0;
             }
+
+            @Override
+            public void applyDoubleRange(final double[] left, final double[] right, final int length) {
+                for (int i = 0; i < length; i++) {
+                    left[i] = Doubles.compare(left[i], right[i]) == 0 ? 1D : 0D;
+                }
+            }
         },
         GT_EQ(2, ">=") {
             @Override
@@ -293,6 +371,13 @@ public class BinaryOperation implements IParsedExpression {
             public Boolean applyBooleanNullable(final double a, final double b) {
                 return Doubles.compare(a, b) >= 0;
             }
+
+            @Override
+            public void applyDoubleRange(final double[] left, final double[] right, final int length) {
+                for (int i = 0; i < length; i++) {
+                    left[i] = Doubles.compare(left[i], right[i]) >= 0 ? 1D : 0D;
+                }
+            }
         },
         GT(2, ">") {
             @Override
@@ -304,6 +389,13 @@ public class BinaryOperation implements IParsedExpression {
             public Boolean applyBooleanNullable(final double a, final double b) {
                 return Doubles.compare(a, b) > 0;
             }
+
+            @Override
+            public void applyDoubleRange(final double[] left, final double[] right, final int length) {
+                for (int i = 0; i < length; i++) {
+                    left[i] = Doubles.compare(left[i], right[i]) > 0 ? 1D : 0D;
+                }
+            }
         },
         NEQ(2, "!=") {
             @Override
@@ -315,6 +407,13 @@ public class BinaryOperation implements IParsedExpression {
             public Boolean applyBooleanNullable(final double a, final double b) {
                 return Doubles.compare(a, b) != 0;
             }
+
+            @Override
+            public void applyDoubleRange(final double[] left, final double[] right, final int length) {
+                for (int i = 0; i < length; i++) {
+                    left[i] = Doubles.compare(left[i], right[i]) != 0 ? 1D : 0D;
+                }
+            }
         },
         AND(1, "&&") {
             @Override
@@ -393,6 +492,15 @@ public class BinaryOperation implements IParsedExpression {
 
         public abstract Boolean applyBooleanNullable(double a, double b);
 
+        /**
+         * Applies the operation element wise and stores the results in the left array.
+         */
+        public void applyDoubleRange(final double[] left, final double[] right, final int length) {
+            for (int i = 0; i < length; i++) {
+                left[i] = applyDouble(left[i], right[i]);
+            }
+        }
+
     }
 
     @Override
@@ -116,6 +116,11 @@ public class CrossesAboveOperation extends BinaryOperation {
         throw new UnsupportedOperationException("crosses below operation is only supported with time or int index");
     }
 
+    @Override
+    public void evaluateDoubleRange(final int fromKey, final int toKey, final double[] result) {
+        evaluateDoubleRangeByKey(fromKey, toKey, result);
+    }
+
     @Override
     public boolean isConstant() {
         return false;
@@ -67,6 +67,22 @@ public class NotOperation extends BinaryOperation {
         }
     }
 
+    @Override
+    public void evaluateDoubleRange(final int fromKey, final int toKey, final double[] result) {
+        final int length = toKey - fromKey;
+        right.evaluateDoubleRange(fromKey, toKey, result);
+        for (int i = 0; i < length; i++) {
+            final double value = result[i];
+            if (Doubles.isNaN(value)) {
+                result[i] = Double.NaN;
+            } else if (value > 0D) {
+                result[i] = 0D;
+            } else {
+                result[i] = 1D;
+            }
+        }
+    }
+
     @Override
     public boolean isConstant() {
         return false;
@@ -62,6 +62,11 @@ public class OrOperation extends BinaryOperation {
         }
     }
 
+    @Override
+    public void evaluateDoubleRange(final int fromKey, final int toKey, final double[] result) {
+        evaluateDoubleRangeByKey(fromKey, toKey, result);
+    }
+
     @Override
     public boolean isConstant() {
         return false;
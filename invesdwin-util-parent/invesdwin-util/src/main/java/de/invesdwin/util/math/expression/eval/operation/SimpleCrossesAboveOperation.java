@@ -108,6 +108,11 @@ public class SimpleCrossesAboveOperation extends BinaryOperation {
         throw new UnsupportedOperationException("crosses below operation is only supported with time or int index");
     }
 
+    @Override
+    public void evaluateDoubleRange(final int fromKey, final int toKey, final double[] result) {
+        evaluateDoubleRangeByKey(fromKey, toKey, result);
+    }
+
     @Override
     public boolean isConstant() {
         return false;
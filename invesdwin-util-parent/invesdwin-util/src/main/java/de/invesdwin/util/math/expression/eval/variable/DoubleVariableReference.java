@@ -44,6 +44,11 @@ public class DoubleVariableReference extends AVariableReference<IDoubleVariable>
         return Doubles.doubleToBoolean(variable.getValue());
     }
 
+    @Override
+    public void evaluateDoubleRange(final int fromKey, final int toKey, final double[] result) {
+        variable.getValues(fromKey, toKey, result);
+    }
+
     @Override
     public AFunction asFunction() {
         return new DoubleVariableFunction(this);
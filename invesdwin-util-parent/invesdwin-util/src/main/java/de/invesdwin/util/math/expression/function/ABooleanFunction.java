@@ -2,6 +2,7 @@ package de.invesdwin.util.math.expression.function;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
+import de.invesdwin.util.math.Doubles;
 import de.invesdwin.util.math.expression.IExpression;
 import de.invesdwin.util.math.expression.eval.IParsedExpression;
 import de.invesdwin.util.math.expression.eval.function.BooleanFunctionCall;
@@ -16,6 +17,16 @@ public abstract class ABooleanFunction extends AFunction {
 
     public abstract boolean eval(IExpression[] args);
 
+    /**
+     * Evaluates the int keys from fromKey (inclusive) to toKey (exclusive) and stores the values as 1/0 starting at
+     * index 0 of the result array. Functions can override this to process the arguments column-at-a-time.
+     */
+    public void evalRange(final int fromKey, final int toKey, final IExpression[] args, final double[] result) {
+        for (int key = fromKey, i = 0; key < toKey; key++, i++) {
+            result[i] = Doubles.booleanToDouble(eval(key, args));
+        }
+    }
+
     @Override
     public final IParsedExpression newCall(final String context, final IParsedExpression[] parameters) {
         return new BooleanFunctionCall(context, this, parameters);
@@ -16,6 +16,16 @@ public abstract class ADoubleFunction extends AFunction {
 
     public abstract double eval(IExpression[] args);
 
+    /**
+     * Evaluates the int keys from fromKey (inclusive) to toKey (exclusive) and stores the values starting at index 0 of
+     * the result array. Functions can override this to process the arguments column-at-a-time.
+     */
+    public void evalRange(final int fromKey, final int toKey, final IExpression[] args, final double[] result) {
+        for (int key = fromKey, i = 0; key < toKey; key++, i++) {
+            result[i] = eval(key, args);
+        }
+    }
+
     @Override
     public final IParsedExpression newCall(final String context, final IParsedExpression[] parameters) {
         return new DoubleFunctionCall(context, this, parameters);
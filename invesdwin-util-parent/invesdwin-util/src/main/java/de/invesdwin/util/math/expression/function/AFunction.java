@@ -88,6 +88,16 @@ public abstract class AFunction {
      */
     public abstract boolean isNaturalFunction(IExpression[] args);
 
+    /**
+     * return true if this function returns the same value when it is evaluated again for the same key with the same
+     * arguments and has no side effects. Then identical calls can share one evaluation and the simplification is allowed
+     * to reorder the call in a logical combination. By default only natural functions are regarded as deterministic,
+     * functions like random or commands that place orders should never return true here.
+     */
+    public boolean isDeterministic(final IExpression[] args) {
+        return isNaturalFunction(args);
+    }
+
     public abstract ExpressionReturnType getReturnType();
 
     public abstract String getName();
@@ -15,6 +15,19 @@ public final class HistoricalFunctions {
     private HistoricalFunctions() {
     }
 
+    public static boolean isIncrementalEvaluationEnabled() {
+        return PreviousKeyWindow.isEnabled();
+    }
+
+    /**
+     * Stable, stable count, occurs, occurs count and the statistical functions (except product) reuse the values of the
+     * previous int key when keys are evaluated sequentially. Disabling this makes them walk all previous keys for each
+     * evaluation again.
+     */
+    public static void setIncrementalEvaluationEnabled(final boolean enabled) {
+        PreviousKeyWindow.setEnabled(enabled);
+    }
+
     public static IFunctionFactory newOnceFunction(final String name) {
         return new IFunctionFactory() {
             @Override
@@ -45,6 +58,11 @@ public final class HistoricalFunctions {
                         return false;
                     }
 
+                    @Override
+                    public boolean isDeterministic(final IExpression[] args) {
+                        return true;
+                    }
+
                     @Override
                     public ExpressionReturnType getReturnType() {
                         return ExpressionReturnType.Boolean;
@@ -171,6 +189,9 @@ public final class HistoricalFunctions {
 
                 return new ABooleanFunction() {
 
+                    private final ThreadLocal<PreviousKeyWindow> windows = PreviousKeyWindow
+                            .newBooleanWindows(previousKeyFunction);
+
                     @Override
                     public boolean shouldPersist() {
                         return false;
@@ -186,6 +207,11 @@ public final class HistoricalFunctions {
                         return false;
                     }
 
+                    @Override
+                    public boolean isDeterministic(final IExpression[] args) {
+                        return true;
+                    }
+
                     @Override
                     public ExpressionReturnType getReturnType() {
                         return ExpressionReturnType.Boolean;
@@ -304,6 +330,10 @@ public final class HistoricalFunctions {
                     public boolean eval(final int key, final IExpression[] args) {
                         final IExpression condition = args[0];
                         final int count = args[1].evaluateInteger(key);
+                        final PreviousKeyWindow window = PreviousKeyWindow.update(windows, key, count, condition);
+                        if (window != null) {
+                            return window.isStable();
+                        }
                         int curKey = key;
                         for (int i = 1; i <= count; i++) {
                             final Boolean result = condition.evaluateBooleanNullable(curKey);
@@ -354,6 +384,9 @@ public final class HistoricalFunctions {
 
                 return new ADoubleFunction() {
 
+                    private final ThreadLocal<PreviousKeyWindow> windows = PreviousKeyWindow
+                            .newBooleanWindows(previousKeyFunction);
+
                     @Override
                     public boolean shouldPersist() {
                         return false;
@@ -369,6 +402,11 @@ public final class HistoricalFunctions {
                         return false;
                     }
 
+                    @Override
+                    public boolean isDeterministic(final IExpression[] args) {
+                        return true;
+                    }
+
                     @Override
                     public ExpressionReturnType getReturnType() {
                         return ExpressionReturnType.Boolean;
@@ -487,6 +525,10 @@ public final class HistoricalFunctions {
                     public double eval(final int key, final IExpression[] args) {
                         final IExpression condition = args[0];
                         final int count = args[1].evaluateInteger(key);
+                        final PreviousKeyWindow window = PreviousKeyWindow.update(windows, key, count, condition);
+                        if (window != null) {
+                            return window.getStableCount();
+                        }
                         int stableCount = 0;
                         int curKey = key;
                         for (int i = 1; i <= count; i++) {
@@ -559,6 +601,11 @@ public final class HistoricalFunctions {
                         return false;
                     }
 
+                    @Override
+                    public boolean isDeterministic(final IExpression[] args) {
+                        return true;
+                    }
+
                     @Override
                     public ExpressionReturnType getReturnType() {
                         return ExpressionReturnType.Boolean;
@@ -748,6 +795,11 @@ public final class HistoricalFunctions {
                         return false;
                     }
 
+                    @Override
+                    public boolean isDeterministic(final IExpression[] args) {
+                        return true;
+                    }
+
                     @Override
                     public ExpressionReturnType getReturnType() {
                         return ExpressionReturnType.Boolean;
@@ -947,6 +999,11 @@ public final class HistoricalFunctions {
                         return false;
                     }
 
+                    @Override
+                    public boolean isDeterministic(final IExpression[] args) {
+                        return true;
+                    }
+
                     @Override
                     public ExpressionReturnType getReturnType() {
                         return ExpressionReturnType.Boolean;
@@ -1136,6 +1193,11 @@ public final class HistoricalFunctions {
                         return false;
                     }
 
+                    @Override
+                    public boolean isDeterministic(final IExpression[] args) {
+                        return true;
+                    }
+
                     @Override
                     public ExpressionReturnType getReturnType() {
                         return ExpressionReturnType.Boolean;
@@ -1319,6 +1381,9 @@ public final class HistoricalFunctions {
 
                 return new ABooleanFunction() {
 
+                    private final ThreadLocal<PreviousKeyWindow> windows = PreviousKeyWindow
+                            .newBooleanWindows(previousKeyFunction);
+
                     @Override
                     public boolean shouldPersist() {
                         return false;
@@ -1334,6 +1399,11 @@ public final class HistoricalFunctions {
                         return false;
                     }
 
+                    @Override
+                    public boolean isDeterministic(final IExpression[] args) {
+                        return true;
+                    }
+
                     @Override
                     public ExpressionReturnType getReturnType() {
                         return ExpressionReturnType.Boolean;
@@ -1452,6 +1522,10 @@ public final class HistoricalFunctions {
                     public boolean eval(final int key, final IExpression[] args) {
                         final IExpression condition = args[0];
                         final int count = args[1].evaluateInteger(key);
+                        final PreviousKeyWindow window = PreviousKeyWindow.update(windows, key, count, condition);
+                        if (window != null) {
+                            return window.isOccurs();
+                        }
                         int curKey = key;
                         for (int i = 1; i <= count; i++) {
                             final boolean result = Booleans.isTrue(condition.evaluateBooleanNullable(curKey));
@@ -1502,6 +1576,9 @@ public final class HistoricalFunctions {
 
                 return new ADoubleFunction() {
 
+                    private final ThreadLocal<PreviousKeyWindow> windows = PreviousKeyWindow
+                            .newBooleanWindows(previousKeyFunction);
+
                     @Override
                     public boolean shouldPersist() {
                         return false;
@@ -1517,6 +1594,11 @@ public final class HistoricalFunctions {
                         return false;
                     }
 
+                    @Override
+                    public boolean isDeterministic(final IExpression[] args) {
+                        return true;
+                    }
+
                     @Override
                     public ExpressionReturnType getReturnType() {
                         return ExpressionReturnType.Boolean;
@@ -1635,6 +1717,10 @@ public final class HistoricalFunctions {
                     public double eval(final int key, final IExpression[] args) {
                         final IExpression condition = args[0];
                         final int count = args[1].evaluateInteger(key);
+                        final PreviousKeyWindow window = PreviousKeyWindow.update(windows, key, count, condition);
+                        if (window != null) {
+                            return window.getOccursCount();
+                        }
                         int occursCount = 0;
                         int curKey = key;
                         for (int i = 1; i <= count; i++) {
@@ -1703,6 +1789,11 @@ public final class HistoricalFunctions {
                         return false;
                     }
 
+                    @Override
+                    public boolean isDeterministic(final IExpression[] args) {
+                        return true;
+                    }
+
                     @Override
                     public ExpressionReturnType getReturnType() {
                         return ExpressionReturnType.Boolean;
@@ -1894,6 +1985,11 @@ public final class HistoricalFunctions {
                         return false;
                     }
 
+                    @Override
+                    public boolean isDeterministic(final IExpression[] args) {
+                        return true;
+                    }
+
                     @Override
                     public ExpressionReturnType getReturnType() {
                         return ExpressionReturnType.Boolean;
@@ -2087,6 +2183,11 @@ public final class HistoricalFunctions {
                         return false;
                     }
 
+                    @Override
+                    public boolean isDeterministic(final IExpression[] args) {
+                        return true;
+                    }
+
                     @Override
                     public ExpressionReturnType getReturnType() {
                         return ExpressionReturnType.Boolean;
@@ -2278,6 +2379,11 @@ public final class HistoricalFunctions {
                         return false;
                     }
 
+                    @Override
+                    public boolean isDeterministic(final IExpression[] args) {
+                        return true;
+                    }
+
                     @Override
                     public ExpressionReturnType getReturnType() {
                         return ExpressionReturnType.Boolean;
@@ -2470,6 +2576,11 @@ public final class HistoricalFunctions {
                         return false;
                     }
 
+                    @Override
+                    public boolean isDeterministic(final IExpression[] args) {
+                        return true;
+                    }
+
                     @Override
                     public ExpressionReturnType getReturnType() {
                         return ExpressionReturnType.Boolean;
@@ -2660,6 +2771,11 @@ public final class HistoricalFunctions {
                         return false;
                     }
 
+                    @Override
+                    public boolean isDeterministic(final IExpression[] args) {
+                        return true;
+                    }
+
                     @Override
                     public ExpressionReturnType getReturnType() {
                         return ExpressionReturnType.Boolean;
@@ -52,6 +52,23 @@ public final class LogicalFunctions {
             }
         }
 
+        @Override
+        public void evalRange(final int fromKey, final int toKey, final IExpression[] args, final double[] result) {
+            final int length = toKey - fromKey;
+            args[0].evaluateDoubleRange(fromKey, toKey, result);
+            final double[] trueValues = new double[length];
+            args[1].evaluateDoubleRange(fromKey, toKey, trueValues);
+            final double[] falseValues = new double[length];
+            args[2].evaluateDoubleRange(fromKey, toKey, falseValues);
+            for (int i = 0; i < length; i++) {
+                if (result[i] > 0D) {
+                    result[i] = trueValues[i];
+                } else {
+                    result[i] = falseValues[i];
+                }
+            }
+        }
+
         @Override
         public boolean isNaturalFunction(final IExpression[] args) {
             return true;
@@ -240,6 +257,15 @@ public final class LogicalFunctions {
             return Double.isNaN(a);
         }
 
+        @Override
+        public void evalRange(final int fromKey, final int toKey, final IExpression[] args, final double[] result) {
+            final int length = toKey - fromKey;
+            args[0].evaluateDoubleRange(fromKey, toKey, result);
+            for (int i = 0; i < length; i++) {
+                result[i] = Double.isNaN(result[i]) ? 1D : 0D;
+            }
+        }
+
         @Override
         public ExpressionReturnType getReturnType() {
             return ExpressionReturnType.Boolean;
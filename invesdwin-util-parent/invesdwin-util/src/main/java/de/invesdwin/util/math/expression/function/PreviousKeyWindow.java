@@ -0,0 +1,350 @@
+package de.invesdwin.util.math.expression.function;
+
+import java.util.Arrays;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.math.Doubles;
+import de.invesdwin.util.math.expression.IExpression;
+
+/**
+ * Keeps the values of the last count keys along the previous key chain so that historical and statistical functions
+ * can update their result in O(1) (order statistics in O(log n) plus a memory move) when int keys are evaluated
+ * sequentially. When the key is not the successor of the last key (random access, a different count or the same key
+ * again) the window is rebuilt by walking the previous keys just like the scalar evaluation does. Since the window for
+ * a key always consists of the key itself plus the window of its previous key, this also gives the same results at the
+ * start of the data where the previous key function clamps the keys.
+ *
+ * The values of previous keys are assumed to not change anymore once they have been evaluated. This is why only int
+ * keys (which are used for historical data) are evaluated incrementally while time keys (which might be used on live
+ * data) always walk the previous keys.
+ */
+@NotThreadSafe
+final class PreviousKeyWindow {
+
+    /**
+     * Below this count walking the previous keys is cheaper than looking up the thread local window.
+     */
+    static final int MIN_COUNT = 8;
+
+    private static volatile boolean enabled = true;
+
+    private final IPreviousKeyFunction previousKeyFunction;
+    private final boolean booleanValues;
+    private final boolean orderStatistics;
+
+    private double[] ring = Doubles.EMPTY_ARRAY;
+    private int next;
+    private int size;
+    private int count = -1;
+    private int lastKey;
+    private int updatesUntilRecalculation;
+
+    //boolean values: NaN=null, 1=true, 0=false
+    private int trueCount;
+    private int falseCount;
+    private int trueSinceLastFalse;
+
+    //double values, NaN is skipped
+    private int notNaNCount;
+    private double sum;
+    private double sumCompensation;
+    private double avg;
+    private double squareSum;
+    private double[] sorted = Doubles.EMPTY_ARRAY;
+
+    private PreviousKeyWindow(final IPreviousKeyFunction previousKeyFunction, final boolean booleanValues,
+            final boolean orderStatistics) {
+        this.previousKeyFunction = previousKeyFunction;
+        this.booleanValues = booleanValues;
+        this.orderStatistics = orderStatistics;
+    }
+
+    static boolean isEnabled() {
+        return enabled;
+    }
+
+    static void setEnabled(final boolean enabled) {
+        PreviousKeyWindow.enabled = enabled;
+    }
+
+    /**
+     * Windows for conditions that are evaluated via evaluateBooleanNullable.
+     */
+    static ThreadLocal<PreviousKeyWindow> newBooleanWindows(final IPreviousKeyFunction previousKeyFunction) {
+        return newWindows(previousKeyFunction, true, false);
+    }
+
+    /**
+     * Windows for values that are evaluated via evaluateDouble, orderStatistics enables median and percentile.
+     */
+    static ThreadLocal<PreviousKeyWindow> newDoubleWindows(final IPreviousKeyFunction previousKeyFunction,
+            final boolean orderStatistics) {
+        return newWindows(previousKeyFunction, false, orderStatistics);
+    }
+
+    private static ThreadLocal<PreviousKeyWindow> newWindows(final IPreviousKeyFunction previousKeyFunction,
+            final boolean booleanValues, final boolean orderStatistics) {
+        return new ThreadLocal<PreviousKeyWindow>() {
+            @Override
+            protected PreviousKeyWindow initialValue() {
+                return new PreviousKeyWindow(previousKeyFunction, booleanValues, orderStatistics);
+            }
+        };
+    }
+
+    /**
+     * Returns the window of the current thread moved to the given key or null if the caller should walk the previous
+     * keys itself.
+     */
+    static PreviousKeyWindow update(final ThreadLocal<PreviousKeyWindow> windows, final int key, final int count,
+            final IExpression condition) {
+        if (count < MIN_COUNT || !enabled) {
+            return null;
+        }
+        final PreviousKeyWindow window = windows.get();
+        window.update(key, count, condition);
+        return window;
+    }
+
+    private void update(final int key, final int count, final IExpression condition) {
+        if (this.count == count && key != lastKey && previousKeyFunction.getPreviousKey(key, 1) == lastKey) {
+            push(evaluate(condition, key));
+        } else {
+            rebuild(key, count, condition);
+        }
+        lastKey = key;
+    }
+
+    private double evaluate(final IExpression condition, final int key) {
+        if (booleanValues) {
+            return Doubles.booleanToDouble(condition.evaluateBooleanNullable(key));
+        } else {
+            return condition.evaluateDouble(key);
+        }
+    }
+
+    private void rebuild(final int key, final int count, final IExpression condition) {
+        if (ring.length != count) {
+            ring = new double[count];
+            if (orderStatistics) {
+                sorted = new double[count];
+            }
+        }
+        this.count = count;
+        //walk the previous keys like the scalar evaluation, the oldest value ends up first in the ring
+        int curKey = key;
+        for (int i = count - 1; i >= 0; i--) {
+            ring[i] = evaluate(condition, curKey);
+            if (i != 0) {
+                curKey = previousKeyFunction.getPreviousKey(curKey, 1);
+            }
+        }
+        next = 0;
+        size = count;
+        recalculate();
+    }
+
+    private void recalculate() {
+        trueCount = 0;
+        falseCount = 0;
+        trueSinceLastFalse = 0;
+        notNaNCount = 0;
+        sum = 0D;
+        sumCompensation = 0D;
+        avg = 0D;
+        squareSum = 0D;
+        for (int i = 0; i < size; i++) {
+            addValue(getOldest(i), false);
+        }
+        if (orderStatistics) {
+            int sortedSize = 0;
+            for (int i = 0; i < size; i++) {
+                final double value = ring[i];
+                if (!Doubles.isNaN(value)) {
+                    sorted[sortedSize++] = value;
+                }
+            }
+            Arrays.sort(sorted, 0, sortedSize);
+        }
+        updatesUntilRecalculation = count;
+    }
+
+    private double getOldest(final int index) {
+        int i = next + index;
+        if (i >= ring.length) {
+            i -= ring.length;
+        }
+        return ring[i];
+    }
+
+    private void push(final double value) {
+        final double evicted = ring[next];
+        ring[next] = value;
+        next++;
+        if (next == ring.length) {
+            next = 0;
+        }
+        if (--updatesUntilRecalculation <= 0) {
+            //bounds the rounding errors of the sliding sum and variance
+            recalculate();
+            return;
+        }
+        removeValue(evicted);
+        addValue(value, orderStatistics);
+    }
+
+    private void addValue(final double value, final boolean updateSorted) {
+        if (booleanValues) {
+            if (Doubles.isNaN(value)) {
+                return;
+            } else if (value > 0D) {
+                trueCount++;
+                trueSinceLastFalse++;
+            } else {
+                falseCount++;
+                trueSinceLastFalse = 0;
+            }
+        } else if (!Doubles.isNaN(value)) {
+            notNaNCount++;
+            addSum(value);
+            final double delta = value - avg;
+            avg += delta / notNaNCount;
+            squareSum += delta * (value - avg);
+            if (updateSorted) {
+                insertSorted(value);
+            }
+        }
+    }
+
+    private void removeValue(final double value) {
+        if (booleanValues) {
+            if (Doubles.isNaN(value)) {
+                return;
+            } else if (value > 0D) {
+                trueCount--;
+                //the oldest value only belongs to the values since the last false when there is no false at all
+                if (falseCount == 0) {
+                    trueSinceLastFalse--;
+                }
+            } else {
+                falseCount--;
+            }
+        } else if (!Doubles.isNaN(value)) {
+            notNaNCount--;
+            addSum(-value);
+            if (notNaNCount == 0) {
+                avg = 0D;
+                squareSum = 0D;
+            } else {
+                final double delta = value - avg;
+                avg -= delta / notNaNCount;
+                squareSum -= delta * (value - avg);
+                if (squareSum < 0D) {
+                    squareSum = 0D;
+                }
+            }
+            if (orderStatistics) {
+                removeSorted(value);
+            }
+        }
+    }
+
+    private void addSum(final double value) {
+        final double y = value - sumCompensation;
+        final double t = sum + y;
+        sumCompensation = (t - sum) - y;
+        sum = t;
+    }
+
+    private void insertSorted(final double value) {
+        int index = Arrays.binarySearch(sorted, 0, notNaNCount - 1, value);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        System.arraycopy(sorted, index, sorted, index + 1, notNaNCount - 1 - index);
+        sorted[index] = value;
+    }
+
+    private void removeSorted(final double value) {
+        //notNaNCount is already decremented
+        final int index = Arrays.binarySearch(sorted, 0, notNaNCount + 1, value);
+        System.arraycopy(sorted, index + 1, sorted, index, notNaNCount - index);
+    }
+
+    /**
+     * condition[0] && condition[1] && ... && condition[n-1] with null being ignored
+     */
+    boolean isStable() {
+        return falseCount == 0;
+    }
+
+    /**
+     * How many values are true since the latest false one.
+     */
+    int getStableCount() {
+        return trueSinceLastFalse;
+    }
+
+    /**
+     * condition[0] || condition[1] || ... || condition[n-1]
+     */
+    boolean isOccurs() {
+        return trueCount > 0;
+    }
+
+    int getOccursCount() {
+        return trueCount;
+    }
+
+    int getNotNaNCount() {
+        return notNaNCount;
+    }
+
+    double getSum() {
+        return sum;
+    }
+
+    double getVariance() {
+        if (notNaNCount < 2) {
+            return 0D;
+        } else {
+            return squareSum / notNaNCount;
+        }
+    }
+
+    double getSampleVariance() {
+        if (notNaNCount < 2) {
+            return 0D;
+        } else {
+            return squareSum / (notNaNCount - 1);
+        }
+    }
+
+    /**
+     * Calculated like RunningMedian.getMedian().
+     */
+    double getMedian() {
+        if (notNaNCount == 0) {
+            return Double.NaN;
+        }
+        final int middle = notNaNCount / 2;
+        if (notNaNCount % 2 == 0) {
+            return (sorted[middle] + sorted[middle - 1]) / 2D;
+        } else {
+            return sorted[middle];
+        }
+    }
+
+    /**
+     * Calculated like RunningMedian.getPercentile(double).
+     */
+    double getPercentile(final double percentileRate) {
+        if (notNaNCount == 0) {
+            return Double.NaN;
+        }
+        final int percentileIndex = (int) Math.ceil(notNaNCount * percentileRate);
+        return sorted[Math.max(0, Math.min(notNaNCount, percentileIndex) - 1)];
+    }
+
+}
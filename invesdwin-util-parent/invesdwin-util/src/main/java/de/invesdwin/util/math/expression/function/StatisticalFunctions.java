@@ -32,6 +32,9 @@ public final class StatisticalFunctions {
 
                 return new ADoubleFunction() {
 
+                    private final ThreadLocal<PreviousKeyWindow> windows = PreviousKeyWindow
+                            .newDoubleWindows(previousKeyFunction, false);
+
                     @Override
                     public boolean shouldPersist() {
                         return false;
@@ -47,6 +50,11 @@ public final class StatisticalFunctions {
                         return false;
                     }
 
+                    @Override
+                    public boolean isDeterministic(final IExpression[] args) {
+                        return true;
+                    }
+
                     @Override
                     public ExpressionReturnType getReturnType() {
                         return ExpressionReturnType.Boolean;
@@ -165,6 +173,10 @@ public final class StatisticalFunctions {
                     public double eval(final int key, final IExpression[] args) {
                         final IExpression condition = args[0];
                         final int count = args[1].evaluateInteger(key);
+                        final PreviousKeyWindow window = PreviousKeyWindow.update(windows, key, count, condition);
+                        if (window != null) {
+                            return window.getNotNaNCount();
+                        }
                         double countNotNan = 0D;
                         int curKey = key;
                         for (int i = 1; i <= count; i++) {
@@ -217,6 +229,9 @@ public final class StatisticalFunctions {
 
                 return new ADoubleFunction() {
 
+                    private final ThreadLocal<PreviousKeyWindow> windows = PreviousKeyWindow
+                            .newDoubleWindows(previousKeyFunction, false);
+
                     @Override
                     public boolean shouldPersist() {
                         return false;
@@ -232,6 +247,11 @@ public final class StatisticalFunctions {
                         return false;
                     }
 
+                    @Override
+                    public boolean isDeterministic(final IExpression[] args) {
+                        return true;
+                    }
+
                     @Override
                     public ExpressionReturnType getReturnType() {
                         return ExpressionReturnType.Boolean;
@@ -350,6 +370,10 @@ public final class StatisticalFunctions {
                     public double eval(final int key, final IExpression[] args) {
                         final IExpression condition = args[0];
                         final int count = args[1].evaluateInteger(key);
+                        final PreviousKeyWindow window = PreviousKeyWindow.update(windows, key, count, condition);
+                        if (window != null) {
+                            return window.getSum();
+                        }
                         double sum = 0D;
                         int curKey = key;
                         for (int i = 1; i <= count; i++) {
@@ -417,6 +441,11 @@ public final class StatisticalFunctions {
                         return false;
                     }
 
+                    @Override
+                    public boolean isDeterministic(final IExpression[] args) {
+                        return true;
+                    }
+
                     @Override
                     public ExpressionReturnType getReturnType() {
                         return ExpressionReturnType.Boolean;
@@ -587,6 +616,9 @@ public final class StatisticalFunctions {
 
                 return new ADoubleFunction() {
 
+                    private final ThreadLocal<PreviousKeyWindow> windows = PreviousKeyWindow
+                            .newDoubleWindows(previousKeyFunction, false);
+
                     @Override
                     public boolean shouldPersist() {
                         return false;
@@ -602,6 +634,11 @@ public final class StatisticalFunctions {
                         return false;
                     }
 
+                    @Override
+                    public boolean isDeterministic(final IExpression[] args) {
+                        return true;
+                    }
+
                     @Override
                     public ExpressionReturnType getReturnType() {
                         return ExpressionReturnType.Boolean;
@@ -722,6 +759,10 @@ public final class StatisticalFunctions {
                     public double eval(final int key, final IExpression[] args) {
                         final IExpression condition = args[0];
                         final int count = args[1].evaluateInteger(key);
+                        final PreviousKeyWindow window = PreviousKeyWindow.update(windows, key, count, condition);
+                        if (window != null) {
+                            return window.getVariance();
+                        }
                         final DoubleStreamVariance variance = new DoubleStreamVariance();
                         int curKey = key;
                         for (int i = 1; i <= count; i++) {
@@ -774,6 +815,9 @@ public final class StatisticalFunctions {
 
                 return new ADoubleFunction() {
 
+                    private final ThreadLocal<PreviousKeyWindow> windows = PreviousKeyWindow
+                            .newDoubleWindows(previousKeyFunction, false);
+
                     @Override
                     public boolean shouldPersist() {
                         return false;
@@ -789,6 +833,11 @@ public final class StatisticalFunctions {
                         return false;
                     }
 
+                    @Override
+                    public boolean isDeterministic(final IExpression[] args) {
+                        return true;
+                    }
+
                     @Override
                     public ExpressionReturnType getReturnType() {
                         return ExpressionReturnType.Boolean;
@@ -907,6 +956,10 @@ public final class StatisticalFunctions {
                     public double eval(final int key, final IExpression[] args) {
                         final IExpression condition = args[0];
                         final int count = args[1].evaluateInteger(key);
+                        final PreviousKeyWindow window = PreviousKeyWindow.update(windows, key, count, condition);
+                        if (window != null) {
+                            return window.getSampleVariance();
+                        }
                         final DoubleStreamVariance variance = new DoubleStreamVariance();
                         int curKey = key;
                         for (int i = 1; i <= count; i++) {
@@ -959,6 +1012,9 @@ public final class StatisticalFunctions {
 
                 return new ADoubleFunction() {
 
+                    private final ThreadLocal<PreviousKeyWindow> windows = PreviousKeyWindow
+                            .newDoubleWindows(previousKeyFunction, false);
+
                     @Override
                     public boolean shouldPersist() {
                         return false;
@@ -974,6 +1030,11 @@ public final class StatisticalFunctions {
                         return false;
                     }
 
+                    @Override
+                    public boolean isDeterministic(final IExpression[] args) {
+                        return true;
+                    }
+
                     @Override
                     public ExpressionReturnType getReturnType() {
                         return ExpressionReturnType.Boolean;
@@ -1094,6 +1155,10 @@ public final class StatisticalFunctions {
                     public double eval(final int key, final IExpression[] args) {
                         final IExpression condition = args[0];
                         final int count = args[1].evaluateInteger(key);
+                        final PreviousKeyWindow window = PreviousKeyWindow.update(windows, key, count, condition);
+                        if (window != null) {
+                            return Math.sqrt(window.getVariance());
+                        }
                         final DoubleStreamStandardDeviation standardDeviation = new DoubleStreamStandardDeviation();
                         int curKey = key;
                         for (int i = 1; i <= count; i++) {
@@ -1147,6 +1212,9 @@ public final class StatisticalFunctions {
 
                 return new ADoubleFunction() {
 
+                    private final ThreadLocal<PreviousKeyWindow> windows = PreviousKeyWindow
+                            .newDoubleWindows(previousKeyFunction, false);
+
                     @Override
                     public boolean shouldPersist() {
                         return false;
@@ -1162,6 +1230,11 @@ public final class StatisticalFunctions {
                         return false;
                     }
 
+                    @Override
+                    public boolean isDeterministic(final IExpression[] args) {
+                        return true;
+                    }
+
                     @Override
                     public ExpressionReturnType getReturnType() {
                         return ExpressionReturnType.Boolean;
@@ -1280,6 +1353,10 @@ public final class StatisticalFunctions {
                     public double eval(final int key, final IExpression[] args) {
                         final IExpression condition = args[0];
                         final int count = args[1].evaluateInteger(key);
+                        final PreviousKeyWindow window = PreviousKeyWindow.update(windows, key, count, condition);
+                        if (window != null) {
+                            return Math.sqrt(window.getSampleVariance());
+                        }
                         final DoubleStreamStandardDeviation standardDeviation = new DoubleStreamStandardDeviation();
                         int curKey = key;
                         for (int i = 1; i <= count; i++) {
@@ -1332,6 +1409,9 @@ public final class StatisticalFunctions {
 
                 return new ADoubleFunction() {
 
+                    private final ThreadLocal<PreviousKeyWindow> windows = PreviousKeyWindow
+                            .newDoubleWindows(previousKeyFunction, true);
+
                     @Override
                     public boolean shouldPersist() {
                         return false;
@@ -1347,6 +1427,11 @@ public final class StatisticalFunctions {
                         return false;
                     }
 
+                    @Override
+                    public boolean isDeterministic(final IExpression[] args) {
+                        return true;
+                    }
+
                     @Override
                     public ExpressionReturnType getReturnType() {
                         return ExpressionReturnType.Boolean;
@@ -1465,6 +1550,10 @@ public final class StatisticalFunctions {
                     public double eval(final int key, final IExpression[] args) {
                         final IExpression condition = args[0];
                         final int count = args[1].evaluateInteger(key);
+                        final PreviousKeyWindow window = PreviousKeyWindow.update(windows, key, count, condition);
+                        if (window != null) {
+                            return window.getMedian();
+                        }
                         final RunningMedian median = new RunningMedian(count);
                         int curKey = key;
                         for (int i = 1; i <= count; i++) {
@@ -1519,6 +1608,9 @@ public final class StatisticalFunctions {
 
                 return new ADoubleFunction() {
 
+                    private final ThreadLocal<PreviousKeyWindow> windows = PreviousKeyWindow
+                            .newDoubleWindows(previousKeyFunction, true);
+
                     @Override
                     public boolean shouldPersist() {
                         return false;
@@ -1534,6 +1626,11 @@ public final class StatisticalFunctions {
                         return false;
                     }
 
+                    @Override
+                    public boolean isDeterministic(final IExpression[] args) {
+                        return true;
+                    }
+
                     @Override
                     public ExpressionReturnType getReturnType() {
                         return ExpressionReturnType.Boolean;
@@ -1691,6 +1788,10 @@ public final class StatisticalFunctions {
                         final double percentile = args[0].evaluateDouble(key);
                         final IExpression condition = args[1];
                         final int count = args[2].evaluateInteger(key);
+                        final PreviousKeyWindow window = PreviousKeyWindow.update(windows, key, count, condition);
+                        if (window != null) {
+                            return window.getPercentile(percentile);
+                        }
                         final RunningMedian median = new RunningMedian(count);
                         int curKey = key;
                         for (int i = 1; i <= count; i++) {
@@ -0,0 +1,85 @@
+package de.invesdwin.util.math.expression.optimizer;
+
+import java.util.BitSet;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.invesdwin.util.math.expression.IExpression;
+import de.invesdwin.util.math.expression.eval.IParsedExpression;
+
+/**
+ * Nodes added by the optimizer are transparent for everything except evaluation: metadata, children and toString are
+ * taken from the wrapped expression.
+ *
+ * Other passes (e.g. the ExpressionCompiler) can replace the wrapped expression via withDelegate while keeping the
+ * optimization. Only the optimizer itself can create these nodes.
+ */
+@Immutable
+public abstract class AOptimizedExpression implements IParsedExpression {
+
+    protected final IParsedExpression delegate;
+
+    AOptimizedExpression(final IParsedExpression delegate) {
+        this.delegate = delegate;
+    }
+
+    public IParsedExpression getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Creates the same optimization node for a different delegate that has to evaluate to the same values. Shared
+     * nodes have to be replaced only once so that they stay shared.
+     */
+    public abstract AOptimizedExpression withDelegate(IParsedExpression delegate);
+
+    /**
+     * Range evaluation processes the delegate column-at-a-time without memorizing, short circuits are not applied there
+     * anyway.
+     */
+    @Override
+    public void evaluateDoubleRange(final int fromKey, final int toKey, final double[] result) {
+        delegate.evaluateDoubleRange(fromKey, toKey, result);
+    }
+
+    @Override
+    public void evaluateBooleanRange(final int fromKey, final int toKey, final BitSet result) {
+        delegate.evaluateBooleanRange(fromKey, toKey, result);
+    }
+
+    @Override
+    public IParsedExpression simplify() {
+        return this;
+    }
+
+    @Override
+    public boolean isConstant() {
+        return delegate.isConstant();
+    }
+
+    @Override
+    public String getContext() {
+        return delegate.getContext();
+    }
+
+    @Override
+    public boolean shouldPersist() {
+        return delegate.shouldPersist();
+    }
+
+    @Override
+    public boolean shouldDraw() {
+        return delegate.shouldDraw();
+    }
+
+    @Override
+    public IExpression[] getChildren() {
+        return delegate.getChildren();
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+
+}
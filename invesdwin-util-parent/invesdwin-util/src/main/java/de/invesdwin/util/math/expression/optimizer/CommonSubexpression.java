@@ -0,0 +1,140 @@
+package de.invesdwin.util.math.expression.optimizer;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.invesdwin.util.math.Doubles;
+import de.invesdwin.util.math.expression.eval.IParsedExpression;
+import de.invesdwin.util.time.fdate.FDate;
+
+/**
+ * A subtree that occurs multiple times in the expression. All occurrences share this node and the value for the last
+ * evaluated key is memorized during a top level evaluation. Boolean results are derived from the memorized double
+ * value the same way all parsed expressions convert between them (NaN=null, greater than 0=true).
+ */
+@Immutable
+final class CommonSubexpression extends AOptimizedExpression {
+
+    private final CommonSubexpressionScope scope;
+    private final int slot;
+
+    CommonSubexpression(final CommonSubexpressionScope scope, final int slot, final IParsedExpression delegate) {
+        super(delegate);
+        this.scope = scope;
+        this.slot = slot;
+    }
+
+    @Override
+    public AOptimizedExpression withDelegate(final IParsedExpression delegate) {
+        return new CommonSubexpression(scope, slot, delegate);
+    }
+
+    @Override
+    public double evaluateDouble(final FDate key) {
+        final CommonSubexpressionFrame frame = scope.getFrame();
+        if (!frame.isActive()) {
+            return delegate.evaluateDouble(key);
+        }
+        return evaluateDouble(frame, key);
+    }
+
+    private double evaluateDouble(final CommonSubexpressionFrame frame, final FDate key) {
+        final long millis = key.millisValue();
+        if (frame.contains(slot, CommonSubexpressionFrame.KEY_TIME, millis)) {
+            return frame.get(slot);
+        }
+        final double value = delegate.evaluateDouble(key);
+        frame.put(slot, CommonSubexpressionFrame.KEY_TIME, millis, value);
+        return value;
+    }
+
+    @Override
+    public double evaluateDouble(final int key) {
+        final CommonSubexpressionFrame frame = scope.getFrame();
+        if (!frame.isActive()) {
+            return delegate.evaluateDouble(key);
+        }
+        return evaluateDouble(frame, key);
+    }
+
+    private double evaluateDouble(final CommonSubexpressionFrame frame, final int key) {
+        if (frame.contains(slot, CommonSubexpressionFrame.KEY_INT, key)) {
+            return frame.get(slot);
+        }
+        final double value = delegate.evaluateDouble(key);
+        frame.put(slot, CommonSubexpressionFrame.KEY_INT, key, value);
+        return value;
+    }
+
+    @Override
+    public double evaluateDouble() {
+        final CommonSubexpressionFrame frame = scope.getFrame();
+        if (!frame.isActive()) {
+            return delegate.evaluateDouble();
+        }
+        return evaluateDouble(frame);
+    }
+
+    private double evaluateDouble(final CommonSubexpressionFrame frame) {
+        if (frame.contains(slot, CommonSubexpressionFrame.KEY_NONE, 0L)) {
+            return frame.get(slot);
+        }
+        final double value = delegate.evaluateDouble();
+        frame.put(slot, CommonSubexpressionFrame.KEY_NONE, 0L, value);
+        return value;
+    }
+
+    @Override
+    public Boolean evaluateBooleanNullable(final FDate key) {
+        final CommonSubexpressionFrame frame = scope.getFrame();
+        if (!frame.isActive()) {
+            return delegate.evaluateBooleanNullable(key);
+        }
+        return Doubles.doubleToBoolean(evaluateDouble(frame, key));
+    }
+
+    @Override
+    public Boolean evaluateBooleanNullable(final int key) {
+        final CommonSubexpressionFrame frame = scope.getFrame();
+        if (!frame.isActive()) {
+            return delegate.evaluateBooleanNullable(key);
+        }
+        return Doubles.doubleToBoolean(evaluateDouble(frame, key));
+    }
+
+    @Override
+    public Boolean evaluateBooleanNullable() {
+        final CommonSubexpressionFrame frame = scope.getFrame();
+        if (!frame.isActive()) {
+            return delegate.evaluateBooleanNullable();
+        }
+        return Doubles.doubleToBoolean(evaluateDouble(frame));
+    }
+
+    @Override
+    public boolean evaluateBoolean(final FDate key) {
+        final CommonSubexpressionFrame frame = scope.getFrame();
+        if (!frame.isActive()) {
+            return delegate.evaluateBoolean(key);
+        }
+        return evaluateDouble(frame, key) > 0D;
+    }
+
+    @Override
+    public boolean evaluateBoolean(final int key) {
+        final CommonSubexpressionFrame frame = scope.getFrame();
+        if (!frame.isActive()) {
+            return delegate.evaluateBoolean(key);
+        }
+        return evaluateDouble(frame, key) > 0D;
+    }
+
+    @Override
+    public boolean evaluateBoolean() {
+        final CommonSubexpressionFrame frame = scope.getFrame();
+        if (!frame.isActive()) {
+            return delegate.evaluateBoolean();
+        }
+        return evaluateDouble(frame) > 0D;
+    }
+
+}
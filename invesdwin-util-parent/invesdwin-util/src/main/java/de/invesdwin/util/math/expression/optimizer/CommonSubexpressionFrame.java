@@ -0,0 +1,75 @@
+package de.invesdwin.util.math.expression.optimizer;
+
+import java.util.Arrays;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Per thread memo of the common subexpressions of one optimized expression. A memorized value is only valid during the
+ * top level evaluation that computed it (identified by the generation), this way values of live data that changes
+ * between two evaluations of the same key are never reused.
+ */
+@NotThreadSafe
+final class CommonSubexpressionFrame {
+
+    static final byte KEY_NONE = 1;
+    static final byte KEY_INT = 2;
+    static final byte KEY_TIME = 3;
+
+    private int depth;
+    private int generation;
+    private int[] generations;
+    private byte[] keyTypes;
+    private long[] keys;
+    private double[] values;
+
+    CommonSubexpressionFrame(final int slots) {
+        this.generations = new int[slots];
+        this.keyTypes = new byte[slots];
+        this.keys = new long[slots];
+        this.values = new double[slots];
+    }
+
+    void enter() {
+        if (depth == 0) {
+            generation++;
+        }
+        depth++;
+    }
+
+    void exit() {
+        depth--;
+    }
+
+    /**
+     * Subexpressions that are evaluated outside of the optimized expression (e.g. by a visitor that draws the children)
+     * are not memorized.
+     */
+    boolean isActive() {
+        return depth > 0;
+    }
+
+    boolean contains(final int slot, final byte keyType, final long key) {
+        return slot < generations.length && generations[slot] == generation && keyTypes[slot] == keyType
+                && keys[slot] == key;
+    }
+
+    double get(final int slot) {
+        return values[slot];
+    }
+
+    void put(final int slot, final byte keyType, final long key, final double value) {
+        if (slot >= generations.length) {
+            final int newLength = slot + 1;
+            generations = Arrays.copyOf(generations, newLength);
+            keyTypes = Arrays.copyOf(keyTypes, newLength);
+            keys = Arrays.copyOf(keys, newLength);
+            values = Arrays.copyOf(values, newLength);
+        }
+        generations[slot] = generation;
+        keyTypes[slot] = keyType;
+        keys[slot] = key;
+        values[slot] = value;
+    }
+
+}
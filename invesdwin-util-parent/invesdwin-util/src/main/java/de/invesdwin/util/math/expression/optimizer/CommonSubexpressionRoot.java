@@ -0,0 +1,125 @@
+package de.invesdwin.util.math.expression.optimizer;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.invesdwin.util.math.expression.eval.IParsedExpression;
+import de.invesdwin.util.time.fdate.FDate;
+
+/**
+ * Marks the top level evaluation so that the common subexpressions know when their memorized values become invalid.
+ */
+@Immutable
+final class CommonSubexpressionRoot extends AOptimizedExpression {
+
+    private final CommonSubexpressionScope scope;
+
+    CommonSubexpressionRoot(final CommonSubexpressionScope scope, final IParsedExpression delegate) {
+        super(delegate);
+        this.scope = scope;
+    }
+
+    @Override
+    public AOptimizedExpression withDelegate(final IParsedExpression delegate) {
+        return new CommonSubexpressionRoot(scope, delegate);
+    }
+
+    @Override
+    public double evaluateDouble(final FDate key) {
+        final CommonSubexpressionFrame frame = scope.getFrame();
+        frame.enter();
+        try {
+            return delegate.evaluateDouble(key);
+        } finally {
+            frame.exit();
+        }
+    }
+
+    @Override
+    public double evaluateDouble(final int key) {
+        final CommonSubexpressionFrame frame = scope.getFrame();
+        frame.enter();
+        try {
+            return delegate.evaluateDouble(key);
+        } finally {
+            frame.exit();
+        }
+    }
+
+    @Override
+    public double evaluateDouble() {
+        final CommonSubexpressionFrame frame = scope.getFrame();
+        frame.enter();
+        try {
+            return delegate.evaluateDouble();
+        } finally {
+            frame.exit();
+        }
+    }
+
+    @Override
+    public Boolean evaluateBooleanNullable(final FDate key) {
+        final CommonSubexpressionFrame frame = scope.getFrame();
+        frame.enter();
+        try {
+            return delegate.evaluateBooleanNullable(key);
+        } finally {
+            frame.exit();
+        }
+    }
+
+    @Override
+    public Boolean evaluateBooleanNullable(final int key) {
+        final CommonSubexpressionFrame frame = scope.getFrame();
+        frame.enter();
+        try {
+            return delegate.evaluateBooleanNullable(key);
+        } finally {
+            frame.exit();
+        }
+    }
+
+    @Override
+    public Boolean evaluateBooleanNullable() {
+        final CommonSubexpressionFrame frame = scope.getFrame();
+        frame.enter();
+        try {
+            return delegate.evaluateBooleanNullable();
+        } finally {
+            frame.exit();
+        }
+    }
+
+    @Override
+    public boolean evaluateBoolean(final FDate key) {
+        final CommonSubexpressionFrame frame = scope.getFrame();
+        frame.enter();
+        try {
+            return delegate.evaluateBoolean(key);
+        } finally {
+            frame.exit();
+        }
+    }
+
+    @Override
+    public boolean evaluateBoolean(final int key) {
+        final CommonSubexpressionFrame frame = scope.getFrame();
+        frame.enter();
+        try {
+            return delegate.evaluateBoolean(key);
+        } finally {
+            frame.exit();
+        }
+    }
+
+    @Override
+    public boolean evaluateBoolean() {
+        final CommonSubexpressionFrame frame = scope.getFrame();
+        frame.enter();
+        try {
+            return delegate.evaluateBoolean();
+        } finally {
+            frame.exit();
+        }
+    }
+
+}
@@ -0,0 +1,31 @@
+package de.invesdwin.util.math.expression.optimizer;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Assigns the memo slots of one optimized expression and provides the frame of the current thread, so that the
+ * optimized expression can still be evaluated by multiple threads at the same time.
+ */
+@ThreadSafe
+final class CommonSubexpressionScope {
+
+    private int slots;
+    private final ThreadLocal<CommonSubexpressionFrame> frames = new ThreadLocal<CommonSubexpressionFrame>() {
+        @Override
+        protected CommonSubexpressionFrame initialValue() {
+            return new CommonSubexpressionFrame(slots);
+        }
+    };
+
+    /**
+     * Only called while the expression is being optimized before it is published.
+     */
+    int newSlot() {
+        return slots++;
+    }
+
+    CommonSubexpressionFrame getFrame() {
+        return frames.get();
+    }
+
+}
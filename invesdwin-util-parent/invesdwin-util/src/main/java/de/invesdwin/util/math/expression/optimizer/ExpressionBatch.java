@@ -0,0 +1,48 @@
+package de.invesdwin.util.math.expression.optimizer;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.invesdwin.util.math.expression.IExpression;
+
+/**
+ * A batch of expressions that share their common subexpressions with each other. The shared values are memorized
+ * while the expressions are evaluated together for a key, thus a subexpression that is used by many expressions is
+ * evaluated only once per key. Each expression can also be evaluated alone, though then nothing is shared.
+ */
+@Immutable
+public final class ExpressionBatch {
+
+    private final CommonSubexpressionScope scope;
+    private final IExpression[] expressions;
+
+    ExpressionBatch(final CommonSubexpressionScope scope, final IExpression[] expressions) {
+        this.scope = scope;
+        this.expressions = expressions;
+    }
+
+    public int size() {
+        return expressions.length;
+    }
+
+    public IExpression getExpression(final int index) {
+        return expressions[index];
+    }
+
+    /**
+     * Evaluates the expressions from fromExpression (inclusive) to toExpression (exclusive) for the given key and stores
+     * the values starting at index 0 of the values array.
+     */
+    public void evaluateDouble(final int key, final int fromExpression, final int toExpression,
+            final double[] values) {
+        final CommonSubexpressionFrame frame = scope.getFrame();
+        frame.enter();
+        try {
+            for (int i = fromExpression, v = 0; i < toExpression; i++, v++) {
+                values[v] = expressions[i].evaluateDouble(key);
+            }
+        } finally {
+            frame.exit();
+        }
+    }
+
+}
@@ -0,0 +1,582 @@
+package de.invesdwin.util.math.expression.optimizer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.math.Doubles;
+import de.invesdwin.util.math.expression.IExpression;
+import de.invesdwin.util.math.expression.eval.ConstantExpression;
+import de.invesdwin.util.math.expression.eval.ConstantPreviousKeyExpression;
+import de.invesdwin.util.math.expression.eval.DynamicPreviousKeyExpression;
+import de.invesdwin.util.math.expression.eval.IParsedExpression;
+import de.invesdwin.util.math.expression.eval.function.AFunctionCall;
+import de.invesdwin.util.math.expression.eval.function.BooleanFunctionCall;
+import de.invesdwin.util.math.expression.eval.function.BooleanNullableFunctionCall;
+import de.invesdwin.util.math.expression.eval.function.DoubleFunctionCall;
+import de.invesdwin.util.math.expression.eval.operation.AndOperation;
+import de.invesdwin.util.math.expression.eval.operation.BinaryOperation;
+import de.invesdwin.util.math.expression.eval.operation.BinaryOperation.Op;
+import de.invesdwin.util.math.expression.eval.operation.CrossesAboveOperation;
+import de.invesdwin.util.math.expression.eval.operation.CrossesBelowOperation;
+import de.invesdwin.util.math.expression.eval.operation.NotOperation;
+import de.invesdwin.util.math.expression.eval.operation.OrOperation;
+import de.invesdwin.util.math.expression.eval.operation.SimpleCrossesAboveOperation;
+import de.invesdwin.util.math.expression.eval.operation.SimpleCrossesBelowOperation;
+import de.invesdwin.util.math.expression.eval.variable.AVariableReference;
+import de.invesdwin.util.math.expression.eval.variable.BooleanVariableReference;
+import de.invesdwin.util.math.expression.function.AFunction;
+
+/**
+ * Optimization pass that runs after the simplification (which already folds constant subtrees):
+ *
+ * 1. The operands of And chains are reordered so that cheap operands are evaluated first and thus short circuit the
+ * expensive ones. A chain a && b && ... && z returns false if any operand except the last one is false and otherwise
+ * the value of the last operand (null values of the other operands are skipped). Thus all operands except the last one
+ * can be permuted without changing the result, the last one is only moved when no operand can return null. Operands are
+ * only reordered when they are deterministic, since otherwise side effects or random values might change. Or chains
+ * are kept exactly as parsed (operand order and nesting), because an Or operation returns false when its left side is
+ * true, thus its result depends on both.
+ *
+ * 2. Optionally (see setKeyedMemoEnabled) expensive deterministic subtrees that are evaluated for previous keys (as
+ * the operands of crosses operations, inside previous key expressions or as arguments of functions that are not
+ * natural) memorize their values for the last keys across top level evaluations.
+ *
+ * 3. Structurally equal deterministic subtrees are replaced by one shared node. Shared subtrees that are expensive
+ * enough memorize their value per key during a top level evaluation, so they are only evaluated once per key.
+ *
+ * Subtrees that are not known to the optimizer (including previous key expressions and crosses operations, which use a
+ * previous key function that might evaluate their children differently) are neither reordered nor shared.
+ */
+@Immutable
+public final class ExpressionOptimizer {
+
+    /**
+     * Subtrees below this estimated cost are cheaper to evaluate again than to look up the memo.
+     */
+    private static final int MEMO_MIN_COST = 10;
+    private static final int VARIABLE_COST = 1;
+    private static final int OPERATION_COST = 1;
+    private static final int FUNCTION_COST = 4;
+    private static final int OPAQUE_COST = 10;
+    /**
+     * Functions that are not natural typically evaluate their arguments for multiple previous keys.
+     */
+    private static final int PREVIOUS_KEYS_COST_FACTOR = 10;
+    /**
+     * Large enough to hold the usual lookback windows of the historical functions.
+     */
+    private static final int KEYED_MEMO_CAPACITY = 256;
+
+    private static volatile boolean enabled = true;
+    private static volatile boolean keyedMemoEnabled = false;
+
+    private ExpressionOptimizer() {}
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(final boolean enabled) {
+        ExpressionOptimizer.enabled = enabled;
+    }
+
+    public static boolean isKeyedMemoEnabled() {
+        return keyedMemoEnabled;
+    }
+
+    /**
+     * Disabled per default, since the memorized values are reused as long as the key is in the table. Only enable this
+     * when values for a given key do not change (e.g. for backtests without an unfinished last bar) and when the
+     * previous key functions evaluate the children of previous key expressions and crosses operations the default way.
+     */
+    public static void setKeyedMemoEnabled(final boolean keyedMemoEnabled) {
+        ExpressionOptimizer.keyedMemoEnabled = keyedMemoEnabled;
+    }
+
+    public static IParsedExpression optimize(final IParsedExpression expression) {
+        if (!enabled || expression.isConstant() || expression instanceof AOptimizedExpression) {
+            return expression;
+        }
+        return new Optimization().optimize(expression);
+    }
+
+    /**
+     * Shares the common subexpressions between all given expressions, see ExpressionBatch. Expressions that were
+     * already optimized on their own are taken apart first so that their subexpressions can be shared with the others.
+     */
+    public static ExpressionBatch optimize(final IExpression[] expressions) {
+        final Optimization optimization = new Optimization();
+        if (!enabled) {
+            return new ExpressionBatch(optimization.scope, expressions.clone());
+        }
+        return optimization.optimize(expressions);
+    }
+
+    /**
+     * Returns the wrapped expression for nodes that were added by the optimizer, so that visitors can inspect the
+     * original node types.
+     */
+    public static IExpression unwrap(final IExpression expression) {
+        IExpression unwrapped = expression;
+        while (unwrapped instanceof AOptimizedExpression) {
+            unwrapped = ((AOptimizedExpression) unwrapped).getDelegate();
+        }
+        return unwrapped;
+    }
+
+    private static boolean isOperation(final Class<?> type) {
+        return type == BinaryOperation.class || type == AndOperation.class || type == OrOperation.class
+                || type == NotOperation.class;
+    }
+
+    private static boolean isFunctionCall(final Class<?> type) {
+        return type == DoubleFunctionCall.class || type == BooleanFunctionCall.class
+                || type == BooleanNullableFunctionCall.class;
+    }
+
+    private static boolean isCrosses(final Class<?> type) {
+        return type == CrossesAboveOperation.class || type == CrossesBelowOperation.class
+                || type == SimpleCrossesAboveOperation.class || type == SimpleCrossesBelowOperation.class;
+    }
+
+    private static boolean isComparison(final Op op) {
+        switch (op) {
+        case LT:
+        case LT_EQ:
+        case EQ:
+        case GT_EQ:
+        case GT:
+        case NEQ:
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    private static final class NodeInfo {
+        private final String key;
+        private final int cost;
+        private final boolean deterministic;
+        private final boolean nonNull;
+
+        private NodeInfo(final String key, final int cost, final boolean deterministic, final boolean nonNull) {
+            this.key = key;
+            this.cost = cost;
+            this.deterministic = deterministic;
+            this.nonNull = nonNull;
+        }
+    }
+
+    @NotThreadSafe
+    private static final class Optimization {
+
+        private final Map<IExpression, NodeInfo> infos = new IdentityHashMap<>();
+        private final Map<String, Integer> occurrences = new HashMap<>();
+        private final Map<String, IParsedExpression> shared = new HashMap<>();
+        private final Map<String, CommonSubexpression> memorized = new HashMap<>();
+        private final CommonSubexpressionScope scope = new CommonSubexpressionScope();
+        private final Comparator<IParsedExpression> costComparator = new Comparator<IParsedExpression>() {
+            @Override
+            public int compare(final IParsedExpression o1, final IParsedExpression o2) {
+                return Integer.compare(analyze(o1).cost, analyze(o2).cost);
+            }
+        };
+        private int opaqueNodes;
+
+        public IParsedExpression optimize(final IParsedExpression expression) {
+            final IParsedExpression reordered = reorder(expression);
+            final IParsedExpression keyedMemorized;
+            if (keyedMemoEnabled) {
+                keyedMemorized = memorizeByKey(reordered, false, false);
+            } else {
+                keyedMemorized = reordered;
+            }
+            count(keyedMemorized);
+            final IParsedExpression rebuilt = share(keyedMemorized, false);
+            if (memorized.isEmpty()) {
+                return rebuilt;
+            } else {
+                return new CommonSubexpressionRoot(scope, rebuilt);
+            }
+        }
+
+        public ExpressionBatch optimize(final IExpression[] expressions) {
+            final IParsedExpression[] stripped = new IParsedExpression[expressions.length];
+            for (int i = 0; i < expressions.length; i++) {
+                final IExpression expression = expressions[i];
+                if (expression instanceof IParsedExpression && !expression.isConstant()) {
+                    stripped[i] = strip((IParsedExpression) expression);
+                    count(stripped[i]);
+                }
+            }
+            final IExpression[] rebuilt = new IExpression[expressions.length];
+            for (int i = 0; i < expressions.length; i++) {
+                if (stripped[i] == null) {
+                    rebuilt[i] = expressions[i];
+                } else {
+                    rebuilt[i] = share(stripped[i], false);
+                }
+            }
+            return new ExpressionBatch(scope, rebuilt);
+        }
+
+        /**
+         * Removes the common subexpression nodes of a previous optimization, they are only created for exact operations
+         * and function calls. Reordering and keyed memos are kept.
+         */
+        private IParsedExpression strip(final IParsedExpression expression) {
+            final Class<?> type = expression.getClass();
+            if (type == CommonSubexpressionRoot.class || type == CommonSubexpression.class) {
+                return strip(((AOptimizedExpression) expression).getDelegate());
+            } else if (isOperation(type)) {
+                final BinaryOperation operation = (BinaryOperation) expression;
+                return newOperation(operation, strip(operation.getLeft()), strip(operation.getRight()));
+            } else if (isFunctionCall(type)) {
+                final AFunctionCall<?> call = (AFunctionCall<?>) expression;
+                final IParsedExpression[] parameters = call.getParameters();
+                final IParsedExpression[] newParameters = new IParsedExpression[parameters.length];
+                for (int i = 0; i < parameters.length; i++) {
+                    newParameters[i] = strip(parameters[i]);
+                }
+                return newCall(call, newParameters);
+            } else {
+                return expression;
+            }
+        }
+
+        private NodeInfo analyze(final IExpression expression) {
+            NodeInfo info = infos.get(expression);
+            if (info == null) {
+                info = newNodeInfo(expression);
+                infos.put(expression, info);
+            }
+            return info;
+        }
+
+        private NodeInfo newNodeInfo(final IExpression expression) {
+            final Class<?> type = expression.getClass();
+            if (type == KeyedMemoExpression.class) {
+                final NodeInfo delegate = analyze(((KeyedMemoExpression) expression).getDelegate());
+                return new NodeInfo(newKey(delegate.deterministic, "K(" + delegate.key + ")"), delegate.cost,
+                        delegate.deterministic, delegate.nonNull);
+            } else if (expression instanceof ConstantExpression) {
+                final double value = expression.evaluateDouble();
+                //enumeration constants are distinguished by name
+                return new NodeInfo("C" + type.getName() + ":" + Long.toHexString(Double.doubleToRawLongBits(value))
+                        + ":" + expression.toString(), 0, true, !Doubles.isNaN(value));
+            } else if (expression instanceof AVariableReference) {
+                //the parser resolves variables by context and name
+                return new NodeInfo("V" + type.getName() + ":" + expression.toString(), VARIABLE_COST, true,
+                        expression instanceof BooleanVariableReference);
+            } else if (isOperation(type)) {
+                final BinaryOperation operation = (BinaryOperation) expression;
+                final NodeInfo left = analyze(operation.getLeft());
+                final NodeInfo right = analyze(operation.getRight());
+                final Op op = operation.getOp();
+                final boolean nonNull;
+                if (type == BinaryOperation.class) {
+                    nonNull = isComparison(op);
+                } else {
+                    //and, or and not return the value of the right side when they do not short circuit
+                    nonNull = right.nonNull;
+                }
+                final boolean deterministic = left.deterministic && right.deterministic;
+                final String key = newKey(deterministic, "B" + op.name() + "(" + left.key + "," + right.key + ")");
+                return new NodeInfo(key, OPERATION_COST + left.cost + right.cost, deterministic, nonNull);
+            } else if (isFunctionCall(type)) {
+                final AFunctionCall<?> call = (AFunctionCall<?>) expression;
+                final AFunction function = call.getFunction();
+                final IParsedExpression[] parameters = call.getParameters();
+                final StringBuilder key = new StringBuilder("F");
+                key.append(function.getClass().getName());
+                key.append(":");
+                key.append(call.getContext());
+                key.append(":");
+                key.append(function.getExpressionName());
+                key.append("(");
+                int parametersCost = 0;
+                boolean deterministic = function.isDeterministic(parameters);
+                for (int i = 0; i < parameters.length; i++) {
+                    final NodeInfo parameter = analyze(parameters[i]);
+                    if (i > 0) {
+                        key.append(",");
+                    }
+                    key.append(parameter.key);
+                    parametersCost += parameter.cost;
+                    deterministic &= parameter.deterministic;
+                }
+                key.append(")");
+                final int cost;
+                if (function.isNaturalFunction(parameters)) {
+                    cost = FUNCTION_COST + parametersCost;
+                } else {
+                    cost = FUNCTION_COST + PREVIOUS_KEYS_COST_FACTOR * parametersCost;
+                }
+                return new NodeInfo(newKey(deterministic, key.toString()), cost, deterministic,
+                        type == BooleanFunctionCall.class);
+            } else {
+                //leave unknown subtrees as they are, though the well known ones can still be reordered
+                int childrenCost = 0;
+                boolean deterministic = type == ConstantPreviousKeyExpression.class
+                        || type == DynamicPreviousKeyExpression.class || isCrosses(type);
+                for (final IExpression child : expression.getChildren()) {
+                    final NodeInfo info = analyze(child);
+                    childrenCost += info.cost;
+                    deterministic &= info.deterministic;
+                }
+                return new NodeInfo(newKey(false, null), OPAQUE_COST + childrenCost, deterministic, false);
+            }
+        }
+
+        /**
+         * Nodes that should not be shared get a unique key.
+         */
+        private String newKey(final boolean shareable, final String structuralKey) {
+            if (shareable) {
+                return structuralKey;
+            } else {
+                return "#" + (opaqueNodes++);
+            }
+        }
+
+        private IParsedExpression reorder(final IParsedExpression expression) {
+            final Class<?> type = expression.getClass();
+            if (type == AndOperation.class) {
+                final List<IParsedExpression> flattened = new ArrayList<>();
+                flatten(expression, type, flattened);
+                final List<IParsedExpression> operands = new ArrayList<>(flattened.size());
+                for (int i = 0; i < flattened.size(); i++) {
+                    operands.add(reorder(flattened.get(i)));
+                }
+                sortOperands(operands);
+                if (isSame(operands, flattened)) {
+                    return expression;
+                }
+                IParsedExpression chain = operands.get(operands.size() - 1);
+                for (int i = operands.size() - 2; i >= 0; i--) {
+                    chain = new AndOperation(operands.get(i), chain);
+                }
+                return chain;
+            } else {
+                return rebuildChildren(expression, false);
+            }
+        }
+
+        private boolean isSame(final List<IParsedExpression> operands, final List<IParsedExpression> flattened) {
+            for (int i = 0; i < operands.size(); i++) {
+                if (operands.get(i) != flattened.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void flatten(final IParsedExpression expression, final Class<?> type,
+                final List<IParsedExpression> operands) {
+            if (expression.getClass() == type) {
+                final BinaryOperation operation = (BinaryOperation) expression;
+                flatten(operation.getLeft(), type, operands);
+                flatten(operation.getRight(), type, operands);
+            } else {
+                operands.add(expression);
+            }
+        }
+
+        private void sortOperands(final List<IParsedExpression> operands) {
+            boolean allNonNull = true;
+            for (int i = 0; i < operands.size(); i++) {
+                allNonNull &= analyze(operands.get(i)).nonNull;
+            }
+            final int sortable = allNonNull ? operands.size() : operands.size() - 1;
+            for (int i = 0; i < sortable; i++) {
+                if (!analyze(operands.get(i)).deterministic) {
+                    return;
+                }
+            }
+            //stable sort keeps the original order of operands with the same cost
+            operands.subList(0, sortable).sort(costComparator);
+        }
+
+        private void count(final IParsedExpression expression) {
+            final NodeInfo info = analyze(expression);
+            final Integer existing = occurrences.get(info.key);
+            if (existing != null) {
+                //children of a repeated subtree are only counted once, since the subtree is shared as a whole
+                occurrences.put(info.key, existing + 1);
+                return;
+            }
+            occurrences.put(info.key, 1);
+            final Class<?> type = expression.getClass();
+            if (isOperation(type) || isFunctionCall(type)) {
+                for (final IExpression child : expression.getChildren()) {
+                    count((IParsedExpression) child);
+                }
+            }
+        }
+
+        /**
+         * Function parameters that are operations are not wrapped, because some functions inspect the left and right
+         * side of their condition.
+         */
+        private IParsedExpression share(final IParsedExpression expression, final boolean functionParameter) {
+            final NodeInfo info = analyze(expression);
+            final boolean repeated = occurrences.get(info.key) > 1;
+            if (!repeated || !info.deterministic) {
+                return rebuildChildren(expression, true);
+            }
+            IParsedExpression sharedExpression = shared.get(info.key);
+            if (sharedExpression == null) {
+                sharedExpression = rebuildChildren(expression, true);
+                shared.put(info.key, sharedExpression);
+            }
+            if (info.cost < MEMO_MIN_COST || functionParameter && sharedExpression instanceof BinaryOperation) {
+                return sharedExpression;
+            }
+            CommonSubexpression memo = memorized.get(info.key);
+            if (memo == null) {
+                memo = new CommonSubexpression(scope, scope.newSlot(), sharedExpression);
+                memorized.put(info.key, memo);
+            }
+            return memo;
+        }
+
+        private IParsedExpression rebuildChildren(final IParsedExpression expression, final boolean share) {
+            final Class<?> type = expression.getClass();
+            if (isOperation(type)) {
+                final BinaryOperation operation = (BinaryOperation) expression;
+                final IParsedExpression left;
+                final IParsedExpression right;
+                if (share) {
+                    left = share(operation.getLeft(), false);
+                    right = share(operation.getRight(), false);
+                } else {
+                    left = reorder(operation.getLeft());
+                    right = reorder(operation.getRight());
+                }
+                return newOperation(operation, left, right);
+            } else if (isFunctionCall(type)) {
+                final AFunctionCall<?> call = (AFunctionCall<?>) expression;
+                final IParsedExpression[] parameters = call.getParameters();
+                final IParsedExpression[] newParameters = new IParsedExpression[parameters.length];
+                for (int i = 0; i < parameters.length; i++) {
+                    if (share) {
+                        newParameters[i] = share(parameters[i], true);
+                    } else {
+                        newParameters[i] = reorder(parameters[i]);
+                    }
+                }
+                return newCall(call, newParameters);
+            } else {
+                return expression;
+            }
+        }
+
+        /**
+         * Function parameters that are operations are not wrapped for the same reason as in share(...), their children
+         * are still looked at.
+         */
+        private IParsedExpression memorizeByKey(final IParsedExpression expression, final boolean previousKeys,
+                final boolean functionParameter) {
+            if (previousKeys && !(functionParameter && expression instanceof BinaryOperation)) {
+                final NodeInfo info = analyze(expression);
+                if (info.deterministic && info.cost >= MEMO_MIN_COST) {
+                    //the subtree is only evaluated for new keys now, so its own children need no memo for that
+                    return new KeyedMemoExpression(memorizeChildrenByKey(expression, false), KEYED_MEMO_CAPACITY);
+                }
+            }
+            return memorizeChildrenByKey(expression, previousKeys);
+        }
+
+        private IParsedExpression memorizeChildrenByKey(final IParsedExpression expression,
+                final boolean previousKeys) {
+            final Class<?> type = expression.getClass();
+            if (isOperation(type)) {
+                final BinaryOperation operation = (BinaryOperation) expression;
+                final IParsedExpression left = memorizeByKey(operation.getLeft(), previousKeys, false);
+                final IParsedExpression right = memorizeByKey(operation.getRight(), previousKeys, false);
+                return newOperation(operation, left, right);
+            } else if (isFunctionCall(type)) {
+                final AFunctionCall<?> call = (AFunctionCall<?>) expression;
+                final IParsedExpression[] parameters = call.getParameters();
+                final boolean parameterPreviousKeys = previousKeys
+                        || !call.getFunction().isNaturalFunction(parameters);
+                final IParsedExpression[] newParameters = new IParsedExpression[parameters.length];
+                for (int i = 0; i < parameters.length; i++) {
+                    newParameters[i] = memorizeByKey(parameters[i], parameterPreviousKeys, true);
+                }
+                return newCall(call, newParameters);
+            } else if (isCrosses(type)) {
+                final BinaryOperation operation = (BinaryOperation) expression;
+                final IParsedExpression left = memorizeByKey(operation.getLeft(), true, false);
+                final IParsedExpression right = memorizeByKey(operation.getRight(), true, false);
+                if (left == operation.getLeft() && right == operation.getRight()) {
+                    return expression;
+                }
+                //setLeft/setRight keep the crosses type and its previous key functions
+                final BinaryOperation rebuilt = operation.setLeft(left).setRight(right);
+                if (operation.isSealed()) {
+                    rebuilt.seal();
+                }
+                return rebuilt;
+            } else if (type == ConstantPreviousKeyExpression.class) {
+                final ConstantPreviousKeyExpression previousKey = (ConstantPreviousKeyExpression) expression;
+                final IParsedExpression child = memorizeByKey(previousKey.getExpression(), true, false);
+                if (child == previousKey.getExpression() || previousKey.getIndex() == null) {
+                    return expression;
+                }
+                return new ConstantPreviousKeyExpression(child, previousKey.getIndex(),
+                        previousKey.getPreviousKeyFunction());
+            } else if (type == DynamicPreviousKeyExpression.class) {
+                final DynamicPreviousKeyExpression previousKey = (DynamicPreviousKeyExpression) expression;
+                final IParsedExpression child = memorizeByKey(previousKey.getExpression(), true, false);
+                final IParsedExpression index = memorizeByKey(previousKey.getIndexExpression(), previousKeys, false);
+                if (child == previousKey.getExpression() && index == previousKey.getIndexExpression()) {
+                    return expression;
+                }
+                return new DynamicPreviousKeyExpression(child, index, previousKey.getPreviousKeyFunction());
+            } else {
+                return expression;
+            }
+        }
+
+        private IParsedExpression newOperation(final BinaryOperation operation, final IParsedExpression left,
+                final IParsedExpression right) {
+            if (left == operation.getLeft() && right == operation.getRight()) {
+                return operation;
+            }
+            final Class<?> type = operation.getClass();
+            final BinaryOperation rebuilt;
+            if (type == AndOperation.class) {
+                rebuilt = new AndOperation(left, right);
+            } else if (type == OrOperation.class) {
+                rebuilt = new OrOperation(left, right);
+            } else if (type == NotOperation.class) {
+                rebuilt = new NotOperation(left, right);
+            } else {
+                rebuilt = new BinaryOperation(operation.getOp(), left, right);
+            }
+            if (operation.isSealed()) {
+                rebuilt.seal();
+            }
+            return rebuilt;
+        }
+
+        private IParsedExpression newCall(final AFunctionCall<?> call, final IParsedExpression[] newParameters) {
+            final IParsedExpression[] parameters = call.getParameters();
+            for (int i = 0; i < parameters.length; i++) {
+                if (newParameters[i] != parameters[i]) {
+                    return call.getFunction().newCall(call.getContext(), newParameters);
+                }
+            }
+            return call;
+        }
+    }
+
+}
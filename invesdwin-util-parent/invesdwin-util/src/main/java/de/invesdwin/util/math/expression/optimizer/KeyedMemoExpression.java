@@ -0,0 +1,99 @@
+package de.invesdwin.util.math.expression.optimizer;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.invesdwin.util.math.Doubles;
+import de.invesdwin.util.math.expression.eval.IParsedExpression;
+import de.invesdwin.util.time.fdate.FDate;
+
+/**
+ * An expensive subtree that is evaluated for previous keys (e.g. as an operand of a crosses operation or as the
+ * argument of a historical function). The values are memorized per key across top level evaluations, so a bar that was
+ * evaluated as the current bar is not evaluated again when it becomes a previous bar of the next bars. This assumes
+ * that the value for a key does not change anymore, thus it is only enabled on demand.
+ *
+ * Evaluations without a key are not memorized.
+ */
+@Immutable
+final class KeyedMemoExpression extends AOptimizedExpression {
+
+    private final int capacity;
+    private final ThreadLocal<KeyedMemoTable> tables;
+
+    KeyedMemoExpression(final IParsedExpression delegate, final int capacity) {
+        super(delegate);
+        this.capacity = capacity;
+        this.tables = new ThreadLocal<KeyedMemoTable>() {
+            @Override
+            protected KeyedMemoTable initialValue() {
+                return new KeyedMemoTable(capacity);
+            }
+        };
+    }
+
+    @Override
+    public AOptimizedExpression withDelegate(final IParsedExpression delegate) {
+        return new KeyedMemoExpression(delegate, capacity);
+    }
+
+    @Override
+    public double evaluateDouble(final FDate key) {
+        final KeyedMemoTable table = tables.get();
+        final long millis = key.millisValue();
+        final int index = table.indexOf(millis);
+        if (table.contains(index, KeyedMemoTable.KEY_TIME, millis)) {
+            return table.get(index);
+        }
+        final double value = delegate.evaluateDouble(key);
+        table.put(index, KeyedMemoTable.KEY_TIME, millis, value);
+        return value;
+    }
+
+    @Override
+    public double evaluateDouble(final int key) {
+        final KeyedMemoTable table = tables.get();
+        final int index = table.indexOf(key);
+        if (table.contains(index, KeyedMemoTable.KEY_INT, key)) {
+            return table.get(index);
+        }
+        final double value = delegate.evaluateDouble(key);
+        table.put(index, KeyedMemoTable.KEY_INT, key, value);
+        return value;
+    }
+
+    @Override
+    public double evaluateDouble() {
+        return delegate.evaluateDouble();
+    }
+
+    @Override
+    public Boolean evaluateBooleanNullable(final FDate key) {
+        return Doubles.doubleToBoolean(evaluateDouble(key));
+    }
+
+    @Override
+    public Boolean evaluateBooleanNullable(final int key) {
+        return Doubles.doubleToBoolean(evaluateDouble(key));
+    }
+
+    @Override
+    public Boolean evaluateBooleanNullable() {
+        return delegate.evaluateBooleanNullable();
+    }
+
+    @Override
+    public boolean evaluateBoolean(final FDate key) {
+        return evaluateDouble(key) > 0D;
+    }
+
+    @Override
+    public boolean evaluateBoolean(final int key) {
+        return evaluateDouble(key) > 0D;
+    }
+
+    @Override
+    public boolean evaluateBoolean() {
+        return delegate.evaluateBoolean();
+    }
+
+}
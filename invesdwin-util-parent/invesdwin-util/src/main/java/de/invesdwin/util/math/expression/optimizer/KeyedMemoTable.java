@@ -0,0 +1,56 @@
+package de.invesdwin.util.math.expression.optimizer;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Per thread table of the last evaluated keys of one subtree. Int keys are mapped to their slot by the lower bits, so
+ * for consecutive keys this works like a ring buffer of the last keys. Time keys are spread with a fibonacci hash since
+ * the millis of bars are usually multiples of a bar length. A colliding key simply replaces the old entry, thus no
+ * allocations happen after the table was created.
+ */
+@NotThreadSafe
+final class KeyedMemoTable {
+
+    static final byte KEY_INT = 1;
+    static final byte KEY_TIME = 2;
+
+    private final byte[] keyTypes;
+    private final long[] keys;
+    private final double[] values;
+    private final int mask;
+    private final int shift;
+
+    KeyedMemoTable(final int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity should be a power of two: " + capacity);
+        }
+        this.keyTypes = new byte[capacity];
+        this.keys = new long[capacity];
+        this.values = new double[capacity];
+        this.mask = capacity - 1;
+        this.shift = Long.SIZE - Integer.numberOfTrailingZeros(capacity);
+    }
+
+    int indexOf(final int key) {
+        return key & mask;
+    }
+
+    int indexOf(final long millis) {
+        return (int) ((millis * 0x9E3779B97F4A7C15L) >>> shift) & mask;
+    }
+
+    boolean contains(final int index, final byte keyType, final long key) {
+        return keyTypes[index] == keyType && keys[index] == key;
+    }
+
+    double get(final int index) {
+        return values[index];
+    }
+
+    void put(final int index, final byte keyType, final long key, final double value) {
+        keyTypes[index] = keyType;
+        keys[index] = key;
+        values[index] = value;
+    }
+
+}
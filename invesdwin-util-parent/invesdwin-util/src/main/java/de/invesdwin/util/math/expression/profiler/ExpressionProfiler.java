@@ -0,0 +1,139 @@
+package de.invesdwin.util.math.expression.profiler;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.math.expression.IExpression;
+import de.invesdwin.util.math.expression.eval.IParsedExpression;
+import de.invesdwin.util.math.expression.eval.function.AFunctionCall;
+import de.invesdwin.util.math.expression.eval.function.BooleanFunctionCall;
+import de.invesdwin.util.math.expression.eval.function.BooleanNullableFunctionCall;
+import de.invesdwin.util.math.expression.eval.function.DoubleFunctionCall;
+import de.invesdwin.util.math.expression.eval.operation.AndOperation;
+import de.invesdwin.util.math.expression.eval.operation.BinaryOperation;
+import de.invesdwin.util.math.expression.eval.operation.NotOperation;
+import de.invesdwin.util.math.expression.eval.operation.OrOperation;
+import de.invesdwin.util.math.expression.optimizer.AOptimizedExpression;
+
+/**
+ * Rebuilds a parsed expression with every node wrapped in a ProfiledExpression, the returned root gives access to the
+ * report. Profiling is opt-in since it costs an atomic increment per node invocation, the nanoTime calls are only made
+ * for every n-th invocation.
+ *
+ * Only the exact operation and function call classes are rebuilt with profiled children, other nodes (e.g. previous
+ * key expressions or compiled expressions) are profiled as a whole. Comparisons that are passed as function parameters
+ * stay unwrapped because some functions inspect them, their children are profiled though.
+ *
+ * The nodes of the ExpressionOptimizer are kept, thus the profiled tree evaluates the same way as the given one. Every
+ * occurrence of a common subexpression is profiled separately, the occurrence that is evaluated first for a key pays
+ * for the evaluation and the others only for the memo lookup. The nodes below a common subexpression are shared and
+ * count the actual evaluations.
+ */
+@Immutable
+public final class ExpressionProfiler {
+
+    public static final int DEFAULT_SAMPLE_INTERVAL = 64;
+
+    private ExpressionProfiler() {}
+
+    public static ProfiledExpression profile(final IExpression expression) {
+        return profile(expression, DEFAULT_SAMPLE_INTERVAL);
+    }
+
+    public static ProfiledExpression profile(final IExpression expression, final int sampleInterval) {
+        Assertions.checkTrue(sampleInterval > 0, "sampleInterval should be positive: %s", sampleInterval);
+        if (expression instanceof ProfiledExpression) {
+            return (ProfiledExpression) expression;
+        }
+        return new Profiling(sampleInterval).wrap((IParsedExpression) expression);
+    }
+
+    private static boolean isOperation(final Class<?> type) {
+        return type == BinaryOperation.class || type == AndOperation.class || type == OrOperation.class
+                || type == NotOperation.class;
+    }
+
+    private static boolean isFunctionCall(final Class<?> type) {
+        return type == DoubleFunctionCall.class || type == BooleanFunctionCall.class
+                || type == BooleanNullableFunctionCall.class;
+    }
+
+    @NotThreadSafe
+    private static final class Profiling {
+
+        private final int sampleInterval;
+        /**
+         * Nodes of the optimizer are rebuilt only once so that shared nodes stay shared.
+         */
+        private final Map<IExpression, IParsedExpression> optimized = new IdentityHashMap<>();
+
+        Profiling(final int sampleInterval) {
+            this.sampleInterval = sampleInterval;
+        }
+
+        public ProfiledExpression wrap(final IParsedExpression expression) {
+            return new ProfiledExpression(rebuild(expression), sampleInterval);
+        }
+
+        private IParsedExpression rebuild(final IParsedExpression expression) {
+            if (expression instanceof AOptimizedExpression) {
+                IParsedExpression rebuilt = optimized.get(expression);
+                if (rebuilt == null) {
+                    final AOptimizedExpression cExpression = (AOptimizedExpression) expression;
+                    rebuilt = cExpression.withDelegate(rebuild(cExpression.getDelegate()));
+                    optimized.put(expression, rebuilt);
+                }
+                return rebuilt;
+            } else {
+                return rebuildChildren(expression);
+            }
+        }
+
+        private IParsedExpression rebuildChildren(final IParsedExpression expression) {
+            final Class<?> type = expression.getClass();
+            if (isOperation(type)) {
+                final BinaryOperation operation = (BinaryOperation) expression;
+                final IParsedExpression left = wrap(operation.getLeft());
+                final IParsedExpression right = wrap(operation.getRight());
+                final BinaryOperation rebuilt;
+                if (type == AndOperation.class) {
+                    rebuilt = new AndOperation(left, right);
+                } else if (type == OrOperation.class) {
+                    rebuilt = new OrOperation(left, right);
+                } else if (type == NotOperation.class) {
+                    rebuilt = new NotOperation(left, right);
+                } else {
+                    rebuilt = new BinaryOperation(operation.getOp(), left, right);
+                }
+                if (operation.isSealed()) {
+                    rebuilt.seal();
+                }
+                return rebuilt;
+            } else if (isFunctionCall(type)) {
+                final AFunctionCall<?> call = (AFunctionCall<?>) expression;
+                final IParsedExpression[] parameters = call.getParameters();
+                if (parameters.length == 0) {
+                    return expression;
+                }
+                final IParsedExpression[] newParameters = new IParsedExpression[parameters.length];
+                for (int i = 0; i < parameters.length; i++) {
+                    final IParsedExpression parameter = parameters[i];
+                    if (parameter instanceof BinaryOperation) {
+                        newParameters[i] = rebuildChildren(parameter);
+                    } else {
+                        newParameters[i] = wrap(parameter);
+                    }
+                }
+                return call.getFunction().newCall(call.getContext(), newParameters);
+            } else {
+                return expression;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,343 @@
+package de.invesdwin.util.math.expression.profiler;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.math.decimal.scaled.Percent;
+import de.invesdwin.util.math.decimal.scaled.PercentScale;
+import de.invesdwin.util.math.expression.IExpression;
+import de.invesdwin.util.math.expression.eval.IParsedExpression;
+import de.invesdwin.util.math.expression.eval.operation.AndOperation;
+import de.invesdwin.util.math.expression.eval.operation.OrOperation;
+import de.invesdwin.util.time.duration.Duration;
+import de.invesdwin.util.time.fdate.FDate;
+import de.invesdwin.util.time.fdate.FTimeUnit;
+
+/**
+ * Counts the invocations of the wrapped node and measures the time of every n-th invocation. Total time is estimated
+ * from the sampled average, self time subtracts the estimated total time of the profiled children.
+ *
+ * Range evaluations are passed through without being profiled.
+ */
+@ThreadSafe
+public final class ProfiledExpression implements IParsedExpression {
+
+    /**
+     * toString is only annotated while the report of the current thread is created, otherwise it stays the same as the
+     * one of the delegate.
+     */
+    private static final ThreadLocal<Boolean> ANNOTATING = new ThreadLocal<Boolean>();
+
+    private final IParsedExpression delegate;
+    private final int sampleInterval;
+    private final AtomicLong invocations = new AtomicLong();
+    private final AtomicLong sampledInvocations = new AtomicLong();
+    private final AtomicLong sampledNanos = new AtomicLong();
+
+    ProfiledExpression(final IParsedExpression delegate, final int sampleInterval) {
+        this.delegate = delegate;
+        this.sampleInterval = sampleInterval;
+    }
+
+    public IParsedExpression getDelegate() {
+        return delegate;
+    }
+
+    private boolean shouldSample() {
+        return invocations.incrementAndGet() % sampleInterval == 0;
+    }
+
+    private void sample(final long start) {
+        sampledNanos.addAndGet(System.nanoTime() - start);
+        sampledInvocations.incrementAndGet();
+    }
+
+    @Override
+    public double evaluateDouble(final FDate key) {
+        if (!shouldSample()) {
+            return delegate.evaluateDouble(key);
+        }
+        final long start = System.nanoTime();
+        try {
+            return delegate.evaluateDouble(key);
+        } finally {
+            sample(start);
+        }
+    }
+
+    @Override
+    public double evaluateDouble(final int key) {
+        if (!shouldSample()) {
+            return delegate.evaluateDouble(key);
+        }
+        final long start = System.nanoTime();
+        try {
+            return delegate.evaluateDouble(key);
+        } finally {
+            sample(start);
+        }
+    }
+
+    @Override
+    public double evaluateDouble() {
+        if (!shouldSample()) {
+            return delegate.evaluateDouble();
+        }
+        final long start = System.nanoTime();
+        try {
+            return delegate.evaluateDouble();
+        } finally {
+            sample(start);
+        }
+    }
+
+    @Override
+    public Boolean evaluateBooleanNullable(final FDate key) {
+        if (!shouldSample()) {
+            return delegate.evaluateBooleanNullable(key);
+        }
+        final long start = System.nanoTime();
+        try {
+            return delegate.evaluateBooleanNullable(key);
+        } finally {
+            sample(start);
+        }
+    }
+
+    @Override
+    public Boolean evaluateBooleanNullable(final int key) {
+        if (!shouldSample()) {
+            return delegate.evaluateBooleanNullable(key);
+        }
+        final long start = System.nanoTime();
+        try {
+            return delegate.evaluateBooleanNullable(key);
+        } finally {
+            sample(start);
+        }
+    }
+
+    @Override
+    public Boolean evaluateBooleanNullable() {
+        if (!shouldSample()) {
+            return delegate.evaluateBooleanNullable();
+        }
+        final long start = System.nanoTime();
+        try {
+            return delegate.evaluateBooleanNullable();
+        } finally {
+            sample(start);
+        }
+    }
+
+    @Override
+    public boolean evaluateBoolean(final FDate key) {
+        if (!shouldSample()) {
+            return delegate.evaluateBoolean(key);
+        }
+        final long start = System.nanoTime();
+        try {
+            return delegate.evaluateBoolean(key);
+        } finally {
+            sample(start);
+        }
+    }
+
+    @Override
+    public boolean evaluateBoolean(final int key) {
+        if (!shouldSample()) {
+            return delegate.evaluateBoolean(key);
+        }
+        final long start = System.nanoTime();
+        try {
+            return delegate.evaluateBoolean(key);
+        } finally {
+            sample(start);
+        }
+    }
+
+    @Override
+    public boolean evaluateBoolean() {
+        if (!shouldSample()) {
+            return delegate.evaluateBoolean();
+        }
+        final long start = System.nanoTime();
+        try {
+            return delegate.evaluateBoolean();
+        } finally {
+            sample(start);
+        }
+    }
+
+    @Override
+    public void evaluateDoubleRange(final int fromKey, final int toKey, final double[] result) {
+        delegate.evaluateDoubleRange(fromKey, toKey, result);
+    }
+
+    @Override
+    public void evaluateBooleanRange(final int fromKey, final int toKey, final BitSet result) {
+        delegate.evaluateBooleanRange(fromKey, toKey, result);
+    }
+
+    public long getInvocations() {
+        return invocations.get();
+    }
+
+    public long getSampledInvocations() {
+        return sampledInvocations.get();
+    }
+
+    /**
+     * Returns NaN when no invocation has been sampled yet.
+     */
+    public double getAverageNanos() {
+        final long sampled = sampledInvocations.get();
+        if (sampled == 0) {
+            return Double.NaN;
+        }
+        return (double) sampledNanos.get() / sampled;
+    }
+
+    public long getTotalNanos() {
+        final double average = getAverageNanos();
+        if (Double.isNaN(average)) {
+            return 0L;
+        }
+        return (long) (average * invocations.get());
+    }
+
+    public long getSelfNanos() {
+        long childrenNanos = 0L;
+        for (final ProfiledExpression child : getProfiledChildren()) {
+            childrenNanos += child.getTotalNanos();
+        }
+        return Math.max(0L, getTotalNanos() - childrenNanos);
+    }
+
+    /**
+     * For AndOperation and OrOperation this is the ratio of invocations that did not need to evaluate the right side,
+     * for all other nodes this returns NaN.
+     */
+    public double getShortCircuitRatio() {
+        final Class<?> type = delegate.getClass();
+        if (type != AndOperation.class && type != OrOperation.class) {
+            return Double.NaN;
+        }
+        final long count = invocations.get();
+        if (count == 0) {
+            return Double.NaN;
+        }
+        final List<ProfiledExpression> children = getProfiledChildren();
+        if (children.size() != 2) {
+            return Double.NaN;
+        }
+        final long rightCount = children.get(1).getInvocations();
+        return Math.max(0D, 1D - (double) rightCount / count);
+    }
+
+    /**
+     * The nearest profiled nodes below this one, nodes that were left as they are (e.g. comparisons given as function
+     * parameters) are looked through.
+     */
+    public List<ProfiledExpression> getProfiledChildren() {
+        final List<ProfiledExpression> children = new ArrayList<>();
+        collectProfiledChildren(delegate, children);
+        return children;
+    }
+
+    private static void collectProfiledChildren(final IExpression expression, final List<ProfiledExpression> children) {
+        for (final IExpression child : expression.getChildren()) {
+            if (child instanceof ProfiledExpression) {
+                children.add((ProfiledExpression) child);
+            } else {
+                collectProfiledChildren(child, children);
+            }
+        }
+    }
+
+    public void reset() {
+        invocations.set(0);
+        sampledInvocations.set(0);
+        sampledNanos.set(0);
+        for (final ProfiledExpression child : getProfiledChildren()) {
+            child.reset();
+        }
+    }
+
+    /**
+     * Returns the expression string with every profiled node annotated with the collected numbers, e.g.
+     * "((a > 50){calls=1000, ...} && ...){calls=1000, ..., shortCircuit=48%}".
+     */
+    public String getReport() {
+        if (ANNOTATING.get() != null) {
+            return toString();
+        }
+        ANNOTATING.set(Boolean.TRUE);
+        try {
+            return toString();
+        } finally {
+            ANNOTATING.remove();
+        }
+    }
+
+    private void appendAnnotation(final StringBuilder sb) {
+        sb.append("{calls=");
+        sb.append(getInvocations());
+        sb.append(", total=");
+        sb.append(new Duration(getTotalNanos(), FTimeUnit.NANOSECONDS));
+        sb.append(", self=");
+        sb.append(new Duration(getSelfNanos(), FTimeUnit.NANOSECONDS));
+        final double shortCircuitRatio = getShortCircuitRatio();
+        if (!Double.isNaN(shortCircuitRatio)) {
+            sb.append(", shortCircuit=");
+            sb.append(new Percent(shortCircuitRatio, PercentScale.RATE));
+        }
+        sb.append("}");
+    }
+
+    @Override
+    public IParsedExpression simplify() {
+        return this;
+    }
+
+    @Override
+    public boolean isConstant() {
+        return delegate.isConstant();
+    }
+
+    @Override
+    public String getContext() {
+        return delegate.getContext();
+    }
+
+    @Override
+    public boolean shouldPersist() {
+        return delegate.shouldPersist();
+    }
+
+    @Override
+    public boolean shouldDraw() {
+        return delegate.shouldDraw();
+    }
+
+    @Override
+    public IExpression[] getChildren() {
+        return delegate.getChildren();
+    }
+
+    @Override
+    public String toString() {
+        if (ANNOTATING.get() == null) {
+            return delegate.toString();
+        }
+        //the delegate calls toString of the profiled children, thus they get annotated as well
+        final StringBuilder sb = new StringBuilder(delegate.toString());
+        appendAnnotation(sb);
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,62 @@
+package de.invesdwin.util.math.expression.variable;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.invesdwin.util.math.expression.ExpressionReturnType;
+
+/**
+ * A variable that is backed by an array where the int key is the index. This allows range evaluations to copy whole
+ * columns instead of fetching the values one by one. Subclasses define how FDate keys map to indexes.
+ */
+@Immutable
+public abstract class ADoubleArrayVariable implements IDoubleVariable {
+
+    private final double[] values;
+
+    public ADoubleArrayVariable(final double[] values) {
+        this.values = values;
+    }
+
+    public double[] getValues() {
+        return values;
+    }
+
+    @Override
+    public double getValue(final int key) {
+        return values[key];
+    }
+
+    /**
+     * Returns the latest value.
+     */
+    @Override
+    public double getValue() {
+        return values[values.length - 1];
+    }
+
+    @Override
+    public void getValues(final int fromKey, final int toKey, final double[] result) {
+        System.arraycopy(values, fromKey, result, 0, toKey - fromKey);
+    }
+
+    @Override
+    public ExpressionReturnType getType() {
+        return ExpressionReturnType.Double;
+    }
+
+    @Override
+    public boolean isConstant() {
+        return false;
+    }
+
+    @Override
+    public boolean shouldPersist() {
+        return false;
+    }
+
+    @Override
+    public boolean shouldDraw() {
+        return true;
+    }
+
+}
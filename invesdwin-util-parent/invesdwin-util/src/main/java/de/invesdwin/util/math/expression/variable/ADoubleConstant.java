@@ -1,5 +1,7 @@
 package de.invesdwin.util.math.expression.variable;
 
+import java.util.Arrays;
+
 import javax.annotation.concurrent.Immutable;
 
 import de.invesdwin.util.time.fdate.FDate;
@@ -28,6 +30,11 @@ public abstract class ADoubleConstant extends AConstant implements IDoubleVariab
         return value;
     }
 
+    @Override
+    public final void getValues(final int fromKey, final int toKey, final double[] result) {
+        Arrays.fill(result, 0, toKey - fromKey, value);
+    }
+
     @Override
     public String toString() {
         return getExpressionName() + ": " + getValue();
@@ -12,6 +12,16 @@ public interface IDoubleVariable extends IVariable {
 
     double getValue();
 
+    /**
+     * Stores the values for the int keys fromKey (inclusive) to toKey (exclusive) starting at index 0 of the result
+     * array.
+     */
+    default void getValues(final int fromKey, final int toKey, final double[] result) {
+        for (int key = fromKey, i = 0; key < toKey; key++, i++) {
+            result[i] = getValue(key);
+        }
+    }
+
     @Override
     default AVariableReference<?> newReference(final String context) {
         return new DoubleVariableReference(context, this);
@@ -0,0 +1,124 @@
+package de.invesdwin.util.math.random;
+
+import java.util.SplittableRandom;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.apache.commons.math3.random.RandomGenerator;
+
+/**
+ * Adapts a SplittableRandom so that independent random streams can be derived from one seed via split(). Splitting
+ * happens deterministically, thus parallel computations stay reproducible as long as the split structure does not
+ * depend on the thread scheduling.
+ */
+@NotThreadSafe
+public class SplittableRandomGenerator implements RandomGenerator {
+
+    private SplittableRandom delegate;
+    private double nextNextGaussian;
+    private boolean haveNextNextGaussian;
+
+    public SplittableRandomGenerator(final long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    public SplittableRandomGenerator(final SplittableRandom delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Returns a new independent generator, this instance advances its state.
+     */
+    public SplittableRandomGenerator split() {
+        return new SplittableRandomGenerator(delegate.split());
+    }
+
+    @Override
+    public void setSeed(final int seed) {
+        setSeed((long) seed);
+    }
+
+    @Override
+    public void setSeed(final int[] seed) {
+        // the following number is the largest prime that fits in 32 bits (it is 2^32 - 5)
+        final long prime = 4294967291L;
+
+        long combined = 0L;
+        for (final int s : seed) {
+            combined = combined * prime + s;
+        }
+        setSeed(combined);
+    }
+
+    @Override
+    public void setSeed(final long seed) {
+        delegate = new SplittableRandom(seed);
+        haveNextNextGaussian = false;
+    }
+
+    @Override
+    public void nextBytes(final byte[] bytes) {
+        int i = 0;
+        while (i < bytes.length) {
+            int rnd = delegate.nextInt();
+            for (int n = Math.min(bytes.length - i, Integer.BYTES); n-- > 0; rnd >>= Byte.SIZE) {
+                bytes[i++] = (byte) rnd;
+            }
+        }
+    }
+
+    @Override
+    public int nextInt() {
+        return delegate.nextInt();
+    }
+
+    @Override
+    public int nextInt(final int n) {
+        return delegate.nextInt(n);
+    }
+
+    @Override
+    public long nextLong() {
+        return delegate.nextLong();
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return delegate.nextBoolean();
+    }
+
+    @Override
+    public float nextFloat() {
+        //24 bits of randomness like java.util.Random
+        return (delegate.nextInt() >>> 8) * (1.0f / (1 << 24));
+    }
+
+    @Override
+    public double nextDouble() {
+        return delegate.nextDouble();
+    }
+
+    /**
+     * Polar method like java.util.Random.
+     */
+    @Override
+    public double nextGaussian() {
+        if (haveNextNextGaussian) {
+            haveNextNextGaussian = false;
+            return nextNextGaussian;
+        }
+        double v1;
+        double v2;
+        double s;
+        do {
+            v1 = 2 * delegate.nextDouble() - 1;
+            v2 = 2 * delegate.nextDouble() - 1;
+            s = v1 * v1 + v2 * v2;
+        } while (s >= 1 || s == 0);
+        final double multiplier = StrictMath.sqrt(-2 * StrictMath.log(s) / s);
+        nextNextGaussian = v2 * multiplier;
+        haveNextNextGaussian = true;
+        return v1 * multiplier;
+    }
+
+}
@@ -0,0 +1,108 @@
+package de.invesdwin.util.math.statistics;
+
+import javax.annotation.concurrent.Immutable;
+
+import org.apache.commons.math3.transform.DftNormalization;
+import org.apache.commons.math3.transform.FastFourierTransformer;
+import org.apache.commons.math3.transform.TransformType;
+
+/**
+ * Sample auto covariances: acov(lag) = 1/n * sum((x_i - avg) * (x_(i+lag) - avg))
+ *
+ * For many lags this uses the Wiener–Khinchin theorem (inverse FFT of the power spectrum of the zero padded series)
+ * which needs O(n log n) instead of O(n * lags).
+ */
+@Immutable
+public final class AutoCovariances {
+
+    /**
+     * Rough relative cost of one FFT butterfly (including the inverse transform) compared to one multiply-add of the
+     * direct calculation.
+     */
+    private static final int FFT_COST_FACTOR = 4;
+
+    private AutoCovariances() {}
+
+    public static double avg(final double[] values) {
+        double sum = 0D;
+        for (int i = 0; i < values.length; i++) {
+            sum += values[i];
+        }
+        return sum / values.length;
+    }
+
+    /**
+     * Returns the auto covariances for lag 0 to maxLag (inclusive).
+     */
+    public static double[] autoCovariances(final double[] values, final double avg, final int maxLag) {
+        if (maxLag >= values.length) {
+            throw new IllegalArgumentException(
+                    "maxLag needs to be smaller than sample size [" + values.length + "]: " + maxLag);
+        }
+        final long directCost = (long) (maxLag + 1) * values.length;
+        final int fftLength = fftLength(values.length, maxLag);
+        final long fftCost = (long) FFT_COST_FACTOR * fftLength * log2(fftLength);
+        if (directCost <= fftCost) {
+            return autoCovariancesDirect(values, avg, maxLag);
+        } else {
+            return autoCovariancesFft(values, avg, maxLag);
+        }
+    }
+
+    public static double[] autoCovariancesDirect(final double[] values, final double avg, final int maxLag) {
+        final double[] autoCovariances = new double[maxLag + 1];
+        for (int lag = 0; lag <= maxLag; lag++) {
+            autoCovariances[lag] = autoCovariance(values, avg, lag);
+        }
+        return autoCovariances;
+    }
+
+    public static double autoCovariance(final double[] values, final double avg, final int lag) {
+        final int length = values.length;
+        double sum = 0D;
+        final int maxIdx = length - lag - 1;
+        for (int i = 0; i <= maxIdx; ++i) {
+            final double curAdj = values[i] - avg;
+            final double nextAdj = values[i + lag] - avg;
+            sum += curAdj * nextAdj;
+        }
+        return sum / length;
+    }
+
+    public static double[] autoCovariancesFft(final double[] values, final double avg, final int maxLag) {
+        final int length = values.length;
+        final int fftLength = fftLength(length, maxLag);
+        final double[] real = new double[fftLength];
+        final double[] imaginary = new double[fftLength];
+        for (int i = 0; i < length; i++) {
+            real[i] = values[i] - avg;
+        }
+        final double[][] dataRI = { real, imaginary };
+        FastFourierTransformer.transformInPlace(dataRI, DftNormalization.STANDARD, TransformType.FORWARD);
+        for (int i = 0; i < fftLength; i++) {
+            final double re = real[i];
+            final double im = imaginary[i];
+            real[i] = re * re + im * im;
+            imaginary[i] = 0D;
+        }
+        //inverse with standard normalization already divides by fftLength
+        FastFourierTransformer.transformInPlace(dataRI, DftNormalization.STANDARD, TransformType.INVERSE);
+        final double[] autoCovariances = new double[maxLag + 1];
+        for (int lag = 0; lag <= maxLag; lag++) {
+            autoCovariances[lag] = real[lag] / length;
+        }
+        return autoCovariances;
+    }
+
+    /**
+     * Zero padding to at least length + maxLag prevents circular wrap around for the requested lags.
+     */
+    private static int fftLength(final int length, final int maxLag) {
+        return Integer.highestOneBit(Math.max(1, length + maxLag) * 2 - 1);
+    }
+
+    private static int log2(final int value) {
+        return Integer.SIZE - Integer.numberOfLeadingZeros(value);
+    }
+
+}
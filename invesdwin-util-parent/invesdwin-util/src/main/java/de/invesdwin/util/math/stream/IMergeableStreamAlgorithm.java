@@ -0,0 +1,17 @@
+package de.invesdwin.util.math.stream;
+
+/**
+ * A stream algorithm whose state can be combined with the state of another instance of the same type. This allows to
+ * split a series, process the parts in parallel and merge the results afterwards (e.g. as a combiner of a Collector or
+ * in a fork join reduction).
+ */
+public interface IMergeableStreamAlgorithm<S extends IMergeableStreamAlgorithm<S>> {
+
+    /**
+     * Adds the state of the other instance to this one. The other instance needs to have processed the values that
+     * follow the values of this instance, which matters for order dependent algorithms like drawdowns. The other
+     * instance should not be used anymore afterwards.
+     */
+    void merge(S other);
+
+}
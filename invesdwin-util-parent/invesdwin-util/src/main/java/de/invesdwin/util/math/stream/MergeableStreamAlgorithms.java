@@ -0,0 +1,122 @@
+package de.invesdwin.util.math.stream;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.DoubleStream;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.invesdwin.util.concurrent.ConfiguredForkJoinPool;
+import de.invesdwin.util.concurrent.Executors;
+import de.invesdwin.util.math.stream.doubl.IDoubleStreamAlgorithm;
+
+/**
+ * Reductions of mergeable stream algorithms over java streams and large arrays.
+ */
+@Immutable
+public final class MergeableStreamAlgorithms {
+
+    /**
+     * Below this amount of values it is cheaper to process sequentially than to fork.
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 15;
+    private static final ConfiguredForkJoinPool POOL = Executors
+            .newForkJoinPool(MergeableStreamAlgorithms.class.getSimpleName(), Executors.getCpuThreadPoolCount());
+
+    private MergeableStreamAlgorithms() {}
+
+    /**
+     * The collector is not unordered, thus order dependent algorithms also work with parallel streams.
+     */
+    public static <I, S extends IStreamAlgorithm<I, ?> & IMergeableStreamAlgorithm<S>> Collector<I, S, S> collector(
+            final Supplier<S> factory) {
+        return Collector.of(factory, new BiConsumer<S, I>() {
+            @Override
+            public void accept(final S algorithm, final I value) {
+                algorithm.process(value);
+            }
+        }, new BinaryOperator<S>() {
+            @Override
+            public S apply(final S left, final S right) {
+                left.merge(right);
+                return left;
+            }
+        });
+    }
+
+    public static <S extends IDoubleStreamAlgorithm & IMergeableStreamAlgorithm<S>> S collect(
+            final DoubleStream stream, final Supplier<S> factory) {
+        return stream.collect(factory, new ObjDoubleConsumer<S>() {
+            @Override
+            public void accept(final S algorithm, final double value) {
+                algorithm.process(value);
+            }
+        }, new BiConsumer<S, S>() {
+            @Override
+            public void accept(final S left, final S right) {
+                left.merge(right);
+            }
+        });
+    }
+
+    public static <S extends IDoubleStreamAlgorithm & IMergeableStreamAlgorithm<S>> S process(final double[] values,
+            final Supplier<S> factory) {
+        return process(POOL, values, 0, values.length, factory, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Splits values[from] to values[to - 1] into chunks that are bulk processed in parallel and merged in order.
+     */
+    public static <S extends IDoubleStreamAlgorithm & IMergeableStreamAlgorithm<S>> S process(final ForkJoinPool pool,
+            final double[] values, final int from, final int to, final Supplier<S> factory, final int threshold) {
+        if (to - from <= threshold) {
+            final S algorithm = factory.get();
+            algorithm.process(values, from, to);
+            return algorithm;
+        }
+        return pool.invoke(new ProcessTask<S>(values, from, to, factory, threshold));
+    }
+
+    private static final class ProcessTask<S extends IDoubleStreamAlgorithm & IMergeableStreamAlgorithm<S>>
+            extends RecursiveTask<S> {
+
+        private final double[] values;
+        private final int from;
+        private final int to;
+        private final Supplier<S> factory;
+        private final int threshold;
+
+        private ProcessTask(final double[] values, final int from, final int to, final Supplier<S> factory,
+                final int threshold) {
+            this.values = values;
+            this.from = from;
+            this.to = to;
+            this.factory = factory;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected S compute() {
+            if (to - from <= threshold) {
+                final S algorithm = factory.get();
+                algorithm.process(values, from, to);
+                return algorithm;
+            }
+            final int middle = (from + to) >>> 1;
+            final ProcessTask<S> left = new ProcessTask<S>(values, from, middle, factory, threshold);
+            final ProcessTask<S> right = new ProcessTask<S>(values, middle, to, factory, threshold);
+            right.fork();
+            final S leftResult = left.compute();
+            final S rightResult = right.join();
+            leftResult.merge(rightResult);
+            return leftResult;
+        }
+
+    }
+
+}
@@ -3,11 +3,13 @@ package de.invesdwin.util.math.stream.decimal;
 import javax.annotation.concurrent.NotThreadSafe;
 
 import de.invesdwin.util.math.decimal.ADecimal;
+import de.invesdwin.util.math.stream.IMergeableStreamAlgorithm;
 import de.invesdwin.util.math.stream.IStreamAlgorithm;
 import de.invesdwin.util.math.stream.doubl.DoubleStreamAvg;
 
 @NotThreadSafe
-public class DecimalStreamAvg<E extends ADecimal<E>> implements IStreamAlgorithm<E, Void> {
+public class DecimalStreamAvg<E extends ADecimal<E>>
+        implements IStreamAlgorithm<E, Void>, IMergeableStreamAlgorithm<DecimalStreamAvg<E>> {
 
     private final DoubleStreamAvg avg = new DoubleStreamAvg();
     private final E converter;
@@ -31,4 +33,9 @@ public class DecimalStreamAvg<E extends ADecimal<E>> implements IStreamAlgorithm
         return avg.getCount();
     }
 
+    @Override
+    public void merge(final DecimalStreamAvg<E> other) {
+        avg.merge(other.avg);
+    }
+
 }
@@ -3,14 +3,17 @@ package de.invesdwin.util.math.stream.decimal;
 import javax.annotation.concurrent.NotThreadSafe;
 
 import de.invesdwin.util.math.decimal.ADecimal;
+import de.invesdwin.util.math.stream.IMergeableStreamAlgorithm;
 import de.invesdwin.util.math.stream.IStreamAlgorithm;
 
 @NotThreadSafe
-public class DecimalStreamAvgWeightedAsc<E extends ADecimal<E>> implements IStreamAlgorithm<E, Void> {
+public class DecimalStreamAvgWeightedAsc<E extends ADecimal<E>>
+        implements IStreamAlgorithm<E, Void>, IMergeableStreamAlgorithm<DecimalStreamAvgWeightedAsc<E>> {
 
     private final E converter;
     private int sumOfWeights = 0;
     private double sumOfWeightedValues = 0D;
+    private double sumOfValues = 0D;
     private int weight = 1;
 
     public DecimalStreamAvgWeightedAsc(final E converter) {
@@ -19,9 +22,11 @@ public class DecimalStreamAvgWeightedAsc<E extends ADecimal<E>> implements IStre
 
     @Override
     public Void process(final E value) {
-        final double weightedValue = value.getDefaultValue() * weight;
+        final double defaultValue = value.getDefaultValue();
+        final double weightedValue = defaultValue * weight;
         sumOfWeights += weight;
         sumOfWeightedValues += weightedValue;
+        sumOfValues += defaultValue;
         weight++;
         return null;
     }
@@ -34,4 +39,16 @@ public class DecimalStreamAvgWeightedAsc<E extends ADecimal<E>> implements IStre
         }
     }
 
+    /**
+     * The values of the other instance get weights that continue after the weights of this instance.
+     */
+    @Override
+    public void merge(final DecimalStreamAvgWeightedAsc<E> other) {
+        final int weightOffset = weight - 1;
+        sumOfWeights += other.sumOfWeights + weightOffset * (other.weight - 1);
+        sumOfWeightedValues += other.sumOfWeightedValues + weightOffset * other.sumOfValues;
+        sumOfValues += other.sumOfValues;
+        weight += other.weight - 1;
+    }
+
 }
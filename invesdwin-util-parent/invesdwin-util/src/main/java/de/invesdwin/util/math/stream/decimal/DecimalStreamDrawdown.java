@@ -4,20 +4,37 @@ import javax.annotation.concurrent.NotThreadSafe;
 
 import de.invesdwin.util.math.decimal.ADecimal;
 import de.invesdwin.util.math.decimal.scaled.Percent;
+import de.invesdwin.util.math.decimal.scaled.PercentScale;
+import de.invesdwin.util.math.stream.IMergeableStreamAlgorithm;
 import de.invesdwin.util.math.stream.IStreamAlgorithm;
 
+/**
+ * Besides the current drawdown per equity this keeps a summary of the processed equities (max equity, min equity and
+ * max drawdown), which is enough to merge the segments of a series that got split for parallel processing.
+ *
+ * The summary does not include the initial equity, since a collector gives the same initial equity to every segment.
+ * Only the initial equity of the instance that the other segments get merged into is considered for the max drawdown.
+ * Segments that did not process any equity are ignored during a merge.
+ */
 @NotThreadSafe
-public class DecimalStreamDrawdown<E extends ADecimal<E>> implements IStreamAlgorithm<E, Percent> {
+public class DecimalStreamDrawdown<E extends ADecimal<E>>
+        implements IStreamAlgorithm<E, Percent>, IMergeableStreamAlgorithm<DecimalStreamDrawdown<E>> {
 
+    private final double initialEquity;
     private double maxEquity;
+    private double segmentMaxEquity = Double.NaN;
+    private double segmentMinEquity = Double.NaN;
+    private double segmentMaxDrawdownRate = 0D;
 
     public DecimalStreamDrawdown(final E initialEquity) {
-        this.maxEquity = initialEquity.getDefaultValue();
+        this.initialEquity = initialEquity.getDefaultValue();
+        this.maxEquity = this.initialEquity;
     }
 
     @Override
     public Percent process(final E equity) {
         final double equityDouble = equity.getDefaultValue();
+        processSegment(equityDouble);
         if (equityDouble >= maxEquity) {
             maxEquity = equityDouble;
             return Percent.ZERO_PERCENT;
@@ -32,4 +49,62 @@ public class DecimalStreamDrawdown<E extends ADecimal<E>> implements IStreamAlgo
         }
     }
 
+    private void processSegment(final double equity) {
+        if (isEmpty()) {
+            segmentMaxEquity = equity;
+            segmentMinEquity = equity;
+            return;
+        }
+        if (equity < segmentMinEquity) {
+            segmentMinEquity = equity;
+        }
+        if (equity >= segmentMaxEquity) {
+            segmentMaxEquity = equity;
+        } else {
+            segmentMaxDrawdownRate = Math.max(segmentMaxDrawdownRate,
+                    Percent.newRate(segmentMaxEquity - equity, segmentMaxEquity));
+        }
+    }
+
+    private boolean isEmpty() {
+        return Double.isNaN(segmentMaxEquity);
+    }
+
+    public Percent getMaxDrawdown() {
+        //the initial equity is like a segment with only one equity that comes first
+        return new Percent(Math.max(segmentMaxDrawdownRate, crossingDrawdownRate(initialEquity, segmentMinEquity)),
+                PercentScale.RATE);
+    }
+
+    /**
+     * The largest drawdown across both segments is either inside one of them or goes from the max equity of this
+     * segment to the min equity of the other segment.
+     */
+    @Override
+    public void merge(final DecimalStreamDrawdown<E> other) {
+        if (other.isEmpty()) {
+            return;
+        }
+        if (isEmpty()) {
+            segmentMaxDrawdownRate = other.segmentMaxDrawdownRate;
+            segmentMaxEquity = other.segmentMaxEquity;
+            segmentMinEquity = other.segmentMinEquity;
+        } else {
+            segmentMaxDrawdownRate = Math.max(segmentMaxDrawdownRate, Math.max(other.segmentMaxDrawdownRate,
+                    crossingDrawdownRate(segmentMaxEquity, other.segmentMinEquity)));
+            segmentMaxEquity = Math.max(segmentMaxEquity, other.segmentMaxEquity);
+            segmentMinEquity = Math.min(segmentMinEquity, other.segmentMinEquity);
+        }
+        maxEquity = Math.max(maxEquity, other.segmentMaxEquity);
+    }
+
+    private static double crossingDrawdownRate(final double leftMaxEquity, final double rightMinEquity) {
+        //false for NaN when the right segment is empty
+        if (rightMinEquity < leftMaxEquity) {
+            return Percent.newRate(leftMaxEquity - rightMinEquity, leftMaxEquity);
+        } else {
+            return 0D;
+        }
+    }
+
 }
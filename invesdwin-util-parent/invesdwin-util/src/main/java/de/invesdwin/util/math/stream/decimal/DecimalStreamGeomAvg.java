@@ -3,10 +3,12 @@ package de.invesdwin.util.math.stream.decimal;
 import javax.annotation.concurrent.NotThreadSafe;
 
 import de.invesdwin.util.math.decimal.ADecimal;
+import de.invesdwin.util.math.stream.IMergeableStreamAlgorithm;
 import de.invesdwin.util.math.stream.IStreamAlgorithm;
 
 @NotThreadSafe
-public class DecimalStreamGeomAvg<E extends ADecimal<E>> implements IStreamAlgorithm<E, Void> {
+public class DecimalStreamGeomAvg<E extends ADecimal<E>>
+        implements IStreamAlgorithm<E, Void>, IMergeableStreamAlgorithm<DecimalStreamGeomAvg<E>> {
 
     private double logSum = 0D;
     private int count;
@@ -61,4 +63,11 @@ public class DecimalStreamGeomAvg<E extends ADecimal<E>> implements IStreamAlgor
         }
     }
 
+    @Override
+    public void merge(final DecimalStreamGeomAvg<E> other) {
+        logSum += other.logSum;
+        count += other.count;
+        geomAvg = null;
+    }
+
 }
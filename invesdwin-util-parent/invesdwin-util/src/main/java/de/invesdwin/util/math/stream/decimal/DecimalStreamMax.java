@@ -4,10 +4,12 @@ import javax.annotation.concurrent.NotThreadSafe;
 
 import de.invesdwin.util.math.decimal.ADecimal;
 import de.invesdwin.util.math.decimal.Decimal;
+import de.invesdwin.util.math.stream.IMergeableStreamAlgorithm;
 import de.invesdwin.util.math.stream.IStreamAlgorithm;
 
 @NotThreadSafe
-public class DecimalStreamMax<E extends ADecimal<E>> implements IStreamAlgorithm<E, E> {
+public class DecimalStreamMax<E extends ADecimal<E>>
+        implements IStreamAlgorithm<E, E>, IMergeableStreamAlgorithm<DecimalStreamMax<E>> {
 
     private E max;
 
@@ -21,4 +23,9 @@ public class DecimalStreamMax<E extends ADecimal<E>> implements IStreamAlgorithm
         return max;
     }
 
+    @Override
+    public void merge(final DecimalStreamMax<E> other) {
+        max = Decimal.max(max, other.max);
+    }
+
 }
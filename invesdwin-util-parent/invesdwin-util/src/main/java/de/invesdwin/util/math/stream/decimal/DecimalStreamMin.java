@@ -4,10 +4,12 @@ import javax.annotation.concurrent.NotThreadSafe;
 
 import de.invesdwin.util.math.decimal.ADecimal;
 import de.invesdwin.util.math.decimal.Decimal;
+import de.invesdwin.util.math.stream.IMergeableStreamAlgorithm;
 import de.invesdwin.util.math.stream.IStreamAlgorithm;
 
 @NotThreadSafe
-public class DecimalStreamMin<E extends ADecimal<E>> implements IStreamAlgorithm<E, E> {
+public class DecimalStreamMin<E extends ADecimal<E>>
+        implements IStreamAlgorithm<E, E>, IMergeableStreamAlgorithm<DecimalStreamMin<E>> {
 
     private E min;
 
@@ -20,4 +22,10 @@ public class DecimalStreamMin<E extends ADecimal<E>> implements IStreamAlgorithm
     public E getMin() {
         return min;
     }
+
+    @Override
+    public void merge(final DecimalStreamMin<E> other) {
+        min = Decimal.min(min, other.min);
+    }
+
 }
@@ -3,10 +3,12 @@ package de.invesdwin.util.math.stream.decimal;
 import javax.annotation.concurrent.NotThreadSafe;
 
 import de.invesdwin.util.math.decimal.ADecimal;
+import de.invesdwin.util.math.stream.IMergeableStreamAlgorithm;
 import de.invesdwin.util.math.stream.IStreamAlgorithm;
 
 @NotThreadSafe
-public class DecimalStreamMinMax<E extends ADecimal<E>> implements IStreamAlgorithm<E, Void> {
+public class DecimalStreamMinMax<E extends ADecimal<E>>
+        implements IStreamAlgorithm<E, Void>, IMergeableStreamAlgorithm<DecimalStreamMinMax<E>> {
 
     private final DecimalStreamMin<E> minDelegate = new DecimalStreamMin<E>();
     private final DecimalStreamMax<E> maxDelegate = new DecimalStreamMax<E>();
@@ -26,4 +28,10 @@ public class DecimalStreamMinMax<E extends ADecimal<E>> implements IStreamAlgori
         return maxDelegate.getMax();
     }
 
+    @Override
+    public void merge(final DecimalStreamMinMax<E> other) {
+        minDelegate.merge(other.minDelegate);
+        maxDelegate.merge(other.maxDelegate);
+    }
+
 }
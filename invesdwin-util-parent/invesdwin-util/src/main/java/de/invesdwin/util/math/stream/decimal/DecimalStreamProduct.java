@@ -4,11 +4,13 @@ import javax.annotation.concurrent.NotThreadSafe;
 
 import de.invesdwin.norva.marker.ISerializableValueObject;
 import de.invesdwin.util.math.decimal.ADecimal;
+import de.invesdwin.util.math.stream.IMergeableStreamAlgorithm;
 import de.invesdwin.util.math.stream.IStreamAlgorithm;
 
 @NotThreadSafe
 public class DecimalStreamProduct<E extends ADecimal<E>>
-        implements IStreamAlgorithm<E, Void>, ISerializableValueObject {
+        implements IStreamAlgorithm<E, Void>, ISerializableValueObject,
+        IMergeableStreamAlgorithm<DecimalStreamProduct<E>> {
 
     private double logSum = 0D;
     private final double valueAdjustmentAddition;
@@ -75,4 +77,12 @@ public class DecimalStreamProduct<E extends ADecimal<E>>
         return doubleResult - valueAdjustmentAddition;
     }
 
+    @Override
+    public void merge(final DecimalStreamProduct<E> other) {
+        logSum += other.logSum;
+        count += other.count;
+        product = null;
+        productDouble = null;
+    }
+
 }
@@ -6,10 +6,12 @@ import de.invesdwin.util.math.Doubles;
 import de.invesdwin.util.math.decimal.ADecimal;
 import de.invesdwin.util.math.decimal.Decimal;
 import de.invesdwin.util.math.decimal.scaled.Percent;
+import de.invesdwin.util.math.stream.IMergeableStreamAlgorithm;
 import de.invesdwin.util.math.stream.IStreamAlgorithm;
 
 @NotThreadSafe
-public class DecimalStreamProfitFactor<E extends ADecimal<E>> implements IStreamAlgorithm<E, Void> {
+public class DecimalStreamProfitFactor<E extends ADecimal<E>>
+        implements IStreamAlgorithm<E, Void>, IMergeableStreamAlgorithm<DecimalStreamProfitFactor<E>> {
 
     private double profitSum;
     private double lossSum;
@@ -29,4 +31,10 @@ public class DecimalStreamProfitFactor<E extends ADecimal<E>> implements IStream
         return new Percent(new Decimal(profitSum), new Decimal(Doubles.abs(lossSum)));
     }
 
+    @Override
+    public void merge(final DecimalStreamProfitFactor<E> other) {
+        profitSum += other.profitSum;
+        lossSum += other.lossSum;
+    }
+
 }
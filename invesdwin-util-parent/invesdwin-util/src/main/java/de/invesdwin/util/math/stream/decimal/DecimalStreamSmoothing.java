@@ -0,0 +1,39 @@
+package de.invesdwin.util.math.stream.decimal;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.math.Doubles;
+import de.invesdwin.util.math.decimal.ADecimal;
+import de.invesdwin.util.math.stream.IStreamAlgorithm;
+import de.invesdwin.util.math.stream.doubl.IDoubleStreamAlgorithm;
+
+/**
+ * Adapts a double smoother (e.g. DoubleStreamLoess, DoubleStreamHoltSmoothing) to decimals. Returns null as long as the
+ * smoother does not yet have a result.
+ */
+@NotThreadSafe
+public class DecimalStreamSmoothing<E extends ADecimal<E>> implements IStreamAlgorithm<E, E> {
+
+    private final IDoubleStreamAlgorithm smoothing;
+    private final E converter;
+
+    public DecimalStreamSmoothing(final IDoubleStreamAlgorithm smoothing, final E converter) {
+        this.smoothing = smoothing;
+        this.converter = converter;
+    }
+
+    @Override
+    public E process(final E value) {
+        final double smoothed = smoothing.process(value.getDefaultValue());
+        if (Doubles.isNaN(smoothed)) {
+            return null;
+        } else {
+            return converter.fromDefaultValue(smoothed);
+        }
+    }
+
+    public IDoubleStreamAlgorithm getSmoothing() {
+        return smoothing;
+    }
+
+}
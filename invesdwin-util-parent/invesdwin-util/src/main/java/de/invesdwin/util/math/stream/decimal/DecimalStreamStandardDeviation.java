@@ -3,11 +3,13 @@ package de.invesdwin.util.math.stream.decimal;
 import javax.annotation.concurrent.NotThreadSafe;
 
 import de.invesdwin.util.math.decimal.ADecimal;
+import de.invesdwin.util.math.stream.IMergeableStreamAlgorithm;
 import de.invesdwin.util.math.stream.IStreamAlgorithm;
 import de.invesdwin.util.math.stream.number.NumberStreamStandardDeviation;
 
 @NotThreadSafe
-public class DecimalStreamStandardDeviation<E extends ADecimal<E>> implements IStreamAlgorithm<E, Void> {
+public class DecimalStreamStandardDeviation<E extends ADecimal<E>>
+        implements IStreamAlgorithm<E, Void>, IMergeableStreamAlgorithm<DecimalStreamStandardDeviation<E>> {
 
     private final NumberStreamStandardDeviation<Double> standardDeviation = new NumberStreamStandardDeviation<>();
 
@@ -62,4 +64,9 @@ public class DecimalStreamStandardDeviation<E extends ADecimal<E>> implements IS
         return null;
     }
 
+    @Override
+    public void merge(final DecimalStreamStandardDeviation<E> other) {
+        standardDeviation.merge(other.standardDeviation);
+    }
+
 }
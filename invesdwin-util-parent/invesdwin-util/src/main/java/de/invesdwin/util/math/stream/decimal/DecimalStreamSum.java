@@ -3,10 +3,12 @@ package de.invesdwin.util.math.stream.decimal;
 import javax.annotation.concurrent.NotThreadSafe;
 
 import de.invesdwin.util.math.decimal.ADecimal;
+import de.invesdwin.util.math.stream.IMergeableStreamAlgorithm;
 import de.invesdwin.util.math.stream.IStreamAlgorithm;
 
 @NotThreadSafe
-public class DecimalStreamSum<E extends ADecimal<E>> implements IStreamAlgorithm<E, Void> {
+public class DecimalStreamSum<E extends ADecimal<E>>
+        implements IStreamAlgorithm<E, Void>, IMergeableStreamAlgorithm<DecimalStreamSum<E>> {
 
     private double sum = 0;
     private final E converter;
@@ -27,4 +29,9 @@ public class DecimalStreamSum<E extends ADecimal<E>> implements IStreamAlgorithm
         return converter.fromDefaultValue(sum);
     }
 
+    @Override
+    public void merge(final DecimalStreamSum<E> other) {
+        sum += other.sum;
+    }
+
 }
@@ -3,11 +3,13 @@ package de.invesdwin.util.math.stream.decimal;
 import javax.annotation.concurrent.NotThreadSafe;
 
 import de.invesdwin.util.math.decimal.ADecimal;
+import de.invesdwin.util.math.stream.IMergeableStreamAlgorithm;
 import de.invesdwin.util.math.stream.IStreamAlgorithm;
 import de.invesdwin.util.math.stream.number.NumberStreamVariance;
 
 @NotThreadSafe
-public class DecimalStreamVariance<E extends ADecimal<E>> implements IStreamAlgorithm<E, Void> {
+public class DecimalStreamVariance<E extends ADecimal<E>>
+        implements IStreamAlgorithm<E, Void>, IMergeableStreamAlgorithm<DecimalStreamVariance<E>> {
 
     private final NumberStreamVariance<Double> variance = new NumberStreamVariance<>();
 
@@ -47,4 +49,9 @@ public class DecimalStreamVariance<E extends ADecimal<E>> implements IStreamAlgo
         return null;
     }
 
+    @Override
+    public void merge(final DecimalStreamVariance<E> other) {
+        variance.merge(other.variance);
+    }
+
 }
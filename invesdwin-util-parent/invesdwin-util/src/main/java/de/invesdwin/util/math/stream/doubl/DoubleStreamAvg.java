@@ -2,8 +2,10 @@ package de.invesdwin.util.math.stream.doubl;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
+import de.invesdwin.util.math.stream.IMergeableStreamAlgorithm;
+
 @NotThreadSafe
-public class DoubleStreamAvg implements IDoubleStreamAlgorithm {
+public class DoubleStreamAvg implements IDoubleStreamAlgorithm, IMergeableStreamAlgorithm<DoubleStreamAvg> {
 
     private long count = 0;
     private double avg = 0D; // our online mean estimate
@@ -16,6 +18,24 @@ public class DoubleStreamAvg implements IDoubleStreamAlgorithm {
         return delta;
     }
 
+    @Override
+    public void process(final double[] values, final int from, final int to) {
+        final int blockCount = to - from;
+        if (blockCount <= 0) {
+            return;
+        }
+        final double blockAvg = DoubleStreamSum.sum(values, from, to) / blockCount;
+        merge(blockCount, blockAvg);
+    }
+
+    /**
+     * Combines the avg of another block of values into this one.
+     */
+    void merge(final long blockCount, final double blockAvg) {
+        count += blockCount;
+        avg += (blockAvg - avg) * blockCount / count;
+    }
+
     public double getAvg() {
         return avg;
     }
@@ -24,4 +44,11 @@ public class DoubleStreamAvg implements IDoubleStreamAlgorithm {
         return count;
     }
 
+    @Override
+    public void merge(final DoubleStreamAvg other) {
+        if (other.count > 0) {
+            merge(other.count, other.avg);
+        }
+    }
+
 }
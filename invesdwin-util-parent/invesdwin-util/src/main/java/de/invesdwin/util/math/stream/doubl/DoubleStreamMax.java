@@ -3,9 +3,10 @@ package de.invesdwin.util.math.stream.doubl;
 import javax.annotation.concurrent.NotThreadSafe;
 
 import de.invesdwin.util.math.Doubles;
+import de.invesdwin.util.math.stream.IMergeableStreamAlgorithm;
 
 @NotThreadSafe
-public class DoubleStreamMax implements IDoubleStreamAlgorithm {
+public class DoubleStreamMax implements IDoubleStreamAlgorithm, IMergeableStreamAlgorithm<DoubleStreamMax> {
 
     private double max = Double.MIN_VALUE;
 
@@ -15,6 +16,25 @@ public class DoubleStreamMax implements IDoubleStreamAlgorithm {
         return max;
     }
 
+    /**
+     * Uses two lanes so that the comparisons do not depend on each other.
+     */
+    @Override
+    public void process(final double[] values, final int from, final int to) {
+        double max0 = max;
+        double max1 = max;
+        int i = from;
+        final int lanesTo = to - (to - from) % 2;
+        for (; i < lanesTo; i += 2) {
+            max0 = Doubles.max(max0, values[i]);
+            max1 = Doubles.max(max1, values[i + 1]);
+        }
+        for (; i < to; i++) {
+            max0 = Doubles.max(max0, values[i]);
+        }
+        max = Doubles.max(max0, max1);
+    }
+
     public double getMax() {
         if (max == Double.MIN_VALUE) {
             return Double.NaN;
@@ -23,4 +43,9 @@ public class DoubleStreamMax implements IDoubleStreamAlgorithm {
         }
     }
 
+    @Override
+    public void merge(final DoubleStreamMax other) {
+        max = Doubles.max(max, other.max);
+    }
+
 }
@@ -3,9 +3,10 @@ package de.invesdwin.util.math.stream.doubl;
 import javax.annotation.concurrent.NotThreadSafe;
 
 import de.invesdwin.util.math.Doubles;
+import de.invesdwin.util.math.stream.IMergeableStreamAlgorithm;
 
 @NotThreadSafe
-public class DoubleStreamMin implements IDoubleStreamAlgorithm {
+public class DoubleStreamMin implements IDoubleStreamAlgorithm, IMergeableStreamAlgorithm<DoubleStreamMin> {
 
     private double min = Double.MAX_VALUE;
 
@@ -15,6 +16,25 @@ public class DoubleStreamMin implements IDoubleStreamAlgorithm {
         return min;
     }
 
+    /**
+     * Uses two lanes so that the comparisons do not depend on each other.
+     */
+    @Override
+    public void process(final double[] values, final int from, final int to) {
+        double min0 = min;
+        double min1 = min;
+        int i = from;
+        final int lanesTo = to - (to - from) % 2;
+        for (; i < lanesTo; i += 2) {
+            min0 = Doubles.min(min0, values[i]);
+            min1 = Doubles.min(min1, values[i + 1]);
+        }
+        for (; i < to; i++) {
+            min0 = Doubles.min(min0, values[i]);
+        }
+        min = Doubles.min(min0, min1);
+    }
+
     public double getMin() {
         if (min == Double.MAX_VALUE) {
             return Double.NaN;
@@ -23,4 +43,9 @@ public class DoubleStreamMin implements IDoubleStreamAlgorithm {
         }
     }
 
+    @Override
+    public void merge(final DoubleStreamMin other) {
+        min = Doubles.min(min, other.min);
+    }
+
 }
@@ -2,8 +2,10 @@ package de.invesdwin.util.math.stream.doubl;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
+import de.invesdwin.util.math.stream.IMergeableStreamAlgorithm;
+
 @NotThreadSafe
-public class DoubleStreamMinMax implements IDoubleStreamAlgorithm {
+public class DoubleStreamMinMax implements IDoubleStreamAlgorithm, IMergeableStreamAlgorithm<DoubleStreamMinMax> {
 
     private final DoubleStreamMin minDelegate = new DoubleStreamMin();
     private final DoubleStreamMax maxDelegate = new DoubleStreamMax();
@@ -15,6 +17,12 @@ public class DoubleStreamMinMax implements IDoubleStreamAlgorithm {
         return Double.NaN;
     }
 
+    @Override
+    public void process(final double[] values, final int from, final int to) {
+        minDelegate.process(values, from, to);
+        maxDelegate.process(values, from, to);
+    }
+
     public double getMin() {
         return minDelegate.getMin();
     }
@@ -23,4 +31,10 @@ public class DoubleStreamMinMax implements IDoubleStreamAlgorithm {
         return maxDelegate.getMax();
     }
 
+    @Override
+    public void merge(final DoubleStreamMinMax other) {
+        minDelegate.merge(other.minDelegate);
+        maxDelegate.merge(other.maxDelegate);
+    }
+
 }
@@ -2,8 +2,11 @@ package de.invesdwin.util.math.stream.doubl;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
+import de.invesdwin.util.math.stream.IMergeableStreamAlgorithm;
+
 @NotThreadSafe
-public class DoubleStreamStandardDeviation implements IDoubleStreamAlgorithm {
+public class DoubleStreamStandardDeviation
+        implements IDoubleStreamAlgorithm, IMergeableStreamAlgorithm<DoubleStreamStandardDeviation> {
 
     private final DoubleStreamVariance variance = new DoubleStreamVariance();
 
@@ -47,4 +50,14 @@ public class DoubleStreamStandardDeviation implements IDoubleStreamAlgorithm {
         return Double.NaN;
     }
 
+    @Override
+    public void process(final double[] values, final int from, final int to) {
+        variance.process(values, from, to);
+    }
+
+    @Override
+    public void merge(final DoubleStreamStandardDeviation other) {
+        variance.merge(other.variance);
+    }
+
 }
@@ -2,19 +2,92 @@ package de.invesdwin.util.math.stream.doubl;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
+import de.invesdwin.util.math.stream.IMergeableStreamAlgorithm;
+
+/**
+ * Uses Kahan summation to compensate for floating point errors that otherwise accumulate over long series.
+ */
 @NotThreadSafe
-public class DoubleStreamSum implements IDoubleStreamAlgorithm {
+public class DoubleStreamSum implements IDoubleStreamAlgorithm, IMergeableStreamAlgorithm<DoubleStreamSum> {
+
+    /**
+     * independent accumulators break the dependency chain between additions so that the cpu can pipeline them
+     */
+    private static final int LANES = 4;
 
     private double sum = 0;
+    private double compensation = 0;
 
     @Override
     public double process(final double value) {
-        sum += value;
+        final double y = value - compensation;
+        final double t = sum + y;
+        compensation = (t - sum) - y;
+        sum = t;
         return sum;
     }
 
+    @Override
+    public void process(final double[] values, final int from, final int to) {
+        process(sum(values, from, to));
+    }
+
     public double getSum() {
         return sum;
     }
 
+    /**
+     * Kahan summation over values[from] to values[to - 1] with multiple lanes.
+     */
+    public static double sum(final double[] values, final int from, final int to) {
+        double sum0 = 0D;
+        double sum1 = 0D;
+        double sum2 = 0D;
+        double sum3 = 0D;
+        double c0 = 0D;
+        double c1 = 0D;
+        double c2 = 0D;
+        double c3 = 0D;
+        int i = from;
+        final int lanesTo = to - (to - from) % LANES;
+        for (; i < lanesTo; i += LANES) {
+            final double y0 = values[i] - c0;
+            final double y1 = values[i + 1] - c1;
+            final double y2 = values[i + 2] - c2;
+            final double y3 = values[i + 3] - c3;
+            final double t0 = sum0 + y0;
+            final double t1 = sum1 + y1;
+            final double t2 = sum2 + y2;
+            final double t3 = sum3 + y3;
+            c0 = (t0 - sum0) - y0;
+            c1 = (t1 - sum1) - y1;
+            c2 = (t2 - sum2) - y2;
+            c3 = (t3 - sum3) - y3;
+            sum0 = t0;
+            sum1 = t1;
+            sum2 = t2;
+            sum3 = t3;
+        }
+        for (; i < to; i++) {
+            final double y0 = values[i] - c0;
+            final double t0 = sum0 + y0;
+            c0 = (t0 - sum0) - y0;
+            sum0 = t0;
+        }
+        //combine the lanes including their compensations
+        final DoubleStreamSum combined = new DoubleStreamSum();
+        combined.process(sum0);
+        combined.process(sum1);
+        combined.process(sum2);
+        combined.process(sum3);
+        combined.process(-(c0 + c1 + c2 + c3));
+        return combined.getSum();
+    }
+
+    @Override
+    public void merge(final DoubleStreamSum other) {
+        process(other.sum);
+        process(-other.compensation);
+    }
+
 }
@@ -2,8 +2,12 @@ package de.invesdwin.util.math.stream.doubl;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
+import de.invesdwin.util.math.stream.IMergeableStreamAlgorithm;
+
 @NotThreadSafe
-public class DoubleStreamVariance implements IDoubleStreamAlgorithm {
+public class DoubleStreamVariance implements IDoubleStreamAlgorithm, IMergeableStreamAlgorithm<DoubleStreamVariance> {
+
+    private static final int LANES = 4;
 
     private double squareSum = 0.0;
     private final DoubleStreamAvg avg = new DoubleStreamAvg();
@@ -48,4 +52,60 @@ public class DoubleStreamVariance implements IDoubleStreamAlgorithm {
         return Double.NaN;
     }
 
+    /**
+     * Calculates avg and squared deviations of the block in two passes and combines them with the current state (Chan
+     * et al.), which is numerically as stable as Welford.
+     */
+    @Override
+    public void process(final double[] values, final int from, final int to) {
+        final int blockCount = to - from;
+        if (blockCount <= 0) {
+            return;
+        }
+        final double blockAvg = DoubleStreamSum.sum(values, from, to) / blockCount;
+        final double blockSquareSum = squareSum(values, from, to, blockAvg);
+        merge(blockCount, blockAvg, blockSquareSum);
+    }
+
+    private void merge(final long otherCount, final double otherAvg, final double otherSquareSum) {
+        final long prevCount = avg.getCount();
+        final double delta = otherAvg - avg.getAvg();
+        avg.merge(otherCount, otherAvg);
+        squareSum += otherSquareSum + delta * delta * prevCount * otherCount / (prevCount + otherCount);
+    }
+
+    private static double squareSum(final double[] values, final int from, final int to, final double avg) {
+        double sum0 = 0D;
+        double sum1 = 0D;
+        double sum2 = 0D;
+        double sum3 = 0D;
+        int i = from;
+        final int lanesTo = to - (to - from) % LANES;
+        for (; i < lanesTo; i += LANES) {
+            final double d0 = values[i] - avg;
+            final double d1 = values[i + 1] - avg;
+            final double d2 = values[i + 2] - avg;
+            final double d3 = values[i + 3] - avg;
+            sum0 += d0 * d0;
+            sum1 += d1 * d1;
+            sum2 += d2 * d2;
+            sum3 += d3 * d3;
+        }
+        for (; i < to; i++) {
+            final double d0 = values[i] - avg;
+            sum0 += d0 * d0;
+        }
+        return (sum0 + sum1) + (sum2 + sum3);
+    }
+
+    /**
+     * Parallel variance by Chan et al.
+     */
+    @Override
+    public void merge(final DoubleStreamVariance other) {
+        if (other.getCount() > 0) {
+            merge(other.getCount(), other.getAvg(), other.squareSum);
+        }
+    }
+
 }
@@ -4,4 +4,14 @@ public interface IDoubleStreamAlgorithm {
 
     double process(double value);
 
+    /**
+     * Processes values[from] to values[to - 1] in bulk. Implementations may override this to process whole columns
+     * faster than value by value, the results are then available via the getters of the algorithm.
+     */
+    default void process(final double[] values, final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            process(values[i]);
+        }
+    }
+
 }
@@ -0,0 +1,42 @@
+package de.invesdwin.util.math.stream.doubl.rolling;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.math.stream.doubl.IDoubleStreamAlgorithm;
+
+/**
+ * Avg over the last windowSize values in O(1) per value.
+ */
+@NotThreadSafe
+public class DoubleStreamRollingAvg implements IDoubleStreamAlgorithm {
+
+    private final DoubleStreamRollingSum sum;
+
+    public DoubleStreamRollingAvg(final int windowSize) {
+        this.sum = new DoubleStreamRollingSum(windowSize);
+    }
+
+    @Override
+    public double process(final double value) {
+        sum.process(value);
+        return getAvg();
+    }
+
+    public double getAvg() {
+        final int count = sum.getCount();
+        if (count == 0) {
+            return Double.NaN;
+        } else {
+            return sum.getSum() / count;
+        }
+    }
+
+    public int getCount() {
+        return sum.getCount();
+    }
+
+    public int getWindowSize() {
+        return sum.getWindowSize();
+    }
+
+}
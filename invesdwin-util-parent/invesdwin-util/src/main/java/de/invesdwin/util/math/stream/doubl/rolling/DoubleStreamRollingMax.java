@@ -0,0 +1,33 @@
+package de.invesdwin.util.math.stream.doubl.rolling;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.math.stream.doubl.IDoubleStreamAlgorithm;
+
+/**
+ * Max of the last windowSize values in O(1) amortized per value via a monotonic deque.
+ */
+@NotThreadSafe
+public class DoubleStreamRollingMax implements IDoubleStreamAlgorithm {
+
+    private final MonotonicWindowDeque deque;
+
+    public DoubleStreamRollingMax(final int windowSize) {
+        this.deque = new MonotonicWindowDeque(windowSize, true);
+    }
+
+    @Override
+    public double process(final double value) {
+        deque.add(value);
+        return deque.get();
+    }
+
+    public double getMax() {
+        return deque.get();
+    }
+
+    public int getWindowSize() {
+        return deque.getWindowSize();
+    }
+
+}
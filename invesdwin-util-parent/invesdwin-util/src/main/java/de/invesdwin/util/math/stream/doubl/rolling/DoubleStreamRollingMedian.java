@@ -0,0 +1,105 @@
+package de.invesdwin.util.math.stream.doubl.rolling;
+
+import java.util.Arrays;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.math.decimal.scaled.Percent;
+import de.invesdwin.util.math.decimal.scaled.PercentScale;
+import de.invesdwin.util.math.stream.doubl.IDoubleStreamAlgorithm;
+
+/**
+ * Median and percentiles of the last windowSize values. Keeps a sorted copy of the window in a primitive array where
+ * the evicted value is replaced by binary search and a shift of the values in between. This is O(windowSize) per value
+ * in the worst case but does not allocate and is just a memory move, which makes it faster than tree based approaches
+ * like RunningMedian for usual indicator window sizes. Median and percentile are calculated like in RunningMedian.
+ */
+@NotThreadSafe
+public class DoubleStreamRollingMedian implements IDoubleStreamAlgorithm {
+
+    private final RollingWindow window;
+    private final double[] sorted;
+
+    public DoubleStreamRollingMedian(final int windowSize) {
+        this.window = new RollingWindow(windowSize);
+        this.sorted = new double[windowSize];
+    }
+
+    @Override
+    public double process(final double value) {
+        final int size = window.size();
+        if (window.isFull()) {
+            final double evicted = window.add(value);
+            replace(size, evicted, value);
+        } else {
+            window.add(value);
+            insert(size, value);
+        }
+        return getMedian();
+    }
+
+    private void insert(final int size, final double value) {
+        final int index = insertionIndex(0, size, value);
+        System.arraycopy(sorted, index, sorted, index + 1, size - index);
+        sorted[index] = value;
+    }
+
+    private void replace(final int size, final double evicted, final double value) {
+        //the evicted value is always contained, binarySearch orders NaN as largest value just like insert does
+        final int index = Arrays.binarySearch(sorted, 0, size, evicted);
+        //shift the values between the evicted and the new position into the gap
+        if (Double.compare(value, evicted) > 0) {
+            final int insertionIndex = insertionIndex(index + 1, size, value) - 1;
+            System.arraycopy(sorted, index + 1, sorted, index, insertionIndex - index);
+            sorted[insertionIndex] = value;
+        } else {
+            final int insertionIndex = insertionIndex(0, index, value);
+            System.arraycopy(sorted, insertionIndex, sorted, insertionIndex + 1, index - insertionIndex);
+            sorted[insertionIndex] = value;
+        }
+    }
+
+    private int insertionIndex(final int from, final int to, final double value) {
+        final int index = Arrays.binarySearch(sorted, from, to, value);
+        if (index < 0) {
+            return -index - 1;
+        } else {
+            return index;
+        }
+    }
+
+    public double getMedian() {
+        final int size = window.size();
+        if (size == 0) {
+            return Double.NaN;
+        }
+        final int middle = size / 2;
+        if (size % 2 == 0) {
+            return (sorted[middle] + sorted[middle - 1]) / 2D;
+        } else {
+            return sorted[middle];
+        }
+    }
+
+    public double getPercentile(final Percent percentile) {
+        return getPercentile(percentile.getValue(PercentScale.RATE));
+    }
+
+    public double getPercentile(final double percentileRate) {
+        final int size = window.size();
+        if (size == 0) {
+            return Double.NaN;
+        }
+        final int percentileIndex = (int) Math.ceil(size * percentileRate);
+        return sorted[Math.max(0, Math.min(size, percentileIndex) - 1)];
+    }
+
+    public int getCount() {
+        return window.size();
+    }
+
+    public int getWindowSize() {
+        return window.getWindowSize();
+    }
+
+}
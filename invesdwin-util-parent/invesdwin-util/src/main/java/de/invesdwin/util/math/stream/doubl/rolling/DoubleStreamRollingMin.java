@@ -0,0 +1,33 @@
+package de.invesdwin.util.math.stream.doubl.rolling;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.math.stream.doubl.IDoubleStreamAlgorithm;
+
+/**
+ * Min of the last windowSize values in O(1) amortized per value via a monotonic deque.
+ */
+@NotThreadSafe
+public class DoubleStreamRollingMin implements IDoubleStreamAlgorithm {
+
+    private final MonotonicWindowDeque deque;
+
+    public DoubleStreamRollingMin(final int windowSize) {
+        this.deque = new MonotonicWindowDeque(windowSize, false);
+    }
+
+    @Override
+    public double process(final double value) {
+        deque.add(value);
+        return deque.get();
+    }
+
+    public double getMin() {
+        return deque.get();
+    }
+
+    public int getWindowSize() {
+        return deque.getWindowSize();
+    }
+
+}
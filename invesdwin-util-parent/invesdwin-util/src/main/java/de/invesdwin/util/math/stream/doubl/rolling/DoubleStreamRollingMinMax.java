@@ -0,0 +1,37 @@
+package de.invesdwin.util.math.stream.doubl.rolling;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.math.stream.doubl.IDoubleStreamAlgorithm;
+
+@NotThreadSafe
+public class DoubleStreamRollingMinMax implements IDoubleStreamAlgorithm {
+
+    private final DoubleStreamRollingMin minDelegate;
+    private final DoubleStreamRollingMax maxDelegate;
+
+    public DoubleStreamRollingMinMax(final int windowSize) {
+        this.minDelegate = new DoubleStreamRollingMin(windowSize);
+        this.maxDelegate = new DoubleStreamRollingMax(windowSize);
+    }
+
+    @Override
+    public double process(final double value) {
+        minDelegate.process(value);
+        maxDelegate.process(value);
+        return Double.NaN;
+    }
+
+    public double getMin() {
+        return minDelegate.getMin();
+    }
+
+    public double getMax() {
+        return maxDelegate.getMax();
+    }
+
+    public int getWindowSize() {
+        return minDelegate.getWindowSize();
+    }
+
+}
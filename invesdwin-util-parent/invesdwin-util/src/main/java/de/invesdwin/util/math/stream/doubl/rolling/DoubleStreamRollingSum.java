@@ -0,0 +1,68 @@
+package de.invesdwin.util.math.stream.doubl.rolling;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.math.stream.doubl.IDoubleStreamAlgorithm;
+
+/**
+ * Sum over the last windowSize values in O(1) per value. Rounding errors from adding and removing values are
+ * compensated (Kahan) and the sum gets recalculated from the window once per windowSize updates, thus it stays
+ * accurate over arbitrarily long series.
+ */
+@NotThreadSafe
+public class DoubleStreamRollingSum implements IDoubleStreamAlgorithm {
+
+    private final RollingWindow window;
+    private double sum = 0D;
+    private double compensation = 0D;
+    private int updatesUntilRecalculation;
+
+    public DoubleStreamRollingSum(final int windowSize) {
+        this.window = new RollingWindow(windowSize);
+        this.updatesUntilRecalculation = windowSize;
+    }
+
+    @Override
+    public double process(final double value) {
+        final boolean evicting = window.isFull();
+        final double evicted = window.add(value);
+        if (evicting) {
+            if (--updatesUntilRecalculation <= 0) {
+                recalculate();
+                return sum;
+            }
+            add(-evicted);
+        }
+        add(value);
+        return sum;
+    }
+
+    private void add(final double value) {
+        final double y = value - compensation;
+        final double t = sum + y;
+        compensation = (t - sum) - y;
+        sum = t;
+    }
+
+    private void recalculate() {
+        sum = 0D;
+        compensation = 0D;
+        for (int i = 0; i < window.size(); i++) {
+            add(window.get(i));
+        }
+        updatesUntilRecalculation = window.getWindowSize();
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    public int getCount() {
+        return window.size();
+    }
+
+    public int getWindowSize() {
+        return window.getWindowSize();
+    }
+
+}
@@ -0,0 +1,103 @@
+package de.invesdwin.util.math.stream.doubl.rolling;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.math.stream.doubl.IDoubleStreamAlgorithm;
+
+/**
+ * Variance over the last windowSize values in O(1) per value by using Welford's update for adding a value and its
+ * inverse for removing one. The state gets recalculated from the window once per windowSize updates to prevent the
+ * rounding errors from accumulating.
+ */
+@NotThreadSafe
+public class DoubleStreamRollingVariance implements IDoubleStreamAlgorithm {
+
+    private final RollingWindow window;
+    private double avg = 0D;
+    private double squareSum = 0D;
+    private int updatesUntilRecalculation;
+
+    public DoubleStreamRollingVariance(final int windowSize) {
+        this.window = new RollingWindow(windowSize);
+        this.updatesUntilRecalculation = windowSize;
+    }
+
+    @Override
+    public double process(final double value) {
+        final boolean evicting = window.isFull();
+        final double evicted = window.add(value);
+        if (evicting) {
+            if (--updatesUntilRecalculation <= 0) {
+                recalculate();
+            } else {
+                //replace the evicted value in one step
+                final double prevAvg = avg;
+                avg += (value - evicted) / window.size();
+                squareSum += (value - evicted) * (value - avg + evicted - prevAvg);
+                if (squareSum < 0D) {
+                    squareSum = 0D;
+                }
+            }
+        } else {
+            final double delta = value - avg;
+            avg += delta / window.size();
+            squareSum += delta * (value - avg);
+        }
+        return getSampleVariance();
+    }
+
+    private void recalculate() {
+        final int size = window.size();
+        double sum = 0D;
+        for (int i = 0; i < size; i++) {
+            sum += window.get(i);
+        }
+        avg = sum / size;
+        squareSum = 0D;
+        for (int i = 0; i < size; i++) {
+            final double delta = window.get(i) - avg;
+            squareSum += delta * delta;
+        }
+        updatesUntilRecalculation = window.getWindowSize();
+    }
+
+    public double getSampleVariance() {
+        final int count = window.size();
+        if (count < 2) {
+            return 0D;
+        } else {
+            return squareSum / (count - 1); // sample variance N-1
+        }
+    }
+
+    /**
+     * Warning: normally one will use the sampleVariance since it is hard to come by a complete set of values
+     * representing the distribution of reality
+     */
+    @Deprecated
+    public double getVariance() {
+        final int count = window.size();
+        if (count < 2) {
+            return 0D;
+        } else {
+            return squareSum / count; // variance N
+        }
+    }
+
+    public double getSampleStandardDeviation() {
+        return Math.sqrt(getSampleVariance());
+    }
+
+    public double getAvg() {
+        return avg;
+    }
+
+    public int getCount() {
+        return window.size();
+    }
+
+    public int getWindowSize() {
+        return window.getWindowSize();
+    }
+
+}
@@ -0,0 +1,92 @@
+package de.invesdwin.util.math.stream.doubl.rolling;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.assertions.Assertions;
+
+/**
+ * Keeps the candidates for the minimum (or maximum) of the last windowSize values in a monotonic deque. Each value is
+ * added and removed at most once, thus updates are O(1) amortized. The deque is a ring buffer that does not allocate
+ * after construction. NaN values are skipped but still count towards the window.
+ */
+@NotThreadSafe
+class MonotonicWindowDeque {
+
+    private final int windowSize;
+    private final boolean maximum;
+    private final double[] values;
+    private final long[] positions;
+    private int head = 0;
+    private int size = 0;
+    private long position = 0;
+
+    MonotonicWindowDeque(final int windowSize, final boolean maximum) {
+        Assertions.assertThat(windowSize).isGreaterThanOrEqualTo(1);
+        this.windowSize = windowSize;
+        this.maximum = maximum;
+        this.values = new double[windowSize];
+        this.positions = new long[windowSize];
+    }
+
+    void add(final double value) {
+        position++;
+        if (size > 0 && positions[head] <= position - windowSize) {
+            removeFirst();
+        }
+        if (Double.isNaN(value)) {
+            return;
+        }
+        while (size > 0 && isDominatedBy(values[lastIndex()], value)) {
+            size--;
+        }
+        final int index = index(size);
+        values[index] = value;
+        positions[index] = position;
+        size++;
+    }
+
+    private boolean isDominatedBy(final double existing, final double value) {
+        if (maximum) {
+            return existing <= value;
+        } else {
+            return existing >= value;
+        }
+    }
+
+    private void removeFirst() {
+        head++;
+        if (head == values.length) {
+            head = 0;
+        }
+        size--;
+    }
+
+    private int lastIndex() {
+        return index(size - 1);
+    }
+
+    private int index(final int offset) {
+        final int index = head + offset;
+        if (index >= values.length) {
+            return index - values.length;
+        } else {
+            return index;
+        }
+    }
+
+    /**
+     * Returns NaN when the window only contains NaN values or is empty.
+     */
+    double get() {
+        if (size == 0) {
+            return Double.NaN;
+        } else {
+            return values[head];
+        }
+    }
+
+    int getWindowSize() {
+        return windowSize;
+    }
+
+}
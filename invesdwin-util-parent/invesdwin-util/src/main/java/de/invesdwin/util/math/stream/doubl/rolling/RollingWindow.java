@@ -0,0 +1,61 @@
+package de.invesdwin.util.math.stream.doubl.rolling;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.assertions.Assertions;
+
+/**
+ * Ring buffer of the last values, does not allocate after construction.
+ */
+@NotThreadSafe
+class RollingWindow {
+
+    private final double[] values;
+    private int nextIndex = 0;
+    private int size = 0;
+
+    RollingWindow(final int windowSize) {
+        Assertions.assertThat(windowSize).isGreaterThanOrEqualTo(1);
+        this.values = new double[windowSize];
+    }
+
+    /**
+     * Returns the value that got evicted, check isFull() before adding to know whether there is one.
+     */
+    double add(final double value) {
+        final double evicted = values[nextIndex];
+        values[nextIndex] = value;
+        nextIndex++;
+        if (nextIndex == values.length) {
+            nextIndex = 0;
+        }
+        if (size < values.length) {
+            size++;
+        }
+        return evicted;
+    }
+
+    boolean isFull() {
+        return size == values.length;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int getWindowSize() {
+        return values.length;
+    }
+
+    /**
+     * Index 0 is the oldest value.
+     */
+    double get(final int index) {
+        int i = nextIndex - size + index;
+        if (i < 0) {
+            i += values.length;
+        }
+        return values[i];
+    }
+
+}
@@ -0,0 +1,60 @@
+package de.invesdwin.util.math.stream.doubl.smoothing;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.math.stream.doubl.IDoubleStreamAlgorithm;
+
+/**
+ * Uniform cubic B-spline that uses the values as control points, evaluated at the knots:
+ * 
+ * smoothed(i) = (value(i-1) + 4 * value(i) + value(i+1)) / 6
+ * 
+ * Like IDecimalAggregateInterpolations.cubicBSpline(...) the endpoints are interpolated, thus the curve at the newest
+ * point always equals the newest value. The smoothed value of a point is only final when the next value is known, so
+ * process returns the smoothed value of the previous point (NaN for the first value). Updates in O(1) per value.
+ */
+@NotThreadSafe
+public class DoubleStreamCubicBSpline implements IDoubleStreamAlgorithm {
+
+    private static final double ONE_SIXTH = 1D / 6D;
+
+    private long count = 0;
+    private double prevPrevValue = Double.NaN;
+    private double prevValue = Double.NaN;
+    private double smoothed = Double.NaN;
+
+    @Override
+    public double process(final double value) {
+        count++;
+        if (count == 1) {
+            smoothed = Double.NaN;
+        } else if (count == 2) {
+            //interpolated start point
+            smoothed = prevValue;
+        } else {
+            smoothed = (prevPrevValue + 4D * prevValue + value) * ONE_SIXTH;
+        }
+        prevPrevValue = prevValue;
+        prevValue = value;
+        return smoothed;
+    }
+
+    /**
+     * The smoothed value of the previous point.
+     */
+    public double getSmoothed() {
+        return smoothed;
+    }
+
+    /**
+     * The interpolated end point, which is the newest value.
+     */
+    public double getEndPoint() {
+        return prevValue;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+}
@@ -0,0 +1,61 @@
+package de.invesdwin.util.math.stream.doubl.smoothing;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.math.stream.doubl.IDoubleStreamAlgorithm;
+
+/**
+ * Simple exponential smoothing: smoothed = smoothed + alpha * (value - smoothed)
+ * 
+ * Updates in O(1) per value, thus suitable to smooth live series on every bar.
+ */
+@NotThreadSafe
+public class DoubleStreamExponentialSmoothing implements IDoubleStreamAlgorithm {
+
+    private final double alpha;
+    private long count = 0;
+    private double smoothed = Double.NaN;
+
+    public DoubleStreamExponentialSmoothing(final double alpha) {
+        Assertions.assertThat(alpha).isGreaterThan(0D);
+        Assertions.assertThat(alpha).isLessThanOrEqualTo(1D);
+        this.alpha = alpha;
+    }
+
+    /**
+     * Uses the same alpha as an exponential moving average over the given period: alpha = 2 / (period + 1)
+     */
+    public static DoubleStreamExponentialSmoothing valueOfPeriod(final int period) {
+        return new DoubleStreamExponentialSmoothing(periodToAlpha(period));
+    }
+
+    public static double periodToAlpha(final int period) {
+        Assertions.assertThat(period).isGreaterThanOrEqualTo(1);
+        return 2D / (period + 1D);
+    }
+
+    @Override
+    public double process(final double value) {
+        count++;
+        if (count == 1) {
+            smoothed = value;
+        } else {
+            smoothed += alpha * (value - smoothed);
+        }
+        return smoothed;
+    }
+
+    public double getAlpha() {
+        return alpha;
+    }
+
+    public double getSmoothed() {
+        return smoothed;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+}
@@ -0,0 +1,79 @@
+package de.invesdwin.util.math.stream.doubl.smoothing;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.math.stream.doubl.IDoubleStreamAlgorithm;
+
+/**
+ * Double exponential smoothing (Holt's linear trend method). In contrast to simple exponential smoothing this does not
+ * lag behind a trending series.
+ * 
+ * level = alpha * value + (1 - alpha) * (level + trend)
+ * 
+ * trend = beta * (level - prevLevel) + (1 - beta) * trend
+ * 
+ * Updates in O(1) per value.
+ */
+@NotThreadSafe
+public class DoubleStreamHoltSmoothing implements IDoubleStreamAlgorithm {
+
+    private final double alpha;
+    private final double beta;
+    private long count = 0;
+    private double level = Double.NaN;
+    private double trend = 0D;
+
+    public DoubleStreamHoltSmoothing(final double alpha, final double beta) {
+        Assertions.assertThat(alpha).isGreaterThan(0D);
+        Assertions.assertThat(alpha).isLessThanOrEqualTo(1D);
+        Assertions.assertThat(beta).isGreaterThan(0D);
+        Assertions.assertThat(beta).isLessThanOrEqualTo(1D);
+        this.alpha = alpha;
+        this.beta = beta;
+    }
+
+    @Override
+    public double process(final double value) {
+        count++;
+        if (count == 1) {
+            level = value;
+        } else if (count == 2) {
+            trend = value - level;
+            level = value;
+        } else {
+            final double prevLevel = level;
+            level = alpha * value + (1D - alpha) * (level + trend);
+            trend = beta * (level - prevLevel) + (1D - beta) * trend;
+        }
+        return level;
+    }
+
+    public double getLevel() {
+        return level;
+    }
+
+    public double getTrend() {
+        return trend;
+    }
+
+    /**
+     * Extrapolates the current level and trend the given amount of steps into the future.
+     */
+    public double getForecast(final int steps) {
+        return level + steps * trend;
+    }
+
+    public double getAlpha() {
+        return alpha;
+    }
+
+    public double getBeta() {
+        return beta;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+}
@@ -0,0 +1,171 @@
+package de.invesdwin.util.math.stream.doubl.smoothing;
+
+import java.util.Arrays;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.math.stream.doubl.IDoubleStreamAlgorithm;
+
+/**
+ * Sliding window LOESS: a local linear regression over the last window values with tricube distance weights, evaluated
+ * at the newest point. Thus only values that are already known are used and old smoothed values never change.
+ * 
+ * Robustness iterations reweigh outliers with bisquare weights like the commons-math LoessInterpolator does for the
+ * whole series. Updates in O(window) per value (O(window log window) per robustness iteration).
+ */
+@NotThreadSafe
+public class DoubleStreamLoess implements IDoubleStreamAlgorithm {
+
+    public static final int DEFAULT_ROBUSTNESS_ITERATIONS = 0;
+    private static final double BISQUARE_RESIDUAL_MULTIPLIER = 6D;
+    private static final double MIN_DENOMINATOR = 1E-12D;
+
+    private final int window;
+    private final int robustnessIterations;
+    /**
+     * the window has uniform x spacing, thus the tricube weight only depends on the distance to the newest point
+     */
+    private final double[] distanceWeights;
+    private final double[] values;
+    private final double[] robustnessWeights;
+    private final double[] residuals;
+    private long count = 0;
+    private int nextIndex = 0;
+    private double smoothed = Double.NaN;
+    private double fittedSlope = 0D;
+
+    public DoubleStreamLoess(final int window) {
+        this(window, DEFAULT_ROBUSTNESS_ITERATIONS);
+    }
+
+    public DoubleStreamLoess(final int window, final int robustnessIterations) {
+        Assertions.assertThat(window).isGreaterThanOrEqualTo(2);
+        Assertions.assertThat(robustnessIterations).isGreaterThanOrEqualTo(0);
+        this.window = window;
+        this.robustnessIterations = robustnessIterations;
+        this.distanceWeights = new double[window];
+        for (int distance = 0; distance < window; distance++) {
+            distanceWeights[distance] = tricube((double) distance / window);
+        }
+        this.values = new double[window];
+        this.robustnessWeights = new double[window];
+        this.residuals = new double[window];
+    }
+
+    @Override
+    public double process(final double value) {
+        count++;
+        values[nextIndex] = value;
+        final int newestIndex = nextIndex;
+        nextIndex++;
+        if (nextIndex == window) {
+            nextIndex = 0;
+        }
+        final int size = (int) Math.min(count, window);
+        Arrays.fill(robustnessWeights, 0, size, 1D);
+        smoothed = fit(newestIndex, size);
+        for (int i = 0; i < robustnessIterations; i++) {
+            if (!updateRobustnessWeights(newestIndex, size)) {
+                break;
+            }
+            smoothed = fit(newestIndex, size);
+        }
+        return smoothed;
+    }
+
+    /**
+     * Weighted least squares with x = -distance, so that the intercept is the fitted value at the newest point.
+     */
+    private double fit(final int newestIndex, final int size) {
+        double sumWeights = 0D;
+        double sumWeightedX = 0D;
+        double sumWeightedXX = 0D;
+        double sumWeightedY = 0D;
+        double sumWeightedXY = 0D;
+        for (int distance = 0; distance < size; distance++) {
+            final int index = toIndex(newestIndex, distance);
+            final double weight = distanceWeights[distance] * robustnessWeights[distance];
+            final double x = -distance;
+            final double y = values[index];
+            sumWeights += weight;
+            sumWeightedX += weight * x;
+            sumWeightedXX += weight * x * x;
+            sumWeightedY += weight * y;
+            sumWeightedXY += weight * x * y;
+        }
+        //keep the slope for the residuals of the next robustness iteration
+        if (sumWeights == 0D) {
+            fittedSlope = 0D;
+            return values[newestIndex];
+        }
+        final double denominator = sumWeights * sumWeightedXX - sumWeightedX * sumWeightedX;
+        if (Math.abs(denominator) < MIN_DENOMINATOR) {
+            fittedSlope = 0D;
+            return sumWeightedY / sumWeights;
+        }
+        fittedSlope = (sumWeights * sumWeightedXY - sumWeightedX * sumWeightedY) / denominator;
+        return (sumWeightedY - fittedSlope * sumWeightedX) / sumWeights;
+    }
+
+    private boolean updateRobustnessWeights(final int newestIndex, final int size) {
+        for (int distance = 0; distance < size; distance++) {
+            final int index = toIndex(newestIndex, distance);
+            //x = -distance
+            final double fitted = smoothed - fittedSlope * distance;
+            residuals[distance] = Math.abs(values[index] - fitted);
+        }
+        final double[] sortedResiduals = Arrays.copyOf(residuals, size);
+        Arrays.sort(sortedResiduals);
+        final double medianResidual = sortedResiduals[size / 2];
+        if (medianResidual == 0D) {
+            return false;
+        }
+        final double maxResidual = BISQUARE_RESIDUAL_MULTIPLIER * medianResidual;
+        for (int distance = 0; distance < size; distance++) {
+            final double ratio = residuals[distance] / maxResidual;
+            if (ratio >= 1D) {
+                robustnessWeights[distance] = 0D;
+            } else {
+                final double w = 1D - ratio * ratio;
+                robustnessWeights[distance] = w * w;
+            }
+        }
+        return true;
+    }
+
+    private int toIndex(final int newestIndex, final int distance) {
+        final int index = newestIndex - distance;
+        if (index < 0) {
+            return index + window;
+        } else {
+            return index;
+        }
+    }
+
+    private static double tricube(final double x) {
+        final double absX = Math.abs(x);
+        if (absX >= 1D) {
+            return 0D;
+        }
+        final double tmp = 1D - absX * absX * absX;
+        return tmp * tmp * tmp;
+    }
+
+    public double getSmoothed() {
+        return smoothed;
+    }
+
+    public int getWindow() {
+        return window;
+    }
+
+    public int getRobustnessIterations() {
+        return robustnessIterations;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+}
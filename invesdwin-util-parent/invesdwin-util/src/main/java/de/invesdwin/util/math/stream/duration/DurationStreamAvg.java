@@ -2,12 +2,15 @@ package de.invesdwin.util.math.stream.duration;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.math.stream.IMergeableStreamAlgorithm;
 import de.invesdwin.util.math.stream.IStreamAlgorithm;
 import de.invesdwin.util.time.duration.Duration;
 import de.invesdwin.util.time.fdate.FTimeUnit;
 
 @NotThreadSafe
-public class DurationStreamAvg implements IStreamAlgorithm<Duration, Double> {
+public class DurationStreamAvg
+        implements IStreamAlgorithm<Duration, Double>, IMergeableStreamAlgorithm<DurationStreamAvg> {
 
     private final FTimeUnit precision;
     private long count = 0;
@@ -38,4 +41,13 @@ public class DurationStreamAvg implements IStreamAlgorithm<Duration, Double> {
         return count;
     }
 
+    @Override
+    public void merge(final DurationStreamAvg other) {
+        Assertions.checkEquals(precision, other.precision);
+        if (other.count > 0) {
+            count += other.count;
+            avg += (other.avg - avg) * other.count / count;
+        }
+    }
+
 }
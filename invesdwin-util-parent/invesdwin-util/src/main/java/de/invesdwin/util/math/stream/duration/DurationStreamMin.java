@@ -2,13 +2,16 @@ package de.invesdwin.util.math.stream.duration;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
+import de.invesdwin.util.assertions.Assertions;
 import de.invesdwin.util.math.Doubles;
+import de.invesdwin.util.math.stream.IMergeableStreamAlgorithm;
 import de.invesdwin.util.math.stream.IStreamAlgorithm;
 import de.invesdwin.util.time.duration.Duration;
 import de.invesdwin.util.time.fdate.FTimeUnit;
 
 @NotThreadSafe
-public class DurationStreamMin implements IStreamAlgorithm<Duration, Double> {
+public class DurationStreamMin
+        implements IStreamAlgorithm<Duration, Double>, IMergeableStreamAlgorithm<DurationStreamMin> {
 
     private final FTimeUnit precision;
     private double min = Double.MAX_VALUE; // our online mean estimate
@@ -36,4 +39,10 @@ public class DurationStreamMin implements IStreamAlgorithm<Duration, Double> {
         }
     }
 
+    @Override
+    public void merge(final DurationStreamMin other) {
+        Assertions.checkEquals(precision, other.precision);
+        min = Doubles.min(min, other.min);
+    }
+
 }
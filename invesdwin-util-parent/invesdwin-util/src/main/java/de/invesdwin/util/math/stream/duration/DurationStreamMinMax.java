@@ -2,11 +2,13 @@ package de.invesdwin.util.math.stream.duration;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
+import de.invesdwin.util.math.stream.IMergeableStreamAlgorithm;
 import de.invesdwin.util.math.stream.IStreamAlgorithm;
 import de.invesdwin.util.time.duration.Duration;
 
 @NotThreadSafe
-public class DurationStreamMinMax implements IStreamAlgorithm<Duration, Double> {
+public class DurationStreamMinMax
+        implements IStreamAlgorithm<Duration, Double>, IMergeableStreamAlgorithm<DurationStreamMinMax> {
 
     private final DurationStreamMin minDelegate = new DurationStreamMin();
     private final DurationStreamMax maxDelegate = new DurationStreamMax();
@@ -26,4 +28,10 @@ public class DurationStreamMinMax implements IStreamAlgorithm<Duration, Double>
         return maxDelegate.getMax();
     }
 
+    @Override
+    public void merge(final DurationStreamMinMax other) {
+        minDelegate.merge(other.minDelegate);
+        maxDelegate.merge(other.maxDelegate);
+    }
+
 }
@@ -2,10 +2,12 @@ package de.invesdwin.util.math.stream.number;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
+import de.invesdwin.util.math.stream.IMergeableStreamAlgorithm;
 import de.invesdwin.util.math.stream.IStreamAlgorithm;
 
 @NotThreadSafe
-public class NumberStreamAvg<E extends Number> implements IStreamAlgorithm<E, Double> {
+public class NumberStreamAvg<E extends Number>
+        implements IStreamAlgorithm<E, Double>, IMergeableStreamAlgorithm<NumberStreamAvg<E>> {
 
     private long count = 0;
     private double avg = 0D; // our online mean estimate
@@ -27,4 +29,12 @@ public class NumberStreamAvg<E extends Number> implements IStreamAlgorithm<E, Do
         return count;
     }
 
+    @Override
+    public void merge(final NumberStreamAvg<E> other) {
+        if (other.count > 0) {
+            count += other.count;
+            avg += (other.avg - avg) * other.count / count;
+        }
+    }
+
 }
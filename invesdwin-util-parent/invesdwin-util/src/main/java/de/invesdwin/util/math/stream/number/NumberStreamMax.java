@@ -3,10 +3,12 @@ package de.invesdwin.util.math.stream.number;
 import javax.annotation.concurrent.NotThreadSafe;
 
 import de.invesdwin.util.math.Doubles;
+import de.invesdwin.util.math.stream.IMergeableStreamAlgorithm;
 import de.invesdwin.util.math.stream.IStreamAlgorithm;
 
 @NotThreadSafe
-public class NumberStreamMax<E extends Number> implements IStreamAlgorithm<E, Double> {
+public class NumberStreamMax<E extends Number>
+        implements IStreamAlgorithm<E, Double>, IMergeableStreamAlgorithm<NumberStreamMax<E>> {
 
     private Double max;
 
@@ -20,4 +22,9 @@ public class NumberStreamMax<E extends Number> implements IStreamAlgorithm<E, Do
         return max;
     }
 
+    @Override
+    public void merge(final NumberStreamMax<E> other) {
+        max = Doubles.max(max, other.max);
+    }
+
 }
@@ -2,10 +2,12 @@ package de.invesdwin.util.math.stream.number;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
+import de.invesdwin.util.math.stream.IMergeableStreamAlgorithm;
 import de.invesdwin.util.math.stream.IStreamAlgorithm;
 
 @NotThreadSafe
-public class NumberStreamStandardDeviation<E extends Number> implements IStreamAlgorithm<E, Void> {
+public class NumberStreamStandardDeviation<E extends Number>
+        implements IStreamAlgorithm<E, Void>, IMergeableStreamAlgorithm<NumberStreamStandardDeviation<E>> {
 
     private final NumberStreamVariance<Double> variance = new NumberStreamVariance<>();
 
@@ -50,4 +52,9 @@ public class NumberStreamStandardDeviation<E extends Number> implements IStreamA
         return null;
     }
 
+    @Override
+    public void merge(final NumberStreamStandardDeviation<E> other) {
+        variance.merge(other.variance);
+    }
+
 }
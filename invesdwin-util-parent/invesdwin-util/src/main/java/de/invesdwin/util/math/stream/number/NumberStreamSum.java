@@ -2,10 +2,12 @@ package de.invesdwin.util.math.stream.number;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
+import de.invesdwin.util.math.stream.IMergeableStreamAlgorithm;
 import de.invesdwin.util.math.stream.IStreamAlgorithm;
 
 @NotThreadSafe
-public class NumberStreamSum<E extends Number> implements IStreamAlgorithm<E, Double> {
+public class NumberStreamSum<E extends Number>
+        implements IStreamAlgorithm<E, Double>, IMergeableStreamAlgorithm<NumberStreamSum<E>> {
 
     private double sum = 0;
 
@@ -21,4 +23,9 @@ public class NumberStreamSum<E extends Number> implements IStreamAlgorithm<E, Do
         return sum;
     }
 
+    @Override
+    public void merge(final NumberStreamSum<E> other) {
+        sum += other.sum;
+    }
+
 }
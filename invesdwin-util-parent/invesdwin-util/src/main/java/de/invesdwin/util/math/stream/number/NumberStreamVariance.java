@@ -2,10 +2,12 @@ package de.invesdwin.util.math.stream.number;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
+import de.invesdwin.util.math.stream.IMergeableStreamAlgorithm;
 import de.invesdwin.util.math.stream.IStreamAlgorithm;
 
 @NotThreadSafe
-public class NumberStreamVariance<E extends Number> implements IStreamAlgorithm<E, Void> {
+public class NumberStreamVariance<E extends Number>
+        implements IStreamAlgorithm<E, Void>, IMergeableStreamAlgorithm<NumberStreamVariance<E>> {
 
     private double squareSum = 0.0;
     private final NumberStreamAvg<Double> avg = new NumberStreamAvg<>();
@@ -51,4 +53,19 @@ public class NumberStreamVariance<E extends Number> implements IStreamAlgorithm<
         return null;
     }
 
+    /**
+     * Parallel variance by Chan et al.
+     */
+    @Override
+    public void merge(final NumberStreamVariance<E> other) {
+        final long otherCount = other.getCount();
+        if (otherCount == 0) {
+            return;
+        }
+        final long prevCount = avg.getCount();
+        final double delta = other.getAvg() - avg.getAvg();
+        avg.merge(other.avg);
+        squareSum += other.squareSum + delta * delta * prevCount * otherCount / (prevCount + otherCount);
+    }
+
 }
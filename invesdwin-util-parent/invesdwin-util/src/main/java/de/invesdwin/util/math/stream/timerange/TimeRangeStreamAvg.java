@@ -2,13 +2,15 @@ package de.invesdwin.util.math.stream.timerange;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
+import de.invesdwin.util.math.stream.IMergeableStreamAlgorithm;
 import de.invesdwin.util.math.stream.IStreamAlgorithm;
 import de.invesdwin.util.math.stream.doubl.DoubleStreamAvg;
 import de.invesdwin.util.time.fdate.FDate;
 import de.invesdwin.util.time.range.TimeRange;
 
 @NotThreadSafe
-public class TimeRangeStreamAvg<E extends TimeRange> implements IStreamAlgorithm<E, Void> {
+public class TimeRangeStreamAvg<E extends TimeRange>
+        implements IStreamAlgorithm<E, Void>, IMergeableStreamAlgorithm<TimeRangeStreamAvg<E>> {
 
     private final DoubleStreamAvg avgFrom = new DoubleStreamAvg();
     private final DoubleStreamAvg avgTo = new DoubleStreamAvg();
@@ -32,4 +34,10 @@ public class TimeRangeStreamAvg<E extends TimeRange> implements IStreamAlgorithm
         return avgFrom.getCount();
     }
 
+    @Override
+    public void merge(final TimeRangeStreamAvg<E> other) {
+        avgFrom.merge(other.avgFrom);
+        avgTo.merge(other.avgTo);
+    }
+
 }
@@ -16,7 +16,6 @@ import javax.persistence.Transient;
 
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
-import org.joda.time.DurationFieldType;
 import org.joda.time.LocalDateTime;
 import org.joda.time.MutableDateTime;
 import org.joda.time.ReadableDateTime;
@@ -286,13 +285,7 @@ public class FDate implements IDate, Serializable, Cloneable, Comparable<Object>
     }
 
     public FDate setFWeekTime(final FWeekTime weekTime) {
-        final MutableDateTime delegate = newMutableDateTime();
-        delegate.set(FDateField.Weekday.jodaTimeValue(), weekTime.getWeekday());
-        delegate.set(FDateField.Hour.jodaTimeValue(), weekTime.getHour());
-        delegate.set(FDateField.Minute.jodaTimeValue(), weekTime.getMinute());
-        delegate.set(FDateField.Second.jodaTimeValue(), weekTime.getSecond());
-        delegate.set(FDateField.Millisecond.jodaTimeValue(), weekTime.getMillisecond());
-        final FDate modified = new FDate(delegate);
+        final FDate modified = new FDate(FDates.getDefaultCalendar().set(millis, weekTime));
         if (!FDates.isSameJulianDay(modified, this) && modified.isAfter(this)) {
             return modified.addWeeks(-1);
         } else {
@@ -387,8 +380,7 @@ public class FDate implements IDate, Serializable, Cloneable, Comparable<Object>
     }
 
     public int get(final FDateField field) {
-        final MutableDateTime delegate = newMutableDateTime();
-        return delegate.get(field.jodaTimeValue());
+        return FDates.getDefaultCalendar().get(millis, field);
     }
 
     public FDate set(final FDateField field, final int value, final ZoneId timeZone) {
@@ -396,9 +388,7 @@ public class FDate implements IDate, Serializable, Cloneable, Comparable<Object>
     }
 
     public FDate set(final FDateField field, final int value) {
-        final MutableDateTime delegate = newMutableDateTime();
-        delegate.set(field.jodaTimeValue(), value);
-        return new FDate(delegate);
+        return new FDate(FDates.getDefaultCalendar().set(millis, field, value));
     }
 
     public FDate add(final FTimeUnit field, final int value, final ZoneId timeZone) {
@@ -409,29 +399,7 @@ public class FDate implements IDate, Serializable, Cloneable, Comparable<Object>
         if (amount == 0) {
             return this;
         }
-        final MutableDateTime delegate = newMutableDateTime();
-        final int usedAmount;
-        final DurationFieldType usedField;
-        switch (field) {
-        case MILLENIA:
-            usedField = FTimeUnit.YEARS.jodaTimeValue();
-            usedAmount = amount * FTimeUnit.YEARS_IN_MILLENIUM;
-            break;
-        case CENTURIES:
-            usedField = FTimeUnit.YEARS.jodaTimeValue();
-            usedAmount = amount * FTimeUnit.YEARS_IN_CENTURY;
-            break;
-        case DECADES:
-            usedField = FTimeUnit.YEARS.jodaTimeValue();
-            usedAmount = amount * FTimeUnit.YEARS_IN_DECADE;
-            break;
-        default:
-            usedField = field.jodaTimeValue();
-            usedAmount = amount;
-            break;
-        }
-        delegate.add(usedField, usedAmount);
-        return new FDate(delegate);
+        return new FDate(FDates.getDefaultCalendar().add(millis, field, amount));
     }
 
     public FDate add(final Duration duration) {
@@ -447,8 +415,7 @@ public class FDate implements IDate, Serializable, Cloneable, Comparable<Object>
     }
 
     public int getWeekNumberOfYear() {
-        final MutableDateTime delegate = newMutableDateTime();
-        return delegate.getWeekOfWeekyear();
+        return FDates.getDefaultCalendar().getWeekNumberOfYear(millis);
     }
 
     public int getWeekNumberOfMonth(final ZoneId timeZone) {
@@ -467,10 +434,7 @@ public class FDate implements IDate, Serializable, Cloneable, Comparable<Object>
     }
 
     public FDate truncate(final FDateField field) {
-        final MutableDateTime delegate = newMutableDateTime();
-        delegate.setRounding(field.jodaTimeValue().getField(delegate.getChronology()));
-        final FDate truncated = new FDate(delegate);
-        return truncated;
+        return new FDate(FDates.getDefaultCalendar().truncate(millis, field));
     }
 
     public FDate truncate(final FTimeUnit timeUnit, final ZoneId timeZone) {
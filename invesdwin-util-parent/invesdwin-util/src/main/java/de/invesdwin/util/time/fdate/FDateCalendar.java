@@ -0,0 +1,594 @@
+package de.invesdwin.util.time.fdate;
+
+import java.util.Arrays;
+
+import javax.annotation.concurrent.Immutable;
+
+import org.joda.time.Chronology;
+import org.joda.time.DateTimeZone;
+import org.joda.time.MutableDateTime;
+import org.joda.time.chrono.ISOChronology;
+
+import de.invesdwin.util.error.UnknownArgumentException;
+
+/**
+ * Calendar field arithmetic on epoch millis for the ISO chronology of a time zone. This gives the same results as a
+ * joda MutableDateTime, but works directly on the millis with proleptic gregorian day algorithms (see
+ * http://howardhinnant.github.io/date_algorithms.html) so that no objects are allocated.
+ *
+ * For UTC and fixed offset zones the offset is a constant. For zones with daylight saving time the offset of an instant
+ * is looked up in the zone (which caches it per period), while the transitions that are needed to convert a local time
+ * back to UTC are cached in a table here, since joda computes them again on each call. The conversion follows the same
+ * rules as joda does for gaps and overlaps. Everything that is out of the supported range or that joda would reject
+ * (e.g. an invalid field value) is delegated to a MutableDateTime, so exceptions stay the same as well.
+ */
+@Immutable
+public final class FDateCalendar {
+
+    private static final long MILLISECONDS_IN_DAY = FTimeUnit.MILLISECONDS_IN_DAY;
+    private static final int MAX_YEAR = 100000;
+    /**
+     * A bit less than MAX_YEAR so that offsets and month lengths can be added without leaving the supported range.
+     */
+    private static final long MAX_MILLIS = (MAX_YEAR - 1L) * FTimeUnit.DAYS_IN_YEAR * MILLISECONDS_IN_DAY;
+    private static final int DAYS_IN_400_YEARS = 146097;
+    /**
+     * Eras of 400 years that are added so that the day algorithms only work on positive int values.
+     */
+    private static final int ERA_SHIFT = 256;
+    /**
+     * The transitions are cached until this year, later dates use the zone directly.
+     */
+    private static final int MAX_TRANSITION_YEAR = 2200;
+    /**
+     * Days from 0000-03-01 until 1970-01-01.
+     */
+    private static final int DAYS_FROM_EPOCH_SHIFT = 719468;
+    /**
+     * 1970-01-01 was a thursday.
+     */
+    private static final int EPOCH_WEEKDAY_SHIFT = 3;
+    private static final int FEBRUARY = 2;
+    private static final int MONTH_SHIFT = 5;
+    private static final int YEAR_SHIFT = 9;
+    private static final int DAY_MASK = (1 << MONTH_SHIFT) - 1;
+    private static final int MONTH_MASK = (1 << (YEAR_SHIFT - MONTH_SHIFT)) - 1;
+
+    private final DateTimeZone zone;
+    private final Chronology chronology;
+    private final boolean fixed;
+    private final int fixedOffset;
+    private final long maxTransitionMillis;
+    private final long[] transitions;
+    private final int[] offsetsBeforeTransitions;
+
+    public FDateCalendar(final DateTimeZone zone) {
+        this.zone = zone;
+        this.chronology = ISOChronology.getInstance(zone);
+        this.fixed = zone.isFixed();
+        if (fixed) {
+            this.fixedOffset = zone.getOffset(0L);
+            this.maxTransitionMillis = Long.MIN_VALUE;
+            this.transitions = new long[0];
+            this.offsetsBeforeTransitions = new int[0];
+        } else {
+            this.fixedOffset = 0;
+            this.maxTransitionMillis = daysFromCivil(MAX_TRANSITION_YEAR, 1, 1) * MILLISECONDS_IN_DAY;
+            long[] transitionsBuffer = new long[FTimeUnit.MONTHS_IN_YEAR];
+            int[] offsetsBuffer = new int[transitionsBuffer.length];
+            int count = 0;
+            long instant = -MAX_MILLIS;
+            while (true) {
+                final long transition = zone.nextTransition(instant);
+                if (transition <= instant || transition >= maxTransitionMillis) {
+                    break;
+                }
+                if (count == transitionsBuffer.length) {
+                    transitionsBuffer = Arrays.copyOf(transitionsBuffer, count * 2);
+                    offsetsBuffer = Arrays.copyOf(offsetsBuffer, count * 2);
+                }
+                transitionsBuffer[count] = transition;
+                offsetsBuffer[count] = zone.getOffset(transition - 1);
+                count++;
+                instant = transition;
+            }
+            this.transitions = Arrays.copyOf(transitionsBuffer, count);
+            this.offsetsBeforeTransitions = Arrays.copyOf(offsetsBuffer, count);
+        }
+    }
+
+    public DateTimeZone getZone() {
+        return zone;
+    }
+
+    /**
+     * For fixed zones the local time is unique for each instant, thus period indexes give the same answer as comparing
+     * truncated instants.
+     */
+    public boolean isFixed() {
+        return fixed;
+    }
+
+    public int get(final long millis, final FDateField field) {
+        if (!isSupported(millis)) {
+            return newMutableDateTime(millis).get(field.jodaTimeValue());
+        }
+        return getLocal(toLocal(millis), field);
+    }
+
+    public int getWeekNumberOfYear(final long millis) {
+        if (!isSupported(millis)) {
+            return newMutableDateTime(millis).getWeekOfWeekyear();
+        }
+        final long days = Math.floorDiv(toLocal(millis), MILLISECONDS_IN_DAY);
+        //the week belongs to the year of its thursday
+        final long thursday = days - getWeekday(days) + 4;
+        final int year = getYear(civilFromDays(thursday));
+        return (int) ((thursday - daysFromCivil(year, 1, 1)) / FTimeUnit.DAYS_IN_WEEK) + 1;
+    }
+
+    public long set(final long millis, final FDateField field, final int value) {
+        if (!isSupported(millis)) {
+            return setJoda(millis, field, value);
+        }
+        final long local = toLocal(millis);
+        final long days = Math.floorDiv(local, MILLISECONDS_IN_DAY);
+        final long newLocal;
+        switch (field) {
+        case Year:
+            if (value <= -MAX_YEAR || value >= MAX_YEAR) {
+                return setJoda(millis, field, value);
+            }
+            newLocal = setYear(local, value);
+            break;
+        case Month:
+            if (value < 1 || value > FTimeUnit.MONTHS_IN_YEAR) {
+                return setJoda(millis, field, value);
+            }
+            final int civil = civilFromDays(days);
+            final int year = getYear(civil);
+            final int day = Math.min(getDay(civil), getDaysInMonth(year, value));
+            newLocal = local + (daysFromCivil(year, value, day) - days) * MILLISECONDS_IN_DAY;
+            break;
+        case Day:
+            final int dayCivil = civilFromDays(days);
+            if (value < 1 || value > getDaysInMonth(getYear(dayCivil), getMonth(dayCivil))) {
+                return setJoda(millis, field, value);
+            }
+            newLocal = local + (value - getDay(dayCivil)) * MILLISECONDS_IN_DAY;
+            break;
+        case Weekday:
+            if (value < 1 || value > FTimeUnit.DAYS_IN_WEEK) {
+                return setJoda(millis, field, value);
+            }
+            newLocal = local + (value - getWeekday(days)) * MILLISECONDS_IN_DAY;
+            break;
+        case Hour:
+            if (value < 0 || value >= FTimeUnit.HOURS_IN_DAY) {
+                return setJoda(millis, field, value);
+            }
+            newLocal = local + (value - getLocal(local, field)) * (long) FTimeUnit.MILLISECONDS_IN_HOUR;
+            break;
+        case Minute:
+            if (value < 0 || value >= FTimeUnit.MINUTES_IN_HOUR) {
+                return setJoda(millis, field, value);
+            }
+            newLocal = local + (value - getLocal(local, field)) * (long) FTimeUnit.MILLISECONDS_IN_MINUTE;
+            break;
+        case Second:
+            if (value < 0 || value >= FTimeUnit.SECONDS_IN_MINUTE) {
+                return setJoda(millis, field, value);
+            }
+            newLocal = local + (value - getLocal(local, field)) * (long) FTimeUnit.MILLISECONDS_IN_SECOND;
+            break;
+        case Millisecond:
+            if (value < 0 || value >= FTimeUnit.MILLISECONDS_IN_SECOND) {
+                return setJoda(millis, field, value);
+            }
+            newLocal = local + (value - getLocal(local, field));
+            break;
+        default:
+            throw UnknownArgumentException.newInstance(FDateField.class, field);
+        }
+        final long result = toUtc(newLocal, millis);
+        if (!isSupported(result) || get(result, field) != value) {
+            //the local time does not exist in this zone, let joda throw the appropriate exception
+            return setJoda(millis, field, value);
+        }
+        return result;
+    }
+
+    /**
+     * Sets the weekday and the time of the week like sequential calls of set() would do.
+     */
+    public long set(final long millis, final FWeekTime weekTime) {
+        long result = set(millis, FDateField.Weekday, weekTime.getWeekday());
+        result = set(result, FDateField.Hour, weekTime.getHour());
+        result = set(result, FDateField.Minute, weekTime.getMinute());
+        result = set(result, FDateField.Second, weekTime.getSecond());
+        return set(result, FDateField.Millisecond, weekTime.getMillisecond());
+    }
+
+    public long add(final long millis, final FTimeUnit unit, final int amount) {
+        if (amount == 0) {
+            return millis;
+        }
+        switch (unit) {
+        case MILLENIA:
+            return addYears(millis, amount * FTimeUnit.YEARS_IN_MILLENIUM);
+        case CENTURIES:
+            return addYears(millis, amount * FTimeUnit.YEARS_IN_CENTURY);
+        case DECADES:
+            return addYears(millis, amount * FTimeUnit.YEARS_IN_DECADE);
+        case YEARS:
+            return addYears(millis, amount);
+        case MONTHS:
+            return addMonths(millis, amount);
+        case WEEKS:
+            return addDays(millis, (long) amount * FTimeUnit.DAYS_IN_WEEK, unit, amount);
+        case DAYS:
+            return addDays(millis, amount, unit, amount);
+        case HOURS:
+            //time units are added on the instant by joda as well
+            return millis + (long) amount * FTimeUnit.MILLISECONDS_IN_HOUR;
+        case MINUTES:
+            return millis + (long) amount * FTimeUnit.MILLISECONDS_IN_MINUTE;
+        case SECONDS:
+            return millis + (long) amount * FTimeUnit.MILLISECONDS_IN_SECOND;
+        case MILLISECONDS:
+            return millis + amount;
+        default:
+            return addJoda(millis, unit, amount);
+        }
+    }
+
+    public long truncate(final long millis, final FDateField field) {
+        if (!isSupported(millis)) {
+            return truncateJoda(millis, field);
+        }
+        final long local = toLocal(millis);
+        switch (field) {
+        case Year:
+            final int year = getYear(civilFromDays(Math.floorDiv(local, MILLISECONDS_IN_DAY)));
+            return toUtc(daysFromCivil(year, 1, 1) * MILLISECONDS_IN_DAY, millis);
+        case Month:
+            final long days = Math.floorDiv(local, MILLISECONDS_IN_DAY);
+            return toUtc((days - getDay(civilFromDays(days)) + 1) * MILLISECONDS_IN_DAY, millis);
+        case Day:
+        case Weekday:
+            return toUtc(local - Math.floorMod(local, MILLISECONDS_IN_DAY), millis);
+        case Hour:
+            //joda keeps the offset of the instant for time fields
+            return millis - Math.floorMod(local, (long) FTimeUnit.MILLISECONDS_IN_HOUR);
+        case Minute:
+            return millis - Math.floorMod(local, (long) FTimeUnit.MILLISECONDS_IN_MINUTE);
+        case Second:
+            return millis - Math.floorMod(local, (long) FTimeUnit.MILLISECONDS_IN_SECOND);
+        case Millisecond:
+            return millis;
+        default:
+            throw UnknownArgumentException.newInstance(FDateField.class, field);
+        }
+    }
+
+    /**
+     * Returns the number of the period in local time that contains the given instant, counted from the period that
+     * contains 1970-01-01 (weeks start on monday). Consecutive periods have consecutive indexes, so this can be used
+     * as a bucket for aggregating bars and two instants are in the same period when their indexes are equal. In an
+     * overlap of a daylight saving time transition, the local times that occur twice belong to the same period.
+     */
+    public long getPeriodIndex(final long millis, final FTimeUnit period) {
+        switch (period) {
+        case MILLENIA:
+            return Math.floorDiv(get(millis, FDateField.Year), FTimeUnit.YEARS_IN_MILLENIUM);
+        case CENTURIES:
+            return Math.floorDiv(get(millis, FDateField.Year), FTimeUnit.YEARS_IN_CENTURY);
+        case DECADES:
+            return Math.floorDiv(get(millis, FDateField.Year), FTimeUnit.YEARS_IN_DECADE);
+        case YEARS:
+            return get(millis, FDateField.Year);
+        case MONTHS:
+            if (!isSupported(millis)) {
+                return get(millis, FDateField.Year) * (long) FTimeUnit.MONTHS_IN_YEAR + get(millis, FDateField.Month)
+                        - 1;
+            }
+            final int civil = civilFromDays(Math.floorDiv(toLocal(millis), MILLISECONDS_IN_DAY));
+            return getYear(civil) * (long) FTimeUnit.MONTHS_IN_YEAR + getMonth(civil) - 1;
+        case WEEKS:
+            return Math.floorDiv(Math.floorDiv(getLocalMillis(millis), MILLISECONDS_IN_DAY) + EPOCH_WEEKDAY_SHIFT,
+                    (long) FTimeUnit.DAYS_IN_WEEK);
+        case DAYS:
+            return Math.floorDiv(getLocalMillis(millis), MILLISECONDS_IN_DAY);
+        case HOURS:
+            return Math.floorDiv(getLocalMillis(millis), (long) FTimeUnit.MILLISECONDS_IN_HOUR);
+        case MINUTES:
+            return Math.floorDiv(getLocalMillis(millis), (long) FTimeUnit.MILLISECONDS_IN_MINUTE);
+        case SECONDS:
+            return Math.floorDiv(getLocalMillis(millis), (long) FTimeUnit.MILLISECONDS_IN_SECOND);
+        case MILLISECONDS:
+            return getLocalMillis(millis);
+        default:
+            throw UnknownArgumentException.newInstance(FTimeUnit.class, period);
+        }
+    }
+
+    /**
+     * Returns the first instant of the period with the given index (see getPeriodIndex). When the local start of the
+     * period lies in a daylight saving time gap, the first instant after the gap is returned.
+     */
+    public long getPeriodStart(final long periodIndex, final FTimeUnit period) {
+        switch (period) {
+        case MILLENIA:
+            return getYearStart(periodIndex * FTimeUnit.YEARS_IN_MILLENIUM);
+        case CENTURIES:
+            return getYearStart(periodIndex * FTimeUnit.YEARS_IN_CENTURY);
+        case DECADES:
+            return getYearStart(periodIndex * FTimeUnit.YEARS_IN_DECADE);
+        case YEARS:
+            return getYearStart(periodIndex);
+        case MONTHS:
+            final long year = Math.floorDiv(periodIndex, (long) FTimeUnit.MONTHS_IN_YEAR);
+            checkYear(year);
+            final int month = (int) Math.floorMod(periodIndex, (long) FTimeUnit.MONTHS_IN_YEAR) + 1;
+            return fromLocal(daysFromCivil((int) year, month, 1) * MILLISECONDS_IN_DAY);
+        case WEEKS:
+            return fromLocal((periodIndex * FTimeUnit.DAYS_IN_WEEK - EPOCH_WEEKDAY_SHIFT) * MILLISECONDS_IN_DAY);
+        case DAYS:
+            return fromLocal(periodIndex * MILLISECONDS_IN_DAY);
+        case HOURS:
+            return fromLocal(periodIndex * FTimeUnit.MILLISECONDS_IN_HOUR);
+        case MINUTES:
+            return fromLocal(periodIndex * FTimeUnit.MILLISECONDS_IN_MINUTE);
+        case SECONDS:
+            return fromLocal(periodIndex * FTimeUnit.MILLISECONDS_IN_SECOND);
+        case MILLISECONDS:
+            return fromLocal(periodIndex);
+        default:
+            throw UnknownArgumentException.newInstance(FTimeUnit.class, period);
+        }
+    }
+
+    public boolean isSamePeriod(final long millis1, final long millis2, final FTimeUnit period) {
+        return millis1 == millis2 || getPeriodIndex(millis1, period) == getPeriodIndex(millis2, period);
+    }
+
+    private long getYearStart(final long year) {
+        checkYear(year);
+        return fromLocal(daysFromCivil((int) year, 1, 1) * MILLISECONDS_IN_DAY);
+    }
+
+    private static void checkYear(final long year) {
+        if (year <= -MAX_YEAR || year >= MAX_YEAR) {
+            throw new IllegalArgumentException("year [" + year + "] should be between [" + -MAX_YEAR + "] and ["
+                    + MAX_YEAR + "] (exclusive)");
+        }
+    }
+
+    private long getLocalMillis(final long millis) {
+        if (!isSupported(millis)) {
+            return zone.convertUTCToLocal(millis);
+        }
+        return toLocal(millis);
+    }
+
+    private long addYears(final long millis, final int years) {
+        if (!isSupported(millis)) {
+            return addJoda(millis, FTimeUnit.YEARS, years);
+        }
+        final long local = toLocal(millis);
+        final long newYear = (long) getYear(civilFromDays(Math.floorDiv(local, MILLISECONDS_IN_DAY))) + years;
+        if (newYear <= -MAX_YEAR || newYear >= MAX_YEAR) {
+            return addJoda(millis, FTimeUnit.YEARS, years);
+        }
+        return fromLocal(setYear(local, (int) newYear));
+    }
+
+    private long addMonths(final long millis, final int months) {
+        if (!isSupported(millis)) {
+            return addJoda(millis, FTimeUnit.MONTHS, months);
+        }
+        final long local = toLocal(millis);
+        final long days = Math.floorDiv(local, MILLISECONDS_IN_DAY);
+        final int civil = civilFromDays(days);
+        final long newMonths = getYear(civil) * (long) FTimeUnit.MONTHS_IN_YEAR + getMonth(civil) - 1 + months;
+        final long newYear = Math.floorDiv(newMonths, FTimeUnit.MONTHS_IN_YEAR);
+        if (newYear <= -MAX_YEAR || newYear >= MAX_YEAR) {
+            return addJoda(millis, FTimeUnit.MONTHS, months);
+        }
+        final int year = (int) newYear;
+        final int month = (int) Math.floorMod(newMonths, FTimeUnit.MONTHS_IN_YEAR) + 1;
+        final int day = Math.min(getDay(civil), getDaysInMonth(year, month));
+        return fromLocal(local + (daysFromCivil(year, month, day) - days) * MILLISECONDS_IN_DAY);
+    }
+
+    private long addDays(final long millis, final long days, final FTimeUnit unit, final int amount) {
+        final long newMillis = millis + days * MILLISECONDS_IN_DAY;
+        if (!isSupported(millis) || !isSupported(newMillis)) {
+            return addJoda(millis, unit, amount);
+        }
+        return fromLocal(toLocal(millis) + days * MILLISECONDS_IN_DAY);
+    }
+
+    /**
+     * Same as joda setYear: keeps month, day and time, february 29th becomes february 28th in a non leap year.
+     */
+    private static long setYear(final long local, final int year) {
+        final long days = Math.floorDiv(local, MILLISECONDS_IN_DAY);
+        final int civil = civilFromDays(days);
+        final int month = getMonth(civil);
+        final int day = Math.min(getDay(civil), getDaysInMonth(year, month));
+        return local + (daysFromCivil(year, month, day) - days) * MILLISECONDS_IN_DAY;
+    }
+
+    private static int getLocal(final long local, final FDateField field) {
+        switch (field) {
+        case Year:
+            return getYear(civilFromDays(Math.floorDiv(local, MILLISECONDS_IN_DAY)));
+        case Month:
+            return getMonth(civilFromDays(Math.floorDiv(local, MILLISECONDS_IN_DAY)));
+        case Day:
+            return getDay(civilFromDays(Math.floorDiv(local, MILLISECONDS_IN_DAY)));
+        case Weekday:
+            return getWeekday(Math.floorDiv(local, MILLISECONDS_IN_DAY));
+        case Hour:
+            return (int) (Math.floorMod(local, MILLISECONDS_IN_DAY) / FTimeUnit.MILLISECONDS_IN_HOUR);
+        case Minute:
+            return (int) (Math.floorMod(local, (long) FTimeUnit.MILLISECONDS_IN_HOUR)
+                    / FTimeUnit.MILLISECONDS_IN_MINUTE);
+        case Second:
+            return (int) (Math.floorMod(local, (long) FTimeUnit.MILLISECONDS_IN_MINUTE)
+                    / FTimeUnit.MILLISECONDS_IN_SECOND);
+        case Millisecond:
+            return (int) Math.floorMod(local, (long) FTimeUnit.MILLISECONDS_IN_SECOND);
+        default:
+            throw UnknownArgumentException.newInstance(FDateField.class, field);
+        }
+    }
+
+    private static boolean isSupported(final long millis) {
+        return millis > -MAX_MILLIS && millis < MAX_MILLIS;
+    }
+
+    private long toLocal(final long millis) {
+        if (fixed) {
+            return millis + fixedOffset;
+        }
+        return millis + zone.getOffset(millis);
+    }
+
+    /**
+     * Same as the conversion of joda for fields: prefers the offset of the original instant in overlaps.
+     */
+    private long toUtc(final long local, final long originalMillis) {
+        if (fixed) {
+            return local - fixedOffset;
+        }
+        return zone.convertLocalToUTC(local, false, originalMillis);
+    }
+
+    /**
+     * Same as the conversion of joda for durations.
+     */
+    private long fromLocal(final long local) {
+        if (fixed) {
+            return local - fixedOffset;
+        }
+        return local - getOffsetFromLocal(local);
+    }
+
+    /**
+     * Same as DateTimeZone.getOffsetFromLocal(), but the previous transition is looked up in the cached table.
+     */
+    private int getOffsetFromLocal(final long local) {
+        final int offsetLocal = zone.getOffset(local);
+        final long adjusted = local - offsetLocal;
+        if (adjusted >= maxTransitionMillis) {
+            return zone.getOffsetFromLocal(local);
+        }
+        final int offsetAdjusted = zone.getOffset(adjusted);
+        if (offsetLocal != offsetAdjusted) {
+            //the local time is inside a gap
+            return zone.getOffsetFromLocal(local);
+        }
+        if (offsetLocal >= 0) {
+            //joda prefers the earlier offset when the local time is ambiguous after a transition
+            int index = Arrays.binarySearch(transitions, adjusted);
+            if (index < 0) {
+                index = -index - 2;
+            }
+            if (index >= 0) {
+                final int offsetBefore = offsetsBeforeTransitions[index];
+                if (adjusted - transitions[index] < offsetBefore - offsetLocal) {
+                    return offsetBefore;
+                }
+            }
+        }
+        return offsetAdjusted;
+    }
+
+    private long setJoda(final long millis, final FDateField field, final int value) {
+        final MutableDateTime delegate = newMutableDateTime(millis);
+        delegate.set(field.jodaTimeValue(), value);
+        return delegate.getMillis();
+    }
+
+    private long addJoda(final long millis, final FTimeUnit unit, final int amount) {
+        final MutableDateTime delegate = newMutableDateTime(millis);
+        delegate.add(unit.jodaTimeValue(), amount);
+        return delegate.getMillis();
+    }
+
+    private long truncateJoda(final long millis, final FDateField field) {
+        final MutableDateTime delegate = newMutableDateTime(millis);
+        delegate.setRounding(field.jodaTimeValue().getField(chronology));
+        return delegate.getMillis();
+    }
+
+    private MutableDateTime newMutableDateTime(final long millis) {
+        return new MutableDateTime(millis, chronology);
+    }
+
+    private static int getDaysInMonth(final int year, final int month) {
+        if (month == FEBRUARY) {
+            return isLeapYear(year) ? 29 : 28;
+        }
+        //30 days for april, june, september and november
+        return 30 + ((month + (month >>> 3)) & 1);
+    }
+
+    private static boolean isLeapYear(final int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    /**
+     * ISO weekday from monday=1 to sunday=7.
+     */
+    private static int getWeekday(final long days) {
+        return (int) Math.floorMod(days + EPOCH_WEEKDAY_SHIFT, (long) FTimeUnit.DAYS_IN_WEEK) + 1;
+    }
+
+    private static long daysFromCivil(final int year, final int month, final int day) {
+        final int y = (month <= FEBRUARY ? year - 1 : year) + ERA_SHIFT * 400;
+        final int era = y / 400;
+        final int yearOfEra = y - era * 400;
+        final int dayOfYear = (153 * (month > FEBRUARY ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        final int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return (long) (era - ERA_SHIFT) * DAYS_IN_400_YEARS + dayOfEra - DAYS_FROM_EPOCH_SHIFT;
+    }
+
+    /**
+     * Returns year, month and day packed into one int to stay allocation free. This uses the faster variant from Neri
+     * and Schneider "Euclidean affine functions and their application to calendar algorithms" which replaces most of
+     * the divisions with multiplications and shifts.
+     */
+    private static int civilFromDays(final long days) {
+        final long n = days + DAYS_FROM_EPOCH_SHIFT + (long) ERA_SHIFT * DAYS_IN_400_YEARS;
+        final long n1 = 4 * n + 3;
+        final long century = n1 / DAYS_IN_400_YEARS;
+        final long n2 = n1 % DAYS_IN_400_YEARS / 4 * 4 + 3;
+        final long p2 = 2939745L * n2;
+        final long yearOfCentury = p2 >>> Integer.SIZE;
+        final long dayOfYear = (p2 & 0xFFFFFFFFL) / 2939745L / 4;
+        final long n3 = 2141 * dayOfYear + 197913;
+        final int shiftedMonth = (int) (n3 >>> 16);
+        final int day = (int) ((n3 & 0xFFFF) / 2141) + 1;
+        //the computational year starts in march
+        final boolean january = dayOfYear >= 306;
+        final int year = (int) (100 * century + yearOfCentury - ERA_SHIFT * 400) + (january ? 1 : 0);
+        final int month = january ? shiftedMonth - FTimeUnit.MONTHS_IN_YEAR : shiftedMonth;
+        return (year << YEAR_SHIFT) | (month << MONTH_SHIFT) | day;
+    }
+
+    private static int getYear(final int civil) {
+        return civil >> YEAR_SHIFT;
+    }
+
+    private static int getMonth(final int civil) {
+        return (civil >>> MONTH_SHIFT) & MONTH_MASK;
+    }
+
+    private static int getDay(final int civil) {
+        return civil & DAY_MASK;
+    }
+
+}
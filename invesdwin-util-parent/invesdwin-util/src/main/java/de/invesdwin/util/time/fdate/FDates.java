@@ -34,6 +34,7 @@ public final class FDates {
     private static DateTimeZone defaultDateTimeZone;
     private static Chronology defaultChronology;
     private static ZoneId defaultZoneId;
+    private static FDateCalendar defaultCalendar;
 
     static {
         setDefaultTimeZone(TimeZone.getDefault());
@@ -48,6 +49,7 @@ public final class FDates {
         FDates.defaultDateTimeZone = DateTimeZone.forTimeZone(defaultTimeZone);
         FDates.defaultChronology = ISOChronology.getInstance(defaultDateTimeZone);
         FDates.defaultZoneId = defaultTimeZone.toZoneId();
+        FDates.defaultCalendar = new FDateCalendar(defaultDateTimeZone);
         //CHECKSTYLE:OFF
         final Calendar cal = Calendar.getInstance();
         //CHECKSTYLE:ON
@@ -76,6 +78,10 @@ public final class FDates {
         return defaultZoneId;
     }
 
+    public static FDateCalendar getDefaultCalendar() {
+        return defaultCalendar;
+    }
+
     public static Calendar newCalendar() {
         return (Calendar) templateCalendar.clone();
     }
@@ -307,7 +313,7 @@ public final class FDates {
     }
 
     public static boolean isSameYear(final FDate date1, final FDate date2) {
-        return isSameTruncated(date1, date2, FDateField.Year);
+        return isSameTruncated(date1, date2, FDateField.Year, FTimeUnit.YEARS);
     }
 
     public static boolean isSameYear(final FDate date1, final FDate date2, final ZoneId timeZone) {
@@ -315,7 +321,7 @@ public final class FDates {
     }
 
     public static boolean isSameMonth(final FDate date1, final FDate date2) {
-        return isSameTruncated(date1, date2, FDateField.Month);
+        return isSameTruncated(date1, date2, FDateField.Month, FTimeUnit.MONTHS);
     }
 
     public static boolean isSameMonth(final FDate date1, final FDate date2, final ZoneId timeZone) {
@@ -323,6 +329,9 @@ public final class FDates {
     }
 
     public static boolean isSameWeek(final FDate date1, final FDate date2) {
+        if (date1 != null && date2 != null && defaultCalendar.isFixed()) {
+            return defaultCalendar.isSamePeriod(date1.millisValue(), date2.millisValue(), FTimeUnit.WEEKS);
+        }
         return isSameWeekPart(date1, date2, FWeekday.Monday, FWeekday.Sunday);
     }
 
@@ -373,7 +382,7 @@ public final class FDates {
     }
 
     public static boolean isSameDay(final FDate date1, final FDate date2) {
-        return isSameTruncated(date1, date2, FDateField.Day);
+        return isSameTruncated(date1, date2, FDateField.Day, FTimeUnit.DAYS);
     }
 
     public static boolean isSameHour(final FDate date1, final FDate date2, final ZoneId timeZone) {
@@ -381,15 +390,15 @@ public final class FDates {
     }
 
     public static boolean isSameHour(final FDate date1, final FDate date2) {
-        return isSameTruncated(date1, date2, FDateField.Hour);
+        return isSameTruncated(date1, date2, FDateField.Hour, FTimeUnit.HOURS);
     }
 
     public static boolean isSameMinute(final FDate date1, final FDate date2) {
-        return isSameTruncated(date1, date2, FDateField.Minute);
+        return isSameTruncated(date1, date2, FDateField.Minute, FTimeUnit.MINUTES);
     }
 
     public static boolean isSameSecond(final FDate date1, final FDate date2) {
-        return isSameTruncated(date1, date2, FDateField.Second);
+        return isSameTruncated(date1, date2, FDateField.Second, FTimeUnit.SECONDS);
     }
 
     public static boolean isSameMillisecond(final FDate date1, final FDate date2) {
@@ -400,14 +409,41 @@ public final class FDates {
         }
     }
 
-    private static boolean isSameTruncated(final FDate date1, final FDate date2, final FDateField field) {
+    private static boolean isSameTruncated(final FDate date1, final FDate date2, final FDateField field,
+            final FTimeUnit period) {
         if (date1 == null || date2 == null) {
             return false;
         }
+        if (defaultCalendar.isFixed()) {
+            return defaultCalendar.isSamePeriod(date1.millisValue(), date2.millisValue(), period);
+        }
         return date1.millisValue() == date2.millisValue()
                 || date1.truncate(field).millisValue() == date2.truncate(field).millisValue();
     }
 
+    /**
+     * Maps the date to the index of the period that contains it (e.g. the number of days or months since 1970-01-01
+     * in the default time zone). This can be used to put ticks into buckets of bars without truncating each date.
+     */
+    public static long getPeriodIndex(final FDate date, final FTimeUnit period) {
+        return defaultCalendar.getPeriodIndex(date.millisValue(), period);
+    }
+
+    public static long getPeriodIndex(final FDate date, final FTimeUnit period, final ZoneId timeZone) {
+        return getPeriodIndex(date.revertTimeZoneOffset(timeZone), period);
+    }
+
+    /**
+     * The inverse of getPeriodIndex(), returns the start of the period with the given index.
+     */
+    public static FDate getPeriodStart(final long periodIndex, final FTimeUnit period) {
+        return new FDate(defaultCalendar.getPeriodStart(periodIndex, period));
+    }
+
+    public static FDate getPeriodStart(final long periodIndex, final FTimeUnit period, final ZoneId timeZone) {
+        return getPeriodStart(periodIndex, period).applyTimeZoneOffset(timeZone);
+    }
+
     public static boolean isSamePeriod(final FDate date1, final FDate date2, final FTimeUnit period,
             final ZoneId timeZone) {
         return isSamePeriod(date1.revertTimeZoneOffset(timeZone), date2.revertTimeZoneOffset(timeZone), period);
@@ -0,0 +1,103 @@
+package de.invesdwin.util.collections.fast.concurrent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.UnaryOperator;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.concurrent.Executors;
+import de.invesdwin.util.concurrent.WrappedExecutorService;
+import de.invesdwin.util.concurrent.future.Futures;
+
+@NotThreadSafe
+public class OptimisticLockedListTest {
+
+    private static final int ELEMENTS = 1000;
+    private static final int READS = 2000000;
+
+    @Test(timeout = 60000)
+    public void testGetWithConcurrentWriter() throws InterruptedException {
+        final OptimisticLockedList<Integer> optimistic = new OptimisticLockedList<Integer>(new ArrayList<Integer>());
+        Assertions.checkTrue(optimistic.isOptimisticReads());
+        assertGetWithConcurrentWriter(optimistic);
+        final OptimisticLockedList<Integer> locked = new OptimisticLockedList<Integer>(new LinkedList<Integer>());
+        Assertions.checkFalse(locked.isOptimisticReads());
+        assertGetWithConcurrentWriter(locked);
+    }
+
+    private void assertGetWithConcurrentWriter(final List<Integer> list) throws InterruptedException {
+        final WrappedExecutorService executor = Executors.newFixedThreadPool("testGetWithConcurrentWriter", 1);
+        try {
+            final AtomicBoolean finished = new AtomicBoolean();
+            final Future<?> writer = executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    while (!finished.get()) {
+                        //the element at each index always equals the index
+                        for (int i = 0; i < ELEMENTS; i++) {
+                            list.add(i);
+                        }
+                        list.clear();
+                    }
+                    return null;
+                }
+            });
+            try {
+                for (int i = 0; i < READS; i++) {
+                    final int index = i % ELEMENTS;
+                    try {
+                        Assertions.checkEquals(index, list.get(index).intValue());
+                    } catch (final IndexOutOfBoundsException e) {
+                        //the writer did not reach that index yet
+                        continue;
+                    }
+                }
+            } finally {
+                finished.set(true);
+            }
+            Futures.get(writer);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testCallbackReentrancy() {
+        final OptimisticLockedList<Integer> list = new OptimisticLockedList<Integer>(new ArrayList<Integer>());
+        list.add(3);
+        list.add(1);
+        list.add(2);
+        //callbacks are invoked without holding the lock, thus they can access the list themselves
+        list.replaceAll(new UnaryOperator<Integer>() {
+            @Override
+            public Integer apply(final Integer element) {
+                return element * list.size();
+            }
+        });
+        Assertions.checkEquals(Arrays.asList(9, 3, 6), list);
+        list.sort(new Comparator<Integer>() {
+            @Override
+            public int compare(final Integer o1, final Integer o2) {
+                Assertions.checkEquals(3, list.size());
+                return Integer.compare(o1, o2);
+            }
+        });
+        Assertions.checkEquals(Arrays.asList(3, 6, 9), list);
+        list.addAll(list);
+        Assertions.checkEquals(Arrays.asList(3, 6, 9, 3, 6, 9), list);
+        Assertions.checkTrue(list.containsAll(list));
+        list.removeAll(list.subList(0, 1));
+        Assertions.checkEquals(Arrays.asList(6, 9, 6, 9), list);
+    }
+
+}
@@ -0,0 +1,154 @@
+package de.invesdwin.util.collections.fast.concurrent;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.concurrent.Executors;
+import de.invesdwin.util.concurrent.WrappedExecutorService;
+import de.invesdwin.util.concurrent.future.Futures;
+
+@NotThreadSafe
+public class OptimisticLockedMapTest {
+
+    private static final int KEYS = 1000;
+    private static final int READS = 2000000;
+
+    @Test(timeout = 60000)
+    public void testGetWithConcurrentWriter() throws InterruptedException {
+        final OptimisticLockedMap<Integer, Integer> optimistic = new OptimisticLockedMap<Integer, Integer>(
+                new ConcurrentHashMap<Integer, Integer>());
+        Assertions.checkTrue(optimistic.isOptimisticReads());
+        assertGetWithConcurrentWriter(optimistic);
+        //structural changes of a HashMap during a read are not safe, thus it has to use the read lock
+        final OptimisticLockedMap<Integer, Integer> locked = new OptimisticLockedMap<Integer, Integer>(
+                new HashMap<Integer, Integer>());
+        Assertions.checkFalse(locked.isOptimisticReads());
+        assertGetWithConcurrentWriter(locked);
+    }
+
+    private void assertGetWithConcurrentWriter(final Map<Integer, Integer> map) throws InterruptedException {
+        final WrappedExecutorService executor = Executors.newFixedThreadPool("testGetWithConcurrentWriter", 1);
+        try {
+            final AtomicBoolean finished = new AtomicBoolean();
+            final Future<?> writer = executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    int round = 0;
+                    while (!finished.get()) {
+                        //removing and adding all keys makes the map shrink and grow again
+                        for (int key = 0; key < KEYS; key++) {
+                            if (round % 2 == 0) {
+                                map.put(key, key * 2);
+                            } else {
+                                map.remove(key);
+                            }
+                        }
+                        round++;
+                    }
+                    return null;
+                }
+            });
+            try {
+                for (int i = 0; i < READS; i++) {
+                    final int key = i % KEYS;
+                    final Integer value = map.get(key);
+                    if (value != null) {
+                        Assertions.checkEquals(key * 2, value.intValue());
+                    }
+                    final int size = map.size();
+                    Assertions.checkTrue(size >= 0 && size <= KEYS, "size %s", size);
+                }
+            } finally {
+                finished.set(true);
+            }
+            Futures.get(writer);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testCallbackReentrancy() {
+        final OptimisticLockedMap<Integer, Integer> map = new OptimisticLockedMap<Integer, Integer>(
+                new HashMap<Integer, Integer>());
+        map.put(1, 1);
+        map.put(2, 2);
+        //callbacks are invoked without holding the lock, thus they can access the map themselves
+        Assertions.checkEquals(3, map.compute(1, new BiFunction<Integer, Integer, Integer>() {
+            @Override
+            public Integer apply(final Integer key, final Integer value) {
+                return value + map.get(2);
+            }
+        }).intValue());
+        Assertions.checkEquals(2, map.computeIfAbsent(3, new Function<Integer, Integer>() {
+            @Override
+            public Integer apply(final Integer key) {
+                return map.size();
+            }
+        }).intValue());
+        Assertions.checkEquals(5, map.computeIfPresent(3, new BiFunction<Integer, Integer, Integer>() {
+            @Override
+            public Integer apply(final Integer key, final Integer value) {
+                return value + map.get(1);
+            }
+        }).intValue());
+        Assertions.checkEquals(7, map.merge(2, 2, new BiFunction<Integer, Integer, Integer>() {
+            @Override
+            public Integer apply(final Integer oldValue, final Integer value) {
+                return oldValue + value + (map.containsKey(3) ? 3 : 0);
+            }
+        }).intValue());
+        map.forEach(new BiConsumer<Integer, Integer>() {
+            @Override
+            public void accept(final Integer key, final Integer value) {
+                Assertions.checkEquals(value, map.get(key));
+            }
+        });
+        map.replaceAll(new BiFunction<Integer, Integer, Integer>() {
+            @Override
+            public Integer apply(final Integer key, final Integer value) {
+                return map.get(key) * 10;
+            }
+        });
+        final Map<Integer, Integer> expected = new HashMap<Integer, Integer>();
+        expected.put(1, 30);
+        expected.put(2, 70);
+        expected.put(3, 50);
+        Assertions.checkEquals(expected, map);
+        Assertions.checkTrue(map.equals(map));
+        map.putAll(map);
+        Assertions.checkEquals(expected, map);
+    }
+
+    @Test
+    public void testComputeRetriesOnConcurrentChange() {
+        final OptimisticLockedMap<Integer, Integer> map = new OptimisticLockedMap<Integer, Integer>(
+                new HashMap<Integer, Integer>());
+        map.put(1, 1);
+        final Integer result = map.compute(1, new BiFunction<Integer, Integer, Integer>() {
+            @Override
+            public Integer apply(final Integer key, final Integer value) {
+                if (value.intValue() == 1) {
+                    //simulates a concurrent writer, the result of this invocation has to be discarded
+                    map.put(1, 100);
+                }
+                return value + 1;
+            }
+        });
+        Assertions.checkEquals(101, result.intValue());
+        Assertions.checkEquals(101, map.get(1).intValue());
+    }
+
+}
@@ -0,0 +1,107 @@
+package de.invesdwin.util.collections.loadingcache.governor;
+
+import java.util.function.Function;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.collections.eviction.EvictionMode;
+import de.invesdwin.util.collections.loadingcache.map.EvictionMapLoadingCache;
+import de.invesdwin.util.collections.loadingcache.map.SynchronizedUnlimitedCachingLoadingCache;
+import de.invesdwin.util.time.Instant;
+import de.invesdwin.util.time.duration.Duration;
+import de.invesdwin.util.time.fdate.FTimeUnit;
+
+@NotThreadSafe
+public class MemoryPressureCacheGovernorTest {
+
+    private static final int ENTRIES = 100;
+    private static final Duration MAX_WAIT = new Duration(10, FTimeUnit.SECONDS);
+    private static final Function<Integer, Integer> LOAD_VALUE = new Function<Integer, Integer>() {
+        @Override
+        public Integer apply(final Integer key) {
+            return key;
+        }
+    };
+
+    private GovernedLoadingCache<Integer, Integer> cache;
+
+    @Before
+    public void before() {
+        MemoryPressureCacheGovernor.setShrinkCooldown(Duration.ZERO);
+        MemoryPressureCacheGovernor.setShrinkRatio(0.5D);
+        cache = new GovernedLoadingCache<Integer, Integer>(
+                new SynchronizedUnlimitedCachingLoadingCache<Integer, Integer>(LOAD_VALUE));
+        fill(cache);
+    }
+
+    @After
+    public void after() {
+        MemoryPressureCacheGovernor.unregister(cache);
+        MemoryPressureCacheGovernor.setShrinkCooldown(MemoryPressureCacheGovernor.DEFAULT_SHRINK_COOLDOWN);
+        MemoryPressureCacheGovernor.setShrinkRatio(MemoryPressureCacheGovernor.DEFAULT_SHRINK_RATIO);
+    }
+
+    private static void fill(final GovernedLoadingCache<Integer, Integer> cache) {
+        for (int i = 0; i < ENTRIES; i++) {
+            cache.get(i);
+        }
+    }
+
+    @Test
+    public void testRegisterAndUnregister() {
+        Assertions.checkTrue(MemoryPressureCacheGovernor.register(cache));
+        Assertions.checkFalse(MemoryPressureCacheGovernor.register(cache));
+        Assertions.checkTrue(MemoryPressureCacheGovernor.onMemoryPressure());
+        final int shrunkSize = cache.size();
+        Assertions.checkTrue(shrunkSize < ENTRIES, "size %s", shrunkSize);
+
+        Assertions.checkTrue(MemoryPressureCacheGovernor.unregister(cache));
+        Assertions.checkFalse(MemoryPressureCacheGovernor.unregister(cache));
+        fill(cache);
+        Assertions.checkTrue(MemoryPressureCacheGovernor.onMemoryPressure());
+        Assertions.checkEquals(ENTRIES, cache.size());
+    }
+
+    @Test
+    public void testHitValueCountsOnlyHits() {
+        //filling the cache only produced misses
+        Assertions.checkEquals(0L, cache.getAndResetHitValue());
+        Assertions.checkEquals(0, cache.get(0).intValue());
+        Assertions.checkNull(cache.getIfPresent(ENTRIES));
+        Assertions.checkEquals(ENTRIES + 1, cache.computeIfAbsent(ENTRIES + 1, LOAD_VALUE).intValue());
+        Assertions.checkEquals(1L, cache.getAndResetHitValue());
+        Assertions.checkEquals(0, cache.getIfPresent(0).intValue());
+        Assertions.checkEquals(ENTRIES + 1, cache.computeIfAbsent(ENTRIES + 1, LOAD_VALUE).intValue());
+        Assertions.checkEquals(2L, cache.getAndResetHitValue());
+    }
+
+    @Test(timeout = 60000)
+    public void testShrinkOnThreshold() throws InterruptedException {
+        MemoryPressureCacheGovernor.stop();
+        try {
+            //the smallest possible threshold is always exceeded after a garbage collection
+            Assertions.checkTrue(MemoryPressureCacheGovernor.start(Double.MIN_VALUE));
+            Assertions.checkTrue(MemoryPressureCacheGovernor.register(cache));
+            final Instant start = new Instant();
+            while (cache.size() == ENTRIES) {
+                Assertions.checkFalse(start.isGreaterThan(MAX_WAIT), "threshold did not trigger a shrink");
+                System.gc(); //SUPPRESS CHECKSTYLE single line
+                Thread.sleep(100);
+            }
+        } finally {
+            MemoryPressureCacheGovernor.stop();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsynchronizedDelegateNotSupported() {
+        new GovernedLoadingCache<Integer, Integer>(new EvictionMapLoadingCache<Integer, Integer>(LOAD_VALUE,
+                EvictionMode.LeastRecentlyUsed.<Integer, Integer> newMap(ENTRIES)));
+    }
+
+}
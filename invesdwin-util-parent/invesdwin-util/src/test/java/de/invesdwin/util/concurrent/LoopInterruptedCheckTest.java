@@ -1,26 +1,65 @@
 package de.invesdwin.util.concurrent;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 import javax.annotation.concurrent.NotThreadSafe;
 
 import org.junit.Ignore;
 import org.junit.Test;
 
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.concurrent.taskinfo.provider.TaskInfoLoopInterruptedCheck;
 import de.invesdwin.util.time.Instant;
 import de.invesdwin.util.time.duration.Duration;
 import de.invesdwin.util.time.fdate.FDate;
+import de.invesdwin.util.time.fdate.FTimeUnit;
 
-@Ignore("manual test")
 @NotThreadSafe
 public class LoopInterruptedCheckTest {
 
     private static final int SECONDS = 1;
+    private static final Duration SLOW_CHECK_INTERVAL = new Duration(100, FTimeUnit.MILLISECONDS);
+    private static final int SLOW_ITERATION_MILLIS = 10;
+    private static final int SLOW_INTERVALS = 5;
+
+    @Test
+    public void testSlowIterations() throws InterruptedException {
+        final long checkIntervalNanos = SLOW_CHECK_INTERVAL.longValue(FTimeUnit.NANOSECONDS);
+        final List<Long> intervalNanos = new ArrayList<Long>();
+        final long startNanos = System.nanoTime();
+        final LoopInterruptedCheck check = new LoopInterruptedCheck(SLOW_CHECK_INTERVAL) {
+            private long lastIntervalNanos = startNanos;
+
+            @Override
+            protected void onInterval() throws InterruptedException {
+                super.onInterval();
+                final long newIntervalNanos = System.nanoTime();
+                intervalNanos.add(newIntervalNanos - lastIntervalNanos);
+                lastIntervalNanos = newIntervalNanos;
+            }
+        };
+        //the first check happens right after construction, that must not be extrapolated to the slow iterations
+        while (intervalNanos.size() < SLOW_INTERVALS) {
+            check.check();
+            TimeUnit.MILLISECONDS.sleep(SLOW_ITERATION_MILLIS);
+            Assertions.checkTrue(System.nanoTime() - startNanos < checkIntervalNanos * SLOW_INTERVALS * 4,
+                    "intervals so far: %s", intervalNanos);
+        }
+        for (final long nanos : intervalNanos) {
+            Assertions.checkTrue(nanos < checkIntervalNanos * 2, "interval took too long: %s", intervalNanos);
+        }
+    }
 
+    @Ignore("manual test")
     @Test
     public void test() throws InterruptedException {
         testLoopAlwaysDate();
         testLoopAlwaysInstant();
         testLoopAlwaysCheck();
         testLoopAlwaysCheckMs();
+        testLoopAlwaysCheckTaskInfo();
     }
 
     private void testLoopAlwaysCheck() throws InterruptedException {
@@ -53,6 +92,22 @@ public class LoopInterruptedCheckTest {
         //CHECKSTYLE:ON
     }
 
+    private void testLoopAlwaysCheckTaskInfo() throws InterruptedException {
+        final Instant start = new Instant();
+        int iterations = 0;
+        try (TaskInfoLoopInterruptedCheck check = new TaskInfoLoopInterruptedCheck("testLoopAlwaysCheckTaskInfo")) {
+            for (int i = 0; i < SECONDS;) {
+                if (check.check()) {
+                    i++;
+                }
+                iterations++;
+            }
+            //CHECKSTYLE:OFF
+            System.out.println("testLoopAlwaysCheckTI  " + iterations + ": " + start + " " + check.getDescription());
+            //CHECKSTYLE:ON
+        }
+    }
+
     private void testLoopAlwaysInstant() throws InterruptedException {
         final Instant start = new Instant();
         Instant prevInterruptCheck = new Instant();
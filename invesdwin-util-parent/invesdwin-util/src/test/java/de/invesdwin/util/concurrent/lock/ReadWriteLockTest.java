@@ -0,0 +1,119 @@
+package de.invesdwin.util.concurrent.lock;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import de.invesdwin.util.collections.fast.concurrent.LockedMap;
+import de.invesdwin.util.collections.fast.concurrent.OptimisticLockedMap;
+import de.invesdwin.util.concurrent.Executors;
+import de.invesdwin.util.concurrent.WrappedExecutorService;
+import de.invesdwin.util.concurrent.future.Futures;
+import de.invesdwin.util.concurrent.lock.readwrite.IReadWriteLock;
+import de.invesdwin.util.time.Instant;
+
+// CHECKSTYLE:OFF
+@NotThreadSafe
+@Ignore("manual test")
+public class ReadWriteLockTest {
+
+    private static final int READS_PER_THREAD = 10_000_000;
+    private static final int KEYS = 1_000;
+    private static final int[] READER_THREADS = { 1, 8, 32 };
+
+    @Test
+    public void test() throws InterruptedException {
+        for (final int readers : READER_THREADS) {
+            System.out.println("******************************************");
+            testMap("reentrantLock", readers, new LockedMap<Integer, Integer>(new HashMap<Integer, Integer>()));
+            testMap("reentrantReadWriteLock", readers, new ReadWriteLockedMap<Integer, Integer>(
+                    new HashMap<Integer, Integer>(), Locks.newReentrantReadWriteLock("reentrantReadWriteLock")));
+            //a HashMap can not be read optimistically, thus this uses the read lock of the stamped lock
+            testMap("stampedReadLock", readers,
+                    new OptimisticLockedMap<Integer, Integer>(new HashMap<Integer, Integer>()));
+            testMap("stampedOptimistic", readers,
+                    new OptimisticLockedMap<Integer, Integer>(new ConcurrentHashMap<Integer, Integer>()));
+        }
+    }
+
+    private void testMap(final String name, final int readers, final Map<Integer, Integer> map)
+            throws InterruptedException {
+        for (int i = 0; i < KEYS; i++) {
+            map.put(i, i);
+        }
+        final WrappedExecutorService executor = Executors.newFixedThreadPool(name, readers + 1);
+        try {
+            final AtomicBoolean running = new AtomicBoolean(true);
+            final Future<?> writer = executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    int i = 0;
+                    while (running.get()) {
+                        map.put(i % KEYS, i);
+                        i++;
+                        Thread.yield();
+                    }
+                }
+            });
+            final Instant start = new Instant();
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int r = 0; r < readers; r++) {
+                futures.add(executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        long sum = 0;
+                        for (int i = 0; i < READS_PER_THREAD; i++) {
+                            final Integer value = map.get(i % KEYS);
+                            if (value != null) {
+                                sum += value;
+                            }
+                        }
+                        if (sum == 0) {
+                            throw new IllegalStateException("no values read");
+                        }
+                    }
+                }));
+            }
+            Futures.wait(futures);
+            System.out.println(name + " readers=" + readers + ": " + start);
+            running.set(false);
+            Futures.wait(writer);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Writes use the exclusive write lock, reads share the read lock.
+     */
+    private static final class ReadWriteLockedMap<K, V> extends LockedMap<K, V> {
+
+        private final ILock readLock;
+
+        private ReadWriteLockedMap(final Map<K, V> delegate, final IReadWriteLock lock) {
+            super(delegate, lock.writeLock());
+            this.readLock = lock.readLock();
+        }
+
+        @Override
+        public V get(final Object key) {
+            readLock.lock();
+            try {
+                return getDelegate().get(key);
+            } finally {
+                readLock.unlock();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,82 @@
+package de.invesdwin.util.concurrent.reference.persistent.codec;
+
+import java.nio.ByteBuffer;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.time.fdate.FDate;
+import de.invesdwin.util.time.fdate.FTimeUnit;
+
+@NotThreadSafe
+public class CompressionCodecsTest {
+
+    @Test
+    public void testLZ4() {
+        final byte[] empty = new byte[0];
+        Assertions.assertThat(roundTrip(LZ4ByteArrayCodec.INSTANCE, empty)).isEqualTo(empty);
+        final byte[] small = "abc".getBytes();
+        Assertions.assertThat(roundTrip(LZ4ByteArrayCodec.INSTANCE, small)).isEqualTo(small);
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            sb.append("value ").append(i % 100).append(";");
+        }
+        final byte[] repetitive = sb.toString().getBytes();
+        Assertions.assertThat(roundTrip(LZ4ByteArrayCodec.INSTANCE, repetitive)).isEqualTo(repetitive);
+        final ByteBuffer compressed = LZ4ByteArrayCodec.INSTANCE.compress(repetitive);
+        Assertions.assertThat(compressed.isDirect()).isTrue();
+        Assertions.assertThat(compressed.remaining()).isLessThan(repetitive.length / 5);
+        final byte[] runs = new byte[100000];
+        Assertions.assertThat(roundTrip(LZ4ByteArrayCodec.INSTANCE, runs)).isEqualTo(runs);
+    }
+
+    @Test
+    public void testDoubleSeriesXor() {
+        final double[] empty = new double[0];
+        Assertions.assertThat(roundTrip(DoubleSeriesXorCodec.INSTANCE, empty)).isEqualTo(empty);
+        final double[] values = new double[10000];
+        double price = 100;
+        for (int i = 0; i < values.length; i++) {
+            if (i % 7 != 0) {
+                price += (i % 13 - 6) * 0.25;
+            }
+            values[i] = price;
+        }
+        values[42] = Double.NaN;
+        values[43] = Double.NEGATIVE_INFINITY;
+        values[44] = -0D;
+        values[45] = Double.MIN_VALUE;
+        Assertions.assertThat(roundTrip(DoubleSeriesXorCodec.INSTANCE, values)).isEqualTo(values);
+        Assertions.assertThat(DoubleSeriesXorCodec.INSTANCE.getStatistics().getCompressionRatio()).isGreaterThan(1D);
+    }
+
+    @Test
+    public void testFDateSeriesDelta() {
+        final FDate[] empty = new FDate[0];
+        Assertions.assertThat(roundTrip(FDateSeriesDeltaCodec.INSTANCE, empty)).isEqualTo(empty);
+        final FDate[] dates = new FDate[10000];
+        long millis = FDate.MIN_DATE.millisValue();
+        for (int i = 0; i < dates.length; i++) {
+            dates[i] = new FDate(millis);
+            if (i % 100 == 0) {
+                millis += 3 * FTimeUnit.MILLISECONDS_IN_DAY;
+            } else {
+                millis += FTimeUnit.MILLISECONDS_IN_MINUTE;
+            }
+        }
+        Assertions.assertThat(roundTrip(FDateSeriesDeltaCodec.INSTANCE, dates)).isEqualTo(dates);
+        final ByteBuffer compressed = FDateSeriesDeltaCodec.INSTANCE.compress(dates);
+        Assertions.assertThat(compressed.remaining()).isLessThan(dates.length * 2);
+    }
+
+    private <T> T roundTrip(final ICompressionCodec<T> codec, final T value) {
+        final ByteBuffer compressed = codec.compress(value);
+        final T decompressed = codec.decompress(compressed);
+        //decompressing again has to work since the position is not modified
+        Assertions.assertThat(codec.decompress(compressed)).isEqualTo(decompressed);
+        return decompressed;
+    }
+
+}
@@ -0,0 +1,133 @@
+package de.invesdwin.util.lang.finalizer.internal;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.lang.finalizer.IFinalizerReference;
+import de.invesdwin.util.time.Instant;
+import de.invesdwin.util.time.duration.Duration;
+import de.invesdwin.util.time.fdate.FTimeUnit;
+
+@NotThreadSafe
+public class PooledFinalizerManagerProviderTest {
+
+    //more than one slab and more than one drain batch
+    private static final int REFERENCES = 2500;
+    private static final Duration MAX_WAIT = new Duration(10, FTimeUnit.SECONDS);
+
+    @Test
+    public void testCloseThenReuse() throws Exception {
+        final PooledFinalizerManagerProvider provider = new PooledFinalizerManagerProvider();
+        final AtomicInteger finalized = new AtomicInteger();
+        final List<Object> referents = new ArrayList<Object>();
+        for (int round = 0; round < 3; round++) {
+            final List<IFinalizerReference> references = new ArrayList<IFinalizerReference>();
+            for (int i = 0; i < REFERENCES; i++) {
+                final Object referent = new Object();
+                referents.add(referent);
+                references.add(provider.register(referent, newCountingFinalizer(finalized)));
+            }
+            Assertions.checkEquals((long) REFERENCES, provider.getLiveCount());
+            //closing in a different order than registering shuffles the free list
+            for (int i = references.size() - 1; i >= 0; i -= 2) {
+                references.get(i).cleanReference();
+            }
+            for (int i = references.size() - 2; i >= 0; i -= 2) {
+                references.get(i).cleanReference();
+            }
+            Assertions.checkEquals(0L, provider.getLiveCount());
+            //closed slots are reused instead of allocating new slabs
+            Assertions.checkEquals(REFERENCES, getUsedSlotsCount(provider));
+        }
+        referents.clear();
+        gc();
+        Assertions.checkEquals(0, finalized.get());
+        Assertions.checkEquals(0L, provider.getLeakedCount());
+    }
+
+    @Test(timeout = 60000)
+    public void testLeakedReferencesAreDrained() throws Exception {
+        final PooledFinalizerManagerProvider provider = new PooledFinalizerManagerProvider();
+        final AtomicInteger finalized = new AtomicInteger();
+        //keep one reference alive so that the drainer thread does not stop in between
+        final Object alive = new Object();
+        final IFinalizerReference aliveReference = provider.register(alive, newCountingFinalizer(finalized));
+        registerLeaked(provider, finalized);
+        //referents of closed references stay reachable until they are closed, otherwise they would count as leaked
+        final List<Object> referents = new ArrayList<Object>();
+        final List<IFinalizerReference> closed = new ArrayList<IFinalizerReference>();
+        for (int i = 0; i < REFERENCES; i++) {
+            final Object referent = new Object();
+            referents.add(referent);
+            closed.add(provider.register(referent, newCountingFinalizer(finalized)));
+        }
+        Assertions.checkEquals(REFERENCES * 2 + 1L, provider.getLiveCount());
+        for (int i = 0; i < closed.size(); i++) {
+            closed.get(i).cleanReference();
+        }
+        referents.clear();
+        Assertions.checkEquals(REFERENCES + 1L, provider.getLiveCount());
+
+        final Instant start = new Instant();
+        while (provider.getLiveCount() > 1) {
+            Assertions.checkFalse(start.isGreaterThan(MAX_WAIT), "leaked references were not drained: %s",
+                    provider.getLiveCount());
+            gc();
+        }
+        //the drainer frees the slots of a batch before running the finalizers
+        while (finalized.get() < REFERENCES) {
+            Assertions.checkFalse(start.isGreaterThan(MAX_WAIT), "finalizers did not run: %s", finalized.get());
+            Thread.sleep(10);
+        }
+        Assertions.checkEquals(REFERENCES, finalized.get());
+        Assertions.checkEquals((long) REFERENCES, provider.getLeakedCount());
+        Assertions.checkEquals(1L, provider.getLiveCount());
+
+        aliveReference.cleanReference();
+        Assertions.checkNotNull(alive);
+        Assertions.checkEquals(0L, provider.getLiveCount());
+        Assertions.checkEquals((long) REFERENCES, provider.getLeakedCount());
+    }
+
+    private static void registerLeaked(final PooledFinalizerManagerProvider provider, final AtomicInteger finalized) {
+        for (int i = 0; i < REFERENCES; i++) {
+            provider.register(new Object(), newCountingFinalizer(finalized));
+        }
+    }
+
+    private static Runnable newCountingFinalizer(final AtomicInteger finalized) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                finalized.incrementAndGet();
+            }
+        };
+    }
+
+    private static void gc() throws InterruptedException {
+        System.gc(); //SUPPRESS CHECKSTYLE single line
+        Thread.sleep(100);
+    }
+
+    private static int getUsedSlotsCount(final PooledFinalizerManagerProvider provider) throws Exception {
+        final Field field = PooledFinalizerManagerProvider.class.getDeclaredField("usedSlotsCount");
+        field.setAccessible(true);
+        synchronized (getSlotsLock(provider)) {
+            return field.getInt(provider);
+        }
+    }
+
+    private static Object getSlotsLock(final PooledFinalizerManagerProvider provider) throws Exception {
+        final Field field = PooledFinalizerManagerProvider.class.getDeclaredField("slotsLock");
+        field.setAccessible(true);
+        return field.get(provider);
+    }
+
+}
@@ -0,0 +1,127 @@
+package de.invesdwin.util.math.decimal.fixed;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.marshallers.jackson.InvesdwinUtilModule;
+import de.invesdwin.util.math.decimal.Decimal;
+
+@NotThreadSafe
+public class FixedDecimalTest {
+
+    @Test
+    public void testExactAddition() {
+        final FixedDecimal tenCents = FixedDecimal.valueOf("0.1");
+        final MutableFixedDecimal sum = new MutableFixedDecimal(2);
+        for (int i = 0; i < 1000; i++) {
+            sum.add(tenCents);
+        }
+        Assertions.assertThat(sum.toFixedDecimal()).isEqualTo(FixedDecimal.valueOf(10000L, 2));
+        Assertions.assertThat(FixedDecimal.valueOf("0.1").add(FixedDecimal.valueOf("0.2")))
+                .isEqualTo(FixedDecimal.valueOf("0.3"));
+        Assertions.assertThat(FixedDecimal.valueOf("1.5").subtract(FixedDecimal.valueOf("0.25")).toString())
+                .isEqualTo("1.25");
+    }
+
+    @Test
+    public void testRounding() {
+        Assertions.assertThat(FixedDecimal.valueOf(1.005D, 2).toString()).isEqualTo("1.01");
+        Assertions.assertThat(FixedDecimal.valueOf("2.50").multiply(FixedDecimal.valueOf("0.33")).toString())
+                .isEqualTo("0.83");
+        Assertions.assertThat(FixedDecimal.valueOf("-2.50").multiply(FixedDecimal.valueOf("0.33")).toString())
+                .isEqualTo("-0.83");
+        Assertions.assertThat(FixedDecimal.valueOf("1.00").divide(FixedDecimal.valueOf("3.00")).toString())
+                .isEqualTo("0.33");
+        Assertions.assertThat(FixedDecimal.valueOf("2.00").divide(FixedDecimal.valueOf("3.00")).toString())
+                .isEqualTo("0.67");
+        Assertions.assertThat(FixedDecimal.valueOf("-2.00").divide(FixedDecimal.valueOf("3.00")).toString())
+                .isEqualTo("-0.67");
+        Assertions.assertThat(FixedDecimal.valueOf("1.25").rescale(1).toString()).isEqualTo("1.3");
+    }
+
+    @Test
+    public void testLargeValuesFallBackToBigInteger() {
+        final FixedDecimal large = FixedDecimal.valueOf("1234567890.12345678");
+        Assertions.assertThat(large.multiply(FixedDecimal.valueOf("1.00000000"))).isEqualTo(large);
+        Assertions.assertThat(large.divide(FixedDecimal.valueOf("2")).toString()).isEqualTo("617283945.06172839");
+        Assertions.assertThat(large.compareTo(FixedDecimal.valueOf("1234567890"))).isEqualTo(1);
+    }
+
+    @Test
+    public void testConversionsAndBuffer() {
+        final FixedDecimal value = FixedDecimal.valueOf("-12.345");
+        Assertions.assertThat(value.toDecimal()).isEqualTo(new Decimal(-12.345D));
+        Assertions.assertThat(FixedDecimal.valueOf(new Decimal(-12.345D), 3)).isEqualTo(value);
+
+        final ByteBuffer buffer = ByteBuffer.allocate(FixedDecimal.BYTES * 2);
+        FixedDecimal.putFixedDecimal(buffer, value);
+        FixedDecimal.putFixedDecimal(buffer, null);
+        buffer.flip();
+        Assertions.assertThat(FixedDecimal.extractFixedDecimal(buffer)).isEqualTo(value);
+        Assertions.assertThat(FixedDecimal.extractFixedDecimal(buffer)).isNull();
+        Assertions.assertThat(FixedDecimal.extractFixedDecimal(buffer, 0)).isEqualTo(value);
+    }
+
+    @Test
+    public void testLongMinValue() {
+        final FixedDecimal min = FixedDecimal.valueOf(Long.MIN_VALUE, 0);
+        //Math.abs(Long.MIN_VALUE) is negative, thus the fast paths must not be used
+        try {
+            min.multiply(FixedDecimal.valueOf(2L, 0));
+            Assertions.failExceptionExpected();
+        } catch (final ArithmeticException e) {
+            //expected
+        }
+        try {
+            min.divide(FixedDecimal.ONE, 1);
+            Assertions.failExceptionExpected();
+        } catch (final ArithmeticException e) {
+            //expected
+        }
+        Assertions.assertThat(min.divide(FixedDecimal.valueOf(2L, 0)))
+                .isEqualTo(FixedDecimal.valueOf(Long.MIN_VALUE / 2, 0));
+        Assertions.assertThat(FixedDecimal.valueOf(Long.MAX_VALUE, 0).divide(min, 0))
+                .isEqualTo(FixedDecimal.valueOf(-1L, 0));
+        Assertions.assertThat(min.compareTo(FixedDecimal.valueOf(0L, 1))).isEqualTo(-1);
+        Assertions.assertThat(FixedDecimal.valueOf(0L, 1).compareTo(min)).isEqualTo(1);
+        Assertions.assertThat(min.doubleValue()).isEqualTo(Long.MIN_VALUE);
+    }
+
+    @Test
+    public void testValueOfRoundsToMaxScale() {
+        final FixedDecimal value = FixedDecimal.valueOf(new BigDecimal("0.1234567890123456789"));
+        Assertions.assertThat(value.getScale()).isEqualTo(FixedDecimal.MAX_SCALE);
+        Assertions.assertThat(value.toString()).isEqualTo("0.123456789012345679");
+        Assertions.assertThat(FixedDecimal.valueOf("1E-20"))
+                .isEqualTo(FixedDecimal.valueOf(0L, FixedDecimal.MAX_SCALE));
+    }
+
+    @Test
+    public void testJacksonRoundTrip() throws IOException {
+        final ObjectMapper mapper = new ObjectMapper().registerModule(new InvesdwinUtilModule());
+        final Map<FixedDecimal, FixedDecimal> values = new LinkedHashMap<FixedDecimal, FixedDecimal>();
+        values.put(FixedDecimal.valueOf("1.10"), FixedDecimal.valueOf("-12345678901.12345678"));
+        values.put(FixedDecimal.valueOf("0.000000000000000001"), FixedDecimal.ZERO);
+        values.put(FixedDecimal.valueOf("-3"), FixedDecimal.valueOf("0.10"));
+        final String json = mapper.writeValueAsString(values);
+        //numbers are written as plain decimals without going through a double
+        Assertions.assertThat(json).contains("-12345678901.12345678");
+        final Map<FixedDecimal, FixedDecimal> parsed = mapper.readValue(json,
+                new TypeReference<LinkedHashMap<FixedDecimal, FixedDecimal>>() {
+                });
+        //equals also compares the scale
+        Assertions.assertThat(parsed).isEqualTo(values);
+    }
+
+}
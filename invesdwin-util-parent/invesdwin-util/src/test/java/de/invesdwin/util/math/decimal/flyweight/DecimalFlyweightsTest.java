@@ -0,0 +1,85 @@
+package de.invesdwin.util.math.decimal.flyweight;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.math.decimal.Decimal;
+import de.invesdwin.util.math.decimal.scaled.Percent;
+import de.invesdwin.util.math.decimal.scaled.PercentScale;
+
+/**
+ * Uses private tables instead of the global ones, since other tests might use or enable those concurrently.
+ */
+@NotThreadSafe
+public class DecimalFlyweightsTest {
+
+    @Test
+    public void testDisabledByDefault() {
+        final ADecimalFlyweightCache<Decimal> cache = DecimalFlyweights.newDecimalCache(16);
+        Assertions.assertThat(cache.isEnabled()).isFalse();
+        cache.setStatisticsEnabled(true);
+        Assertions.assertThat(cache.get(3D, 0)).isNotSameAs(cache.get(3D, 0));
+        Assertions.assertThat(cache.getMissCount()).isEqualTo(0);
+        Assertions.assertThat(cache.getHitCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void testDecimalInterning() {
+        final ADecimalFlyweightCache<Decimal> cache = DecimalFlyweights.newDecimalCache(16);
+        cache.setEnabled(true);
+        final Decimal first = cache.get(1.2345D, 0);
+        Assertions.assertThat(cache.get(1.2345D, 0)).isSameAs(first);
+        Assertions.assertThat(cache.get(1.2345D, 0)).isEqualTo(new Decimal(1.2345D));
+        //-0.0 and 0.0 differ in toString, thus they should not be mixed up
+        final Decimal negativeZero = cache.get(-0D, 0);
+        Assertions.assertThat(cache.get(0D, 0)).isNotSameAs(negativeZero);
+        Assertions.assertThat(cache.get(-0D, 0).toString()).isEqualTo(new Decimal(-0D).toString());
+    }
+
+    @Test
+    public void testPercentInterning() {
+        final ADecimalFlyweightCache<Percent> cache = DecimalFlyweights.newPercentCache(16);
+        cache.setEnabled(true);
+        final Percent rate = cache.get(0.5D, PercentScale.RATE.ordinal());
+        final Percent percent = cache.get(0.5D, PercentScale.PERCENT.ordinal());
+        Assertions.assertThat(percent).isNotSameAs(rate);
+        Assertions.assertThat(percent.getScale()).isEqualTo(PercentScale.PERCENT);
+        Assertions.assertThat(rate.getScale()).isEqualTo(PercentScale.RATE);
+        Assertions.assertThat(cache.get(0.5D, PercentScale.PERCENT.ordinal())).isSameAs(percent);
+        Assertions.assertThat(cache.get(0.5D, PercentScale.RATE.ordinal())).isSameAs(rate);
+    }
+
+    @Test
+    public void testValueSemanticsUnchanged() {
+        //whether the global tables are enabled or not, the values stay the same
+        Assertions.assertThat(Decimal.valueOf(Double.NaN)).isEqualTo(Decimal.ZERO);
+        Assertions.assertThat(new Decimal(1.23456D).round(2)).isEqualTo(new Decimal(1.234D).round(2));
+        Assertions.assertThat(new Decimal(1.26D).roundToStep(new Decimal(0.5D)))
+                .isEqualTo(new Decimal(1.4D).roundToStep(new Decimal(0.5D)));
+        Assertions.assertThat(Percent.valueOfRate(1D, 2D)).isEqualTo(Percent.valueOf(0.5D, PercentScale.RATE));
+        Assertions.assertThat(new Percent(12.345D, PercentScale.PERCENT).round(1).getScale())
+                .isEqualTo(PercentScale.PERCENT);
+    }
+
+    @Test
+    public void testStatisticsAndDisable() {
+        final ADecimalFlyweightCache<Decimal> cache = DecimalFlyweights.newDecimalCache(16);
+        Assertions.assertThat(cache.getMaximumSize()).isEqualTo(16);
+        cache.setEnabled(true);
+        cache.setStatisticsEnabled(true);
+        final Decimal value = cache.get(3D, 0);
+        Assertions.assertThat(cache.get(3D, 0)).isSameAs(value);
+        Assertions.assertThat(cache.get(3D, 0)).isSameAs(value);
+        Assertions.assertThat(cache.getHitCount()).isEqualTo(2);
+        Assertions.assertThat(cache.getMissCount()).isEqualTo(1);
+        Assertions.assertThat(cache.getHitRate()).isEqualTo(2D / 3D);
+
+        cache.setEnabled(false);
+        Assertions.assertThat(cache.get(3D, 0)).isNotSameAs(value);
+        cache.setEnabled(true);
+        Assertions.assertThat(cache.get(3D, 0)).isNotSameAs(value);
+    }
+
+}
@@ -11,7 +11,11 @@ import de.invesdwin.util.assertions.Assertions;
 import de.invesdwin.util.collections.list.Lists;
 import de.invesdwin.util.math.decimal.Decimal;
 import de.invesdwin.util.math.decimal.IDecimalAggregate;
+import de.invesdwin.util.math.decimal.randomizers.DecimalBootstrapType;
+import de.invesdwin.util.math.decimal.randomizers.DecimalResample;
+import de.invesdwin.util.math.decimal.randomizers.IDecimalResampleStatistic;
 import de.invesdwin.util.math.random.RandomGenerators;
+import de.invesdwin.util.math.stream.decimal.DecimalStreamProfitFactor;
 
 @NotThreadSafe
 public class DecimalAggregateRandomizersTest {
@@ -78,4 +82,31 @@ public class DecimalAggregateRandomizersTest {
         }
     }
 
+    @Test
+    public void testResampleStatisticsReproducible() {
+        final List<Decimal> values = new ArrayList<Decimal>();
+        for (int i = 0; i < 10000; i++) {
+            values.add(new Decimal(i % 7 - 3));
+        }
+        final IDecimalAggregate<Decimal> agg = Decimal.valueOf(values);
+        final IDecimalResampleStatistic<Decimal> profitFactor = new IDecimalResampleStatistic<Decimal>() {
+            @Override
+            public double calculate(final DecimalResample<Decimal> resample) {
+                final DecimalStreamProfitFactor<Decimal> profitFactor = new DecimalStreamProfitFactor<Decimal>();
+                for (int i = 0; i < resample.size(); i++) {
+                    profitFactor.process(resample.get(i));
+                }
+                return profitFactor.getProfitFactor().getRate();
+            }
+        };
+        for (final DecimalBootstrapType type : DecimalBootstrapType.values()) {
+            final double[] first = type.resampleStatistics(agg, 123, REPEAT_COUNT, profitFactor);
+            final double[] second = type.resampleStatistics(agg, 123, REPEAT_COUNT, profitFactor);
+            final double[] other = type.resampleStatistics(agg, 456, REPEAT_COUNT, profitFactor);
+            Assertions.assertThat(first).hasSize(REPEAT_COUNT);
+            Assertions.assertThat(second).isEqualTo(first);
+            Assertions.assertThat(other).isNotEqualTo(first);
+        }
+    }
+
 }
@@ -0,0 +1,154 @@
+package de.invesdwin.util.math.decimal.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.apache.commons.math3.random.RandomGenerator;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.math.decimal.ADecimal;
+import de.invesdwin.util.math.decimal.Decimal;
+import de.invesdwin.util.math.decimal.IDecimalAggregate;
+import de.invesdwin.util.math.decimal.scaled.Percent;
+import de.invesdwin.util.math.random.RandomGenerators;
+import de.invesdwin.util.time.Instant;
+import de.invesdwin.util.time.duration.Duration;
+
+@NotThreadSafe
+public class DoubleArrayDecimalAggregateTest {
+
+    private static final int BENCHMARK_SIZE = 1_000_000;
+    private static final int BENCHMARK_ITERATIONS = 10;
+
+    private static double[] newEquityCurve(final int size) {
+        final RandomGenerator random = RandomGenerators.newDefaultRandom();
+        final double[] values = new double[size];
+        double equity = 100D;
+        for (int i = 0; i < size; i++) {
+            equity *= 1D + (random.nextDouble() - 0.49D) / 100D;
+            values[i] = equity;
+        }
+        return values;
+    }
+
+    private static List<Decimal> toList(final double[] values) {
+        final List<Decimal> list = new ArrayList<Decimal>(values.length);
+        for (int i = 0; i < values.length; i++) {
+            list.add(new Decimal(values[i]));
+        }
+        return list;
+    }
+
+    @Test
+    public void testSameResultsAsDecimalAggregate() {
+        final double[] values = newEquityCurve(1000);
+        final IDecimalAggregate<Decimal> expected = Decimal.valueOf(toList(values));
+        final IDecimalAggregate<Decimal> actual = Decimal.valueOf(values);
+        Assertions.assertThat(actual).isInstanceOf(DoubleArrayDecimalAggregate.class);
+
+        Assertions.assertThat(actual.sum()).isEqualTo(expected.sum());
+        Assertions.assertThat(actual.avg()).isEqualTo(expected.avg());
+        Assertions.assertThat(actual.avgWeightedAsc()).isEqualTo(expected.avgWeightedAsc());
+        Assertions.assertThat(actual.avgWeightedDesc()).isEqualTo(expected.avgWeightedDesc());
+        Assertions.assertThat(actual.geomAvg()).isEqualTo(expected.geomAvg());
+        Assertions.assertThat(actual.max()).isEqualTo(expected.max());
+        Assertions.assertThat(actual.min()).isEqualTo(expected.min());
+        Assertions.assertThat(actual.median()).isEqualTo(expected.median());
+        Assertions.assertThat(actual.sampleStandardDeviation()).isEqualTo(expected.sampleStandardDeviation());
+        Assertions.assertThat(actual.sampleVariance()).isEqualTo(expected.sampleVariance());
+        Assertions.assertThat(actual.bestValueIndex(true)).isEqualTo(expected.bestValueIndex(true));
+        Assertions.assertThat(actual.bestValueIndex(false)).isEqualTo(expected.bestValueIndex(false));
+        Assertions.assertThat(actual.growthRate()).isEqualTo(expected.growthRate());
+
+        assertSameValues(expected.growthRates().values(), actual.growthRates().values());
+        assertSameValues(expected.normalize().values(), actual.normalize().values());
+        assertSameValues(expected.detrendAbsolute().values(), actual.detrendAbsolute().values());
+        assertSameValues(expected.detrendRelative().values(), actual.detrendRelative().values());
+        assertSameValues(expected.sortAscending().values(), actual.sortAscending().values());
+        assertSameValues(expected.sortDescending().values(), actual.sortDescending().values());
+        assertSameValues(expected.reverse().values(), actual.reverse().values());
+        assertSameValues(expected.addEach(Decimal.ONE).values(), actual.addEach(Decimal.ONE).values());
+        assertSameValues(expected.subtractEach(Decimal.ONE).values(), actual.subtractEach(Decimal.ONE).values());
+        assertSameValues(expected.multiplyEach(Decimal.TWO).values(), actual.multiplyEach(Decimal.TWO).values());
+        assertSameValues(expected.divideEach(Decimal.TWO).values(), actual.divideEach(Decimal.TWO).values());
+        assertSameValues(expected.round(1).removeFlatSequences().values(),
+                actual.round(1).removeFlatSequences().values());
+    }
+
+    private <T extends ADecimal<T>> void assertSameValues(final List<? extends T> expected,
+            final List<? extends T> actual) {
+        Assertions.assertThat(actual).hasSameSizeAs(expected);
+        for (int i = 0; i < expected.size(); i++) {
+            Assertions.assertThat(actual.get(i)).isEqualTo(expected.get(i));
+        }
+    }
+
+    @Test
+    public void testNullValues() {
+        final IDecimalAggregate<Decimal> agg = Decimal.valueOf(new double[] { 1D, Double.NaN, 3D });
+        Assertions.assertThat(agg.values().get(1)).isNull();
+        Assertions.assertThat(agg.sum()).isEqualTo(new Decimal(4));
+        Assertions.assertThat(agg.removeNullValues().size()).isEqualTo(2);
+        Assertions.assertThat(agg.nullToZeroEach().values().get(1)).isEqualTo(Decimal.ZERO);
+    }
+
+    @Test
+    public void testMultiplyAndDivideEach() {
+        final double[] values = { 2D, 4D, 6D };
+        final List<Decimal> multiplied = toList(new double[] { 4D, 8D, 12D });
+        final List<Decimal> divided = toList(new double[] { 1D, 2D, 3D });
+        final IDecimalAggregate<Decimal> list = Decimal.valueOf(toList(values));
+        assertSameValues(multiplied, list.multiplyEach(Decimal.TWO).values());
+        assertSameValues(divided, list.divideEach(Decimal.TWO).values());
+        final IDecimalAggregate<Decimal> array = Decimal.valueOf(values);
+        assertSameValues(multiplied, array.multiplyEach(Decimal.TWO).values());
+        assertSameValues(divided, array.divideEach(Decimal.TWO).values());
+    }
+
+    @Test
+    public void testStopSequenceBeforeNegativeOrZero() {
+        final double[] values = { 1D, 2D, 3D, -1D, 4D };
+        final IDecimalAggregate<Decimal> expected = Decimal.valueOf(toList(values)).stopSequenceBeforeNegativeOrZero();
+        final IDecimalAggregate<Decimal> actual = Decimal.valueOf(values).stopSequenceBeforeNegativeOrZero();
+        assertSameValues(expected.values(), actual.values());
+        Assertions.assertThat(Decimal.valueOf(new double[] { 0D, 1D }).stopSequenceBeforeNegativeOrZero().size())
+                .isEqualTo(0);
+    }
+
+    @Ignore("manual test")
+    @Test
+    public void testPerformance() {
+        final double[] values = newEquityCurve(BENCHMARK_SIZE);
+        final IDecimalAggregate<Decimal> list = Decimal.valueOf(toList(values));
+        final IDecimalAggregate<Decimal> array = Decimal.valueOf(values);
+        for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+            benchmark("list ", list);
+            benchmark("array", array);
+        }
+    }
+
+    private void benchmark(final String name, final IDecimalAggregate<Decimal> agg) {
+        Instant start = new Instant();
+        final Percent growthRateAvg = agg.growthRates().avg();
+        final Duration growthRates = start.toDuration();
+
+        start = new Instant();
+        final Decimal detrendedStdev = agg.detrendRelative().normalize().sampleStandardDeviation();
+        final Duration detrended = start.toDuration();
+
+        start = new Instant();
+        final Decimal sortedMedian = agg.removeNullValues().addEach(Decimal.ONE).sortAscending().median();
+        final Duration sorted = start.toDuration();
+        //CHECKSTYLE:OFF
+        System.out.println(name + " growthRates().avg(): " + growthRates + " (" + growthRateAvg + ")"
+                + " detrendRelative().normalize().sampleStandardDeviation(): " + detrended + " (" + detrendedStdev
+                + ")" + " removeNullValues().addEach().sortAscending().median(): " + sorted + " (" + sortedMedian
+                + ")");
+        //CHECKSTYLE:ON
+    }
+
+}
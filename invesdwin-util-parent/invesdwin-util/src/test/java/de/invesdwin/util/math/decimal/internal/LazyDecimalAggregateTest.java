@@ -0,0 +1,87 @@
+package de.invesdwin.util.math.decimal.internal;
+
+import java.util.List;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.apache.commons.math3.random.RandomGenerator;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.math.decimal.Decimal;
+import de.invesdwin.util.math.decimal.IDecimalAggregate;
+import de.invesdwin.util.math.random.RandomGenerators;
+import de.invesdwin.util.time.Instant;
+import de.invesdwin.util.time.duration.Duration;
+
+@NotThreadSafe
+public class LazyDecimalAggregateTest {
+
+    private static final int BENCHMARK_SIZE = 1_000_000;
+    private static final int BENCHMARK_ITERATIONS = 10;
+
+    private static double[] newEquityCurveWithNulls(final int size) {
+        final RandomGenerator random = RandomGenerators.newDefaultRandom();
+        final double[] values = new double[size];
+        double equity = 100D;
+        for (int i = 0; i < size; i++) {
+            equity *= 1D + (random.nextDouble() - 0.49D) / 100D;
+            if (i % 10 == 5) {
+                values[i] = Double.NaN;
+            } else {
+                values[i] = equity;
+            }
+        }
+        return values;
+    }
+
+    private static IDecimalAggregate<Decimal> chain(final IDecimalAggregate<Decimal> agg) {
+        return agg.removeNullValues().multiplyEach(new Decimal(2)).detrendRelative().normalize();
+    }
+
+    @Test
+    public void testSameResultsAsEager() {
+        final IDecimalAggregate<Decimal> eager = Decimal.valueOf(newEquityCurveWithNulls(1000));
+        final IDecimalAggregate<Decimal> lazy = eager.lazy();
+        Assertions.assertThat(lazy).isInstanceOf(LazyDecimalAggregate.class);
+
+        final IDecimalAggregate<Decimal> expected = chain(eager);
+        final IDecimalAggregate<Decimal> actual = chain(lazy);
+        Assertions.assertThat(actual.size()).isEqualTo(expected.size());
+        Assertions.assertThat(actual.sum()).isEqualTo(expected.sum());
+        Assertions.assertThat(actual.avg()).isEqualTo(expected.avg());
+        Assertions.assertThat(actual.avgWeightedAsc()).isEqualTo(expected.avgWeightedAsc());
+        Assertions.assertThat(actual.sampleStandardDeviation()).isEqualTo(expected.sampleStandardDeviation());
+        Assertions.assertThat(actual.max()).isEqualTo(expected.max());
+        Assertions.assertThat(actual.min()).isEqualTo(expected.min());
+        Assertions.assertThat(actual.median()).isEqualTo(expected.median());
+
+        final List<? extends Decimal> expectedValues = expected.sortDescending().values();
+        final List<? extends Decimal> actualValues = actual.sortDescending().values();
+        Assertions.assertThat(actualValues).hasSameSizeAs(expectedValues);
+        for (int i = 0; i < expectedValues.size(); i++) {
+            Assertions.assertThat(actualValues.get(i)).isEqualTo(expectedValues.get(i));
+        }
+    }
+
+    @Ignore("manual test")
+    @Test
+    public void testPerformance() {
+        final IDecimalAggregate<Decimal> eager = Decimal.valueOf(newEquityCurveWithNulls(BENCHMARK_SIZE));
+        for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+            Instant start = new Instant();
+            final Decimal eagerAvg = chain(eager).avg();
+            final Duration eagerDuration = start.toDuration();
+
+            start = new Instant();
+            final Decimal lazyAvg = chain(eager.lazy()).avg();
+            final Duration lazyDuration = start.toDuration();
+            //CHECKSTYLE:OFF
+            System.out.println("eager " + eagerDuration + " (" + eagerAvg + ") lazy " + lazyDuration + " (" + lazyAvg
+                    + ")");
+            //CHECKSTYLE:ON
+        }
+    }
+
+}
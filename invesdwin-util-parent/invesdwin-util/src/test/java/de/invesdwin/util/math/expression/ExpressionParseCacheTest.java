@@ -0,0 +1,100 @@
+package de.invesdwin.util.math.expression;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.math.expression.eval.variable.AVariableReference;
+import de.invesdwin.util.math.expression.variable.ADoubleConstant;
+import de.invesdwin.util.math.expression.variable.IVariable;
+
+@NotThreadSafe
+public class ExpressionParseCacheTest {
+
+    private static IVariable newVariable(final String name, final double value) {
+        return new ADoubleConstant(value) {
+
+            @Override
+            public String getExpressionName() {
+                return name;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getDescription() {
+                return name;
+            }
+
+            @Override
+            public ExpressionReturnType getType() {
+                return ExpressionReturnType.Double;
+            }
+
+            @Override
+            public boolean shouldDraw() {
+                return false;
+            }
+        };
+    }
+
+    @Test
+    public void testHitsAndMisses() {
+        final ExpressionParseCache<Void> cache = new ExpressionParseCache<Void>();
+        final IExpression first = cache.parse("1 + 2 * pi");
+        final IExpression second = cache.parse("1 + 2 * pi");
+        Assertions.checkSame(first, second);
+        Assertions.checkEquals(1L, cache.getMissCount());
+        Assertions.checkEquals(1L, cache.getHitCount());
+        cache.parse("3 > 2");
+        Assertions.checkEquals(2L, cache.getMissCount());
+        Assertions.checkEquals(2, cache.size());
+    }
+
+    @Test
+    public void testRegistry() {
+        final ExpressionParseCache<Double> cache = new ExpressionParseCache<Double>() {
+            @Override
+            protected ExpressionParser newParser(final Double registry, final String expression) {
+                return new ExpressionParser(expression) {
+                    @Override
+                    protected AVariableReference<?> getVariable(final String context, final String name) {
+                        if ("x".equals(name)) {
+                            return newVariable("x", registry).newReference(context);
+                        }
+                        return super.getVariable(context, name);
+                    }
+                };
+            }
+        };
+        Assertions.checkEquals(2D, cache.parse(1D, "x * 2").evaluateDouble());
+        Assertions.checkEquals(4D, cache.parse(2D, "x * 2").evaluateDouble());
+        Assertions.checkEquals(2L, cache.getMissCount());
+        cache.invalidate(1D);
+        Assertions.checkEquals(1, cache.size());
+        Assertions.checkEquals(2D, cache.parse(1D, "x * 2").evaluateDouble());
+        Assertions.checkEquals(3L, cache.getMissCount());
+    }
+
+    @Test
+    public void testInvalidateOnDefaultVariable() {
+        final ExpressionParseCache<Void> cache = new ExpressionParseCache<Void>();
+        final String expression = "parseCacheTestVariable + 1";
+        ExpressionParser.putDefaultVariable(newVariable("parseCacheTestVariable", 1D));
+        try {
+            Assertions.checkEquals(2D, cache.parse(expression).evaluateDouble());
+            ExpressionParser.putDefaultVariable(newVariable("parseCacheTestVariable", 2D));
+            Assertions.checkEquals(3D, cache.parse(expression).evaluateDouble());
+            Assertions.checkEquals(2L, cache.getMissCount());
+            Assertions.checkEquals(1, cache.size());
+        } finally {
+            //restore the defaults so that other tests are not affected
+            ExpressionParser.removeDefaultVariable("parseCacheTestVariable");
+        }
+    }
+
+}
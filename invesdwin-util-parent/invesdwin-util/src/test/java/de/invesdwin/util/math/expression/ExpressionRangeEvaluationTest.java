@@ -0,0 +1,74 @@
+package de.invesdwin.util.math.expression;
+
+import java.util.BitSet;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.apache.commons.math3.random.RandomGenerator;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.math.random.RandomGenerators;
+import de.invesdwin.util.time.Instant;
+import de.invesdwin.util.time.duration.Duration;
+
+@NotThreadSafe
+public class ExpressionRangeEvaluationTest {
+
+    private static final int SIZE = 1000;
+    private static final int BENCHMARK_SIZE = 1_000_000;
+    private static final int BENCHMARK_ITERATIONS = 10;
+    private static final String[] EXPRESSIONS = { "a + b * 2 - c / 3", "a % 3 + b ^ 2", "a > b && b < c",
+            "a >= 50 and b <= 50 and c != 10", "!(a > b) && c == c", "(a - b) / (c - c) > 0", "isNaN(a) || a > 10",
+            "max(a, b) > c * 2", "-a + 1 > -50", "if(a > b, sqrt(a), abs(b - c))", "isNaN(a / b) && !isNaN(c)",
+            "between(a, b, c) + sin(a)", "not(a > 50)" };
+
+    @Test
+    public void testSameResultsAsScalar() {
+        final RandomGenerator random = RandomGenerators.newDefaultRandom();
+        final TestDoubleArrayVariable a = TestDoubleArrayVariable.newRandom("a", SIZE, random);
+        final TestDoubleArrayVariable b = TestDoubleArrayVariable.newRandom("b", SIZE, random);
+        final TestDoubleArrayVariable c = TestDoubleArrayVariable.newRandom("c", SIZE, random);
+        final int fromKey = 10;
+        final int toKey = SIZE - 10;
+        for (final String expression : EXPRESSIONS) {
+            final IExpression parsed = TestExpressionParser.parse(expression, a, b, c);
+            final double[] values = new double[toKey - fromKey];
+            parsed.evaluateDoubleRange(fromKey, toKey, values);
+            final BitSet bits = new BitSet();
+            parsed.evaluateBooleanRange(fromKey, toKey, bits);
+            for (int key = fromKey; key < toKey; key++) {
+                Assertions.checkEquals(parsed.evaluateDouble(key), values[key - fromKey]);
+                Assertions.checkEquals(parsed.evaluateBoolean(key), bits.get(key - fromKey));
+            }
+        }
+    }
+
+    @Ignore("manual test")
+    @Test
+    public void testPerformance() {
+        final RandomGenerator random = RandomGenerators.newDefaultRandom();
+        final TestDoubleArrayVariable a = TestDoubleArrayVariable.newRandom("a", BENCHMARK_SIZE, random);
+        final TestDoubleArrayVariable b = TestDoubleArrayVariable.newRandom("b", BENCHMARK_SIZE, random);
+        final TestDoubleArrayVariable c = TestDoubleArrayVariable.newRandom("c", BENCHMARK_SIZE, random);
+        final IExpression parsed = TestExpressionParser
+                .parse("(a + b) / 2 > c and a * 1.5 >= b and abs(c - a) % 7 < 3", a, b, c);
+        final double[] values = new double[BENCHMARK_SIZE];
+        for (int iteration = 0; iteration < BENCHMARK_ITERATIONS; iteration++) {
+            Instant start = new Instant();
+            for (int i = 0; i < BENCHMARK_SIZE; i++) {
+                values[i] = parsed.evaluateDouble(i);
+            }
+            final Duration scalarDuration = start.toDuration();
+
+            start = new Instant();
+            parsed.evaluateDoubleRange(0, BENCHMARK_SIZE, values);
+            final Duration rangeDuration = start.toDuration();
+            //CHECKSTYLE:OFF
+            System.out.println("scalar " + scalarDuration + " range " + rangeDuration);
+            //CHECKSTYLE:ON
+        }
+    }
+
+}
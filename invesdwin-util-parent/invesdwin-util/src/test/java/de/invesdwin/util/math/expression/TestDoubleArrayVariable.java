@@ -0,0 +1,95 @@
+package de.invesdwin.util.math.expression;
+
+import javax.annotation.concurrent.Immutable;
+
+import org.apache.commons.math3.random.RandomGenerator;
+
+import de.invesdwin.util.math.expression.variable.ADoubleArrayVariable;
+import de.invesdwin.util.time.fdate.FDate;
+
+/**
+ * An array backed variable for the expression tests, it only supports int keys.
+ */
+@Immutable
+public class TestDoubleArrayVariable extends ADoubleArrayVariable {
+
+    private static final int NAN_INTERVAL = 13;
+    private static final int NAN_OFFSET = 5;
+
+    private final String name;
+
+    public TestDoubleArrayVariable(final String name, final double[] values) {
+        super(values);
+        this.name = name;
+    }
+
+    /**
+     * Random integer values between 0 and 99 with a NaN at every 13th index.
+     */
+    public static TestDoubleArrayVariable newRandom(final String name, final int size, final RandomGenerator random) {
+        final double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            if (i % NAN_INTERVAL == NAN_OFFSET) {
+                values[i] = Double.NaN;
+            } else {
+                values[i] = Math.floor(random.nextDouble() * 100D);
+            }
+        }
+        return new TestDoubleArrayVariable(name, values);
+    }
+
+    /**
+     * Random values with fraction digits between 0 and 100 with a NaN at every 13th index, results of different
+     * evaluation orders can thus differ by rounding errors.
+     */
+    public static TestDoubleArrayVariable newRandomFractional(final String name, final int size,
+            final RandomGenerator random) {
+        final double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            if (i % NAN_INTERVAL == NAN_OFFSET) {
+                values[i] = Double.NaN;
+            } else {
+                values[i] = random.nextDouble() * 100D;
+            }
+        }
+        return new TestDoubleArrayVariable(name, values);
+    }
+
+    /**
+     * Values that are true, false or null (NaN) when used as a boolean.
+     */
+    public static TestDoubleArrayVariable newTriState(final String name, final int size,
+            final RandomGenerator random) {
+        final double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            final int state = random.nextInt(3);
+            if (state == 0) {
+                values[i] = Double.NaN;
+            } else {
+                values[i] = state - 1;
+            }
+        }
+        return new TestDoubleArrayVariable(name, values);
+    }
+
+    @Override
+    public String getExpressionName() {
+        return name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getDescription() {
+        return name;
+    }
+
+    @Override
+    public double getValue(final FDate key) {
+        throw new UnsupportedOperationException();
+    }
+
+}
@@ -0,0 +1,73 @@
+package de.invesdwin.util.math.expression;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.math.expression.eval.IParsedExpression;
+import de.invesdwin.util.math.expression.eval.variable.AVariableReference;
+import de.invesdwin.util.math.expression.function.IPreviousKeyFunction;
+import de.invesdwin.util.time.fdate.FDate;
+
+/**
+ * Resolves the given array variables by their expression name and uses the previous index as the previous key. The
+ * optimizer can be disabled to get the plain simplified expression as a reference for comparisons.
+ */
+@NotThreadSafe
+public class TestExpressionParser extends ExpressionParser {
+
+    private static final IPreviousKeyFunction PREVIOUS_KEY_FUNCTION = new IPreviousKeyFunction() {
+
+        @Override
+        public int getPreviousKey(final int key, final int index) {
+            return Math.max(0, key - index);
+        }
+
+        @Override
+        public FDate getPreviousKey(final FDate key, final int index) {
+            return key.addDays(-index);
+        }
+    };
+
+    private final boolean optimize;
+    private final TestDoubleArrayVariable[] variables;
+
+    public TestExpressionParser(final String expression, final boolean optimize,
+            final TestDoubleArrayVariable... variables) {
+        super(expression);
+        this.optimize = optimize;
+        this.variables = variables;
+    }
+
+    public static IExpression parse(final String expression, final TestDoubleArrayVariable... variables) {
+        return parse(expression, true, variables);
+    }
+
+    public static IExpression parse(final String expression, final boolean optimize,
+            final TestDoubleArrayVariable... variables) {
+        return new TestExpressionParser(expression, optimize, variables).parse();
+    }
+
+    @Override
+    protected IParsedExpression simplify(final IParsedExpression expression) {
+        if (optimize) {
+            return super.simplify(expression);
+        } else {
+            return expression.simplify();
+        }
+    }
+
+    @Override
+    protected AVariableReference<?> getVariable(final String context, final String name) {
+        for (final TestDoubleArrayVariable variable : variables) {
+            if (variable.getExpressionName().equals(name)) {
+                return variable.newReference(context);
+            }
+        }
+        return super.getVariable(context, name);
+    }
+
+    @Override
+    protected IPreviousKeyFunction getPreviousKeyFunction(final String context) {
+        return PREVIOUS_KEY_FUNCTION;
+    }
+
+}
@@ -0,0 +1,75 @@
+package de.invesdwin.util.math.expression.batch;
+
+import java.util.BitSet;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.apache.commons.math3.random.RandomGenerator;
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.concurrent.Executors;
+import de.invesdwin.util.concurrent.WrappedExecutorService;
+import de.invesdwin.util.math.expression.IExpression;
+import de.invesdwin.util.math.expression.TestDoubleArrayVariable;
+import de.invesdwin.util.math.expression.TestExpressionParser;
+import de.invesdwin.util.math.random.RandomGenerators;
+
+@NotThreadSafe
+public class ExpressionBatchEvaluatorTest {
+
+    private static final int SIZE = 2000;
+    private static final int FROM_KEY = 13;
+    private static final int TO_KEY = 1990;
+    /**
+     * The sliding windows of the functions start at different keys per chunk, thus the sums are rounded differently.
+     */
+    private static final double TOLERANCE = 1E-9;
+    private static final String[] EXPRESSIONS = { "sum(a, 20) > 1000 && a > b", "sum(a, 20) > 1000 || b > 90",
+            "stable(a > 10, 10) && sum(a, 20) < 1200", "stable(a > 10, 10)", "sqrt(a * b) - sum(a, 20) / 20",
+            "a crosses above b", "median(a + b, 9)[1] > a + b", "occurs(a > 95, 30) && sum(b, 20) > 800" };
+
+    private static void assertCloseTo(final String expression, final int key, final double expected,
+            final double actual) {
+        if (Double.isNaN(expected)) {
+            Assertions.checkTrue(Double.isNaN(actual), "%s [%s]: expected NaN but was %s", expression, key, actual);
+        } else {
+            final double tolerance = TOLERANCE * Math.max(1D, Math.abs(expected));
+            Assertions.checkTrue(Math.abs(expected - actual) <= tolerance, "%s [%s]: expected %s but was %s",
+                    expression, key, expected, actual);
+        }
+    }
+
+    @Test
+    public void testSameResultsAsSequential() throws InterruptedException {
+        final RandomGenerator random = RandomGenerators.newDefaultRandom();
+        final TestDoubleArrayVariable a = TestDoubleArrayVariable.newRandomFractional("a", SIZE, random);
+        final TestDoubleArrayVariable b = TestDoubleArrayVariable.newRandomFractional("b", SIZE, random);
+        final IExpression[] optimized = new IExpression[EXPRESSIONS.length];
+        final IExpression[] simplified = new IExpression[EXPRESSIONS.length];
+        for (int i = 0; i < EXPRESSIONS.length; i++) {
+            optimized[i] = TestExpressionParser.parse(EXPRESSIONS[i], true, a, b);
+            simplified[i] = TestExpressionParser.parse(EXPRESSIONS[i], false, a, b);
+        }
+        final WrappedExecutorService executor = Executors
+                .newFixedThreadPool(ExpressionBatchEvaluatorTest.class.getSimpleName(), 4);
+        try {
+            final ExpressionBatchEvaluator evaluator = new ExpressionBatchEvaluator(
+                    ExpressionBatchEvaluatorTest.class.getSimpleName(), executor, 4);
+            final double[][] doubles = evaluator.evaluateDoubleRange(optimized, FROM_KEY, TO_KEY);
+            final BitSet[] booleans = evaluator.evaluateBooleanRange(optimized, FROM_KEY, TO_KEY);
+            for (int e = 0; e < EXPRESSIONS.length; e++) {
+                for (int key = FROM_KEY; key < TO_KEY; key++) {
+                    final double expected = simplified[e].evaluateDouble(key);
+                    assertCloseTo(EXPRESSIONS[e], key, expected, doubles[e][key - FROM_KEY]);
+                    Assertions.checkEquals(expected > 0D, booleans[e].get(key - FROM_KEY), "%s [%s]",
+                            EXPRESSIONS[e], key);
+                }
+                Assertions.checkTrue(booleans[e].length() <= TO_KEY - FROM_KEY);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,119 @@
+package de.invesdwin.util.math.expression.compiler;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.apache.commons.math3.random.RandomGenerator;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.math.expression.IExpression;
+import de.invesdwin.util.math.expression.TestDoubleArrayVariable;
+import de.invesdwin.util.math.expression.TestExpressionParser;
+import de.invesdwin.util.math.expression.optimizer.ExpressionOptimizer;
+import de.invesdwin.util.math.random.RandomGenerators;
+import de.invesdwin.util.time.Instant;
+import de.invesdwin.util.time.duration.Duration;
+
+@NotThreadSafe
+public class ExpressionCompilerTest {
+
+    private static final int SIZE = 1000;
+    private static final int BENCHMARK_SIZE = 1_000_000;
+    private static final int BENCHMARK_ITERATIONS = 10;
+    private static final String[] EXPRESSIONS = { "a + b * 2 - c / 3", "a % 3 + b ^ 2", "a > b && b < c",
+            "a >= 50 and b <= 50 and c != 10", "!(a > b) && c == c", "(a - b) / (c - c) > 0", "isNaN(a) || a > 10",
+            "max(a, b) > c * 2", "-a + 1 > -50", "a > b && NaN" };
+
+    @Test
+    public void testSameResultsAsInterpreter() {
+        final RandomGenerator random = RandomGenerators.newDefaultRandom();
+        final TestDoubleArrayVariable a = TestDoubleArrayVariable.newRandom("a", SIZE, random);
+        final TestDoubleArrayVariable b = TestDoubleArrayVariable.newRandom("b", SIZE, random);
+        final TestDoubleArrayVariable c = TestDoubleArrayVariable.newRandom("c", SIZE, random);
+        for (final String expression : EXPRESSIONS) {
+            final IExpression interpreted = TestExpressionParser.parse(expression, a, b, c);
+            final IExpression compiled = ExpressionCompiler.compile(interpreted);
+            Assertions.checkEquals(interpreted.toString(), compiled.toString());
+            for (int i = 0; i < SIZE; i++) {
+                Assertions.checkEquals(interpreted.evaluateDouble(i), compiled.evaluateDouble(i));
+                Assertions.checkEquals(interpreted.evaluateBooleanNullable(i), compiled.evaluateBooleanNullable(i));
+                Assertions.checkEquals(interpreted.evaluateBoolean(i), compiled.evaluateBoolean(i));
+            }
+        }
+    }
+
+    @Test
+    public void testCompiledNodes() {
+        final RandomGenerator random = RandomGenerators.newDefaultRandom();
+        final TestDoubleArrayVariable a = TestDoubleArrayVariable.newRandom("a", SIZE, random);
+        final TestDoubleArrayVariable b = TestDoubleArrayVariable.newRandom("b", SIZE, random);
+        final IExpression comparisons = TestExpressionParser.parse("a > 5 && b < a", a, b);
+        Assertions.assertThat(ExpressionCompiler.isCompiled(ExpressionCompiler.compile(comparisons))).isTrue();
+        //function calls are left to the interpreter
+        final IExpression function = TestExpressionParser.parse("max(a, b)", a, b);
+        Assertions.assertThat(ExpressionCompiler.isCompiled(ExpressionCompiler.compile(function))).isFalse();
+        final IExpression compiled = ExpressionCompiler.compile(TestExpressionParser.parse("a > 5", a));
+        Assertions.assertThat(ExpressionCompiler.compile(compiled)).isSameAs(compiled);
+    }
+
+    @Test
+    public void testCompileThroughOptimizer() {
+        final RandomGenerator random = RandomGenerators.newDefaultRandom();
+        final TestDoubleArrayVariable a = TestDoubleArrayVariable.newRandom("a", SIZE, random);
+        final TestDoubleArrayVariable b = TestDoubleArrayVariable.newRandom("b", SIZE, random);
+        final TestDoubleArrayVariable c = TestDoubleArrayVariable.newRandom("c", SIZE, random);
+        //the repeated subtree is expensive enough to be memorized by the optimizer, which is enabled by default
+        final String expression = "(a * b + c * a - b / c + a * c) > 10 && (a * b + c * a - b / c + a * c) < 5000";
+        final IExpression optimized = TestExpressionParser.parse(expression, a, b, c);
+        Assertions.assertThat(ExpressionOptimizer.unwrap(optimized)).isNotSameAs(optimized);
+        final IExpression compiled = ExpressionCompiler.compile(optimized);
+        Assertions.assertThat(ExpressionCompiler.isCompiled(compiled)).isTrue();
+        Assertions.assertThat(ExpressionOptimizer.unwrap(compiled)).isNotInstanceOf(InterpretedExpression.class);
+        //the common subexpressions are still memorized
+        Assertions.assertThat(ExpressionOptimizer.unwrap(compiled)).isNotSameAs(compiled);
+        Assertions.assertThat(ExpressionCompiler.compile(compiled)).isSameAs(compiled);
+        final IExpression interpreted = TestExpressionParser.parse(expression, false, a, b, c);
+        for (int i = 0; i < SIZE; i++) {
+            Assertions.checkEquals(interpreted.evaluateDouble(i), compiled.evaluateDouble(i));
+            Assertions.checkEquals(interpreted.evaluateBooleanNullable(i), compiled.evaluateBooleanNullable(i));
+            Assertions.checkEquals(interpreted.evaluateBoolean(i), compiled.evaluateBoolean(i));
+        }
+    }
+
+    @Ignore("manual test")
+    @Test
+    public void testPerformance() {
+        final RandomGenerator random = RandomGenerators.newDefaultRandom();
+        final TestDoubleArrayVariable a = TestDoubleArrayVariable.newRandom("a", BENCHMARK_SIZE, random);
+        final TestDoubleArrayVariable b = TestDoubleArrayVariable.newRandom("b", BENCHMARK_SIZE, random);
+        final TestDoubleArrayVariable c = TestDoubleArrayVariable.newRandom("c", BENCHMARK_SIZE, random);
+        final IExpression interpreted = TestExpressionParser
+                .parse("(a + b) / 2 > c and a * 1.5 >= b and (c - a) % 7 < 3", a, b, c);
+        final IExpression compiled = ExpressionCompiler.compile(interpreted);
+        for (int iteration = 0; iteration < BENCHMARK_ITERATIONS; iteration++) {
+            Instant start = new Instant();
+            int interpretedCount = 0;
+            for (int i = 0; i < BENCHMARK_SIZE; i++) {
+                if (interpreted.evaluateBoolean(i)) {
+                    interpretedCount++;
+                }
+            }
+            final Duration interpretedDuration = start.toDuration();
+
+            start = new Instant();
+            int compiledCount = 0;
+            for (int i = 0; i < BENCHMARK_SIZE; i++) {
+                if (compiled.evaluateBoolean(i)) {
+                    compiledCount++;
+                }
+            }
+            final Duration compiledDuration = start.toDuration();
+            //CHECKSTYLE:OFF
+            System.out.println("interpreted " + interpretedDuration + " (" + interpretedCount + ") compiled "
+                    + compiledDuration + " (" + compiledCount + ")");
+            //CHECKSTYLE:ON
+        }
+    }
+
+}
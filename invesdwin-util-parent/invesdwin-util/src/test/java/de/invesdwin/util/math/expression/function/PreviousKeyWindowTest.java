@@ -0,0 +1,109 @@
+package de.invesdwin.util.math.expression.function;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.apache.commons.math3.random.RandomGenerator;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.math.expression.IExpression;
+import de.invesdwin.util.math.expression.TestDoubleArrayVariable;
+import de.invesdwin.util.math.expression.TestExpressionParser;
+import de.invesdwin.util.math.random.RandomGenerators;
+import de.invesdwin.util.time.Instant;
+import de.invesdwin.util.time.duration.Duration;
+
+@NotThreadSafe
+public class PreviousKeyWindowTest {
+
+    private static final int SIZE = 1000;
+    private static final int BENCHMARK_SIZE = 1_000_000;
+    private static final int BENCHMARK_ITERATIONS = 10;
+    private static final double TOLERANCE = 1E-9;
+    private static final String[] EXPRESSIONS = { "stable(a > 10, 10)", "stableCount(a > 20, 12)",
+            "occurs(a > 95, 15)", "occursCount(a > 70, 9)", "stable(a > 10, 3)", "count(a, 10)", "sum(a, 20)",
+            "variance(a, 20)", "sampleVariance(a, 8)", "stddev(a, 30)", "sampleStddev(a, 25)", "median(a, 21)",
+            "median(a, 10)", "percentile(0.9, a, 20)", "stableCount(a > 20, if(a > 50, 10, 14))" };
+
+    private static double[] evaluate(final IExpression parsed, final int[] keys, final boolean incremental) {
+        final boolean enabledBefore = HistoricalFunctions.isIncrementalEvaluationEnabled();
+        HistoricalFunctions.setIncrementalEvaluationEnabled(incremental);
+        try {
+            final double[] values = new double[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                values[i] = parsed.evaluateDouble(keys[i]);
+            }
+            return values;
+        } finally {
+            HistoricalFunctions.setIncrementalEvaluationEnabled(enabledBefore);
+        }
+    }
+
+    private static void assertCloseTo(final String expression, final double expected, final double actual) {
+        if (Double.isNaN(expected)) {
+            Assertions.checkTrue(Double.isNaN(actual), "%s: expected NaN but was %s", expression, actual);
+        } else {
+            final double tolerance = TOLERANCE * Math.max(1D, Math.abs(expected));
+            Assertions.checkTrue(Math.abs(expected - actual) <= tolerance, "%s: expected %s but was %s", expression,
+                    expected, actual);
+        }
+    }
+
+    @Test
+    public void testSameResultsAsWalkingPreviousKeys() {
+        final RandomGenerator random = RandomGenerators.newDefaultRandom();
+        final TestDoubleArrayVariable a = TestDoubleArrayVariable.newRandom("a", SIZE, random);
+        final int[] sequentialKeys = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            sequentialKeys[i] = i;
+        }
+        //random access, repeated keys and jumps back to the start where the previous keys are clamped
+        final int[] mixedKeys = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            if (i % 100 < 60) {
+                mixedKeys[i] = i;
+            } else if (i % 100 < 70) {
+                mixedKeys[i] = i - 1;
+            } else {
+                mixedKeys[i] = random.nextInt(SIZE);
+            }
+        }
+        for (final String expression : EXPRESSIONS) {
+            final IExpression parsed = TestExpressionParser.parse(expression, a);
+            for (final int[] keys : new int[][] { sequentialKeys, mixedKeys }) {
+                final double[] expected = evaluate(parsed, keys, false);
+                final double[] actual = evaluate(parsed, keys, true);
+                for (int i = 0; i < keys.length; i++) {
+                    assertCloseTo(expression + " [" + keys[i] + "]", expected[i], actual[i]);
+                }
+            }
+        }
+    }
+
+    @Ignore("manual test")
+    @Test
+    public void testPerformance() {
+        final RandomGenerator random = RandomGenerators.newDefaultRandom();
+        final TestDoubleArrayVariable a = TestDoubleArrayVariable.newRandom("a", BENCHMARK_SIZE, random);
+        final int[] keys = new int[BENCHMARK_SIZE];
+        for (int i = 0; i < BENCHMARK_SIZE; i++) {
+            keys[i] = i;
+        }
+        final IExpression parsed = TestExpressionParser
+                .parse("stable(a > 10, 200) && stddev(a, 200) > median(a, 200) / 4", a);
+        for (int iteration = 0; iteration < BENCHMARK_ITERATIONS; iteration++) {
+            Instant start = new Instant();
+            evaluate(parsed, keys, false);
+            final Duration walkingDuration = start.toDuration();
+
+            start = new Instant();
+            evaluate(parsed, keys, true);
+            final Duration incrementalDuration = start.toDuration();
+            //CHECKSTYLE:OFF
+            System.out.println("walking " + walkingDuration + " incremental " + incrementalDuration);
+            //CHECKSTYLE:ON
+        }
+    }
+
+}
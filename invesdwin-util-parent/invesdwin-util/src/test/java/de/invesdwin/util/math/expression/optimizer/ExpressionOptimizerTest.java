@@ -0,0 +1,169 @@
+package de.invesdwin.util.math.expression.optimizer;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.apache.commons.math3.random.RandomGenerator;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.math.expression.IExpression;
+import de.invesdwin.util.math.expression.TestDoubleArrayVariable;
+import de.invesdwin.util.math.expression.TestExpressionParser;
+import de.invesdwin.util.math.expression.eval.operation.AndOperation;
+import de.invesdwin.util.math.random.RandomGenerators;
+import de.invesdwin.util.time.Instant;
+import de.invesdwin.util.time.duration.Duration;
+
+@NotThreadSafe
+public class ExpressionOptimizerTest {
+
+    private static final int SIZE = 500;
+    private static final int BENCHMARK_SIZE = 100000;
+    private static final int BENCHMARK_ITERATIONS = 10;
+    private static final String[] EXPRESSIONS = { "stable(a > 10, 10) && a > 5 && stable(a > 10, 10)",
+            "sum(a, 10) > 100 || sum(a, 10) < 50 || b > 20", "isNaN(a) && a > 50 && b < 20",
+            "a && sum(a, 5) > 10 && b", "sum(b, 5) > 10 && a && b", "(a + b) * sqrt(a + b) - (a + b)",
+            "max(a, b) > 50 and stableCount(a > b, 12) > 3 or occurs(a > 90, 20)",
+            "median(a + b, 9) > a + b && median(a + b, 9) < 150", "!stable(a > 3, 8) && !stable(a > 3, 8)",
+            "stableLeft(a > b, 10) && stableLeft(a > b, 10) || a > 50" };
+    private static final String[] PREVIOUS_KEY_EXPRESSIONS = { "sum(a, 20) / 20 crosses above sum(a, 50) / 50",
+            "sum(a + b, 10) crosses below sum(b, 10) * 2 || a > 90", "sqrt(a * b + a)[1] > sqrt(a * b + a)[2]",
+            "stableLeft(sum(a, 5) > sum(b, 5), 10)", "occurs(median(a, 5) crosses above median(b, 5), 20)" };
+
+    private static final String[] OR_CHAIN_EXPRESSIONS = { "sum(a, 10) > 100 || a > 50 || b > 20", "x || y || z",
+            "(x || y) || z", "x || (y || z)", "sum(a, 5) > 200 || x || y || z", "x || sum(a, 5) > 200 || y",
+            "x && y || z && sum(a, 5) > 200 || y", "(sum(a, 5) > 200 || x) && (y || z)" };
+
+    @Test
+    public void testSameResultsAsSimplify() {
+        final RandomGenerator random = RandomGenerators.newDefaultRandom();
+        final TestDoubleArrayVariable a = TestDoubleArrayVariable.newRandom("a", SIZE, random);
+        final TestDoubleArrayVariable b = TestDoubleArrayVariable.newRandom("b", SIZE, random);
+        for (final String expression : EXPRESSIONS) {
+            final IExpression simplified = TestExpressionParser.parse(expression, false, a, b);
+            final IExpression optimized = TestExpressionParser.parse(expression, true, a, b);
+            for (int i = 0; i < SIZE; i++) {
+                Assertions.checkEquals(simplified.evaluateDouble(i), optimized.evaluateDouble(i));
+                Assertions.checkEquals(simplified.evaluateBooleanNullable(i), optimized.evaluateBooleanNullable(i));
+                Assertions.checkEquals(simplified.evaluateBoolean(i), optimized.evaluateBoolean(i));
+            }
+        }
+    }
+
+    /**
+     * Or operations return false when their left side is true, thus Or chains have to stay exactly as they were parsed.
+     */
+    @Test
+    public void testOrChainsKeepResults() {
+        final RandomGenerator random = RandomGenerators.newDefaultRandom();
+        final TestDoubleArrayVariable a = TestDoubleArrayVariable.newRandom("a", SIZE, random);
+        final TestDoubleArrayVariable b = TestDoubleArrayVariable.newRandom("b", SIZE, random);
+        final TestDoubleArrayVariable x = TestDoubleArrayVariable.newTriState("x", SIZE, random);
+        final TestDoubleArrayVariable y = TestDoubleArrayVariable.newTriState("y", SIZE, random);
+        final TestDoubleArrayVariable z = TestDoubleArrayVariable.newTriState("z", SIZE, random);
+        for (final String expression : OR_CHAIN_EXPRESSIONS) {
+            final IExpression simplified = TestExpressionParser.parse(expression, false, a, b, x, y, z);
+            final IExpression optimized = TestExpressionParser.parse(expression, true, a, b, x, y, z);
+            if (!expression.contains("&&")) {
+                Assertions.checkEquals(simplified.toString(), optimized.toString());
+            }
+            for (int i = 0; i < SIZE; i++) {
+                Assertions.checkEquals(simplified.evaluateDouble(i), optimized.evaluateDouble(i), "%s [%s]",
+                        expression, i);
+                Assertions.checkEquals(simplified.evaluateBooleanNullable(i), optimized.evaluateBooleanNullable(i),
+                        "%s [%s]", expression, i);
+            }
+        }
+    }
+
+    @Test
+    public void testKeyedMemo() {
+        final RandomGenerator random = RandomGenerators.newDefaultRandom();
+        final TestDoubleArrayVariable a = TestDoubleArrayVariable.newRandom("a", SIZE, random);
+        final TestDoubleArrayVariable b = TestDoubleArrayVariable.newRandom("b", SIZE, random);
+        final boolean keyedMemoEnabledBefore = ExpressionOptimizer.isKeyedMemoEnabled();
+        ExpressionOptimizer.setKeyedMemoEnabled(true);
+        try {
+            for (final String expression : PREVIOUS_KEY_EXPRESSIONS) {
+                final IExpression simplified = TestExpressionParser.parse(expression, false, a, b);
+                final IExpression optimized = TestExpressionParser.parse(expression, true, a, b);
+                Assertions.checkEquals(simplified.toString(), optimized.toString());
+                for (int i = 0; i < SIZE; i++) {
+                    Assertions.checkEquals(simplified.evaluateDouble(i), optimized.evaluateDouble(i));
+                    Assertions.checkEquals(simplified.evaluateBooleanNullable(i),
+                            optimized.evaluateBooleanNullable(i));
+                }
+                //jumping back has to give the same results as well
+                for (int i = SIZE - 1; i >= 0; i -= 3) {
+                    Assertions.checkEquals(simplified.evaluateDouble(i), optimized.evaluateDouble(i));
+                }
+            }
+        } finally {
+            ExpressionOptimizer.setKeyedMemoEnabled(keyedMemoEnabledBefore);
+        }
+    }
+
+    @Ignore("manual test")
+    @Test
+    public void testKeyedMemoPerformance() {
+        final RandomGenerator random = RandomGenerators.newDefaultRandom();
+        final TestDoubleArrayVariable a = TestDoubleArrayVariable.newRandom("a", BENCHMARK_SIZE, random);
+        final String expression = "sum(a, 50) / 50 crosses above sum(a, 200) / 200";
+        final IExpression simplified = TestExpressionParser.parse(expression, true, a);
+        final boolean keyedMemoEnabledBefore = ExpressionOptimizer.isKeyedMemoEnabled();
+        ExpressionOptimizer.setKeyedMemoEnabled(true);
+        final IExpression memorized;
+        try {
+            memorized = TestExpressionParser.parse(expression, true, a);
+        } finally {
+            ExpressionOptimizer.setKeyedMemoEnabled(keyedMemoEnabledBefore);
+        }
+        for (int iteration = 0; iteration < BENCHMARK_ITERATIONS; iteration++) {
+            Instant start = new Instant();
+            int simplifiedCount = 0;
+            for (int i = 0; i < BENCHMARK_SIZE; i++) {
+                if (simplified.evaluateBoolean(i)) {
+                    simplifiedCount++;
+                }
+            }
+            final Duration simplifiedDuration = start.toDuration();
+
+            start = new Instant();
+            int memorizedCount = 0;
+            for (int i = 0; i < BENCHMARK_SIZE; i++) {
+                if (memorized.evaluateBoolean(i)) {
+                    memorizedCount++;
+                }
+            }
+            final Duration memorizedDuration = start.toDuration();
+            Assertions.checkEquals(simplifiedCount, memorizedCount);
+            //CHECKSTYLE:OFF
+            System.out.println("simplified " + simplifiedDuration + " memorized " + memorizedDuration);
+            //CHECKSTYLE:ON
+        }
+    }
+
+    @Test
+    public void testCheapOperandsFirst() {
+        final RandomGenerator random = RandomGenerators.newDefaultRandom();
+        final TestDoubleArrayVariable a = TestDoubleArrayVariable.newRandom("a", SIZE, random);
+        final IExpression optimized = TestExpressionParser.parse("stable(a > 10, 10) && a > 5", true, a);
+        final AndOperation and = (AndOperation) ExpressionOptimizer.unwrap(optimized);
+        Assertions.checkEquals(TestExpressionParser.parse("a > 5", true, a).toString(), and.getLeft().toString());
+    }
+
+    @Test
+    public void testCommonSubexpressions() {
+        final RandomGenerator random = RandomGenerators.newDefaultRandom();
+        final TestDoubleArrayVariable a = TestDoubleArrayVariable.newRandom("a", SIZE, random);
+        final String expression = "stable(a > 10, 10) || sum(a, 10) > 500 || stable(a > 10, 10)";
+        final IExpression optimized = TestExpressionParser.parse(expression, true, a);
+        Assertions.checkFalse(optimized == ExpressionOptimizer.unwrap(optimized));
+        Assertions.checkEquals(TestExpressionParser.parse(expression, false, a).toString(), optimized.toString());
+
+        final IExpression unique = TestExpressionParser.parse("stable(a > 10, 10) || a > 500", true, a);
+        Assertions.checkSame(unique, ExpressionOptimizer.unwrap(unique));
+    }
+
+}
@@ -0,0 +1,99 @@
+package de.invesdwin.util.math.expression.profiler;
+
+import java.util.List;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.apache.commons.math3.random.RandomGenerator;
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.math.expression.IExpression;
+import de.invesdwin.util.math.expression.TestDoubleArrayVariable;
+import de.invesdwin.util.math.expression.TestExpressionParser;
+import de.invesdwin.util.math.random.RandomGenerators;
+
+@NotThreadSafe
+public class ExpressionProfilerTest {
+
+    private static final int SIZE = 1000;
+
+    @Test
+    public void testProfile() {
+        final RandomGenerator random = RandomGenerators.newDefaultRandom();
+        final double[] values = new double[SIZE];
+        int falseCount = 0;
+        for (int i = 0; i < SIZE; i++) {
+            if (i % 13 == 5) {
+                //comparisons with NaN are false
+                values[i] = Double.NaN;
+                falseCount++;
+            } else {
+                values[i] = Math.floor(random.nextDouble() * 100D);
+                if (values[i] <= 50D) {
+                    falseCount++;
+                }
+            }
+        }
+        final TestDoubleArrayVariable a = new TestDoubleArrayVariable("a", values);
+        final IExpression expression = TestExpressionParser.parse("a > 50 && stable(a > 10, 10) && sum(a, 5) > 200", a);
+        final ProfiledExpression profiled = ExpressionProfiler.profile(expression, 1);
+        for (int i = 0; i < SIZE; i++) {
+            Assertions.checkEquals(expression.evaluateBooleanNullable(i), profiled.evaluateBooleanNullable(i));
+        }
+        Assertions.checkEquals((long) SIZE, profiled.getInvocations());
+        Assertions.checkEquals((long) SIZE, profiled.getSampledInvocations());
+        Assertions.checkEquals(1D - (double) (SIZE - falseCount) / SIZE, profiled.getShortCircuitRatio());
+
+        final List<ProfiledExpression> children = profiled.getProfiledChildren();
+        Assertions.checkEquals(2, children.size());
+        Assertions.checkEquals((long) SIZE, children.get(0).getInvocations());
+        Assertions.checkEquals((long) (SIZE - falseCount), children.get(1).getInvocations());
+        Assertions.checkTrue(profiled.getTotalNanos() >= profiled.getSelfNanos());
+
+        final String report = profiled.getReport();
+        Assertions.checkTrue(report.contains("shortCircuit="), "%s", report);
+        Assertions.checkTrue(report.contains("stable("), "%s", report);
+        //the report annotates the expression string
+        Assertions.checkTrue(report.endsWith("}"), "%s", report);
+        Assertions.checkTrue(report.contains("{calls=" + SIZE + ","), "%s", report);
+        Assertions.checkEquals(expression.toString(), profiled.toString());
+
+        profiled.reset();
+        Assertions.checkEquals(0L, profiled.getInvocations());
+        Assertions.checkEquals(0L, children.get(1).getInvocations());
+    }
+
+    @Test
+    public void testProfileCommonSubexpressions() {
+        final RandomGenerator random = RandomGenerators.newDefaultRandom();
+        final double[] values = new double[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            values[i] = 1D + Math.floor(random.nextDouble() * 100D);
+        }
+        final TestDoubleArrayVariable a = new TestDoubleArrayVariable("a", values);
+        //both sides are always evaluated since the sums are always positive
+        final String expression = "sum(a, 5) > 0 && sum(a, 5) < 1000";
+        final IExpression optimized = TestExpressionParser.parse(expression, a);
+        final IExpression unoptimized = TestExpressionParser.parse(expression, false, a);
+        final ProfiledExpression profiledOptimized = ExpressionProfiler.profile(optimized, 1);
+        final ProfiledExpression profiledUnoptimized = ExpressionProfiler.profile(unoptimized, 1);
+        for (int i = 0; i < SIZE; i++) {
+            Assertions.checkEquals(optimized.evaluateBoolean(i), profiledOptimized.evaluateBoolean(i));
+            Assertions.checkEquals(unoptimized.evaluateBoolean(i), profiledUnoptimized.evaluateBoolean(i));
+        }
+        //the profiled tree still memorizes the shared sum, thus its parameter is only evaluated half as often
+        final ProfiledExpression sharedParameter = getSumParameter(profiledOptimized, 0);
+        Assertions.assertThat(getSumParameter(profiledOptimized, 1)).isSameAs(sharedParameter);
+        final long unsharedCalls = getSumParameter(profiledUnoptimized, 0).getInvocations()
+                + getSumParameter(profiledUnoptimized, 1).getInvocations();
+        Assertions.checkTrue(unsharedCalls > 0, "%s", unsharedCalls);
+        Assertions.checkEquals(unsharedCalls, sharedParameter.getInvocations() * 2);
+    }
+
+    private static ProfiledExpression getSumParameter(final ProfiledExpression root, final int comparison) {
+        final ProfiledExpression sum = root.getProfiledChildren().get(comparison).getProfiledChildren().get(0);
+        return sum.getProfiledChildren().get(0);
+    }
+
+}
@@ -0,0 +1,35 @@
+package de.invesdwin.util.math.statistics;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.apache.commons.math3.random.RandomGenerator;
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.math.random.RandomGenerators;
+
+@NotThreadSafe
+public class AutoCovariancesTest {
+
+    @Test
+    public void testFftSameAsDirect() {
+        final RandomGenerator random = RandomGenerators.newDefaultRandom();
+        for (final int length : new int[] { 2, 3, 17, 100, 1000, 1025 }) {
+            final double[] values = new double[length];
+            double value = 0D;
+            for (int i = 0; i < length; i++) {
+                value = value * 0.8D + random.nextGaussian();
+                values[i] = value;
+            }
+            final double avg = AutoCovariances.avg(values);
+            final int maxLag = Math.min(length - 1, (int) Math.ceil(Math.sqrt(length)) + 5);
+            final double[] direct = AutoCovariances.autoCovariancesDirect(values, avg, maxLag);
+            final double[] fft = AutoCovariances.autoCovariancesFft(values, avg, maxLag);
+            Assertions.assertThat(fft).hasSameSizeAs(direct);
+            for (int lag = 0; lag <= maxLag; lag++) {
+                Assertions.assertThat(Math.abs(fft[lag] - direct[lag])).isLessThan(1E-9D);
+            }
+        }
+    }
+
+}
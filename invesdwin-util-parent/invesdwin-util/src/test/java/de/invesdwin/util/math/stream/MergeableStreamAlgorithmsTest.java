@@ -0,0 +1,147 @@
+package de.invesdwin.util.math.stream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.apache.commons.math3.random.RandomGenerator;
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.math.decimal.Decimal;
+import de.invesdwin.util.math.random.RandomGenerators;
+import de.invesdwin.util.math.stream.decimal.DecimalStreamAvgWeightedAsc;
+import de.invesdwin.util.math.stream.decimal.DecimalStreamDrawdown;
+import de.invesdwin.util.math.stream.doubl.DoubleStreamVariance;
+
+@NotThreadSafe
+public class MergeableStreamAlgorithmsTest {
+
+    private static final double EPSILON = 1E-9D;
+
+    private static double[] newEquityCurve(final int size) {
+        final RandomGenerator random = RandomGenerators.newDefaultRandom();
+        final double[] values = new double[size];
+        double equity = 100D;
+        for (int i = 0; i < size; i++) {
+            equity *= 1D + (random.nextDouble() - 0.49D) / 100D;
+            values[i] = equity;
+        }
+        return values;
+    }
+
+    @Test
+    public void testParallelVarianceSameAsSequential() {
+        final double[] values = newEquityCurve(100_003);
+        final DoubleStreamVariance sequential = new DoubleStreamVariance();
+        for (int i = 0; i < values.length; i++) {
+            sequential.process(values[i]);
+        }
+        final DoubleStreamVariance parallel = MergeableStreamAlgorithms.process(values,
+                new Supplier<DoubleStreamVariance>() {
+                    @Override
+                    public DoubleStreamVariance get() {
+                        return new DoubleStreamVariance();
+                    }
+                });
+        Assertions.assertThat(parallel.getCount()).isEqualTo(sequential.getCount());
+        Assertions.assertThat(Math.abs(parallel.getAvg() - sequential.getAvg()))
+                .isLessThan(Math.abs(sequential.getAvg()) * EPSILON);
+        Assertions.assertThat(Math.abs(parallel.getSampleVariance() - sequential.getSampleVariance()))
+                .isLessThan(sequential.getSampleVariance() * EPSILON);
+    }
+
+    @Test
+    public void testMergedSegmentsSameAsSequential() {
+        final double[] values = newEquityCurve(10_000);
+        final List<Decimal> decimals = new ArrayList<Decimal>(values.length);
+        for (int i = 0; i < values.length; i++) {
+            decimals.add(new Decimal(values[i]));
+        }
+
+        final DecimalStreamDrawdown<Decimal> sequentialDrawdown = new DecimalStreamDrawdown<Decimal>(decimals.get(0));
+        final DecimalStreamAvgWeightedAsc<Decimal> sequentialAvg = new DecimalStreamAvgWeightedAsc<Decimal>(
+                Decimal.ZERO);
+        for (final Decimal value : decimals) {
+            sequentialDrawdown.process(value);
+            sequentialAvg.process(value);
+        }
+
+        final int segmentSize = 999;
+        DecimalStreamDrawdown<Decimal> mergedDrawdown = null;
+        DecimalStreamAvgWeightedAsc<Decimal> mergedAvg = null;
+        for (int from = 0; from < decimals.size(); from += segmentSize) {
+            final int to = Math.min(decimals.size(), from + segmentSize);
+            final DecimalStreamDrawdown<Decimal> drawdown = new DecimalStreamDrawdown<Decimal>(decimals.get(from));
+            final DecimalStreamAvgWeightedAsc<Decimal> avg = new DecimalStreamAvgWeightedAsc<Decimal>(Decimal.ZERO);
+            for (int i = from; i < to; i++) {
+                drawdown.process(decimals.get(i));
+                avg.process(decimals.get(i));
+            }
+            if (mergedDrawdown == null) {
+                mergedDrawdown = drawdown;
+                mergedAvg = avg;
+            } else {
+                mergedDrawdown.merge(drawdown);
+                mergedAvg.merge(avg);
+            }
+        }
+        Assertions.assertThat(mergedDrawdown.getMaxDrawdown()).isEqualTo(sequentialDrawdown.getMaxDrawdown());
+        Assertions.assertThat(mergedAvg.getAvgWeightedAsc()).isEqualTo(sequentialAvg.getAvgWeightedAsc());
+
+        final DecimalStreamAvgWeightedAsc<Decimal> collectedAvg = decimals.parallelStream()
+                .collect(MergeableStreamAlgorithms.collector(new Supplier<DecimalStreamAvgWeightedAsc<Decimal>>() {
+                    @Override
+                    public DecimalStreamAvgWeightedAsc<Decimal> get() {
+                        return new DecimalStreamAvgWeightedAsc<Decimal>(Decimal.ZERO);
+                    }
+                }));
+        Assertions.assertThat(collectedAvg.getAvgWeightedAsc()).isEqualTo(sequentialAvg.getAvgWeightedAsc());
+    }
+
+    @Test
+    public void testCollectedDrawdownSameAsSequential() {
+        final double[] values = newEquityCurve(100_000);
+        final List<Decimal> decimals = new ArrayList<Decimal>(values.length);
+        for (int i = 0; i < values.length; i++) {
+            decimals.add(new Decimal(values[i]));
+        }
+        final DecimalStreamDrawdown<Decimal> sequential = new DecimalStreamDrawdown<Decimal>(decimals.get(0));
+        for (final Decimal value : decimals) {
+            sequential.process(value);
+        }
+        //every container gets the same initial equity, most of them also get split into empty containers
+        final DecimalStreamDrawdown<Decimal> collected = decimals.parallelStream()
+                .collect(MergeableStreamAlgorithms.collector(new Supplier<DecimalStreamDrawdown<Decimal>>() {
+                    @Override
+                    public DecimalStreamDrawdown<Decimal> get() {
+                        return new DecimalStreamDrawdown<Decimal>(decimals.get(0));
+                    }
+                }));
+        Assertions.assertThat(collected.getMaxDrawdown()).isEqualTo(sequential.getMaxDrawdown());
+    }
+
+    @Test
+    public void testDrawdownMergeIgnoresInitialEquityOfOtherSegments() {
+        final Decimal initialEquity = new Decimal(100);
+        final DecimalStreamDrawdown<Decimal> left = new DecimalStreamDrawdown<Decimal>(initialEquity);
+        left.process(new Decimal(100));
+        left.process(new Decimal(200));
+        final DecimalStreamDrawdown<Decimal> empty = new DecimalStreamDrawdown<Decimal>(new Decimal(1000));
+        final DecimalStreamDrawdown<Decimal> right = new DecimalStreamDrawdown<Decimal>(initialEquity);
+        right.process(new Decimal(150));
+        left.merge(empty);
+        left.merge(right);
+        Assertions.assertThat(left.getMaxDrawdown().getRate()).isEqualTo(0.25D);
+
+        //the initial equity of the instance that gets merged into still counts
+        final DecimalStreamDrawdown<Decimal> emptyLeft = new DecimalStreamDrawdown<Decimal>(new Decimal(200));
+        final DecimalStreamDrawdown<Decimal> segment = new DecimalStreamDrawdown<Decimal>(new Decimal(1000));
+        segment.process(new Decimal(150));
+        emptyLeft.merge(segment);
+        Assertions.assertThat(emptyLeft.getMaxDrawdown().getRate()).isEqualTo(0.25D);
+    }
+
+}
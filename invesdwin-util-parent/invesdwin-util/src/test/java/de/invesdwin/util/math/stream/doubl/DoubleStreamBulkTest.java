@@ -0,0 +1,95 @@
+package de.invesdwin.util.math.stream.doubl;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.apache.commons.math3.random.RandomGenerator;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.math.random.RandomGenerators;
+import de.invesdwin.util.time.Instant;
+import de.invesdwin.util.time.duration.Duration;
+
+@NotThreadSafe
+public class DoubleStreamBulkTest {
+
+    private static final double EPSILON = 1E-9D;
+    private static final int[] BENCHMARK_SIZES = { 1_000, 10_000, 100_000, 1_000_000, 10_000_000 };
+    private static final int BENCHMARK_ITERATIONS = 10;
+
+    private static double[] newValues(final int size) {
+        final RandomGenerator random = RandomGenerators.newDefaultRandom();
+        final double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = 1000D + random.nextGaussian() * 10D;
+        }
+        return values;
+    }
+
+    private static void assertClose(final double actual, final double expected) {
+        Assertions.assertThat(Math.abs(actual - expected)).isLessThanOrEqualTo(Math.abs(expected) * EPSILON);
+    }
+
+    @Test
+    public void testBulkSameAsSingle() {
+        final double[] values = newValues(10_001);
+        final int split = 3_333;
+
+        final DoubleStreamVariance singleVariance = new DoubleStreamVariance();
+        final DoubleStreamSum singleSum = new DoubleStreamSum();
+        final DoubleStreamMinMax singleMinMax = new DoubleStreamMinMax();
+        for (int i = 0; i < values.length; i++) {
+            singleVariance.process(values[i]);
+            singleSum.process(values[i]);
+            singleMinMax.process(values[i]);
+        }
+
+        //mixing single and bulk processing must not make a difference
+        final DoubleStreamVariance bulkVariance = new DoubleStreamVariance();
+        final DoubleStreamSum bulkSum = new DoubleStreamSum();
+        final DoubleStreamMinMax bulkMinMax = new DoubleStreamMinMax();
+        bulkVariance.process(values[0]);
+        bulkSum.process(values[0]);
+        bulkMinMax.process(values[0]);
+        bulkVariance.process(values, 1, split);
+        bulkSum.process(values, 1, split);
+        bulkMinMax.process(values, 1, split);
+        bulkVariance.process(values, split, values.length);
+        bulkSum.process(values, split, values.length);
+        bulkMinMax.process(values, split, values.length);
+
+        Assertions.assertThat(bulkVariance.getCount()).isEqualTo(singleVariance.getCount());
+        assertClose(bulkVariance.getAvg(), singleVariance.getAvg());
+        assertClose(bulkVariance.getSampleVariance(), singleVariance.getSampleVariance());
+        assertClose(bulkSum.getSum(), singleSum.getSum());
+        Assertions.assertThat(bulkMinMax.getMin()).isEqualTo(singleMinMax.getMin());
+        Assertions.assertThat(bulkMinMax.getMax()).isEqualTo(singleMinMax.getMax());
+    }
+
+    @Ignore("manual test")
+    @Test
+    public void testPerformance() {
+        for (final int size : BENCHMARK_SIZES) {
+            final double[] values = newValues(size);
+            for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+                Instant start = new Instant();
+                final DoubleStreamVariance single = new DoubleStreamVariance();
+                for (int v = 0; v < values.length; v++) {
+                    single.process(values[v]);
+                }
+                final Duration singleDuration = start.toDuration();
+
+                start = new Instant();
+                final DoubleStreamVariance bulk = new DoubleStreamVariance();
+                bulk.process(values, 0, values.length);
+                final Duration bulkDuration = start.toDuration();
+                //CHECKSTYLE:OFF
+                System.out.println(size + ": single " + singleDuration + " (" + single.getSampleVariance() + ") bulk "
+                        + bulkDuration + " (" + bulk.getSampleVariance() + ")");
+                //CHECKSTYLE:ON
+            }
+        }
+    }
+
+}
@@ -0,0 +1,103 @@
+package de.invesdwin.util.math.stream.doubl.rolling;
+
+import java.util.Arrays;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.apache.commons.math3.random.RandomGenerator;
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.math.random.RandomGenerators;
+
+@NotThreadSafe
+public class DoubleStreamRollingTest {
+
+    private static final double EPSILON = 1E-9D;
+    private static final int WINDOW_SIZE = 17;
+
+    private static void assertClose(final double actual, final double expected) {
+        Assertions.assertThat(Math.abs(actual - expected)).isLessThanOrEqualTo(EPSILON * Math.max(1D,
+                Math.abs(expected)));
+    }
+
+    @Test
+    public void testSameAsRecalculatingTheWindow() {
+        final RandomGenerator random = RandomGenerators.newDefaultRandom();
+        final DoubleStreamRollingSum sum = new DoubleStreamRollingSum(WINDOW_SIZE);
+        final DoubleStreamRollingAvg avg = new DoubleStreamRollingAvg(WINDOW_SIZE);
+        final DoubleStreamRollingVariance variance = new DoubleStreamRollingVariance(WINDOW_SIZE);
+        final DoubleStreamRollingMinMax minMax = new DoubleStreamRollingMinMax(WINDOW_SIZE);
+        final DoubleStreamRollingMedian median = new DoubleStreamRollingMedian(WINDOW_SIZE);
+
+        final double[] values = new double[1000];
+        for (int i = 0; i < values.length; i++) {
+            //rounding produces duplicates
+            values[i] = Math.round(1000D + random.nextGaussian() * 10D);
+            sum.process(values[i]);
+            avg.process(values[i]);
+            variance.process(values[i]);
+            minMax.process(values[i]);
+            median.process(values[i]);
+
+            final double[] window = Arrays.copyOfRange(values, Math.max(0, i - WINDOW_SIZE + 1), i + 1);
+            double expectedSum = 0D;
+            for (final double value : window) {
+                expectedSum += value;
+            }
+            final double expectedAvg = expectedSum / window.length;
+            double expectedSquareSum = 0D;
+            for (final double value : window) {
+                expectedSquareSum += (value - expectedAvg) * (value - expectedAvg);
+            }
+            final double[] sorted = window.clone();
+            Arrays.sort(sorted);
+
+            assertClose(sum.getSum(), expectedSum);
+            assertClose(avg.getAvg(), expectedAvg);
+            if (window.length > 1) {
+                assertClose(variance.getSampleVariance(), expectedSquareSum / (window.length - 1));
+            }
+            Assertions.assertThat(minMax.getMin()).isEqualTo(sorted[0]);
+            Assertions.assertThat(minMax.getMax()).isEqualTo(sorted[sorted.length - 1]);
+            final int middle = sorted.length / 2;
+            if (sorted.length % 2 == 0) {
+                Assertions.assertThat(median.getMedian()).isEqualTo((sorted[middle] + sorted[middle - 1]) / 2D);
+            } else {
+                Assertions.assertThat(median.getMedian()).isEqualTo(sorted[middle]);
+            }
+            Assertions.assertThat(median.getPercentile(0.9D))
+                    .isEqualTo(sorted[Math.max(0, (int) Math.ceil(sorted.length * 0.9D) - 1)]);
+        }
+    }
+
+    @Test
+    public void testMedianWithNaN() {
+        final RandomGenerator random = RandomGenerators.newDefaultRandom();
+        final DoubleStreamRollingMedian median = new DoubleStreamRollingMedian(WINDOW_SIZE);
+        final double[] values = new double[1000];
+        for (int i = 0; i < values.length; i++) {
+            //NaN values enter the full window and get evicted again later, they are sorted as the largest value
+            if (random.nextDouble() < 0.2D) {
+                values[i] = Double.NaN;
+            } else {
+                values[i] = Math.round(random.nextGaussian() * 10D);
+            }
+            median.process(values[i]);
+
+            final double[] sorted = Arrays.copyOfRange(values, Math.max(0, i - WINDOW_SIZE + 1), i + 1);
+            Arrays.sort(sorted);
+            final int middle = sorted.length / 2;
+            if (sorted.length % 2 == 0) {
+                Assertions.checkEquals((sorted[middle] + sorted[middle - 1]) / 2D, median.getMedian());
+            } else {
+                Assertions.checkEquals(sorted[middle], median.getMedian());
+            }
+            for (final double percentile : new double[] { 0.1D, 0.5D, 0.9D }) {
+                Assertions.checkEquals(sorted[Math.max(0, (int) Math.ceil(sorted.length * percentile) - 1)],
+                        median.getPercentile(percentile));
+            }
+        }
+    }
+
+}
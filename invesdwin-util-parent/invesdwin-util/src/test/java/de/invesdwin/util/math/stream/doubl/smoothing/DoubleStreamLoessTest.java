@@ -0,0 +1,51 @@
+package de.invesdwin.util.math.stream.doubl.smoothing;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+
+@NotThreadSafe
+public class DoubleStreamLoessTest {
+
+    private static final double EPSILON = 1E-9D;
+
+    @Test
+    public void testLinearSeriesIsReproduced() {
+        final DoubleStreamLoess loess = new DoubleStreamLoess(10);
+        final DoubleStreamHoltSmoothing holt = new DoubleStreamHoltSmoothing(0.5D, 0.5D);
+        for (int i = 0; i < 100; i++) {
+            final double value = 3D + 2D * i;
+            Assertions.assertThat(Math.abs(loess.process(value) - value)).isLessThan(EPSILON);
+            Assertions.assertThat(Math.abs(holt.process(value) - value)).isLessThan(EPSILON);
+        }
+    }
+
+    @Test
+    public void testRobustnessIterationsIgnoreOutlier() {
+        final DoubleStreamLoess loess = new DoubleStreamLoess(20);
+        final DoubleStreamLoess robustLoess = new DoubleStreamLoess(20, 2);
+        double smoothed = Double.NaN;
+        double robustSmoothed = Double.NaN;
+        for (int i = 0; i < 40; i++) {
+            final double noise = (i % 2 == 0) ? 0.1D : -0.1D;
+            final double outlier = (i == 35) ? 100D : 0D;
+            final double value = 10D + noise + outlier;
+            smoothed = loess.process(value);
+            robustSmoothed = robustLoess.process(value);
+        }
+        Assertions.assertThat(Math.abs(robustSmoothed - 10D)).isLessThan(Math.abs(smoothed - 10D));
+        Assertions.assertThat(Math.abs(robustSmoothed - 10D)).isLessThan(0.5D);
+    }
+
+    @Test
+    public void testCubicBSplineKnots() {
+        final DoubleStreamCubicBSpline spline = new DoubleStreamCubicBSpline();
+        Assertions.assertThat(Double.isNaN(spline.process(1D))).isTrue();
+        Assertions.assertThat(spline.process(7D)).isEqualTo(1D);
+        Assertions.assertThat(spline.process(1D)).isEqualTo(5D);
+        Assertions.assertThat(spline.getEndPoint()).isEqualTo(1D);
+    }
+
+}
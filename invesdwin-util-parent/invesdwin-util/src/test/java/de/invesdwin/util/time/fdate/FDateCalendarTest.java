@@ -0,0 +1,214 @@
+package de.invesdwin.util.time.fdate;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.apache.commons.math3.random.RandomGenerator;
+import org.joda.time.DateTimeZone;
+import org.joda.time.MutableDateTime;
+import org.joda.time.chrono.ISOChronology;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.math.random.RandomGenerators;
+import de.invesdwin.util.time.Instant;
+import de.invesdwin.util.time.duration.Duration;
+
+@NotThreadSafe
+public class FDateCalendarTest {
+
+    private static final DateTimeZone[] ZONES = { DateTimeZone.UTC, DateTimeZone.forOffsetHoursMinutes(5, 30),
+            DateTimeZone.forID("Europe/Berlin"), DateTimeZone.forID("America/New_York"),
+            DateTimeZone.forID("Australia/Lord_Howe") };
+    private static final FTimeUnit[] UNITS = { FTimeUnit.MILLENIA, FTimeUnit.CENTURIES, FTimeUnit.DECADES,
+            FTimeUnit.YEARS, FTimeUnit.MONTHS, FTimeUnit.WEEKS, FTimeUnit.DAYS, FTimeUnit.HOURS, FTimeUnit.MINUTES,
+            FTimeUnit.SECONDS, FTimeUnit.MILLISECONDS };
+    private static final int[] AMOUNTS = { -25, -13, -1, 1, 2, 11, 59 };
+    private static final int[] VALUES = { -1, 0, 1, 2, 7, 12, 13, 23, 24, 28, 29, 30, 31, 59, 60, 999, 1000, 1969,
+            2000, 2001 };
+    private static final long FROM_MILLIS = FDateBuilder.newDate(1900).millisValue();
+    private static final long TO_MILLIS = FDateBuilder.newDate(2100).millisValue();
+    private static final int RANDOM_DATES = 2000;
+    private static final int BENCHMARK_SIZE = 10000000;
+    private static final int BENCHMARK_ITERATIONS = 10;
+
+    @Test
+    public void testSameAsJoda() {
+        final RandomGenerator random = RandomGenerators.newDefaultRandom();
+        for (final DateTimeZone zone : ZONES) {
+            final FDateCalendar calendar = new FDateCalendar(zone);
+            for (int i = 0; i < RANDOM_DATES; i++) {
+                final long millis = FROM_MILLIS + (long) (random.nextDouble() * (TO_MILLIS - FROM_MILLIS));
+                assertSameAsJoda(calendar, millis);
+            }
+            //the local times around daylight saving transitions are the edge cases
+            long transition = zone.nextTransition(FROM_MILLIS);
+            while (transition != FROM_MILLIS && transition < TO_MILLIS) {
+                for (int hours = -25; hours <= 25; hours++) {
+                    assertSameAsJoda(calendar, transition + hours * FTimeUnit.MILLISECONDS_IN_HOUR / 2);
+                }
+                final long next = zone.nextTransition(transition);
+                if (next == transition) {
+                    break;
+                }
+                transition = next;
+            }
+            assertSameAsJoda(calendar, FDate.MIN_DATE.millisValue());
+            assertSameAsJoda(calendar, FDate.MAX_DATE.millisValue());
+        }
+    }
+
+    private static void assertSameAsJoda(final FDateCalendar calendar, final long millis) {
+        final ISOChronology chronology = ISOChronology.getInstance(calendar.getZone());
+        for (final FDateField field : FDateField.values()) {
+            final MutableDateTime delegate = new MutableDateTime(millis, chronology);
+            Assertions.checkEquals(delegate.get(field.jodaTimeValue()), calendar.get(millis, field), "get %s %s",
+                    field, millis);
+            delegate.setRounding(field.jodaTimeValue().getField(chronology));
+            Assertions.checkEquals(delegate.getMillis(), calendar.truncate(millis, field), "truncate %s %s", field,
+                    millis);
+            for (final int value : VALUES) {
+                Assertions.checkEquals(setJoda(chronology, millis, field, value), set(calendar, millis, field, value),
+                        "set %s %s %s", field, value, millis);
+            }
+        }
+        for (final FTimeUnit unit : UNITS) {
+            for (final int amount : AMOUNTS) {
+                Assertions.checkEquals(addJoda(chronology, millis, unit, amount), calendar.add(millis, unit, amount),
+                        "add %s %s %s", unit, amount, millis);
+            }
+        }
+        Assertions.checkEquals(new MutableDateTime(millis, chronology).getWeekOfWeekyear(),
+                calendar.getWeekNumberOfYear(millis), "week %s", millis);
+    }
+
+    @Test
+    public void testPeriodIndex() {
+        final RandomGenerator random = RandomGenerators.newDefaultRandom();
+        for (final DateTimeZone zone : ZONES) {
+            final FDateCalendar calendar = new FDateCalendar(zone);
+            for (int i = 0; i < RANDOM_DATES; i++) {
+                final long millis = FROM_MILLIS + (long) (random.nextDouble() * (TO_MILLIS - FROM_MILLIS));
+                for (final FTimeUnit period : UNITS) {
+                    final long index = calendar.getPeriodIndex(millis, period);
+                    final long start = calendar.getPeriodStart(index, period);
+                    Assertions.checkTrue(start <= millis, "start %s %s %s", period, start, millis);
+                    Assertions.checkEquals(index, calendar.getPeriodIndex(start, period), "index %s %s", period,
+                            millis);
+                    //periods that lie completely in a daylight saving time gap have no instants
+                    Assertions.checkTrue(calendar.getPeriodIndex(start - 1, period) < index, "previous %s %s", period,
+                            millis);
+                    if (calendar.isFixed()) {
+                        Assertions.checkEquals(truncate(calendar, millis, period), start, "truncate %s %s", period,
+                                millis);
+                    }
+                }
+            }
+        }
+    }
+
+    private static long truncate(final FDateCalendar calendar, final long millis, final FTimeUnit period) {
+        switch (period) {
+        case MILLENIA:
+            return truncateYears(calendar, millis, FTimeUnit.YEARS_IN_MILLENIUM);
+        case CENTURIES:
+            return truncateYears(calendar, millis, FTimeUnit.YEARS_IN_CENTURY);
+        case DECADES:
+            return truncateYears(calendar, millis, FTimeUnit.YEARS_IN_DECADE);
+        case YEARS:
+            return calendar.truncate(millis, FDateField.Year);
+        case MONTHS:
+            return calendar.truncate(millis, FDateField.Month);
+        case WEEKS:
+            final long day = calendar.truncate(millis, FDateField.Day);
+            return calendar.add(day, FTimeUnit.DAYS, 1 - calendar.get(day, FDateField.Weekday));
+        case DAYS:
+            return calendar.truncate(millis, FDateField.Day);
+        case HOURS:
+            return calendar.truncate(millis, FDateField.Hour);
+        case MINUTES:
+            return calendar.truncate(millis, FDateField.Minute);
+        case SECONDS:
+            return calendar.truncate(millis, FDateField.Second);
+        default:
+            return millis;
+        }
+    }
+
+    private static long truncateYears(final FDateCalendar calendar, final long millis, final int years) {
+        final long yearStart = calendar.truncate(millis, FDateField.Year);
+        return calendar.add(yearStart, FTimeUnit.YEARS, -(calendar.get(millis, FDateField.Year) % years));
+    }
+
+    private static String set(final FDateCalendar calendar, final long millis, final FDateField field,
+            final int value) {
+        try {
+            return String.valueOf(calendar.set(millis, field, value));
+        } catch (final IllegalArgumentException e) {
+            return e.getClass().getName();
+        }
+    }
+
+    private static String setJoda(final ISOChronology chronology, final long millis, final FDateField field,
+            final int value) {
+        try {
+            final MutableDateTime delegate = new MutableDateTime(millis, chronology);
+            delegate.set(field.jodaTimeValue(), value);
+            return String.valueOf(delegate.getMillis());
+        } catch (final IllegalArgumentException e) {
+            return e.getClass().getName();
+        }
+    }
+
+    private static long addJoda(final ISOChronology chronology, final long millis, final FTimeUnit unit,
+            final int amount) {
+        final MutableDateTime delegate = new MutableDateTime(millis, chronology);
+        switch (unit) {
+        case MILLENIA:
+            delegate.addYears(amount * FTimeUnit.YEARS_IN_MILLENIUM);
+            break;
+        case CENTURIES:
+            delegate.addYears(amount * FTimeUnit.YEARS_IN_CENTURY);
+            break;
+        case DECADES:
+            delegate.addYears(amount * FTimeUnit.YEARS_IN_DECADE);
+            break;
+        default:
+            delegate.add(unit.jodaTimeValue(), amount);
+            break;
+        }
+        return delegate.getMillis();
+    }
+
+    @Test
+    @Ignore("manual test")
+    public void testPerformance() {
+        final FDateCalendar calendar = new FDateCalendar(DateTimeZone.forID("Europe/Berlin"));
+        final ISOChronology chronology = ISOChronology.getInstance(calendar.getZone());
+        final long step = (TO_MILLIS - FROM_MILLIS) / BENCHMARK_SIZE;
+        for (int iteration = 0; iteration < BENCHMARK_ITERATIONS; iteration++) {
+            Instant start = new Instant();
+            long jodaSum = 0;
+            for (long millis = FROM_MILLIS; millis < TO_MILLIS; millis += step) {
+                final MutableDateTime truncated = new MutableDateTime(millis, chronology);
+                truncated.setRounding(chronology.dayOfMonth());
+                final MutableDateTime added = new MutableDateTime(millis, chronology);
+                added.addMonths(1);
+                jodaSum += truncated.getMillis() + added.getMillis();
+            }
+            final Duration jodaDuration = start.toDuration();
+
+            start = new Instant();
+            long calendarSum = 0;
+            for (long millis = FROM_MILLIS; millis < TO_MILLIS; millis += step) {
+                calendarSum += calendar.truncate(millis, FDateField.Day) + calendar.add(millis, FTimeUnit.MONTHS, 1);
+            }
+            final Duration calendarDuration = start.toDuration();
+            Assertions.checkEquals(jodaSum, calendarSum);
+            //CHECKSTYLE:OFF
+            System.out.println("joda " + jodaDuration + " calendar " + calendarDuration);
+            //CHECKSTYLE:ON
+        }
+    }
+
+}